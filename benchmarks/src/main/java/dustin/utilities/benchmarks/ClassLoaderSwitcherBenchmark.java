@@ -0,0 +1,62 @@
+package dustin.utilities.benchmarks;
+
+import dustin.utilities.classloader.ClassLoaderSwitcher;
+import dustin.utilities.classloader.ExecutableAction;
+import dustin.utilities.classloader.ExecutableExceptionableAction;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the cost of switching the thread context class loader around
+ * an action with {@link ClassLoaderSwitcher}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ClassLoaderSwitcherBenchmark
+{
+   /** Class loader switched to. */
+   private final ClassLoader otherClassLoader =
+      new URLClassLoader(new URL[0], ClassLoaderSwitcherBenchmark.class.getClassLoader());
+
+   /** Action returning the context class loader's hash code. */
+   private final ExecutableAction<Integer> action =
+      () -> System.identityHashCode(Thread.currentThread().getContextClassLoader());
+
+   /** Action declared to throw a checked exception. */
+   private final ExecutableExceptionableAction<Integer> exceptionableAction =
+      () -> System.identityHashCode(Thread.currentThread().getContextClassLoader());
+
+   /**
+    * Execute an action on another class loader.
+    *
+    * @return Action's result.
+    */
+   @Benchmark
+   public Integer executeAction()
+   {
+      return ClassLoaderSwitcher.executeActionOnSpecifiedClassLoader(otherClassLoader, action);
+   }
+
+   /**
+    * Execute an action declared to throw a checked exception on another
+    * class loader.
+    *
+    * @return Action's result.
+    * @throws Exception Not expected to be thrown.
+    */
+   @Benchmark
+   public Integer executeExceptionableAction() throws Exception
+   {
+      return ClassLoaderSwitcher.executeActionOnSpecifiedClassLoader(otherClassLoader, exceptionableAction);
+   }
+}
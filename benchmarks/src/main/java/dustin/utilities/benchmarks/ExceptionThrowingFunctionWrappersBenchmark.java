@@ -0,0 +1,199 @@
+package dustin.utilities.benchmarks;
+
+import static dustin.utilities.function.ExceptionThrowingFunctionWrappers.wrapConsumer;
+import static dustin.utilities.function.ExceptionThrowingFunctionWrappers.wrapFunction;
+import static dustin.utilities.function.ExceptionThrowingFunctionWrappers.wrapFunctionSneakily;
+import static dustin.utilities.function.ExceptionThrowingFunctionWrappers.wrapFunctionStackless;
+import static dustin.utilities.function.ExceptionThrowingFunctionWrappers.wrapIntUnaryOperator;
+import static dustin.utilities.function.ExceptionThrowingFunctionWrappers.wrapPredicate;
+import static dustin.utilities.function.ExceptionThrowingFunctionWrappers.wrapSupplier;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of the {@code ExceptionThrowingFunctionWrappers}
+ * wrappers on their success path (compared to an unwrapped function) and
+ * on their failure path, where a checked exception is wrapped in an
+ * unchecked exception, rethrown unwrapped ("sneaky"), or wrapped in an
+ * unchecked exception without a stack trace.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ExceptionThrowingFunctionWrappersBenchmark
+{
+   /** Reused checked exception thrown by failing functions. */
+   private static final IOException FAILURE = new IOException("benchmark failure");
+
+   /** Argument passed to functions. */
+   private String input = "benchmark";
+
+   /** Unwrapped JDK function for comparison. */
+   private final Function<String, Integer> plainFunction = String::length;
+
+   /** Wrapped function that succeeds. */
+   private final Function<String, Integer> succeedingFunction = wrapFunction(String::length);
+
+   /** Wrapped function that throws a checked exception. */
+   private final Function<String, Integer> failingFunction = wrapFunction(
+      value -> { throw FAILURE; });
+
+   /** Sneaky wrapped function that throws a checked exception. */
+   private final Function<String, Integer> sneakyFailingFunction = wrapFunctionSneakily(
+      value -> { throw FAILURE; });
+
+   /** Stackless wrapped function that throws a checked exception. */
+   private final Function<String, Integer> stacklessFailingFunction = wrapFunctionStackless(
+      value -> { throw FAILURE; });
+
+   /** Wrapped primitive operator that succeeds. */
+   private final IntUnaryOperator succeedingIntOperator = wrapIntUnaryOperator(value -> value * 31);
+
+   /** Argument passed to primitive operators. */
+   private int intInput = 42;
+
+   /** Wrapped consumer that succeeds. */
+   private final Consumer<String> succeedingConsumer = wrapConsumer(value -> { });
+
+   /** Wrapped supplier that succeeds. */
+   private final Supplier<String> succeedingSupplier = wrapSupplier(() -> input);
+
+   /** Wrapped predicate that succeeds. */
+   private final Predicate<String> succeedingPredicate = wrapPredicate(String::isEmpty);
+
+   /**
+    * Apply an unwrapped JDK function.
+    *
+    * @return Function result.
+    */
+   @Benchmark
+   public Integer plainFunction()
+   {
+      return plainFunction.apply(input);
+   }
+
+   /**
+    * Apply a wrapped function that succeeds.
+    *
+    * @return Function result.
+    */
+   @Benchmark
+   public Integer wrappedFunctionSuccess()
+   {
+      return succeedingFunction.apply(input);
+   }
+
+   /**
+    * Apply a wrapped function that throws a checked exception, which is
+    * wrapped in a new unchecked exception.
+    *
+    * @param blackhole Consumes the thrown exception.
+    */
+   @Benchmark
+   public void wrappedFunctionFailure(final Blackhole blackhole)
+   {
+      try
+      {
+         failingFunction.apply(input);
+      }
+      catch (UncheckedIOException uncheckedIOException)
+      {
+         blackhole.consume(uncheckedIOException);
+      }
+   }
+
+   /**
+    * Apply a sneaky wrapped function that throws a checked exception,
+    * which is rethrown without wrapping.
+    *
+    * @param blackhole Consumes the thrown exception.
+    */
+   @Benchmark
+   public void sneakyFunctionFailure(final Blackhole blackhole)
+   {
+      try
+      {
+         sneakyFailingFunction.apply(input);
+      }
+      catch (Exception exception)
+      {
+         blackhole.consume(exception);
+      }
+   }
+
+   /**
+    * Apply a stackless wrapped function that throws a checked exception,
+    * which is wrapped in an unchecked exception without a stack trace.
+    *
+    * @param blackhole Consumes the thrown exception.
+    */
+   @Benchmark
+   public void stacklessFunctionFailure(final Blackhole blackhole)
+   {
+      try
+      {
+         stacklessFailingFunction.apply(input);
+      }
+      catch (UncheckedIOException uncheckedIOException)
+      {
+         blackhole.consume(uncheckedIOException);
+      }
+   }
+
+   /**
+    * Apply a wrapped primitive operator that succeeds, without boxing.
+    *
+    * @return Operator result.
+    */
+   @Benchmark
+   public int wrappedIntUnaryOperatorSuccess()
+   {
+      return succeedingIntOperator.applyAsInt(intInput);
+   }
+
+   /**
+    * Invoke a wrapped consumer that succeeds.
+    */
+   @Benchmark
+   public void wrappedConsumerSuccess()
+   {
+      succeedingConsumer.accept(input);
+   }
+
+   /**
+    * Invoke a wrapped supplier that succeeds.
+    *
+    * @return Supplied value.
+    */
+   @Benchmark
+   public String wrappedSupplierSuccess()
+   {
+      return succeedingSupplier.get();
+   }
+
+   /**
+    * Invoke a wrapped predicate that succeeds.
+    *
+    * @return Predicate result.
+    */
+   @Benchmark
+   public boolean wrappedPredicateSuccess()
+   {
+      return succeedingPredicate.test(input);
+   }
+}
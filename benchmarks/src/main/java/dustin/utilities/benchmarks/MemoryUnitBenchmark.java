@@ -0,0 +1,126 @@
+package dustin.utilities.benchmarks;
+
+import dustin.utilities.memory.MemoryUnit;
+import dustin.utilities.memory.MemoryUnitFormat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures {@link MemoryUnit} conversions and {@link MemoryUnitFormat}
+ * parsing and formatting.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class MemoryUnitBenchmark
+{
+   /** Unit being converted from. */
+   @Param({"BYTES", "MEGABYTES", "GIGABYTES"})
+   private MemoryUnit unit;
+
+   /** Amount being converted. */
+   private long amount = 123_456_789L;
+
+   /** Memory size being parsed. */
+   private String memorySize = "1.5GiB";
+
+   /** Reused builder receiving formatted memory sizes. */
+   private final StringBuilder formatted = new StringBuilder(32);
+
+   /**
+    * Convert to bytes.
+    *
+    * @return Number of bytes.
+    */
+   @Benchmark
+   public double toBytes()
+   {
+      return unit.toBytes(amount);
+   }
+
+   /**
+    * Convert to kilobytes.
+    *
+    * @return Number of kilobytes.
+    */
+   @Benchmark
+   public double toKiloBytes()
+   {
+      return unit.toKiloBytes(amount);
+   }
+
+   /**
+    * Convert to megabytes.
+    *
+    * @return Number of megabytes.
+    */
+   @Benchmark
+   public double toMegaBytes()
+   {
+      return unit.toMegaBytes(amount);
+   }
+
+   /**
+    * Convert to gigabytes.
+    *
+    * @return Number of gigabytes.
+    */
+   @Benchmark
+   public double toGigaBytes()
+   {
+      return unit.toGigaBytes(amount);
+   }
+
+   /**
+    * Convert exactly to bytes.
+    *
+    * @return Number of bytes.
+    */
+   @Benchmark
+   public long toByteCount()
+   {
+      return unit.toByteCount(amount);
+   }
+
+   /**
+    * Convert exactly to decimal megabytes.
+    *
+    * @return Number of decimal megabytes.
+    */
+   @Benchmark
+   public long convertToDecimalMegabytes()
+   {
+      return MemoryUnit.MEGABYTES_SI.convert(amount, unit);
+   }
+
+   /**
+    * Parse a memory size.
+    *
+    * @return Number of bytes.
+    */
+   @Benchmark
+   public long parseBytes()
+   {
+      return MemoryUnitFormat.parseBytes(memorySize);
+   }
+
+   /**
+    * Format a number of bytes into a reused builder.
+    *
+    * @return Builder holding formatted memory size.
+    */
+   @Benchmark
+   public StringBuilder appendBinary()
+   {
+      formatted.setLength(0);
+      return MemoryUnitFormat.appendBinary(amount, formatted);
+   }
+}
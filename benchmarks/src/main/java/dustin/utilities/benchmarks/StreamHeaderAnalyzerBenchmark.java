@@ -0,0 +1,91 @@
+package dustin.utilities.benchmarks;
+
+import dustin.utilities.io.HexDumpFormatter;
+import dustin.utilities.io.StreamHeaderAnalyzer;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures {@link StreamHeaderAnalyzer#hexToAscii(String)} on hexadecimal
+ * strings of various lengths and {@link HexDumpFormatter} on the
+ * corresponding bytes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class StreamHeaderAnalyzerBenchmark
+{
+   /** Number of bytes represented by the hexadecimal string. */
+   @Param({"8", "1024"})
+   private int byteCount;
+
+   /** Hexadecimal string converted. */
+   private String hexInput;
+
+   /** Bytes represented by the hexadecimal string. */
+   private byte[] bytes;
+
+   /** Reused dump formatter. */
+   private final HexDumpFormatter formatter = new HexDumpFormatter();
+
+   /** Writer discarding dump output. */
+   private final Writer discardingWriter = Writer.nullWriter();
+
+   /**
+    * Build a hexadecimal string beginning with a Java serialization
+    * stream header.
+    */
+   @Setup
+   public void buildHexInput()
+   {
+      final String header = "ACED00057372";
+      final StringBuilder hex = new StringBuilder(byteCount * 2);
+      for (int i = 0; i < byteCount; i++)
+      {
+         hex.append(i < header.length() / 2
+            ? header.substring(i * 2, i * 2 + 2)
+            : String.format("%02X", 0x20 + (i % 0x5F)));
+      }
+      hexInput = hex.toString();
+      bytes = new byte[byteCount];
+      for (int i = 0; i < byteCount; i++)
+      {
+         bytes[i] = (byte) Integer.parseInt(hexInput.substring(i * 2, i * 2 + 2), 16);
+      }
+   }
+
+   /**
+    * Convert hexadecimal string to its decimal and "ASCII" representations.
+    *
+    * @return Converted representation.
+    */
+   @Benchmark
+   public String hexToAscii()
+   {
+      return StreamHeaderAnalyzer.hexToAscii(hexInput);
+   }
+
+   /**
+    * Format bytes as {@code xxd}-style dump lines written to a
+    * discarding writer.
+    *
+    * @throws IOException Not expected from a discarding writer.
+    */
+   @Benchmark
+   public void hexDump() throws IOException
+   {
+      formatter.dump(bytes, discardingWriter);
+   }
+}
@@ -0,0 +1,120 @@
+package dustin.utilities.benchmarks;
+
+import dustin.utilities.diagnostics.ClassHistogram;
+import dustin.utilities.diagnostics.ClassHistogramParser;
+import dustin.utilities.diagnostics.GarbageCollector;
+import dustin.utilities.diagnostics.ThreadDump;
+import dustin.utilities.diagnostics.ThreadDumpParser;
+import dustin.utilities.diagnostics.VirtualMachineDiagnostics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures {@link VirtualMachineDiagnostics} commands and the parsing of
+ * their output. Histogram and thread dump text is captured once during
+ * setup so that parsing is measured separately from the (safepoint
+ * inducing) commands themselves.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class VirtualMachineDiagnosticsBenchmark
+{
+   /** Diagnostics under measurement. */
+   private VirtualMachineDiagnostics diagnostics;
+
+   /** Captured class histogram text. */
+   private String histogramText;
+
+   /** Captured thread dump text. */
+   private String threadDumpText;
+
+   /** Thread dump parser reused across invocations. */
+   private ThreadDumpParser threadDumpParser;
+
+   /**
+    * Create diagnostics and capture command output to be parsed.
+    */
+   @Setup
+   public void captureOutput()
+   {
+      diagnostics = VirtualMachineDiagnostics.newInstance();
+      histogramText = diagnostics.getHistogram();
+      threadDumpText = diagnostics.getThreadDump();
+      threadDumpParser = new ThreadDumpParser();
+   }
+
+   /**
+    * Obtain virtual machine flags text.
+    *
+    * @return Virtual machine flags text.
+    */
+   @Benchmark
+   public String getVirtualMachineFlags()
+   {
+      return diagnostics.getVirtualMachineFlags();
+   }
+
+   /**
+    * Determine the garbage collector in use.
+    *
+    * @return Description of garbage collector.
+    */
+   @Benchmark
+   public String determineGarbageCollector()
+   {
+      return diagnostics.determineGarbageCollector();
+   }
+
+   /**
+    * Determine the garbage collector in use as an enum.
+    *
+    * @return Garbage collector.
+    */
+   @Benchmark
+   public GarbageCollector getGarbageCollector()
+   {
+      return diagnostics.getGarbageCollector();
+   }
+
+   /**
+    * Obtain virtual machine uptime text.
+    *
+    * @return Virtual machine uptime text.
+    */
+   @Benchmark
+   public String getVirtualMachineUptime()
+   {
+      return diagnostics.getVirtualMachineUptime();
+   }
+
+   /**
+    * Parse captured class histogram text.
+    *
+    * @return Parsed histogram.
+    */
+   @Benchmark
+   public ClassHistogram parseHistogram()
+   {
+      return ClassHistogramParser.parse(histogramText);
+   }
+
+   /**
+    * Parse captured thread dump text with a reused parser.
+    *
+    * @return Parsed thread dump.
+    */
+   @Benchmark
+   public ThreadDump parseThreadDump()
+   {
+      return threadDumpParser.parse(threadDumpText);
+   }
+}
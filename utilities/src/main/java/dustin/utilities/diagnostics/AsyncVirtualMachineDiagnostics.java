@@ -0,0 +1,232 @@
+package dustin.utilities.diagnostics;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs {@link VirtualMachineDiagnostics} commands asynchronously on a
+ * dedicated executor so that callers are never stalled by a slow command
+ * (such as a class histogram of a large heap).
+ *
+ * Requests for a command that is already queued or running are coalesced:
+ * every such caller receives the result of the single pending invocation
+ * rather than queueing another one. Each caller's future is completed
+ * exceptionally with a {@link java.util.concurrent.TimeoutException} if
+ * the command's deadline passes first; the command itself keeps running
+ * and later callers still share it, so timeouts never cause duplicate
+ * safepoint-inducing commands to pile up.
+ *
+ * Instances are thread-safe.
+ */
+public class AsyncVirtualMachineDiagnostics implements AutoCloseable
+{
+   /** Name of the thread running diagnostic commands. */
+   private static final String EXECUTOR_THREAD_NAME = "dustin-async-diagnostics";
+
+   /** Synchronous diagnostics on which commands are run. */
+   private final VirtualMachineDiagnostics diagnostics;
+
+   /** Executor running diagnostic commands. */
+   private final ExecutorService executor;
+
+   /** Deadline in milliseconds applied to commands without their own deadline. */
+   private final long defaultTimeoutMillis;
+
+   /** Per-command deadlines in milliseconds keyed by operation name. */
+   private final Map<String, Long> timeoutMillisByOperation = new ConcurrentHashMap<>();
+
+   /** Pending invocation of each command keyed by operation name. */
+   private final Map<String, CompletableFuture<String>> pending = new ConcurrentHashMap<>();
+
+   /**
+    * Constructor accepting the diagnostics to be run and the deadline
+    * applied to every command. Commands run one at a time on a single
+    * daemon thread.
+    *
+    * @param newDiagnostics Synchronous diagnostics on which commands are run.
+    * @param defaultTimeout Deadline applied to commands without their own deadline.
+    * @param timeoutUnit Unit of {@code defaultTimeout}.
+    */
+   public AsyncVirtualMachineDiagnostics(
+      final VirtualMachineDiagnostics newDiagnostics,
+      final long defaultTimeout,
+      final TimeUnit timeoutUnit)
+   {
+      this(newDiagnostics, Executors.newSingleThreadExecutor(runnable ->
+      {
+         final Thread thread = new Thread(runnable, EXECUTOR_THREAD_NAME);
+         thread.setDaemon(true);
+         return thread;
+      }), defaultTimeout, timeoutUnit);
+   }
+
+   /**
+    * Constructor accepting the diagnostics to be run, the executor on
+    * which to run them, and the deadline applied to every command.
+    *
+    * @param newDiagnostics Synchronous diagnostics on which commands are run.
+    * @param newExecutor Executor on which commands are run; shut down
+    *    by {@link #close()}.
+    * @param defaultTimeout Deadline applied to commands without their own deadline.
+    * @param timeoutUnit Unit of {@code defaultTimeout}.
+    */
+   public AsyncVirtualMachineDiagnostics(
+      final VirtualMachineDiagnostics newDiagnostics,
+      final ExecutorService newExecutor,
+      final long defaultTimeout,
+      final TimeUnit timeoutUnit)
+   {
+      this.diagnostics = newDiagnostics;
+      this.executor = newExecutor;
+      this.defaultTimeoutMillis = timeoutUnit.toMillis(defaultTimeout);
+   }
+
+   /**
+    * Set the deadline for the provided command.
+    *
+    * @param operationName Name of DiagnosticCommandMBean operation such
+    *    as "{@code gcClassHistogram}".
+    * @param timeout Deadline for the command.
+    * @param timeoutUnit Unit of {@code timeout}.
+    */
+   public void setTimeout(final String operationName, final long timeout, final TimeUnit timeoutUnit)
+   {
+      timeoutMillisByOperation.put(operationName, timeoutUnit.toMillis(timeout));
+   }
+
+   /**
+    * Provide class histogram as single String.
+    *
+    * @return Future completed with the class histogram.
+    */
+   public CompletableFuture<String> getHistogram()
+   {
+      return execute("gcClassHistogram", diagnostics::getHistogram);
+   }
+
+   /**
+    * Provide class histogram parsed into per-class entries. Parsing
+    * happens on the executor thread, not the caller's thread.
+    *
+    * @return Future completed with the parsed class histogram.
+    */
+   public CompletableFuture<ClassHistogram> getParsedHistogram()
+   {
+      return getHistogram().thenApplyAsync(ClassHistogramParser::parse, executor);
+   }
+
+   /**
+    * Provide class statistics as single String.
+    *
+    * @return Future completed with the class statistics.
+    */
+   public CompletableFuture<String> getClassStatistics()
+   {
+      return execute("gcClassStats", diagnostics::getClassStatistics);
+   }
+
+   /**
+    * Provide thread dump as single String.
+    *
+    * @return Future completed with the thread dump.
+    */
+   public CompletableFuture<String> getThreadDump()
+   {
+      return execute("threadPrint", diagnostics::getThreadDump);
+   }
+
+   /**
+    * Provide virtual machine uptime as single String.
+    *
+    * @return Future completed with the virtual machine uptime.
+    */
+   public CompletableFuture<String> getVirtualMachineUptime()
+   {
+      return execute("vmUptime", diagnostics::getVirtualMachineUptime);
+   }
+
+   /**
+    * Provide a String representing the virtual machine flags.
+    *
+    * @return Future completed with the virtual machine flags.
+    */
+   public CompletableFuture<String> getVirtualMachineFlags()
+   {
+      return execute("vmFlags", diagnostics::getVirtualMachineFlags);
+   }
+
+   /**
+    * Provide list of supported operations (help).
+    *
+    * @return Future completed with names of supported operations.
+    */
+   public CompletableFuture<String> getAvailableOperations()
+   {
+      return execute("help", diagnostics::getAvailableOperations);
+   }
+
+   /**
+    * Shut down the executor. Commands already running are allowed to finish.
+    */
+   @Override
+   public void close()
+   {
+      executor.shutdown();
+   }
+
+   /**
+    * Run the provided command on the executor unless an invocation of the
+    * same command is already pending, in which case that invocation's
+    * result is shared.
+    *
+    * @param operationName Name of DiagnosticCommandMBean operation
+    *    (identifies the command for coalescing and deadlines).
+    * @param command Command to be run.
+    * @return Caller's own future for the command's result, subject to
+    *    the command's deadline.
+    */
+   private CompletableFuture<String> execute(final String operationName, final Supplier<String> command)
+   {
+      final CompletableFuture<String> created = new CompletableFuture<>();
+      CompletableFuture<String> shared = pending.putIfAbsent(operationName, created);
+      if (shared == null)
+      {
+         shared = created;
+         try
+         {
+            executor.execute(() ->
+            {
+               try
+               {
+                  final String result = command.get();
+                  pending.remove(operationName, created);
+                  created.complete(result);
+               }
+               catch (Throwable throwable)
+               {
+                  // errors too, or later callers would keep joining a future that never completes
+                  pending.remove(operationName, created);
+                  created.completeExceptionally(throwable);
+                  if (throwable instanceof Error)
+                  {
+                     throw (Error) throwable;
+                  }
+               }
+            });
+         }
+         catch (RejectedExecutionException rejectedException)
+         {
+            pending.remove(operationName, created);
+            created.completeExceptionally(rejectedException);
+         }
+      }
+      final long timeoutMillis = timeoutMillisByOperation.getOrDefault(operationName, defaultTimeoutMillis);
+      return shared.copy().orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+   }
+}
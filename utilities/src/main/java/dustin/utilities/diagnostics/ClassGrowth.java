@@ -0,0 +1,108 @@
+package dustin.utilities.diagnostics;
+
+/**
+ * Change in a single class's instance count and byte count between
+ * two class histogram snapshots.
+ */
+public final class ClassGrowth
+{
+   /** Name of class. */
+   private final String className;
+
+   /** Change in number of instances (negative when shrinking). */
+   private final long instanceDelta;
+
+   /** Change in number of bytes (negative when shrinking). */
+   private final long byteDelta;
+
+   /** Milliseconds elapsed between the two snapshots. */
+   private final long elapsedMillis;
+
+   /**
+    * Constructor accepting the change in a class between two snapshots.
+    *
+    * @param newClassName Name of class.
+    * @param newInstanceDelta Change in number of instances.
+    * @param newByteDelta Change in number of bytes.
+    * @param newElapsedMillis Milliseconds elapsed between snapshots.
+    */
+   public ClassGrowth(
+      final String newClassName,
+      final long newInstanceDelta,
+      final long newByteDelta,
+      final long newElapsedMillis)
+   {
+      this.className = newClassName;
+      this.instanceDelta = newInstanceDelta;
+      this.byteDelta = newByteDelta;
+      this.elapsedMillis = newElapsedMillis;
+   }
+
+   /**
+    * Provide name of class.
+    *
+    * @return Name of class.
+    */
+   public String getClassName()
+   {
+      return className;
+   }
+
+   /**
+    * Provide change in number of instances.
+    *
+    * @return Change in number of instances.
+    */
+   public long getInstanceDelta()
+   {
+      return instanceDelta;
+   }
+
+   /**
+    * Provide change in number of bytes.
+    *
+    * @return Change in number of bytes.
+    */
+   public long getByteDelta()
+   {
+      return byteDelta;
+   }
+
+   /**
+    * Provide milliseconds elapsed between the two snapshots.
+    *
+    * @return Milliseconds elapsed between the two snapshots.
+    */
+   public long getElapsedMillis()
+   {
+      return elapsedMillis;
+   }
+
+   /**
+    * Provide average change in number of instances per second.
+    *
+    * @return Instances gained (or lost) per second; zero if no time elapsed.
+    */
+   public double getInstancesPerSecond()
+   {
+      return elapsedMillis > 0 ? instanceDelta * 1000.0 / elapsedMillis : 0.0;
+   }
+
+   /**
+    * Provide average change in number of bytes per second.
+    *
+    * @return Bytes gained (or lost) per second; zero if no time elapsed.
+    */
+   public double getBytesPerSecond()
+   {
+      return elapsedMillis > 0 ? byteDelta * 1000.0 / elapsedMillis : 0.0;
+   }
+
+   @Override
+   public String toString()
+   {
+      return className + " [instances " + (instanceDelta >= 0 ? "+" : "") + instanceDelta
+         + ", bytes " + (byteDelta >= 0 ? "+" : "") + byteDelta
+         + " over " + elapsedMillis + " ms]";
+   }
+}
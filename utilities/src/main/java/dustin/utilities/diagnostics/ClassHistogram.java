@@ -0,0 +1,156 @@
+package dustin.utilities.diagnostics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Parsed, immutable representation of the output of the
+ * {@code GC.class_histogram} diagnostic command.
+ *
+ * Entries are held in the order reported by the virtual machine,
+ * which is descending order of bytes occupied.
+ */
+public final class ClassHistogram
+{
+   /** Histogram rows in the order reported by the virtual machine. */
+   private final List<ClassHistogramEntry> entries;
+
+   /** Total number of instances across all entries. */
+   private final long totalInstances;
+
+   /** Total number of bytes across all entries. */
+   private final long totalBytes;
+
+   /**
+    * Constructor accepting the parsed histogram rows.
+    *
+    * @param newEntries Histogram rows in the order reported by the
+    *    virtual machine.
+    */
+   public ClassHistogram(final List<ClassHistogramEntry> newEntries)
+   {
+      this.entries = Collections.unmodifiableList(new ArrayList<>(newEntries));
+      long instances = 0;
+      long bytes = 0;
+      for (final ClassHistogramEntry entry : this.entries)
+      {
+         instances += entry.getInstanceCount();
+         bytes += entry.getByteCount();
+      }
+      this.totalInstances = instances;
+      this.totalBytes = bytes;
+   }
+
+   /**
+    * Provide all histogram entries.
+    *
+    * @return Unmodifiable list of all histogram entries in
+    *    descending order of bytes occupied.
+    */
+   public List<ClassHistogramEntry> getEntries()
+   {
+      return entries;
+   }
+
+   /**
+    * Provide number of classes (rows) in this histogram.
+    *
+    * @return Number of classes in this histogram.
+    */
+   public int size()
+   {
+      return entries.size();
+   }
+
+   /**
+    * Provide total number of instances across all classes.
+    *
+    * @return Total number of instances across all classes.
+    */
+   public long getTotalInstances()
+   {
+      return totalInstances;
+   }
+
+   /**
+    * Provide total number of bytes across all classes.
+    *
+    * @return Total number of bytes across all classes.
+    */
+   public long getTotalBytes()
+   {
+      return totalBytes;
+   }
+
+   /**
+    * Provide the entries occupying the most bytes.
+    *
+    * @param count Maximum number of entries to return.
+    * @return Up to {@code count} entries with the most bytes, largest first.
+    */
+   public List<ClassHistogramEntry> getTopByBytes(final int count)
+   {
+      return entries.subList(0, Math.min(Math.max(count, 0), entries.size()));
+   }
+
+   /**
+    * Provide the entries with the most instances. This uses a bounded
+    * heap so that only {@code count} entries are retained while the
+    * histogram is scanned.
+    *
+    * @param count Maximum number of entries to return.
+    * @return Up to {@code count} entries with the most instances,
+    *    largest first.
+    */
+   public List<ClassHistogramEntry> getTopByInstances(final int count)
+   {
+      if (count <= 0)
+      {
+         return Collections.emptyList();
+      }
+      final PriorityQueue<ClassHistogramEntry> smallestFirst = new PriorityQueue<>(
+         count + 1, (first, second) -> Long.compare(first.getInstanceCount(), second.getInstanceCount()));
+      for (final ClassHistogramEntry entry : entries)
+      {
+         if (smallestFirst.size() < count)
+         {
+            smallestFirst.add(entry);
+         }
+         else if (entry.getInstanceCount() > smallestFirst.peek().getInstanceCount())
+         {
+            smallestFirst.poll();
+            smallestFirst.add(entry);
+         }
+      }
+      final ClassHistogramEntry[] largestFirst = new ClassHistogramEntry[smallestFirst.size()];
+      for (int i = largestFirst.length - 1; i >= 0; i--)
+      {
+         largestFirst[i] = smallestFirst.poll();
+      }
+      return Collections.unmodifiableList(Arrays.asList(largestFirst));
+   }
+
+   /**
+    * Provide the entries whose classes belong to the provided package
+    * or one of its sub-packages.
+    *
+    * @param packageName Package name such as "{@code java.util}".
+    * @return Entries in the provided package, in descending order of
+    *    bytes occupied.
+    */
+   public List<ClassHistogramEntry> filterByPackage(final String packageName)
+   {
+      final List<ClassHistogramEntry> matching = new ArrayList<>();
+      for (final ClassHistogramEntry entry : entries)
+      {
+         if (entry.isInPackage(packageName))
+         {
+            matching.add(entry);
+         }
+      }
+      return matching;
+   }
+}
@@ -0,0 +1,96 @@
+package dustin.utilities.diagnostics;
+
+/**
+ * Single row of a class histogram: a class name along with the
+ * number of instances of that class and the number of bytes
+ * occupied by those instances.
+ */
+public final class ClassHistogramEntry
+{
+   /** Fully qualified (JVM-style for arrays) name of class. */
+   private final String className;
+
+   /** Number of live instances of the class. */
+   private final long instanceCount;
+
+   /** Number of bytes occupied by instances of the class. */
+   private final long byteCount;
+
+   /**
+    * Constructor accepting the values of a single histogram row.
+    *
+    * @param newClassName Name of class as reported in histogram.
+    * @param newInstanceCount Number of instances of that class.
+    * @param newByteCount Number of bytes consumed by those instances.
+    */
+   public ClassHistogramEntry(
+      final String newClassName, final long newInstanceCount, final long newByteCount)
+   {
+      this.className = newClassName;
+      this.instanceCount = newInstanceCount;
+      this.byteCount = newByteCount;
+   }
+
+   /**
+    * Provide name of class represented by this entry.
+    *
+    * @return Name of class represented by this entry.
+    */
+   public String getClassName()
+   {
+      return className;
+   }
+
+   /**
+    * Provide number of instances of the class.
+    *
+    * @return Number of instances of the class.
+    */
+   public long getInstanceCount()
+   {
+      return instanceCount;
+   }
+
+   /**
+    * Provide number of bytes occupied by instances of the class.
+    *
+    * @return Number of bytes occupied by instances of the class.
+    */
+   public long getByteCount()
+   {
+      return byteCount;
+   }
+
+   /**
+    * Indicates whether this entry's class belongs to the provided
+    * package or one of its sub-packages. Array classes are matched
+    * on their component type (so {@code [Ljava.lang.String;} is
+    * considered part of {@code java.lang}).
+    *
+    * @param packageName Package name such as "{@code java.util}".
+    * @return {@code true} if this entry's class is in the provided package.
+    */
+   public boolean isInPackage(final String packageName)
+   {
+      int start = 0;
+      final int length = className.length();
+      while (start < length && className.charAt(start) == '[')
+      {
+         start++;
+      }
+      if (start > 0 && start < length && className.charAt(start) == 'L')
+      {
+         start++;
+      }
+      final int packageLength = packageName.length();
+      return className.regionMatches(start, packageName, 0, packageLength)
+         && start + packageLength < length
+         && className.charAt(start + packageLength) == '.';
+   }
+
+   @Override
+   public String toString()
+   {
+      return className + " [instances=" + instanceCount + ", bytes=" + byteCount + "]";
+   }
+}
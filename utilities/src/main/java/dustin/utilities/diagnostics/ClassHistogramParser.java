@@ -0,0 +1,206 @@
+package dustin.utilities.diagnostics;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses the text produced by the {@code GC.class_histogram} diagnostic
+ * command into a {@link ClassHistogram}.
+ *
+ * The text is scanned in place one character at a time; numeric columns
+ * are accumulated directly into {@code long}s and the only object created
+ * per row is the class name and its {@link ClassHistogramEntry}. Header,
+ * separator, and "Total" lines are skipped because they do not begin with
+ * a row number followed by a colon.
+ *
+ * A typical row looks like
+ * "{@code    1:         12345         678900  [B (java.base@17)}".
+ */
+public final class ClassHistogramParser
+{
+   /** Not intended for instantiation. */
+   private ClassHistogramParser()
+   {
+   }
+
+   /**
+    * Parse the provided histogram text.
+    *
+    * @param histogramText Text as returned by
+    *    {@link VirtualMachineDiagnostics#getHistogram()}.
+    * @return Parsed histogram.
+    */
+   public static ClassHistogram parse(final CharSequence histogramText)
+   {
+      final List<ClassHistogramEntry> entries = new ArrayList<>();
+      parse(histogramText, (text, nameStart, nameEnd, instances, bytes) ->
+         entries.add(new ClassHistogramEntry(
+            text.subSequence(nameStart, nameEnd).toString(), instances, bytes)));
+      return new ClassHistogram(entries);
+   }
+
+   /**
+    * Parse the provided histogram text, handing each row to the provided
+    * handler rather than materializing entries. The class name is passed
+    * as a region of the original text so that handlers that already know
+    * the name need not create a new String for it.
+    *
+    * @param histogramText Text as returned by
+    *    {@link VirtualMachineDiagnostics#getHistogram()}.
+    * @param rowHandler Handler invoked once per histogram row.
+    */
+   static void parse(final CharSequence histogramText, final RowHandler rowHandler)
+   {
+      final int length = histogramText.length();
+      int lineStart = 0;
+      while (lineStart < length)
+      {
+         int lineEnd = lineStart;
+         while (lineEnd < length && histogramText.charAt(lineEnd) != '\n')
+         {
+            lineEnd++;
+         }
+         parseRow(histogramText, lineStart, lineEnd, rowHandler);
+         lineStart = lineEnd + 1;
+      }
+   }
+
+   /**
+    * Parse histogram text from the provided Reader (such as a file
+    * holding a previously captured histogram) one line at a time so
+    * that the complete text is never held in memory.
+    *
+    * @param histogramReader Source of histogram text; not closed by
+    *    this method.
+    * @return Parsed histogram.
+    * @throws IOException Thrown if unable to read from the provided Reader.
+    */
+   public static ClassHistogram parse(final Reader histogramReader) throws IOException
+   {
+      final BufferedReader reader = histogramReader instanceof BufferedReader
+         ? (BufferedReader) histogramReader
+         : new BufferedReader(histogramReader);
+      final List<ClassHistogramEntry> entries = new ArrayList<>();
+      final RowHandler collector = (text, nameStart, nameEnd, instances, bytes) ->
+         entries.add(new ClassHistogramEntry(
+            text.subSequence(nameStart, nameEnd).toString(), instances, bytes));
+      String line;
+      while ((line = reader.readLine()) != null)
+      {
+         parseRow(line, 0, line.length(), collector);
+      }
+      return new ClassHistogram(entries);
+   }
+
+   /**
+    * Parse a single histogram row located between the provided indexes.
+    *
+    * @param text Text containing the row.
+    * @param start Index of the first character of the row.
+    * @param end Index just past the last character of the row.
+    * @param rowHandler Handler to be invoked if the line is a histogram row.
+    */
+   private static void parseRow(
+      final CharSequence text, final int start, final int end, final RowHandler rowHandler)
+   {
+      int index = skipWhitespace(text, start, end);
+      final int rankStart = index;
+      while (index < end && isDigit(text.charAt(index)))
+      {
+         index++;
+      }
+      if (index == rankStart || index >= end || text.charAt(index) != ':')
+      {
+         return;
+      }
+      index = skipWhitespace(text, index + 1, end);
+
+      final int instancesStart = index;
+      long instances = 0;
+      while (index < end && isDigit(text.charAt(index)))
+      {
+         instances = instances * 10 + (text.charAt(index) - '0');
+         index++;
+      }
+      if (index == instancesStart)
+      {
+         return;
+      }
+      index = skipWhitespace(text, index, end);
+
+      final int bytesStart = index;
+      long bytes = 0;
+      while (index < end && isDigit(text.charAt(index)))
+      {
+         bytes = bytes * 10 + (text.charAt(index) - '0');
+         index++;
+      }
+      if (index == bytesStart)
+      {
+         return;
+      }
+      index = skipWhitespace(text, index, end);
+
+      final int nameStart = index;
+      while (index < end && !Character.isWhitespace(text.charAt(index)))
+      {
+         index++;
+      }
+      if (index == nameStart)
+      {
+         return;
+      }
+      rowHandler.row(text, nameStart, index, instances, bytes);
+   }
+
+   /**
+    * Provide index of first non-whitespace character at or after
+    * {@code from}.
+    *
+    * @param text Text being scanned.
+    * @param from Index at which to start scanning.
+    * @param end Index at which to stop scanning.
+    * @return Index of first non-whitespace character or {@code end}.
+    */
+   private static int skipWhitespace(final CharSequence text, final int from, final int end)
+   {
+      int index = from;
+      while (index < end && Character.isWhitespace(text.charAt(index)))
+      {
+         index++;
+      }
+      return index;
+   }
+
+   /**
+    * Indicates whether the provided character is an ASCII decimal digit.
+    *
+    * @param character Character to be tested.
+    * @return {@code true} if the character is '0' through '9'.
+    */
+   private static boolean isDigit(final char character)
+   {
+      return character >= '0' && character <= '9';
+   }
+
+   /**
+    * Receives the values of each parsed histogram row.
+    */
+   @FunctionalInterface
+   interface RowHandler
+   {
+      /**
+       * Handle a single parsed histogram row.
+       *
+       * @param text Text containing the row.
+       * @param nameStart Index of first character of the class name.
+       * @param nameEnd Index just past the last character of the class name.
+       * @param instances Number of instances of the class.
+       * @param bytes Number of bytes occupied by instances of the class.
+       */
+      void row(CharSequence text, int nameStart, int nameEnd, long instances, long bytes);
+   }
+}
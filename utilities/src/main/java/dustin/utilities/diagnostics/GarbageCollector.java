@@ -0,0 +1,86 @@
+package dustin.utilities.diagnostics;
+
+/**
+ * Garbage collectors that may be selected for a HotSpot virtual machine,
+ * each associated with the boolean virtual machine flag that selects it.
+ */
+public enum GarbageCollector
+{
+   /** Serial collector ({@code -XX:+UseSerialGC}). */
+   SERIAL("UseSerialGC", "Serial"),
+   /** Parallel/Throughput collector ({@code -XX:+UseParallelGC}). */
+   PARALLEL("UseParallelGC", "Parallel/Throughput"),
+   /** Concurrent Mark Sweep collector ({@code -XX:+UseConcMarkSweepGC}). */
+   CONCURRENT_MARK_SWEEP("UseConcMarkSweepGC", "Concurrent Mark Sweep (CMS)"),
+   /** Garbage First collector ({@code -XX:+UseG1GC}). */
+   G1("UseG1GC", "Garbage First"),
+   /** Z Garbage Collector ({@code -XX:+UseZGC}). */
+   Z("UseZGC", "Z Garbage Collector (ZGC)"),
+   /** Shenandoah collector ({@code -XX:+UseShenandoahGC}). */
+   SHENANDOAH("UseShenandoahGC", "Shenandoah"),
+   /** Epsilon no-op collector ({@code -XX:+UseEpsilonGC}). */
+   EPSILON("UseEpsilonGC", "Epsilon (No-Op)"),
+   /** Collector could not be determined. */
+   UNDETERMINED(null, "UNDETERMINED");
+
+   /** Name of boolean flag selecting this collector. */
+   private final String flagName;
+
+   /** Human-readable description of this collector. */
+   private final String description;
+
+   /**
+    * Constructor accepting selecting flag and description.
+    *
+    * @param newFlagName Name of boolean flag selecting this collector.
+    * @param newDescription Human-readable description of this collector.
+    */
+   GarbageCollector(final String newFlagName, final String newDescription)
+   {
+      this.flagName = newFlagName;
+      this.description = newDescription;
+   }
+
+   /**
+    * Provide name of the boolean flag that selects this collector.
+    *
+    * @return Name of flag (such as "{@code UseG1GC}") or {@code null}
+    *    for {@link #UNDETERMINED}.
+    */
+   public String getFlagName()
+   {
+      return flagName;
+   }
+
+   /**
+    * Provide human-readable description of this collector.
+    *
+    * @return Description of this collector.
+    */
+   public String getDescription()
+   {
+      return description;
+   }
+
+   /**
+    * Determine the collector selected by the provided flags.
+    *
+    * @param flags Parsed virtual machine flags.
+    * @return Selected collector or {@link #UNDETERMINED}.
+    */
+   public static GarbageCollector from(final VirtualMachineFlags flags)
+   {
+      if (flags.isEnabled("UseParallelOldGC"))
+      {
+         return PARALLEL;
+      }
+      for (final GarbageCollector collector : values())
+      {
+         if (collector.flagName != null && flags.isEnabled(collector.flagName))
+         {
+            return collector;
+         }
+      }
+      return UNDETERMINED;
+   }
+}
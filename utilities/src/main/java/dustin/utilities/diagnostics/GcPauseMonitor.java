@@ -0,0 +1,243 @@
+package dustin.utilities.diagnostics;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import dustin.utilities.statistics.LogLinearHistogram;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Subscribes to garbage collection notifications and records the duration
+ * of every collection into sliding-window log-linear histograms, one per
+ * collector and cause and one per collector across all causes, so that
+ * percentiles of collection durations can be reported.
+ *
+ * Where {@link VirtualMachineDiagnostics#getGarbageCollector()} reports
+ * which collector runs, this reports how it behaves. Durations are those
+ * reported by each collector's notifications; for stop-the-world
+ * collectors these are pause times, while concurrent collectors (such as
+ * ZGC or G1's concurrent cycle) report the length of the whole cycle.
+ *
+ * Histograms are created the first time a collector/cause combination
+ * is seen; thereafter recording a collection allocates nothing.
+ */
+public class GcPauseMonitor
+{
+   /** Histograms of each cause keyed by collector name and then cause. */
+   private final Map<String, Map<String, SlidingWindowHistogram>> byCollectorAndCause = new ConcurrentHashMap<>();
+
+   /** Histograms across all causes keyed by collector name. */
+   private final Map<String, SlidingWindowHistogram> byCollector = new ConcurrentHashMap<>();
+
+   /** Number of intervals in each sliding window. */
+   private final int intervalCount;
+
+   /** Length of each interval in milliseconds. */
+   private final long intervalMillis;
+
+   /**
+    * Creates a histogram for a newly seen collector or cause; held in a
+    * field so that recording does not allocate a capturing lambda.
+    */
+   private final Function<String, SlidingWindowHistogram> histogramFactory = name -> newHistogram();
+
+   /** Listener registered with each collector. */
+   private final NotificationListener listener = this::handleNotification;
+
+   /** Collectors with which the listener is registered. */
+   private final List<NotificationEmitter> registered = new ArrayList<>();
+
+   /**
+    * Constructor accepting the length of the sliding window.
+    *
+    * @param window Length of window over which statistics are reported.
+    * @param windowUnit Unit of {@code window}.
+    * @param newIntervalCount Number of intervals into which the window is
+    *    divided; the window advances one interval at a time.
+    */
+   public GcPauseMonitor(final long window, final TimeUnit windowUnit, final int newIntervalCount)
+   {
+      if (newIntervalCount <= 0 || windowUnit.toMillis(window) < newIntervalCount)
+      {
+         throw new IllegalArgumentException(
+            "Window must be divided into at least one interval of at least one millisecond.");
+      }
+      this.intervalCount = newIntervalCount;
+      this.intervalMillis = windowUnit.toMillis(window) / newIntervalCount;
+   }
+
+   /**
+    * Begin recording collections of every garbage collector.
+    */
+   public synchronized void start()
+   {
+      if (!registered.isEmpty())
+      {
+         return;
+      }
+      for (final GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans())
+      {
+         if (collector instanceof NotificationEmitter)
+         {
+            final NotificationEmitter emitter = (NotificationEmitter) collector;
+            emitter.addNotificationListener(listener, null, null);
+            registered.add(emitter);
+         }
+      }
+   }
+
+   /**
+    * Stop recording collections. Recorded durations are retained.
+    */
+   public synchronized void stop()
+   {
+      for (final NotificationEmitter emitter : registered)
+      {
+         try
+         {
+            emitter.removeNotificationListener(listener);
+         }
+         catch (ListenerNotFoundException notRegistered)
+         {
+            // already removed; nothing more to do
+         }
+      }
+      registered.clear();
+   }
+
+   /**
+    * Record a collection directly (as a notification would).
+    *
+    * @param collectorName Name of collector such as "{@code G1 Young Generation}".
+    * @param cause Cause of collection such as "{@code G1 Evacuation Pause}".
+    * @param durationMillis Duration of collection in milliseconds.
+    */
+   public void record(final String collectorName, final String cause, final long durationMillis)
+   {
+      final long now = System.currentTimeMillis();
+      final SlidingWindowHistogram total = byCollector.computeIfAbsent(collectorName, histogramFactory);
+      final SlidingWindowHistogram causeHistogram = byCollectorAndCause
+         .computeIfAbsent(collectorName, name -> new ConcurrentHashMap<>())
+         .computeIfAbsent(cause, histogramFactory);
+      synchronized (total)
+      {
+         total.record(now, durationMillis);
+      }
+      synchronized (causeHistogram)
+      {
+         causeHistogram.record(now, durationMillis);
+      }
+   }
+
+   /**
+    * Provide names of collectors for which collections have been recorded.
+    *
+    * @return Names of collectors.
+    */
+   public Set<String> getCollectorNames()
+   {
+      return Collections.unmodifiableSet(byCollector.keySet());
+   }
+
+   /**
+    * Provide causes recorded for the provided collector.
+    *
+    * @param collectorName Name of collector.
+    * @return Causes recorded for the collector.
+    */
+   public Set<String> getCauses(final String collectorName)
+   {
+      final Map<String, SlidingWindowHistogram> causes = byCollectorAndCause.get(collectorName);
+      return causes != null ? Collections.unmodifiableSet(causes.keySet()) : Collections.emptySet();
+   }
+
+   /**
+    * Provide distribution of durations of the provided collector's
+    * collections within the current window.
+    *
+    * @param collectorName Name of collector.
+    * @param cause Cause of collections or {@code null} for all causes.
+    * @return Distribution of durations (empty if none recorded).
+    */
+   public PauseStatistics getStatistics(final String collectorName, final String cause)
+   {
+      final SlidingWindowHistogram histogram;
+      if (cause == null)
+      {
+         histogram = byCollector.get(collectorName);
+      }
+      else
+      {
+         final Map<String, SlidingWindowHistogram> causes = byCollectorAndCause.get(collectorName);
+         histogram = causes != null ? causes.get(cause) : null;
+      }
+      final LogLinearHistogram window = new LogLinearHistogram();
+      if (histogram != null)
+      {
+         synchronized (histogram)
+         {
+            histogram.addWindowTo(System.currentTimeMillis(), window);
+         }
+      }
+      return new PauseStatistics(window);
+   }
+
+   /**
+    * Provide distribution of durations of all collectors' collections
+    * within the current window.
+    *
+    * @return Distribution of durations (empty if none recorded).
+    */
+   public PauseStatistics getStatistics()
+   {
+      final long now = System.currentTimeMillis();
+      final LogLinearHistogram window = new LogLinearHistogram();
+      for (final SlidingWindowHistogram histogram : byCollector.values())
+      {
+         synchronized (histogram)
+         {
+            histogram.addWindowTo(now, window);
+         }
+      }
+      return new PauseStatistics(window);
+   }
+
+   /**
+    * Record the collection described by a garbage collection notification.
+    *
+    * @param notification Notification from a collector.
+    * @param handback Unused.
+    */
+   private void handleNotification(final Notification notification, final Object handback)
+   {
+      if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType()))
+      {
+         final GarbageCollectionNotificationInfo info =
+            GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+         record(info.getGcName(), info.getGcCause(), info.getGcInfo().getDuration());
+      }
+   }
+
+   /**
+    * Create a histogram covering this monitor's window.
+    *
+    * @return New sliding-window histogram.
+    */
+   private SlidingWindowHistogram newHistogram()
+   {
+      return new SlidingWindowHistogram(intervalCount, intervalMillis);
+   }
+}
@@ -0,0 +1,358 @@
+package dustin.utilities.diagnostics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Captures periodic class histogram snapshots and computes per-class
+ * growth between them to help locate memory leaks.
+ *
+ * Each class name is stored once in an indexed table and each snapshot
+ * holds only two primitive {@code long} arrays indexed by class, so
+ * keeping hundreds of snapshots costs far less than keeping the
+ * histogram text. The number of snapshots retained is bounded; once
+ * full, the oldest snapshot is discarded for each new one. Names of
+ * classes absent from every retained snapshot are dropped from the table
+ * whenever it has grown to twice its size after the previous such
+ * pruning, so a steady stream of short-lived (such as generated) classes
+ * does not grow the table without bound.
+ *
+ * For each class, the number of consecutive snapshots in which its byte
+ * count grew is maintained as snapshots are recorded, so monotonic
+ * growers are available without re-examining older snapshots.
+ *
+ * Instances are thread-safe.
+ */
+public class HistogramGrowthTracker
+{
+   /** Smallest number of class names at which the name table is pruned. */
+   private static final int MINIMUM_PRUNE_THRESHOLD = 1024;
+
+   /** Source of histograms. */
+   private final VirtualMachineDiagnostics diagnostics;
+
+   /** Interned class names. */
+   private NameTable classNames = new NameTable();
+
+   /** Number of class names at which the name table is next pruned. */
+   private int pruneThreshold = MINIMUM_PRUNE_THRESHOLD;
+
+   /** Retained snapshots in a circular buffer. */
+   private final HistogramSnapshot[] snapshots;
+
+   /** Index in {@link #snapshots} where next snapshot will be written. */
+   private int nextSnapshot;
+
+   /** Number of retained snapshots. */
+   private int snapshotCount;
+
+   /** Consecutive byte-count increases, indexed by class index. */
+   private int[] growthStreaks = new int[0];
+
+   /**
+    * Constructor accepting source of histograms and number of
+    * snapshots to retain.
+    *
+    * @param newDiagnostics Source of histograms.
+    * @param maximumSnapshots Maximum number of snapshots to retain
+    *    (must be at least two).
+    */
+   public HistogramGrowthTracker(
+      final VirtualMachineDiagnostics newDiagnostics, final int maximumSnapshots)
+   {
+      if (maximumSnapshots < 2)
+      {
+         throw new IllegalArgumentException(
+            "At least two snapshots must be retained to compute growth; " + maximumSnapshots + " requested.");
+      }
+      this.diagnostics = newDiagnostics;
+      this.snapshots = new HistogramSnapshot[maximumSnapshots];
+   }
+
+   /**
+    * Capture the current class histogram as a new snapshot.
+    *
+    * @throws IllegalStateException Thrown if the class histogram could not
+    *    be obtained; no snapshot is recorded.
+    */
+   public void capture()
+   {
+      final String histogram = diagnostics.getHistogram();
+      if (histogram.startsWith(VirtualMachineDiagnostics.ERROR_RESULT_PREFIX))
+      {
+         throw new IllegalStateException(histogram);
+      }
+      record(System.currentTimeMillis(), histogram);
+   }
+
+   /**
+    * Record the provided histogram text (such as a previously captured
+    * histogram) as a new snapshot taken at the provided time.
+    *
+    * @param timestampMillis Time at which histogram was captured
+    *    (milliseconds since epoch).
+    * @param histogramText Text in the format produced by
+    *    {@link VirtualMachineDiagnostics#getHistogram()}.
+    */
+   public synchronized void record(final long timestampMillis, final CharSequence histogramText)
+   {
+      final SnapshotAccumulator accumulator = new SnapshotAccumulator(classNames);
+      ClassHistogramParser.parse(histogramText, accumulator);
+      final int classCount = classNames.size();
+      final HistogramSnapshot snapshot = accumulator.toSnapshot(timestampMillis, classCount);
+      updateGrowthStreaks(snapshotCount > 0 ? snapshotAt(snapshotCount - 1) : null, snapshot, classCount);
+
+      snapshots[nextSnapshot] = snapshot;
+      nextSnapshot = (nextSnapshot + 1) % snapshots.length;
+      snapshotCount = Math.min(snapshotCount + 1, snapshots.length);
+      if (classCount >= pruneThreshold)
+      {
+         pruneClassNames();
+      }
+   }
+
+   /**
+    * Provide number of snapshots currently retained.
+    *
+    * @return Number of snapshots currently retained.
+    */
+   public synchronized int getSnapshotCount()
+   {
+      return snapshotCount;
+   }
+
+   /**
+    * Provide per-class growth between two retained snapshots, in
+    * descending order of byte growth.
+    *
+    * @param olderSnapshot Index of older snapshot (0 is oldest retained).
+    * @param newerSnapshot Index of newer snapshot.
+    * @return Growth of every class whose instance or byte count changed.
+    */
+   public synchronized List<ClassGrowth> getGrowth(final int olderSnapshot, final int newerSnapshot)
+   {
+      if (olderSnapshot < 0 || newerSnapshot >= snapshotCount || olderSnapshot >= newerSnapshot)
+      {
+         throw new IndexOutOfBoundsException(
+            "Cannot compare snapshot " + olderSnapshot + " to snapshot " + newerSnapshot
+               + " with " + snapshotCount + " snapshots retained.");
+      }
+      final HistogramSnapshot older = snapshotAt(olderSnapshot);
+      final HistogramSnapshot newer = snapshotAt(newerSnapshot);
+      final long elapsedMillis = newer.getTimestampMillis() - older.getTimestampMillis();
+      final List<ClassGrowth> growth = new ArrayList<>();
+      for (int classIndex = 0; classIndex < classNames.size(); classIndex++)
+      {
+         final long instanceDelta = newer.instancesOf(classIndex) - older.instancesOf(classIndex);
+         final long byteDelta = newer.bytesOf(classIndex) - older.bytesOf(classIndex);
+         if (instanceDelta != 0 || byteDelta != 0)
+         {
+            growth.add(new ClassGrowth(classNames.nameAt(classIndex), instanceDelta, byteDelta, elapsedMillis));
+         }
+      }
+      growth.sort(Comparator.comparingLong(ClassGrowth::getByteDelta).reversed());
+      return growth;
+   }
+
+   /**
+    * Provide per-class growth between the two most recent snapshots.
+    *
+    * @return Growth between the two most recent snapshots.
+    */
+   public synchronized List<ClassGrowth> getLatestGrowth()
+   {
+      return getGrowth(snapshotCount - 2, snapshotCount - 1);
+   }
+
+   /**
+    * Provide per-class growth from the oldest to the newest retained snapshot.
+    *
+    * @return Growth across all retained snapshots.
+    */
+   public synchronized List<ClassGrowth> getOverallGrowth()
+   {
+      return getGrowth(0, snapshotCount - 1);
+   }
+
+   /**
+    * Provide classes whose byte count grew in each of the most recent
+    * {@code minimumConsecutiveGrowths} snapshots, along with their growth
+    * across that span, in descending order of byte growth.
+    *
+    * @param minimumConsecutiveGrowths Number of consecutive snapshots in
+    *    which a class must have grown (at least one and less than the
+    *    number of retained snapshots).
+    * @return Growth of consistently growing classes.
+    */
+   public synchronized List<ClassGrowth> getMonotonicGrowers(final int minimumConsecutiveGrowths)
+   {
+      if (minimumConsecutiveGrowths < 1 || minimumConsecutiveGrowths >= snapshotCount)
+      {
+         throw new IllegalArgumentException(
+            "Consecutive growth count must be between 1 and " + (snapshotCount - 1)
+               + "; " + minimumConsecutiveGrowths + " requested.");
+      }
+      final HistogramSnapshot older = snapshotAt(snapshotCount - 1 - minimumConsecutiveGrowths);
+      final HistogramSnapshot newer = snapshotAt(snapshotCount - 1);
+      final long elapsedMillis = newer.getTimestampMillis() - older.getTimestampMillis();
+      final List<ClassGrowth> growers = new ArrayList<>();
+      for (int classIndex = 0; classIndex < growthStreaks.length; classIndex++)
+      {
+         if (growthStreaks[classIndex] >= minimumConsecutiveGrowths)
+         {
+            growers.add(new ClassGrowth(
+               classNames.nameAt(classIndex),
+               newer.instancesOf(classIndex) - older.instancesOf(classIndex),
+               newer.bytesOf(classIndex) - older.bytesOf(classIndex),
+               elapsedMillis));
+         }
+      }
+      growers.sort(Comparator.comparingLong(ClassGrowth::getByteDelta).reversed());
+      return growers;
+   }
+
+   /**
+    * Update count of consecutive byte-count increases for every class.
+    *
+    * @param previous Most recent snapshot before the new one or
+    *    {@code null} if there is none.
+    * @param latest Newly recorded snapshot.
+    * @param classCount Number of known classes.
+    */
+   private void updateGrowthStreaks(
+      final HistogramSnapshot previous, final HistogramSnapshot latest, final int classCount)
+   {
+      if (growthStreaks.length < classCount)
+      {
+         growthStreaks = Arrays.copyOf(growthStreaks, classCount);
+      }
+      if (previous == null)
+      {
+         return;
+      }
+      for (int classIndex = 0; classIndex < classCount; classIndex++)
+      {
+         if (latest.bytesOf(classIndex) > previous.bytesOf(classIndex))
+         {
+            growthStreaks[classIndex]++;
+         }
+         else
+         {
+            growthStreaks[classIndex] = 0;
+         }
+      }
+   }
+
+   /**
+    * Rebuild the class name table holding only classes present in at
+    * least one retained snapshot, re-indexing every retained snapshot and
+    * growth streak to match.
+    */
+   private void pruneClassNames()
+   {
+      final int classCount = classNames.size();
+      final int[] newIndexes = new int[classCount];
+      Arrays.fill(newIndexes, -1);
+      final NameTable retainedNames = new NameTable();
+      for (int classIndex = 0; classIndex < classCount; classIndex++)
+      {
+         for (int age = 0; age < snapshotCount; age++)
+         {
+            final HistogramSnapshot snapshot = snapshotAt(age);
+            if (snapshot.instancesOf(classIndex) != 0 || snapshot.bytesOf(classIndex) != 0)
+            {
+               final String name = classNames.nameAt(classIndex);
+               newIndexes[classIndex] = retainedNames.indexOf(name, 0, name.length());
+               break;
+            }
+         }
+      }
+      final int retainedCount = retainedNames.size();
+      for (int age = 0; age < snapshotCount; age++)
+      {
+         final int slot = (nextSnapshot - snapshotCount + age + snapshots.length) % snapshots.length;
+         snapshots[slot] = snapshots[slot].reindex(newIndexes, retainedCount);
+      }
+      final int[] retainedStreaks = new int[retainedCount];
+      for (int classIndex = 0; classIndex < classCount && classIndex < growthStreaks.length; classIndex++)
+      {
+         if (newIndexes[classIndex] >= 0)
+         {
+            retainedStreaks[newIndexes[classIndex]] = growthStreaks[classIndex];
+         }
+      }
+      growthStreaks = retainedStreaks;
+      classNames = retainedNames;
+      pruneThreshold = Math.max(MINIMUM_PRUNE_THRESHOLD, retainedCount * 2);
+   }
+
+   /**
+    * Provide retained snapshot by age.
+    *
+    * @param index Index of snapshot where 0 is the oldest retained.
+    * @return Snapshot at the provided index.
+    */
+   private HistogramSnapshot snapshotAt(final int index)
+   {
+      final int oldest = (nextSnapshot - snapshotCount + snapshots.length) % snapshots.length;
+      return snapshots[(oldest + index) % snapshots.length];
+   }
+
+   /**
+    * Sums the instance and byte counts of each parsed histogram row into
+    * arrays indexed by class index.
+    */
+   private static final class SnapshotAccumulator implements ClassHistogramParser.RowHandler
+   {
+      /** Table assigning each class name its index. */
+      private final NameTable classNames;
+
+      /** Instance counts indexed by class index. */
+      private long[] instances;
+
+      /** Byte counts indexed by class index. */
+      private long[] bytes;
+
+      /**
+       * Constructor accepting table of class names.
+       *
+       * @param newClassNames Table assigning each class name its index.
+       */
+      private SnapshotAccumulator(final NameTable newClassNames)
+      {
+         this.classNames = newClassNames;
+         this.instances = new long[Math.max(newClassNames.size(), 16)];
+         this.bytes = new long[instances.length];
+      }
+
+      @Override
+      public void row(
+         final CharSequence text, final int nameStart, final int nameEnd, final long rowInstances, final long rowBytes)
+      {
+         final int classIndex = classNames.indexOf(text, nameStart, nameEnd);
+         if (classIndex >= instances.length)
+         {
+            final int newLength = Math.max(classIndex + 1, instances.length * 2);
+            instances = Arrays.copyOf(instances, newLength);
+            bytes = Arrays.copyOf(bytes, newLength);
+         }
+         instances[classIndex] += rowInstances;
+         bytes[classIndex] += rowBytes;
+      }
+
+      /**
+       * Provide the accumulated counts as a snapshot.
+       *
+       * @param timestampMillis Capture time in milliseconds since epoch.
+       * @param classCount Number of known classes.
+       * @return Snapshot of the accumulated counts.
+       */
+      private HistogramSnapshot toSnapshot(final long timestampMillis, final int classCount)
+      {
+         return new HistogramSnapshot(
+            timestampMillis, Arrays.copyOf(instances, classCount), Arrays.copyOf(bytes, classCount));
+      }
+   }
+}
@@ -0,0 +1,89 @@
+package dustin.utilities.diagnostics;
+
+/**
+ * Class histogram values captured at a single point in time, held as
+ * primitive arrays indexed by {@link NameTable} index. Classes not
+ * present in the histogram when it was captured have zero values.
+ */
+final class HistogramSnapshot
+{
+   /** Time at which the histogram was captured (milliseconds since epoch). */
+   private final long timestampMillis;
+
+   /** Instance counts indexed by class index. */
+   private final long[] instances;
+
+   /** Byte counts indexed by class index. */
+   private final long[] bytes;
+
+   /**
+    * Constructor accepting captured values.
+    *
+    * @param newTimestampMillis Capture time in milliseconds since epoch.
+    * @param newInstances Instance counts indexed by class index.
+    * @param newBytes Byte counts indexed by class index.
+    */
+   HistogramSnapshot(final long newTimestampMillis, final long[] newInstances, final long[] newBytes)
+   {
+      this.timestampMillis = newTimestampMillis;
+      this.instances = newInstances;
+      this.bytes = newBytes;
+   }
+
+   /**
+    * Provide capture time.
+    *
+    * @return Capture time in milliseconds since epoch.
+    */
+   long getTimestampMillis()
+   {
+      return timestampMillis;
+   }
+
+   /**
+    * Provide number of instances of the class with the provided index.
+    *
+    * @param classIndex Index of class.
+    * @return Number of instances of class (zero if class was not present).
+    */
+   long instancesOf(final int classIndex)
+   {
+      return classIndex < instances.length ? instances[classIndex] : 0;
+   }
+
+   /**
+    * Provide number of bytes of the class with the provided index.
+    *
+    * @param classIndex Index of class.
+    * @return Number of bytes of class (zero if class was not present).
+    */
+   long bytesOf(final int classIndex)
+   {
+      return classIndex < bytes.length ? bytes[classIndex] : 0;
+   }
+
+   /**
+    * Provide a copy of this snapshot with its values moved to new class
+    * indexes.
+    *
+    * @param newIndexes New index of each class indexed by current index,
+    *    or -1 for classes that are dropped.
+    * @param classCount Number of classes after re-indexing.
+    * @return Re-indexed snapshot.
+    */
+   HistogramSnapshot reindex(final int[] newIndexes, final int classCount)
+   {
+      final long[] newInstances = new long[classCount];
+      final long[] newBytes = new long[classCount];
+      for (int classIndex = 0; classIndex < instances.length; classIndex++)
+      {
+         final int newIndex = newIndexes[classIndex];
+         if (newIndex >= 0)
+         {
+            newInstances[newIndex] = instances[classIndex];
+            newBytes[newIndex] = bytes[classIndex];
+         }
+      }
+      return new HistogramSnapshot(timestampMillis, newInstances, newBytes);
+   }
+}
@@ -0,0 +1,172 @@
+package dustin.utilities.diagnostics;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ranks stack frames by how often they appear across a series of thread
+ * dumps taken in a row. Frames that are repeatedly at the top of the
+ * stacks of blocked threads reveal lock convoys; frames that are repeatedly
+ * at the top of runnable threads reveal where time is being spent.
+ *
+ * Counts are held in primitive arrays indexed by the frame indexes of the
+ * {@link ThreadDumpParser} that parsed the dumps, so every recorded dump
+ * must come from that parser.
+ *
+ * Instances are thread-safe.
+ */
+public class HotFrameRanking
+{
+   /** Parser that produced (and will produce) recorded dumps. */
+   private final ThreadDumpParser parser;
+
+   /** Number of times each frame was at the top of a stack. */
+   private long[] topCounts = new long[256];
+
+   /** Number of stacks in which each frame appeared at any depth. */
+   private long[] inclusiveCounts = new long[256];
+
+   /** Stack in which each frame was last counted (avoids counting recursion twice). */
+   private long[] lastCountedStack = new long[256];
+
+   /** Number of stacks counted so far. */
+   private long stackCount;
+
+   /** Number of dumps recorded so far. */
+   private int dumpCount;
+
+   /**
+    * Constructor accepting the parser whose dumps will be recorded.
+    *
+    * @param newParser Parser used to parse every dump to be recorded.
+    */
+   public HotFrameRanking(final ThreadDumpParser newParser)
+   {
+      this.parser = newParser;
+   }
+
+   /**
+    * Record the frames of every thread in the provided dump.
+    *
+    * @param dump Dump parsed by this ranking's parser.
+    */
+   public void record(final ThreadDump dump)
+   {
+      record(dump, null);
+   }
+
+   /**
+    * Record the frames of threads in the provided state.
+    *
+    * @param dump Dump parsed by this ranking's parser.
+    * @param state Only threads in this state are recorded; {@code null}
+    *    records every thread.
+    */
+   public synchronized void record(final ThreadDump dump, final Thread.State state)
+   {
+      for (final ThreadRecord thread : dump.getThreads())
+      {
+         final int[] frameIds = thread.getFrameIds();
+         if (frameIds.length == 0 || (state != null && thread.getState() != state))
+         {
+            continue;
+         }
+         stackCount++;
+         ensureCapacity(frameIds);
+         topCounts[frameIds[0]]++;
+         for (final int frameId : frameIds)
+         {
+            if (lastCountedStack[frameId] != stackCount)
+            {
+               lastCountedStack[frameId] = stackCount;
+               inclusiveCounts[frameId]++;
+            }
+         }
+      }
+      dumpCount++;
+   }
+
+   /**
+    * Provide number of dumps recorded.
+    *
+    * @return Number of dumps recorded.
+    */
+   public synchronized int getDumpCount()
+   {
+      return dumpCount;
+   }
+
+   /**
+    * Provide frames most often at the top of a recorded stack.
+    *
+    * @param count Maximum number of frames to provide.
+    * @return Frames and the number of stacks they topped, most frequent first.
+    */
+   public synchronized List<Map.Entry<String, Long>> getTopFrames(final int count)
+   {
+      return rank(topCounts, count);
+   }
+
+   /**
+    * Provide frames appearing at any depth in the most recorded stacks.
+    *
+    * @param count Maximum number of frames to provide.
+    * @return Frames and the number of stacks containing them, most
+    *    frequent first.
+    */
+   public synchronized List<Map.Entry<String, Long>> getTopFramesInclusive(final int count)
+   {
+      return rank(inclusiveCounts, count);
+   }
+
+   /**
+    * Rank frames by the provided counts.
+    *
+    * @param counts Counts indexed by frame index.
+    * @param count Maximum number of frames to provide.
+    * @return Frames with highest counts, highest first.
+    */
+   private List<Map.Entry<String, Long>> rank(final long[] counts, final int count)
+   {
+      final List<Integer> frameIds = new ArrayList<>();
+      for (int frameId = 0; frameId < counts.length; frameId++)
+      {
+         if (counts[frameId] > 0)
+         {
+            frameIds.add(frameId);
+         }
+      }
+      frameIds.sort((first, second) -> Long.compare(counts[second], counts[first]));
+      final List<Map.Entry<String, Long>> ranked = new ArrayList<>();
+      for (int i = 0; i < Math.min(count, frameIds.size()); i++)
+      {
+         final int frameId = frameIds.get(i);
+         ranked.add(new AbstractMap.SimpleImmutableEntry<>(parser.frameAt(frameId), counts[frameId]));
+      }
+      return ranked;
+   }
+
+   /**
+    * Grow count arrays to accommodate the provided frame indexes.
+    *
+    * @param frameIds Frame indexes about to be counted.
+    */
+   private void ensureCapacity(final int[] frameIds)
+   {
+      int maximum = 0;
+      for (final int frameId : frameIds)
+      {
+         maximum = Math.max(maximum, frameId);
+      }
+      if (maximum >= topCounts.length)
+      {
+         final int newLength = Math.max(maximum + 1, topCounts.length * 2);
+         topCounts = Arrays.copyOf(topCounts, newLength);
+         inclusiveCounts = Arrays.copyOf(inclusiveCounts, newLength);
+         lastCountedStack = Arrays.copyOf(lastCountedStack, newLength);
+      }
+   }
+}
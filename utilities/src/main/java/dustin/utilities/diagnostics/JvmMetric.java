@@ -0,0 +1,89 @@
+package dustin.utilities.diagnostics;
+
+/**
+ * Virtual machine metrics gathered by {@link JvmMetricsCollector}, in the
+ * order of the columns of each recorded sample.
+ */
+public enum JvmMetric
+{
+   /** Bytes of heap in use. */
+   HEAP_USED_BYTES("jvm_memory_heap_used_bytes", "Heap memory in use.", false),
+   /** Bytes of heap committed. */
+   HEAP_COMMITTED_BYTES("jvm_memory_heap_committed_bytes", "Heap memory committed.", false),
+   /** Bytes of non-heap memory in use. */
+   NON_HEAP_USED_BYTES("jvm_memory_nonheap_used_bytes", "Non-heap memory in use.", false),
+   /** Bytes of non-heap memory committed. */
+   NON_HEAP_COMMITTED_BYTES("jvm_memory_nonheap_committed_bytes", "Non-heap memory committed.", false),
+   /** Bytes of code cache in use. */
+   CODE_CACHE_USED_BYTES("jvm_code_cache_used_bytes", "Code cache in use.", false),
+   /** Garbage collections since start, across all collectors. */
+   GC_COLLECTIONS("jvm_gc_collections_total", "Garbage collections since start.", true),
+   /** Milliseconds spent collecting garbage since start, across all collectors. */
+   GC_TIME_MILLIS("jvm_gc_time_milliseconds_total", "Time spent collecting garbage since start.", true),
+   /** Live threads. */
+   THREADS("jvm_threads_live", "Live threads.", false),
+   /** Live daemon threads. */
+   DAEMON_THREADS("jvm_threads_daemon", "Live daemon threads.", false),
+   /** Peak live threads. */
+   PEAK_THREADS("jvm_threads_peak", "Peak live threads.", false),
+   /** Currently loaded classes. */
+   LOADED_CLASSES("jvm_classes_loaded", "Currently loaded classes.", false),
+   /** Classes unloaded since start. */
+   UNLOADED_CLASSES("jvm_classes_unloaded_total", "Classes unloaded since start.", true),
+   /** Milliseconds since virtual machine start. */
+   UPTIME_MILLIS("jvm_uptime_milliseconds", "Time since virtual machine start.", false);
+
+   /** Name under which metric is exported. */
+   private final String exportName;
+
+   /** Description of metric. */
+   private final String help;
+
+   /** Whether metric is a monotonically increasing counter. */
+   private final boolean counter;
+
+   /**
+    * Constructor accepting export details.
+    *
+    * @param newExportName Name under which metric is exported.
+    * @param newHelp Description of metric.
+    * @param newCounter Whether metric is a monotonically increasing counter.
+    */
+   JvmMetric(final String newExportName, final String newHelp, final boolean newCounter)
+   {
+      this.exportName = newExportName;
+      this.help = newHelp;
+      this.counter = newCounter;
+   }
+
+   /**
+    * Provide name under which metric is exported.
+    *
+    * @return Name under which metric is exported.
+    */
+   public String getExportName()
+   {
+      return exportName;
+   }
+
+   /**
+    * Provide description of metric.
+    *
+    * @return Description of metric.
+    */
+   public String getHelp()
+   {
+      return help;
+   }
+
+   /**
+    * Indicates whether metric is a monotonically increasing counter
+    * (as opposed to a gauge).
+    *
+    * @return {@code true} if metric is a counter.
+    */
+   public boolean isCounter()
+   {
+      return counter;
+   }
+}
@@ -0,0 +1,277 @@
+package dustin.utilities.diagnostics;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.RuntimeMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically samples the {@link JvmMetric}s into a fixed-size
+ * {@link MetricsRingBuffer} on a background daemon thread.
+ *
+ * The platform MXBeans are looked up once and each sample is written
+ * from a reused array, so sampling allocates nothing beyond the
+ * {@link MemoryUsage} objects the MXBeans
+ * themselves return. Uptime comes from {@link RuntimeMXBean} rather than
+ * from parsing {@link VirtualMachineDiagnostics#getVirtualMachineUptime()}.
+ *
+ * Recorded samples can be exported in the Prometheus text exposition
+ * format (see {@link PrometheusMetricsEndpoint}) or written in a compact
+ * binary form.
+ */
+public class JvmMetricsCollector
+{
+   /** Identifies binary sample files ("JVMM"). */
+   public static final int BINARY_MAGIC = 0x4A564D4D;
+
+   /** Version of binary sample file format. */
+   public static final int BINARY_VERSION = 1;
+
+   /** Name of the background sampling thread. */
+   private static final String COLLECTOR_THREAD_NAME = "dustin-metrics-collector";
+
+   /** Metrics in column order. */
+   private static final JvmMetric[] METRICS = JvmMetric.values();
+
+   /** Source of heap and non-heap usage. */
+   private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+
+   /** Sources of garbage collection counts and times. */
+   private final GarbageCollectorMXBean[] collectorBeans =
+      ManagementFactory.getGarbageCollectorMXBeans().toArray(new GarbageCollectorMXBean[0]);
+
+   /** Memory pools making up the code cache. */
+   private final MemoryPoolMXBean[] codeCachePools;
+
+   /** Source of thread counts. */
+   private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+   /** Source of class loading counts. */
+   private final ClassLoadingMXBean classLoadingBean = ManagementFactory.getClassLoadingMXBean();
+
+   /** Source of uptime. */
+   private final RuntimeMXBean runtimeBean = ManagementFactory.getRuntimeMXBean();
+
+   /** Recorded samples. */
+   private final MetricsRingBuffer samples;
+
+   /** Reused array into which each sample is gathered (writer only). */
+   private final long[] sample = new long[METRICS.length];
+
+   /** Sampling interval in milliseconds. */
+   private final long intervalMillis;
+
+   /** Scheduler running the sampling task or {@code null} if not started. */
+   private ScheduledExecutorService scheduler;
+
+   /** Scheduled sampling task or {@code null} if not started. */
+   private ScheduledFuture<?> samplingTask;
+
+   /**
+    * Constructor accepting sampling interval and number of samples retained.
+    *
+    * @param interval Time between samples.
+    * @param intervalUnit Unit of {@code interval}.
+    * @param retainedSamples Number of most recent samples retained.
+    */
+   public JvmMetricsCollector(final long interval, final TimeUnit intervalUnit, final int retainedSamples)
+   {
+      this.intervalMillis = intervalUnit.toMillis(interval);
+      if (intervalMillis <= 0)
+      {
+         throw new IllegalArgumentException("Sampling interval must be at least one millisecond.");
+      }
+      this.samples = new MetricsRingBuffer(retainedSamples, METRICS.length);
+      final List<MemoryPoolMXBean> codePools = new ArrayList<>();
+      for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+      {
+         if (pool.getName().startsWith("CodeHeap") || pool.getName().equals("Code Cache"))
+         {
+            codePools.add(pool);
+         }
+      }
+      this.codeCachePools = codePools.toArray(new MemoryPoolMXBean[0]);
+   }
+
+   /**
+    * Begin sampling on a background daemon thread. Has no effect if
+    * sampling is already in progress.
+    */
+   public synchronized void start()
+   {
+      if (samplingTask != null)
+      {
+         return;
+      }
+      scheduler = Executors.newSingleThreadScheduledExecutor(runnable ->
+      {
+         final Thread collector = new Thread(runnable, COLLECTOR_THREAD_NAME);
+         collector.setDaemon(true);
+         return collector;
+      });
+      samplingTask = scheduler.scheduleAtFixedRate(this::sample, 0, intervalMillis, TimeUnit.MILLISECONDS);
+   }
+
+   /**
+    * Stop sampling. Samples recorded so far are retained.
+    */
+   public synchronized void stop()
+   {
+      if (samplingTask != null)
+      {
+         samplingTask.cancel(false);
+         scheduler.shutdown();
+         samplingTask = null;
+         scheduler = null;
+      }
+   }
+
+   /**
+    * Record a sample immediately. Samples must only be recorded by one
+    * thread at a time; while the collector is started this is its
+    * background thread.
+    */
+   public void sample()
+   {
+      final long[] values = sample;
+      final MemoryUsage heap = memoryBean.getHeapMemoryUsage();
+      values[JvmMetric.HEAP_USED_BYTES.ordinal()] = heap.getUsed();
+      values[JvmMetric.HEAP_COMMITTED_BYTES.ordinal()] = heap.getCommitted();
+      final MemoryUsage nonHeap = memoryBean.getNonHeapMemoryUsage();
+      values[JvmMetric.NON_HEAP_USED_BYTES.ordinal()] = nonHeap.getUsed();
+      values[JvmMetric.NON_HEAP_COMMITTED_BYTES.ordinal()] = nonHeap.getCommitted();
+      long codeCacheUsed = 0;
+      for (final MemoryPoolMXBean pool : codeCachePools)
+      {
+         codeCacheUsed += pool.getUsage().getUsed();
+      }
+      values[JvmMetric.CODE_CACHE_USED_BYTES.ordinal()] = codeCacheUsed;
+      long collections = 0;
+      long collectionMillis = 0;
+      for (final GarbageCollectorMXBean collectorBean : collectorBeans)
+      {
+         collections += Math.max(0, collectorBean.getCollectionCount());
+         collectionMillis += Math.max(0, collectorBean.getCollectionTime());
+      }
+      values[JvmMetric.GC_COLLECTIONS.ordinal()] = collections;
+      values[JvmMetric.GC_TIME_MILLIS.ordinal()] = collectionMillis;
+      values[JvmMetric.THREADS.ordinal()] = threadBean.getThreadCount();
+      values[JvmMetric.DAEMON_THREADS.ordinal()] = threadBean.getDaemonThreadCount();
+      values[JvmMetric.PEAK_THREADS.ordinal()] = threadBean.getPeakThreadCount();
+      values[JvmMetric.LOADED_CLASSES.ordinal()] = classLoadingBean.getLoadedClassCount();
+      values[JvmMetric.UNLOADED_CLASSES.ordinal()] = classLoadingBean.getUnloadedClassCount();
+      values[JvmMetric.UPTIME_MILLIS.ordinal()] = runtimeBean.getUptime();
+      samples.write(System.currentTimeMillis(), values);
+   }
+
+   /**
+    * Provide recorded samples, whose columns are in {@link JvmMetric} order.
+    *
+    * @return Ring buffer of recorded samples.
+    */
+   public MetricsRingBuffer getSamples()
+   {
+      return samples;
+   }
+
+   /**
+    * Write the most recent sample in the Prometheus text exposition format.
+    *
+    * @param destination Destination of exposition text.
+    * @throws IOException Thrown if unable to write to destination.
+    */
+   public void writePrometheus(final Appendable destination) throws IOException
+   {
+      final long[] latest = new long[METRICS.length];
+      final long timestamp = samples.readLatest(latest);
+      if (timestamp < 0)
+      {
+         return;
+      }
+      for (final JvmMetric metric : METRICS)
+      {
+         destination.append("# HELP ").append(metric.getExportName()).append(' ')
+            .append(metric.getHelp()).append('\n');
+         destination.append("# TYPE ").append(metric.getExportName()).append(' ')
+            .append(metric.isCounter() ? "counter" : "gauge").append('\n');
+         destination.append(metric.getExportName()).append(' ')
+            .append(Long.toString(latest[metric.ordinal()])).append(' ')
+            .append(Long.toString(timestamp)).append('\n');
+      }
+   }
+
+   /**
+    * Write all retained samples in compact binary form: the
+    * {@link #BINARY_MAGIC} and {@link #BINARY_VERSION} {@code int}s, the
+    * number of columns followed by each column's export name, the number
+    * of samples, and then each sample's timestamp and values as
+    * {@code long}s (all in {@link DataOutputStream} encoding).
+    *
+    * @param output Destination of samples (not closed).
+    * @throws IOException Thrown if unable to write to destination.
+    */
+   public void writeBinary(final OutputStream output) throws IOException
+   {
+      final DataOutputStream data = new DataOutputStream(new BufferedOutputStream(output));
+      data.writeInt(BINARY_MAGIC);
+      data.writeInt(BINARY_VERSION);
+      data.writeInt(METRICS.length);
+      for (final JvmMetric metric : METRICS)
+      {
+         data.writeUTF(metric.getExportName());
+      }
+      final long[] values = new long[METRICS.length];
+      final long newest = samples.getNextSequence();
+      final long oldest = samples.getOldestSequence();
+      final long[] rows = new long[(int) (newest - oldest) * (METRICS.length + 1)];
+      int rowCount = 0;
+      for (long sequence = oldest; sequence < newest; sequence++)
+      {
+         final long timestamp = samples.read(sequence, values);
+         if (timestamp >= 0)
+         {
+            final int offset = rowCount++ * (METRICS.length + 1);
+            rows[offset] = timestamp;
+            System.arraycopy(values, 0, rows, offset + 1, METRICS.length);
+         }
+      }
+      data.writeLong(rowCount);
+      for (int i = 0; i < rowCount * (METRICS.length + 1); i++)
+      {
+         data.writeLong(rows[i]);
+      }
+      data.flush();
+   }
+
+   /**
+    * Write all retained samples in compact binary form to the provided
+    * file, replacing any existing content.
+    *
+    * @param file File to which samples are written.
+    * @throws IOException Thrown if unable to write to file.
+    * @see #writeBinary(OutputStream)
+    */
+   public void writeBinary(final Path file) throws IOException
+   {
+      try (final OutputStream output = Files.newOutputStream(file))
+      {
+         writeBinary(output);
+      }
+   }
+}
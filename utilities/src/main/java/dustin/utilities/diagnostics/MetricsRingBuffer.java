@@ -0,0 +1,163 @@
+package dustin.utilities.diagnostics;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-capacity ring of samples, each a timestamp and a fixed number of
+ * {@code long} values, stored in preallocated primitive arrays.
+ *
+ * Designed for a single writer and any number of concurrent readers
+ * without locks: each slot carries a sequence number that the writer
+ * clears before and sets after overwriting the slot, and readers retry
+ * (or report failure) if the sequence changes while they copy a slot.
+ * Neither writing nor reading allocates.
+ */
+public final class MetricsRingBuffer
+{
+   /** Sequence of a slot being written. */
+   private static final long WRITING = -1L;
+
+   /** Number of samples held. */
+   private final int capacity;
+
+   /** Number of values per sample. */
+   private final int width;
+
+   /** Sample values, {@code width} per slot. */
+   private final long[] values;
+
+   /** Sample timestamps (milliseconds since epoch), one per slot. */
+   private final long[] timestamps;
+
+   /** Sequence number of sample in each slot. */
+   private final AtomicLongArray slotSequences;
+
+   /** Number of samples written; sequence of the next sample. */
+   private volatile long nextSequence;
+
+   /**
+    * Constructor accepting dimensions of the ring.
+    *
+    * @param newCapacity Number of samples held.
+    * @param newWidth Number of values per sample.
+    */
+   public MetricsRingBuffer(final int newCapacity, final int newWidth)
+   {
+      if (newCapacity <= 0 || newWidth <= 0)
+      {
+         throw new IllegalArgumentException("Capacity and width must be positive.");
+      }
+      this.capacity = newCapacity;
+      this.width = newWidth;
+      this.values = new long[newCapacity * newWidth];
+      this.timestamps = new long[newCapacity];
+      this.slotSequences = new AtomicLongArray(newCapacity);
+      for (int slot = 0; slot < newCapacity; slot++)
+      {
+         slotSequences.set(slot, WRITING);
+      }
+   }
+
+   /**
+    * Provide number of samples held.
+    *
+    * @return Number of samples held.
+    */
+   public int getCapacity()
+   {
+      return capacity;
+   }
+
+   /**
+    * Provide number of values per sample.
+    *
+    * @return Number of values per sample.
+    */
+   public int getWidth()
+   {
+      return width;
+   }
+
+   /**
+    * Provide sequence number that will be assigned to the next sample;
+    * equivalently, the number of samples written so far.
+    *
+    * @return Sequence number of the next sample.
+    */
+   public long getNextSequence()
+   {
+      return nextSequence;
+   }
+
+   /**
+    * Provide sequence number of the oldest sample still held.
+    *
+    * @return Sequence number of the oldest sample still held.
+    */
+   public long getOldestSequence()
+   {
+      return Math.max(0, nextSequence - capacity);
+   }
+
+   /**
+    * Append a sample, overwriting the oldest if the ring is full. Must
+    * only be called by a single writer thread.
+    *
+    * @param timestampMillis Time of sample in milliseconds since epoch.
+    * @param sample Values of sample (at least {@link #getWidth()} long).
+    */
+   public void write(final long timestampMillis, final long[] sample)
+   {
+      final long sequence = nextSequence;
+      final int slot = (int) (sequence % capacity);
+      slotSequences.set(slot, WRITING);
+      VarHandle.storeStoreFence();
+      timestamps[slot] = timestampMillis;
+      System.arraycopy(sample, 0, values, slot * width, width);
+      slotSequences.set(slot, sequence);
+      nextSequence = sequence + 1;
+   }
+
+   /**
+    * Copy the sample with the provided sequence number.
+    *
+    * @param sequence Sequence number of sample.
+    * @param destination Array receiving the sample's values (at least
+    *    {@link #getWidth()} long).
+    * @return Timestamp of sample or -1 if the sample is no longer (or
+    *    not yet) held, including when it was overwritten during the copy.
+    */
+   public long read(final long sequence, final long[] destination)
+   {
+      if (sequence < 0)
+      {
+         return -1;
+      }
+      final int slot = (int) (sequence % capacity);
+      if (slotSequences.get(slot) != sequence)
+      {
+         return -1;
+      }
+      final long timestamp = timestamps[slot];
+      System.arraycopy(values, slot * width, destination, 0, width);
+      VarHandle.loadLoadFence();
+      return slotSequences.get(slot) == sequence ? timestamp : -1;
+   }
+
+   /**
+    * Copy the most recent sample.
+    *
+    * @param destination Array receiving the sample's values.
+    * @return Timestamp of sample or -1 if no sample has been written.
+    */
+   public long readLatest(final long[] destination)
+   {
+      long timestamp = -1;
+      for (int attempt = 0; attempt < 3 && timestamp < 0 && nextSequence > 0; attempt++)
+      {
+         timestamp = read(nextSequence - 1, destination);
+      }
+      return timestamp;
+   }
+}
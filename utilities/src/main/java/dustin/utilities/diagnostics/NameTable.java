@@ -0,0 +1,171 @@
+package dustin.utilities.diagnostics;
+
+import java.util.Arrays;
+
+/**
+ * Assigns each distinct name (such as a class name or a stack frame)
+ * a dense integer index so that per-name values can be held in
+ * primitive arrays indexed by name.
+ *
+ * Lookups hash a region of a {@link CharSequence} directly (open
+ * addressing, linear probing) so that a name seen in earlier diagnostic
+ * output is found without creating a new String for it. Each name
+ * is stored only once no matter how many snapshots or dumps refer to it.
+ *
+ * Not thread-safe; callers must synchronize externally.
+ */
+final class NameTable
+{
+   /** Marker for an unused hash slot. */
+   private static final int EMPTY = -1;
+
+   /** Names indexed by their assigned index. */
+   private String[] names = new String[1024];
+
+   /** Cached hash of each name, indexed by assigned index. */
+   private int[] hashes = new int[1024];
+
+   /** Open-addressed slots holding assigned indexes (or {@link #EMPTY}). */
+   private int[] slots = newSlots(2048);
+
+   /** Number of names assigned an index. */
+   private int size;
+
+   /**
+    * Provide number of distinct names held.
+    *
+    * @return Number of distinct names held.
+    */
+   int size()
+   {
+      return size;
+   }
+
+   /**
+    * Provide name associated with the provided index.
+    *
+    * @param index Index previously returned by {@link #indexOf}.
+    * @return Name associated with the index.
+    */
+   String nameAt(final int index)
+   {
+      return names[index];
+   }
+
+   /**
+    * Provide index of the name held in the provided region of text,
+    * assigning a new index if this name has not been seen before.
+    *
+    * @param text Text containing the name.
+    * @param start Index of first character of the name.
+    * @param end Index just past the last character of the name.
+    * @return Index assigned to the name.
+    */
+   int indexOf(final CharSequence text, final int start, final int end)
+   {
+      final int hash = hash(text, start, end);
+      final int mask = slots.length - 1;
+      int slot = hash & mask;
+      while (slots[slot] != EMPTY)
+      {
+         final int candidate = slots[slot];
+         if (hashes[candidate] == hash && regionEquals(names[candidate], text, start, end))
+         {
+            return candidate;
+         }
+         slot = (slot + 1) & mask;
+      }
+      if (size == names.length)
+      {
+         names = Arrays.copyOf(names, size * 2);
+         hashes = Arrays.copyOf(hashes, size * 2);
+      }
+      final int index = size++;
+      names[index] = text.subSequence(start, end).toString();
+      hashes[index] = hash;
+      slots[slot] = index;
+      if (size * 2 > slots.length)
+      {
+         rehash(slots.length * 2);
+      }
+      return index;
+   }
+
+   /**
+    * Rebuild slots with the provided capacity.
+    *
+    * @param capacity New number of slots (power of two).
+    */
+   private void rehash(final int capacity)
+   {
+      slots = newSlots(capacity);
+      final int mask = capacity - 1;
+      for (int index = 0; index < size; index++)
+      {
+         int slot = hashes[index] & mask;
+         while (slots[slot] != EMPTY)
+         {
+            slot = (slot + 1) & mask;
+         }
+         slots[slot] = index;
+      }
+   }
+
+   /**
+    * Create array of empty slots.
+    *
+    * @param capacity Number of slots.
+    * @return Array of empty slots.
+    */
+   private static int[] newSlots(final int capacity)
+   {
+      final int[] newSlots = new int[capacity];
+      Arrays.fill(newSlots, EMPTY);
+      return newSlots;
+   }
+
+   /**
+    * Compute hash of region of text, spread so that linear probing
+    * behaves reasonably for names with common prefixes.
+    *
+    * @param text Text containing the name.
+    * @param start Index of first character of the name.
+    * @param end Index just past the last character of the name.
+    * @return Hash of the region.
+    */
+   private static int hash(final CharSequence text, final int start, final int end)
+   {
+      int hash = 0;
+      for (int index = start; index < end; index++)
+      {
+         hash = 31 * hash + text.charAt(index);
+      }
+      return hash ^ (hash >>> 16);
+   }
+
+   /**
+    * Indicates whether the provided name matches the region of text.
+    *
+    * @param name Name held in this table.
+    * @param text Text containing the candidate name.
+    * @param start Index of first character of candidate name.
+    * @param end Index just past last character of candidate name.
+    * @return {@code true} if the name and the region are equal.
+    */
+   private static boolean regionEquals(
+      final String name, final CharSequence text, final int start, final int end)
+   {
+      if (name.length() != end - start)
+      {
+         return false;
+      }
+      for (int index = start; index < end; index++)
+      {
+         if (name.charAt(index - start) != text.charAt(index))
+         {
+            return false;
+         }
+      }
+      return true;
+   }
+}
@@ -0,0 +1,96 @@
+package dustin.utilities.diagnostics;
+
+import dustin.utilities.statistics.LogLinearHistogram;
+
+/**
+ * Distribution of garbage collection durations over a window of time.
+ * All durations are in milliseconds.
+ */
+public final class PauseStatistics
+{
+   /** Number of collections. */
+   private final long count;
+
+   /** Median duration. */
+   private final long p50;
+
+   /** 99th percentile duration. */
+   private final long p99;
+
+   /** 99.9th percentile duration. */
+   private final long p999;
+
+   /** Longest duration. */
+   private final long maximum;
+
+   /**
+    * Constructor capturing the distribution of the provided histogram.
+    *
+    * @param histogram Histogram of durations in milliseconds.
+    */
+   PauseStatistics(final LogLinearHistogram histogram)
+   {
+      this.count = histogram.getCount();
+      this.p50 = histogram.getValueAtPercentile(50.0);
+      this.p99 = histogram.getValueAtPercentile(99.0);
+      this.p999 = histogram.getValueAtPercentile(99.9);
+      this.maximum = histogram.getMaximum();
+   }
+
+   /**
+    * Provide number of collections.
+    *
+    * @return Number of collections.
+    */
+   public long getCount()
+   {
+      return count;
+   }
+
+   /**
+    * Provide median duration.
+    *
+    * @return Median duration in milliseconds.
+    */
+   public long getP50()
+   {
+      return p50;
+   }
+
+   /**
+    * Provide 99th percentile duration.
+    *
+    * @return 99th percentile duration in milliseconds.
+    */
+   public long getP99()
+   {
+      return p99;
+   }
+
+   /**
+    * Provide 99.9th percentile duration.
+    *
+    * @return 99.9th percentile duration in milliseconds.
+    */
+   public long getP999()
+   {
+      return p999;
+   }
+
+   /**
+    * Provide longest duration.
+    *
+    * @return Longest duration in milliseconds.
+    */
+   public long getMaximum()
+   {
+      return maximum;
+   }
+
+   @Override
+   public String toString()
+   {
+      return "count=" + count + ", p50=" + p50 + " ms, p99=" + p99 + " ms, p99.9="
+         + p999 + " ms, max=" + maximum + " ms";
+   }
+}
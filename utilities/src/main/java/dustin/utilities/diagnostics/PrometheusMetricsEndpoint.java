@@ -0,0 +1,90 @@
+package dustin.utilities.diagnostics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal HTTP endpoint serving the most recent sample of a
+ * {@link JvmMetricsCollector} in the Prometheus text exposition format,
+ * using the HTTP server included with the JDK.
+ */
+public class PrometheusMetricsEndpoint implements AutoCloseable
+{
+   /** Content type of the Prometheus text exposition format. */
+   private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+   /** Collector whose samples are served. */
+   private final JvmMetricsCollector collector;
+
+   /** Underlying HTTP server. */
+   private final HttpServer server;
+
+   /**
+    * Constructor accepting the collector to be served and the address
+    * and path at which to serve it. The endpoint is not started.
+    *
+    * @param newCollector Collector whose samples are served.
+    * @param address Address on which to listen (port 0 selects a free port).
+    * @param path Path of endpoint such as "{@code /metrics}".
+    * @throws IOException Thrown if unable to bind to the address.
+    */
+   public PrometheusMetricsEndpoint(
+      final JvmMetricsCollector newCollector, final InetSocketAddress address, final String path)
+      throws IOException
+   {
+      this.collector = newCollector;
+      this.server = HttpServer.create(address, 0);
+      this.server.createContext(path, this::handle);
+   }
+
+   /**
+    * Begin serving requests on a background thread.
+    */
+   public void start()
+   {
+      server.start();
+   }
+
+   /**
+    * Provide address on which the endpoint listens.
+    *
+    * @return Address on which the endpoint listens.
+    */
+   public InetSocketAddress getAddress()
+   {
+      return server.getAddress();
+   }
+
+   /**
+    * Stop serving requests.
+    */
+   @Override
+   public void close()
+   {
+      server.stop(0);
+   }
+
+   /**
+    * Respond to a single request with the most recent sample.
+    *
+    * @param exchange Request and response.
+    * @throws IOException Thrown if unable to write response.
+    */
+   private void handle(final HttpExchange exchange) throws IOException
+   {
+      final StringBuilder exposition = new StringBuilder(2048);
+      collector.writePrometheus(exposition);
+      final byte[] body = exposition.toString().getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+      exchange.sendResponseHeaders(200, body.length);
+      try (final OutputStream responseBody = exchange.getResponseBody())
+      {
+         responseBody.write(body);
+      }
+   }
+}
@@ -0,0 +1,233 @@
+package dustin.utilities.diagnostics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process sampling profiler that periodically captures the stacks of
+ * all live threads on a background daemon thread and aggregates them into
+ * a bounded prefix tree of stacks.
+ *
+ * Stacks are obtained from {@link ThreadMXBean#dumpAllThreads(boolean, boolean, int)}
+ * without lock information, which is considerably cheaper than producing
+ * and parsing {@link VirtualMachineDiagnostics#getThreadDump()} text.
+ * Aggregated samples are written in the "collapsed stack" format accepted
+ * by flame graph tools.
+ *
+ * Instances are thread-safe.
+ */
+public class SamplingProfiler
+{
+   /** Name of the background sampling thread. */
+   private static final String SAMPLER_THREAD_NAME = "dustin-sampling-profiler";
+
+   /** Source of thread stacks. */
+   private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+   /** Time between samples in nanoseconds. */
+   private final long intervalNanos;
+
+   /** Maximum number of frames captured per stack. */
+   private final int maximumDepth;
+
+   /** Whether only threads in {@link Thread.State#RUNNABLE} are sampled. */
+   private final boolean runnableOnly;
+
+   /** Whether each stack is rooted at a frame naming its thread. */
+   private final boolean perThread;
+
+   /** Aggregated samples. */
+   private final StackTrie stacks;
+
+   /** Scheduler running the sampling task or {@code null} if not started. */
+   private ScheduledExecutorService scheduler;
+
+   /** Scheduled sampling task or {@code null} if not started. */
+   private ScheduledFuture<?> samplingTask;
+
+   /** Identifier of the sampling thread (excluded from samples). */
+   private volatile long samplerThreadId = -1;
+
+   /**
+    * Constructor accepting sampling options.
+    *
+    * @param interval Time between samples.
+    * @param intervalUnit Unit of {@code interval}.
+    * @param newMaximumDepth Maximum number of frames captured per stack.
+    * @param newRunnableOnly {@code true} to sample only runnable threads
+    *    (approximating CPU time) or {@code false} to sample all threads
+    *    (approximating wall-clock time).
+    * @param newPerThread {@code true} to root each stack at a frame
+    *    holding its thread's name (with semicolons and line breaks
+    *    replaced by underscores).
+    * @param maximumNodes Maximum number of distinct stack prefixes held;
+    *    bounds the memory used by the profiler.
+    */
+   public SamplingProfiler(
+      final long interval,
+      final TimeUnit intervalUnit,
+      final int newMaximumDepth,
+      final boolean newRunnableOnly,
+      final boolean newPerThread,
+      final int maximumNodes)
+   {
+      if (interval <= 0 || newMaximumDepth <= 0 || maximumNodes <= 1)
+      {
+         throw new IllegalArgumentException(
+            "Sampling interval, maximum depth, and maximum nodes must be positive.");
+      }
+      this.intervalNanos = intervalUnit.toNanos(interval);
+      this.maximumDepth = newMaximumDepth;
+      this.runnableOnly = newRunnableOnly;
+      this.perThread = newPerThread;
+      this.stacks = new StackTrie(maximumNodes);
+   }
+
+   /**
+    * Constructor for a profiler sampling runnable threads every ten
+    * milliseconds, up to 128 frames deep, with up to one million stack
+    * prefixes.
+    */
+   public SamplingProfiler()
+   {
+      this(10, TimeUnit.MILLISECONDS, 128, true, false, 1_000_000);
+   }
+
+   /**
+    * Begin sampling on a background daemon thread. Has no effect if
+    * sampling is already in progress.
+    */
+   public synchronized void start()
+   {
+      if (samplingTask != null)
+      {
+         return;
+      }
+      scheduler = Executors.newSingleThreadScheduledExecutor(runnable ->
+      {
+         final Thread sampler = new Thread(runnable, SAMPLER_THREAD_NAME);
+         sampler.setDaemon(true);
+         samplerThreadId = sampler.getId();
+         return sampler;
+      });
+      samplingTask = scheduler.scheduleAtFixedRate(
+         this::sample, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+   }
+
+   /**
+    * Stop sampling. Samples gathered so far are retained.
+    */
+   public synchronized void stop()
+   {
+      if (samplingTask != null)
+      {
+         samplingTask.cancel(false);
+         scheduler.shutdown();
+         samplingTask = null;
+         scheduler = null;
+      }
+   }
+
+   /**
+    * Indicates whether sampling is in progress.
+    *
+    * @return {@code true} if sampling is in progress.
+    */
+   public synchronized boolean isRunning()
+   {
+      return samplingTask != null;
+   }
+
+   /**
+    * Capture a single sample of all thread stacks immediately on the
+    * calling thread.
+    */
+   public void sample()
+   {
+      final ThreadInfo[] threads = threadBean.dumpAllThreads(false, false, maximumDepth);
+      synchronized (stacks)
+      {
+         for (final ThreadInfo thread : threads)
+         {
+            if (thread == null
+               || thread.getThreadId() == samplerThreadId
+               || (runnableOnly && thread.getThreadState() != Thread.State.RUNNABLE))
+            {
+               continue;
+            }
+            final StackTraceElement[] stack = thread.getStackTrace();
+            if (stack.length > 0)
+            {
+               stacks.record(stack, perThread ? thread.getThreadName() : null);
+            }
+         }
+      }
+   }
+
+   /**
+    * Provide number of stacks sampled.
+    *
+    * @return Number of stacks sampled.
+    */
+   public long getSampleCount()
+   {
+      synchronized (stacks)
+      {
+         return stacks.getSampleCount();
+      }
+   }
+
+   /**
+    * Provide number of stacks not recorded because the maximum number of
+    * stack prefixes was reached.
+    *
+    * @return Number of stacks not recorded.
+    */
+   public long getDroppedSampleCount()
+   {
+      synchronized (stacks)
+      {
+         return stacks.getDroppedCount();
+      }
+   }
+
+   /**
+    * Write samples gathered so far in collapsed stack format.
+    *
+    * @param writer Destination of collapsed stacks (not closed).
+    * @throws IOException Thrown if unable to write.
+    */
+   public void writeCollapsedStacks(final Writer writer) throws IOException
+   {
+      synchronized (stacks)
+      {
+         stacks.writeCollapsed(writer);
+      }
+      writer.flush();
+   }
+
+   /**
+    * Write samples gathered so far in collapsed stack format to the
+    * provided file, replacing any existing content.
+    *
+    * @param file File to which collapsed stacks are written.
+    * @throws IOException Thrown if unable to write to file.
+    */
+   public void writeCollapsedStacks(final Path file) throws IOException
+   {
+      try (final Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8))
+      {
+         writeCollapsedStacks(writer);
+      }
+   }
+}
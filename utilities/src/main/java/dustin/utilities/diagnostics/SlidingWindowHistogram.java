@@ -0,0 +1,76 @@
+package dustin.utilities.diagnostics;
+
+import dustin.utilities.statistics.LogLinearHistogram;
+
+/**
+ * Log-linear histogram over a sliding window of time, kept as a ring of
+ * per-interval {@link LogLinearHistogram}s. Intervals older than the
+ * window are cleared lazily as time advances, so recording never
+ * allocates. Not thread-safe; callers must synchronize externally.
+ */
+final class SlidingWindowHistogram
+{
+   /** Histogram of each interval in the window. */
+   private final LogLinearHistogram[] intervals;
+
+   /** Interval number (time divided by interval length) held in each slot. */
+   private final long[] intervalNumbers;
+
+   /** Length of each interval in milliseconds. */
+   private final long intervalMillis;
+
+   /**
+    * Constructor accepting dimensions of the window.
+    *
+    * @param intervalCount Number of intervals in the window.
+    * @param newIntervalMillis Length of each interval in milliseconds.
+    */
+   SlidingWindowHistogram(final int intervalCount, final long newIntervalMillis)
+   {
+      this.intervals = new LogLinearHistogram[intervalCount];
+      this.intervalNumbers = new long[intervalCount];
+      for (int slot = 0; slot < intervalCount; slot++)
+      {
+         intervals[slot] = new LogLinearHistogram();
+         intervalNumbers[slot] = -1;
+      }
+      this.intervalMillis = newIntervalMillis;
+   }
+
+   /**
+    * Record a value at the provided time.
+    *
+    * @param nowMillis Current time in milliseconds.
+    * @param value Value to be recorded.
+    */
+   void record(final long nowMillis, final long value)
+   {
+      final long intervalNumber = nowMillis / intervalMillis;
+      final int slot = (int) (intervalNumber % intervals.length);
+      if (intervalNumbers[slot] != intervalNumber)
+      {
+         intervals[slot].reset();
+         intervalNumbers[slot] = intervalNumber;
+      }
+      intervals[slot].record(value);
+   }
+
+   /**
+    * Add the values recorded within the window ending at the provided
+    * time to the provided histogram.
+    *
+    * @param nowMillis Current time in milliseconds.
+    * @param accumulator Histogram to which values in the window are added.
+    */
+   void addWindowTo(final long nowMillis, final LogLinearHistogram accumulator)
+   {
+      final long currentInterval = nowMillis / intervalMillis;
+      for (int slot = 0; slot < intervals.length; slot++)
+      {
+         if (intervalNumbers[slot] > currentInterval - intervals.length)
+         {
+            accumulator.add(intervals[slot]);
+         }
+      }
+   }
+}
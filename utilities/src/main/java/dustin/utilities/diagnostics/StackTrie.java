@@ -0,0 +1,340 @@
+package dustin.utilities.diagnostics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prefix tree of sampled stacks (root frame first) with a sample count
+ * at each node.
+ *
+ * Nodes are held in parallel primitive arrays and children are found
+ * through an open-addressed table keyed on parent node and frame, so
+ * recording a stack that has been seen before allocates nothing.
+ * The number of nodes is bounded; stacks that would need more nodes
+ * than allowed are counted as dropped rather than recorded. Frames are
+ * identified by class and method name only (line numbers are ignored),
+ * and no new frame is indexed once the node limit has been reached, so
+ * the frame table is bounded by the node limit as well.
+ *
+ * Not thread-safe; callers must synchronize externally.
+ */
+final class StackTrie
+{
+   /** Index of root node. */
+   private static final int ROOT = 0;
+
+   /** Marker for an unused child-table slot. */
+   private static final long EMPTY_KEY = -1L;
+
+   /** Maximum number of nodes (including root). */
+   private final int maximumNodes;
+
+   /** Index of each frame, keyed by class name and then by method name. */
+   private final Map<String, Map<String, Integer>> frameIds = new HashMap<>();
+
+   /** Index of each synthetic root frame, keyed by name. */
+   private final Map<String, Integer> rootFrameIds = new HashMap<>();
+
+   /** Frame names (such as "java.lang.Thread.sleep") indexed by frame index. */
+   private final List<String> frameNames = new ArrayList<>();
+
+   /** Parent node of each node. */
+   private int[] parents = new int[1024];
+
+   /** Frame index of each node. */
+   private int[] frames = new int[1024];
+
+   /** Number of samples whose stack ended at each node. */
+   private long[] counts = new long[1024];
+
+   /** Number of nodes in use (including root). */
+   private int nodeCount = 1;
+
+   /** Child table keys combining parent node and frame index. */
+   private long[] childKeys = newChildKeys(2048);
+
+   /** Child table values holding the child node. */
+   private int[] childNodes = new int[2048];
+
+   /** Number of samples recorded. */
+   private long sampleCount;
+
+   /** Number of samples dropped because the node limit was reached. */
+   private long droppedCount;
+
+   /**
+    * Constructor accepting the maximum number of nodes.
+    *
+    * @param newMaximumNodes Maximum number of nodes to be held.
+    */
+   StackTrie(final int newMaximumNodes)
+   {
+      this.maximumNodes = newMaximumNodes;
+   }
+
+   /**
+    * Record a single sampled stack.
+    *
+    * @param stack Stack as provided by {@link Thread#getStackTrace()}
+    *    (top of stack first).
+    * @param rootName Name of synthetic root-most frame (such as the
+    *    thread name) or {@code null} for none.
+    */
+   void record(final StackTraceElement[] stack, final String rootName)
+   {
+      int node = ROOT;
+      if (rootName != null)
+      {
+         node = child(node, rootFrameId(rootName));
+      }
+      for (int depth = stack.length - 1; depth >= 0 && node >= 0; depth--)
+      {
+         node = child(node, frameId(stack[depth]));
+      }
+      if (node < 0)
+      {
+         droppedCount++;
+      }
+      else
+      {
+         counts[node]++;
+         sampleCount++;
+      }
+   }
+
+   /**
+    * Provide number of samples recorded.
+    *
+    * @return Number of samples recorded.
+    */
+   long getSampleCount()
+   {
+      return sampleCount;
+   }
+
+   /**
+    * Provide number of samples dropped because the node limit was reached.
+    *
+    * @return Number of samples dropped.
+    */
+   long getDroppedCount()
+   {
+      return droppedCount;
+   }
+
+   /**
+    * Provide number of nodes in use.
+    *
+    * @return Number of nodes in use (including root).
+    */
+   int getNodeCount()
+   {
+      return nodeCount;
+   }
+
+   /**
+    * Write recorded stacks in the "collapsed stack" format consumed by
+    * flame graph tools: one line per distinct stack with frames root
+    * first, separated by semicolons, followed by a space and the count.
+    *
+    * @param writer Destination of collapsed stacks.
+    * @throws IOException Thrown if unable to write.
+    */
+   void writeCollapsed(final Writer writer) throws IOException
+   {
+      final StringBuilder line = new StringBuilder();
+      final int[] path = new int[nodeCount];
+      for (int node = 1; node < nodeCount; node++)
+      {
+         if (counts[node] == 0)
+         {
+            continue;
+         }
+         int depth = 0;
+         for (int current = node; current != ROOT; current = parents[current])
+         {
+            path[depth++] = frames[current];
+         }
+         line.setLength(0);
+         for (int i = depth - 1; i >= 0; i--)
+         {
+            line.append(frameNames.get(path[i]));
+            if (i > 0)
+            {
+               line.append(';');
+            }
+         }
+         line.append(' ').append(counts[node]).append('\n');
+         writer.append(line);
+      }
+   }
+
+   /**
+    * Provide child of the provided node for the provided frame,
+    * creating it if necessary.
+    *
+    * @param parent Parent node.
+    * @param frameId Frame index or -1 if the frame could not be indexed.
+    * @return Child node or -1 if the node limit has been reached.
+    */
+   private int child(final int parent, final int frameId)
+   {
+      if (frameId < 0)
+      {
+         return -1;
+      }
+      final long key = ((long) parent << 32) | (frameId & 0xFFFFFFFFL);
+      final int mask = childKeys.length - 1;
+      int slot = (int) (mix(key) & mask);
+      while (childKeys[slot] != EMPTY_KEY)
+      {
+         if (childKeys[slot] == key)
+         {
+            return childNodes[slot];
+         }
+         slot = (slot + 1) & mask;
+      }
+      if (nodeCount >= maximumNodes)
+      {
+         return -1;
+      }
+      if (nodeCount == parents.length)
+      {
+         parents = Arrays.copyOf(parents, nodeCount * 2);
+         frames = Arrays.copyOf(frames, nodeCount * 2);
+         counts = Arrays.copyOf(counts, nodeCount * 2);
+      }
+      final int node = nodeCount++;
+      parents[node] = parent;
+      frames[node] = frameId;
+      childKeys[slot] = key;
+      childNodes[slot] = node;
+      if (nodeCount * 2 > childKeys.length)
+      {
+         rehash(childKeys.length * 2);
+      }
+      return node;
+   }
+
+   /**
+    * Provide index of the class and method of the provided stack trace
+    * element, assigning one if it has not been seen before.
+    *
+    * @param element Stack trace element.
+    * @return Frame index or -1 if the frame is new and the node limit
+    *    has been reached.
+    */
+   private int frameId(final StackTraceElement element)
+   {
+      final Map<String, Integer> methodIds = frameIds.get(element.getClassName());
+      final Integer existing = methodIds == null ? null : methodIds.get(element.getMethodName());
+      if (existing != null)
+      {
+         return existing;
+      }
+      if (nodeCount >= maximumNodes)
+      {
+         return -1;
+      }
+      final int frameId = frameNames.size();
+      frameNames.add(element.getClassName() + "." + element.getMethodName());
+      frameIds.computeIfAbsent(element.getClassName(), className -> new HashMap<>())
+         .put(element.getMethodName(), frameId);
+      return frameId;
+   }
+
+   /**
+    * Provide index of a synthetic root frame with the provided name,
+    * assigning one if it has not been seen before.
+    *
+    * @param rootName Name of root frame.
+    * @return Frame index or -1 if the frame is new and the node limit
+    *    has been reached.
+    */
+   private int rootFrameId(final String rootName)
+   {
+      final Integer existing = rootFrameIds.get(rootName);
+      if (existing != null)
+      {
+         return existing;
+      }
+      if (nodeCount >= maximumNodes)
+      {
+         return -1;
+      }
+      final int frameId = frameNames.size();
+      frameNames.add(toCollapsedFrameName(rootName));
+      rootFrameIds.put(rootName, frameId);
+      return frameId;
+   }
+
+   /**
+    * Provide the provided name with the characters that separate frames
+    * and stacks in the collapsed format (semicolons and line breaks)
+    * replaced by underscores.
+    *
+    * @param name Name such as a thread name.
+    * @return Name safe to write as a single collapsed frame.
+    */
+   private static String toCollapsedFrameName(final String name)
+   {
+      return name.replace(';', '_').replace('\n', '_').replace('\r', '_');
+   }
+
+   /**
+    * Rebuild child table with the provided capacity.
+    *
+    * @param capacity New number of slots (power of two).
+    */
+   private void rehash(final int capacity)
+   {
+      final long[] oldKeys = childKeys;
+      final int[] oldNodes = childNodes;
+      childKeys = newChildKeys(capacity);
+      childNodes = new int[capacity];
+      final int mask = capacity - 1;
+      for (int i = 0; i < oldKeys.length; i++)
+      {
+         if (oldKeys[i] != EMPTY_KEY)
+         {
+            int slot = (int) (mix(oldKeys[i]) & mask);
+            while (childKeys[slot] != EMPTY_KEY)
+            {
+               slot = (slot + 1) & mask;
+            }
+            childKeys[slot] = oldKeys[i];
+            childNodes[slot] = oldNodes[i];
+         }
+      }
+   }
+
+   /**
+    * Create empty child table keys.
+    *
+    * @param capacity Number of slots.
+    * @return Array of empty keys.
+    */
+   private static long[] newChildKeys(final int capacity)
+   {
+      final long[] keys = new long[capacity];
+      Arrays.fill(keys, EMPTY_KEY);
+      return keys;
+   }
+
+   /**
+    * Spread bits of key for use as a hash.
+    *
+    * @param key Key to be hashed.
+    * @return Hash of key.
+    */
+   private static long mix(final long key)
+   {
+      final long hash = key * 0x9E3779B97F4A7C15L;
+      return hash ^ (hash >>> 32);
+   }
+}
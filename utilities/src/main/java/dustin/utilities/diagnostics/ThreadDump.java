@@ -0,0 +1,242 @@
+package dustin.utilities.diagnostics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parsed thread dump along with analyses of it: grouping of threads with
+ * identical stacks, lock ownership and contention, and deadlock detection.
+ */
+public final class ThreadDump
+{
+   /** Threads in the order in which they appear in the dump. */
+   private final List<ThreadRecord> threads;
+
+   /** Class name of each lock, keyed by lock identity. */
+   private final Map<String, String> lockClassNames;
+
+   /** Thread holding each lock, keyed by lock identity. */
+   private final Map<String, ThreadRecord> lockOwners;
+
+   /**
+    * Constructor accepting parsed threads.
+    *
+    * @param newThreads Threads in order of appearance in the dump.
+    * @param newLockClassNames Class name of each lock keyed by lock identity.
+    */
+   ThreadDump(final List<ThreadRecord> newThreads, final Map<String, String> newLockClassNames)
+   {
+      this.threads = Collections.unmodifiableList(newThreads);
+      this.lockClassNames = Collections.unmodifiableMap(newLockClassNames);
+      final Map<String, ThreadRecord> owners = new HashMap<>();
+      for (final ThreadRecord thread : newThreads)
+      {
+         for (final String lock : thread.getHeldLocks())
+         {
+            owners.put(lock, thread);
+         }
+      }
+      this.lockOwners = owners;
+   }
+
+   /**
+    * Provide all threads in the dump.
+    *
+    * @return Unmodifiable list of threads in order of appearance.
+    */
+   public List<ThreadRecord> getThreads()
+   {
+      return threads;
+   }
+
+   /**
+    * Provide thread with the provided name.
+    *
+    * @param threadName Name of thread.
+    * @return First thread with the provided name or {@code null} if none.
+    */
+   public ThreadRecord getThread(final String threadName)
+   {
+      for (final ThreadRecord thread : threads)
+      {
+         if (thread.getName().equals(threadName))
+         {
+            return thread;
+         }
+      }
+      return null;
+   }
+
+   /**
+    * Provide threads in the provided state.
+    *
+    * @param state Java thread state.
+    * @return Threads in the provided state.
+    */
+   public List<ThreadRecord> getThreads(final Thread.State state)
+   {
+      final List<ThreadRecord> matching = new ArrayList<>();
+      for (final ThreadRecord thread : threads)
+      {
+         if (thread.getState() == state)
+         {
+            matching.add(thread);
+         }
+      }
+      return matching;
+   }
+
+   /**
+    * Provide class name of the lock with the provided identity.
+    *
+    * @param lock Lock identity.
+    * @return Class name of lock (such as "{@code java.lang.Object}")
+    *    or {@code null} if unknown.
+    */
+   public String getLockClassName(final String lock)
+   {
+      return lockClassNames.get(lock);
+   }
+
+   /**
+    * Provide thread holding the lock with the provided identity.
+    *
+    * @param lock Lock identity.
+    * @return Thread holding the lock or {@code null} if no thread in
+    *    the dump is reported as holding it.
+    */
+   public ThreadRecord getOwner(final String lock)
+   {
+      return lockOwners.get(lock);
+   }
+
+   /**
+    * Group threads with identical stacks, largest group first. Threads
+    * without any Java frames are not included.
+    *
+    * @return Groups of threads sharing an identical stack, each keyed by
+    *    that stack (top of stack first).
+    */
+   public Map<List<String>, List<ThreadRecord>> groupByStack()
+   {
+      final Map<FrameKey, List<ThreadRecord>> groups = new HashMap<>();
+      for (final ThreadRecord thread : threads)
+      {
+         if (thread.getFrameIds().length > 0)
+         {
+            groups.computeIfAbsent(new FrameKey(thread.getFrameIds()), key -> new ArrayList<>()).add(thread);
+         }
+      }
+      final List<List<ThreadRecord>> ordered = new ArrayList<>(groups.values());
+      ordered.sort((first, second) -> Integer.compare(second.size(), first.size()));
+      final Map<List<String>, List<ThreadRecord>> grouped = new LinkedHashMap<>();
+      for (final List<ThreadRecord> group : ordered)
+      {
+         grouped.put(group.get(0).getFrames(), Collections.unmodifiableList(group));
+      }
+      return grouped;
+   }
+
+   /**
+    * Provide threads waiting on each contended lock, most contended first.
+    *
+    * @return Threads waiting for each lock keyed by lock identity.
+    */
+   public Map<String, List<ThreadRecord>> getContendedLocks()
+   {
+      final Map<String, List<ThreadRecord>> waiters = new HashMap<>();
+      for (final ThreadRecord thread : threads)
+      {
+         if (thread.getAwaitedLock() != null)
+         {
+            waiters.computeIfAbsent(thread.getAwaitedLock(), key -> new ArrayList<>()).add(thread);
+         }
+      }
+      final List<Map.Entry<String, List<ThreadRecord>>> ordered = new ArrayList<>(waiters.entrySet());
+      ordered.sort((first, second) -> Integer.compare(second.getValue().size(), first.getValue().size()));
+      final Map<String, List<ThreadRecord>> contended = new LinkedHashMap<>();
+      for (final Map.Entry<String, List<ThreadRecord>> entry : ordered)
+      {
+         contended.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+      }
+      return contended;
+   }
+
+   /**
+    * Find cycles of threads each waiting for a lock held by the next.
+    *
+    * Each thread awaits at most one lock and each lock has at most one
+    * owner, so the wait-for graph has at most one outgoing edge per thread
+    * and every cycle is found with a single walk from each thread.
+    *
+    * @return Deadlocked thread cycles; empty if there are none.
+    */
+   public List<List<ThreadRecord>> findDeadlocks()
+   {
+      final List<List<ThreadRecord>> deadlocks = new ArrayList<>();
+      final Map<ThreadRecord, Integer> walkOfThread = new HashMap<>();
+      int walk = 0;
+      for (final ThreadRecord start : threads)
+      {
+         if (walkOfThread.containsKey(start))
+         {
+            continue;
+         }
+         walk++;
+         final List<ThreadRecord> path = new ArrayList<>();
+         ThreadRecord current = start;
+         while (current != null && !walkOfThread.containsKey(current))
+         {
+            walkOfThread.put(current, walk);
+            path.add(current);
+            current = current.getAwaitedLock() != null ? lockOwners.get(current.getAwaitedLock()) : null;
+         }
+         if (current != null && walkOfThread.get(current) == walk)
+         {
+            deadlocks.add(Collections.unmodifiableList(
+               new ArrayList<>(path.subList(path.indexOf(current), path.size()))));
+         }
+      }
+      return deadlocks;
+   }
+
+   /**
+    * Map key comparing stacks by their frame indexes.
+    */
+   private static final class FrameKey
+   {
+      /** Frame indexes. */
+      private final int[] frameIds;
+
+      /** Cached hash code. */
+      private final int hash;
+
+      /**
+       * Constructor accepting frame indexes.
+       *
+       * @param newFrameIds Frame indexes.
+       */
+      private FrameKey(final int[] newFrameIds)
+      {
+         this.frameIds = newFrameIds;
+         this.hash = Arrays.hashCode(newFrameIds);
+      }
+
+      @Override
+      public boolean equals(final Object other)
+      {
+         return other instanceof FrameKey && Arrays.equals(frameIds, ((FrameKey) other).frameIds);
+      }
+
+      @Override
+      public int hashCode()
+      {
+         return hash;
+      }
+   }
+}
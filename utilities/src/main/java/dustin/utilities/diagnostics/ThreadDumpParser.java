@@ -0,0 +1,353 @@
+package dustin.utilities.diagnostics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses the text produced by the {@code Thread.print} diagnostic command
+ * into a {@link ThreadDump}.
+ *
+ * Each parser keeps a table of every stack frame it has seen. A frame is
+ * looked up directly from its position in the dump text, so parsing a
+ * later dump containing the same frames creates no new frame strings and
+ * threads from all dumps parsed by the same parser share them. Reusing one
+ * parser for a series of dumps is therefore much cheaper than creating a
+ * parser for each dump.
+ *
+ * Instances are thread-safe.
+ */
+public class ThreadDumpParser
+{
+   /** Prefix of a stack frame line (after leading whitespace). */
+   private static final String FRAME_PREFIX = "at ";
+
+   /** Prefix of a thread state line (after leading whitespace). */
+   private static final String STATE_PREFIX = "java.lang.Thread.State: ";
+
+   /** Prefix of a held monitor line. */
+   private static final String LOCKED_PREFIX = "- locked <";
+
+   /** Prefix of a line for a monitor being entered. */
+   private static final String WAITING_TO_LOCK_PREFIX = "- waiting to lock <";
+
+   /** Prefix of a line for a synchronizer being waited for. */
+   private static final String PARKING_PREFIX = "- parking to wait for  <";
+
+   /** Prefix of a line for a monitor released by {@code Object.wait()}. */
+   private static final String WAITING_ON_PREFIX = "- waiting on <";
+
+   /** Prefix of an entry in the "Locked ownable synchronizers" section. */
+   private static final String OWNABLE_PREFIX = "- <";
+
+   /** Prefix of class name following a lock identity. */
+   private static final String LOCK_CLASS_PREFIX = "(a ";
+
+   /** Start of section following the threads when a deadlock is found. */
+   private static final String DEADLOCK_SECTION_PREFIX = "Found ";
+
+   /** Start of section following the threads. */
+   private static final String JNI_SECTION_PREFIX = "JNI global ";
+
+   /** Stack frames seen by this parser. */
+   private final NameTable frameTable = new NameTable();
+
+   /** Frame indexes of thread currently being parsed. */
+   private int[] currentFrames = new int[256];
+
+   /**
+    * Parse the provided thread dump text.
+    *
+    * @param threadDumpText Text as returned by
+    *    {@link VirtualMachineDiagnostics#getThreadDump()}.
+    * @return Parsed thread dump.
+    */
+   public synchronized ThreadDump parse(final CharSequence threadDumpText)
+   {
+      final List<ThreadRecord> threads = new ArrayList<>();
+      final Map<String, String> lockClassNames = new HashMap<>();
+      final int length = threadDumpText.length();
+
+      String name = null;
+      boolean daemon = false;
+      Thread.State state = null;
+      int frameCount = 0;
+      List<String> heldLocks = new ArrayList<>();
+      String awaitedLock = null;
+      String releasedLock = null;
+
+      int lineStart = 0;
+      while (true)
+      {
+         int lineEnd = lineStart;
+         while (lineEnd < length && threadDumpText.charAt(lineEnd) != '\n')
+         {
+            lineEnd++;
+         }
+         int end = lineEnd;
+         if (end > lineStart && threadDumpText.charAt(end - 1) == '\r')
+         {
+            end--;
+         }
+         final int start = skipWhitespace(threadDumpText, lineStart, end);
+         final int nameEnd = threadHeaderNameEnd(threadDumpText, lineStart, end);
+         final boolean endOfThreads = lineStart >= length
+            || startsWith(threadDumpText, lineStart, end, DEADLOCK_SECTION_PREFIX)
+            || startsWith(threadDumpText, lineStart, end, JNI_SECTION_PREFIX);
+
+         if (nameEnd >= 0 || endOfThreads)
+         {
+            if (name != null)
+            {
+               threads.add(new ThreadRecord(
+                  name, daemon, state, Arrays.copyOf(currentFrames, frameCount), frameTable,
+                  heldLocks, awaitedLock));
+               state = null;
+               frameCount = 0;
+               heldLocks = new ArrayList<>();
+               awaitedLock = null;
+               releasedLock = null;
+            }
+            if (endOfThreads)
+            {
+               break;
+            }
+            name = threadDumpText.subSequence(lineStart + 1, nameEnd).toString();
+            daemon = indexOf(threadDumpText, " daemon ", nameEnd, end) >= 0;
+         }
+         else if (name != null)
+         {
+            if (startsWith(threadDumpText, start, end, FRAME_PREFIX))
+            {
+               if (frameCount == currentFrames.length)
+               {
+                  currentFrames = Arrays.copyOf(currentFrames, frameCount * 2);
+               }
+               currentFrames[frameCount++] = frameTable.indexOf(threadDumpText, start + FRAME_PREFIX.length(), end);
+            }
+            else if (startsWith(threadDumpText, start, end, STATE_PREFIX))
+            {
+               state = parseState(threadDumpText, start + STATE_PREFIX.length(), end);
+            }
+            else if (startsWith(threadDumpText, start, end, LOCKED_PREFIX))
+            {
+               final String lock = readLock(threadDumpText, start + LOCKED_PREFIX.length(), end, lockClassNames);
+               if (lock != null && !lock.equals(releasedLock))
+               {
+                  heldLocks.add(lock);
+               }
+            }
+            else if (startsWith(threadDumpText, start, end, WAITING_TO_LOCK_PREFIX))
+            {
+               awaitedLock = readLock(threadDumpText, start + WAITING_TO_LOCK_PREFIX.length(), end, lockClassNames);
+            }
+            else if (startsWith(threadDumpText, start, end, PARKING_PREFIX))
+            {
+               awaitedLock = readLock(threadDumpText, start + PARKING_PREFIX.length(), end, lockClassNames);
+            }
+            else if (startsWith(threadDumpText, start, end, WAITING_ON_PREFIX))
+            {
+               releasedLock = readLock(threadDumpText, start + WAITING_ON_PREFIX.length(), end, lockClassNames);
+            }
+            else if (startsWith(threadDumpText, start, end, OWNABLE_PREFIX))
+            {
+               final String lock = readLock(threadDumpText, start + OWNABLE_PREFIX.length(), end, lockClassNames);
+               if (lock != null)
+               {
+                  heldLocks.add(lock);
+               }
+            }
+         }
+         lineStart = lineEnd + 1;
+      }
+      return new ThreadDump(threads, lockClassNames);
+   }
+
+   /**
+    * Provide number of distinct stack frames seen by this parser.
+    *
+    * @return Number of distinct stack frames seen by this parser.
+    */
+   public synchronized int getDistinctFrameCount()
+   {
+      return frameTable.size();
+   }
+
+   /**
+    * Provide stack frame with the provided index.
+    *
+    * @param frameId Frame index.
+    * @return Stack frame.
+    */
+   synchronized String frameAt(final int frameId)
+   {
+      return frameTable.nameAt(frameId);
+   }
+
+   /**
+    * Provide index of the closing quote of the thread name if the line is
+    * a thread header such as
+    * "{@code "main" #1 prio=5 os_prio=0 ... runnable}". Lines naming a
+    * thread in the deadlock report ("{@code "main":}") are not headers.
+    *
+    * @param text Text containing the line.
+    * @param start Index of first character of the line.
+    * @param end Index of end of line.
+    * @return Index of closing quote or -1 if the line is not a thread header.
+    */
+   private static int threadHeaderNameEnd(final CharSequence text, final int start, final int end)
+   {
+      if (start == end || text.charAt(start) != '"')
+      {
+         return -1;
+      }
+      final int nameEnd = lastIndexOf(text, '"', start + 1, end);
+      return nameEnd > start && nameEnd + 1 < end && text.charAt(nameEnd + 1) == ' ' ? nameEnd : -1;
+   }
+
+   /**
+    * Parse thread state such as "{@code BLOCKED (on object monitor)}".
+    *
+    * @param text Text containing the state.
+    * @param start Index of first character of the state.
+    * @param end Index of end of line.
+    * @return Java thread state or {@code null} if not recognized.
+    */
+   private static Thread.State parseState(final CharSequence text, final int start, final int end)
+   {
+      for (final Thread.State candidate : Thread.State.values())
+      {
+         final String stateName = candidate.name();
+         if (startsWith(text, start, end, stateName)
+            && (start + stateName.length() == end || text.charAt(start + stateName.length()) == ' '))
+         {
+            return candidate;
+         }
+      }
+      return null;
+   }
+
+   /**
+    * Read lock identity such as "{@code 0x00000000a238e088}" terminated
+    * by '{@code >}' and record the class name that follows it.
+    *
+    * @param text Text containing the lock identity.
+    * @param start Index of first character of the identity.
+    * @param end Index of end of line.
+    * @param lockClassNames Class names of locks keyed by identity.
+    * @return Lock identity or {@code null} if the line is malformed.
+    */
+   private static String readLock(
+      final CharSequence text, final int start, final int end, final Map<String, String> lockClassNames)
+   {
+      final int identityEnd = indexOf(text, ">", start, end);
+      if (identityEnd < 0)
+      {
+         return null;
+      }
+      final String lock = text.subSequence(start, identityEnd).toString();
+      final int classStart = indexOf(text, LOCK_CLASS_PREFIX, identityEnd, end);
+      if (classStart >= 0 && !lockClassNames.containsKey(lock))
+      {
+         final int classNameStart = classStart + LOCK_CLASS_PREFIX.length();
+         final int classNameEnd = lastIndexOf(text, ')', classNameStart, end);
+         if (classNameEnd > classNameStart)
+         {
+            lockClassNames.put(lock, text.subSequence(classNameStart, classNameEnd).toString());
+         }
+      }
+      return lock;
+   }
+
+   /**
+    * Indicates whether region of text starts with the provided prefix.
+    *
+    * @param text Text to be examined.
+    * @param start Index at which region begins.
+    * @param end Index at which region ends.
+    * @param prefix Prefix to look for.
+    * @return {@code true} if region starts with prefix.
+    */
+   private static boolean startsWith(
+      final CharSequence text, final int start, final int end, final String prefix)
+   {
+      final int prefixLength = prefix.length();
+      if (end - start < prefixLength)
+      {
+         return false;
+      }
+      for (int i = 0; i < prefixLength; i++)
+      {
+         if (text.charAt(start + i) != prefix.charAt(i))
+         {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Provide index of first occurrence of target in region of text.
+    *
+    * @param text Text to be searched.
+    * @param target String to be found.
+    * @param start Index at which to begin search.
+    * @param end Index at which to end search.
+    * @return Index of target or -1 if not found.
+    */
+   private static int indexOf(
+      final CharSequence text, final String target, final int start, final int end)
+   {
+      for (int index = start; index <= end - target.length(); index++)
+      {
+         if (startsWith(text, index, end, target))
+         {
+            return index;
+         }
+      }
+      return -1;
+   }
+
+   /**
+    * Provide index of last occurrence of character in region of text.
+    *
+    * @param text Text to be searched.
+    * @param target Character to be found.
+    * @param start Index at which to begin search.
+    * @param end Index at which to end search.
+    * @return Index of character or -1 if not found.
+    */
+   private static int lastIndexOf(
+      final CharSequence text, final char target, final int start, final int end)
+   {
+      for (int index = end - 1; index >= start; index--)
+      {
+         if (text.charAt(index) == target)
+         {
+            return index;
+         }
+      }
+      return -1;
+   }
+
+   /**
+    * Provide index of first non-whitespace character at or after
+    * {@code from}.
+    *
+    * @param text Text being scanned.
+    * @param from Index at which to start scanning.
+    * @param end Index at which to stop scanning.
+    * @return Index of first non-whitespace character or {@code end}.
+    */
+   private static int skipWhitespace(final CharSequence text, final int from, final int end)
+   {
+      int index = from;
+      while (index < end && Character.isWhitespace(text.charAt(index)))
+      {
+         index++;
+      }
+      return index;
+   }
+}
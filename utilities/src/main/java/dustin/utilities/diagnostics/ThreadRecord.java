@@ -0,0 +1,177 @@
+package dustin.utilities.diagnostics;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Single thread as reported in a thread dump: its name, state, stack
+ * frames, and the monitors and synchronizers it holds or awaits.
+ *
+ * Stack frame strings are shared with every other thread record
+ * produced by the same {@link ThreadDumpParser}.
+ */
+public final class ThreadRecord
+{
+   /** Name of thread. */
+   private final String name;
+
+   /** Whether thread is a daemon thread. */
+   private final boolean daemon;
+
+   /** Java thread state or {@code null} for VM-internal threads. */
+   private final Thread.State state;
+
+   /** Indexes of stack frames (top of stack first) in parser's frame table. */
+   private final int[] frameIds;
+
+   /** Stack frames (top of stack first). */
+   private final List<String> frames;
+
+   /** Identities (such as "0x00000000a238e088") of held locks. */
+   private final List<String> heldLocks;
+
+   /** Identity of lock being waited for or {@code null}. */
+   private final String awaitedLock;
+
+   /**
+    * Constructor accepting the parsed thread details.
+    *
+    * @param newName Name of thread.
+    * @param newDaemon Whether thread is a daemon thread.
+    * @param newState Java thread state or {@code null} if not reported.
+    * @param newFrameIds Indexes of stack frames in the frame table.
+    * @param newFrameNames Stack frames, top of stack first, indexed by
+    *    frame index (shared, not copied).
+    * @param newHeldLocks Identities of held locks.
+    * @param newAwaitedLock Identity of lock the thread is blocked
+    *    acquiring or {@code null}.
+    */
+   ThreadRecord(
+      final String newName,
+      final boolean newDaemon,
+      final Thread.State newState,
+      final int[] newFrameIds,
+      final NameTable newFrameNames,
+      final List<String> newHeldLocks,
+      final String newAwaitedLock)
+   {
+      this.name = newName;
+      this.daemon = newDaemon;
+      this.state = newState;
+      this.frameIds = newFrameIds;
+      final String[] frameStrings = new String[newFrameIds.length];
+      for (int i = 0; i < frameStrings.length; i++)
+      {
+         frameStrings[i] = newFrameNames.nameAt(newFrameIds[i]);
+      }
+      this.frames = new AbstractList<String>()
+      {
+         @Override
+         public String get(final int index)
+         {
+            return frameStrings[index];
+         }
+
+         @Override
+         public int size()
+         {
+            return frameStrings.length;
+         }
+      };
+      this.heldLocks = Collections.unmodifiableList(newHeldLocks);
+      this.awaitedLock = newAwaitedLock;
+   }
+
+   /**
+    * Provide name of thread.
+    *
+    * @return Name of thread.
+    */
+   public String getName()
+   {
+      return name;
+   }
+
+   /**
+    * Indicates whether thread is a daemon thread.
+    *
+    * @return {@code true} if thread is a daemon thread.
+    */
+   public boolean isDaemon()
+   {
+      return daemon;
+   }
+
+   /**
+    * Provide Java thread state.
+    *
+    * @return Java thread state or {@code null} for VM-internal threads
+    *    that do not report one.
+    */
+   public Thread.State getState()
+   {
+      return state;
+   }
+
+   /**
+    * Provide stack frames such as
+    * "{@code java.lang.Object.wait(java.base@17/Native Method)}".
+    *
+    * @return Unmodifiable list of stack frames, top of stack first.
+    */
+   public List<String> getFrames()
+   {
+      return frames;
+   }
+
+   /**
+    * Provide top stack frame.
+    *
+    * @return Top stack frame or {@code null} if thread has no Java frames.
+    */
+   public String getTopFrame()
+   {
+      return frames.isEmpty() ? null : frames.get(0);
+   }
+
+   /**
+    * Provide identities of monitors and ownable synchronizers held by
+    * this thread. Monitors released by {@code Object.wait()} are not
+    * included.
+    *
+    * @return Unmodifiable list of held lock identities.
+    */
+   public List<String> getHeldLocks()
+   {
+      return heldLocks;
+   }
+
+   /**
+    * Provide identity of the monitor this thread is blocked entering or
+    * the synchronizer it is parked waiting for.
+    *
+    * @return Identity of awaited lock or {@code null} if none.
+    */
+   public String getAwaitedLock()
+   {
+      return awaitedLock;
+   }
+
+   /**
+    * Provide frame indexes for comparison and counting.
+    *
+    * @return Frame indexes (not copied; must not be modified).
+    */
+   int[] getFrameIds()
+   {
+      return frameIds;
+   }
+
+   @Override
+   public String toString()
+   {
+      return "\"" + name + "\" " + (state != null ? state : "(no state)")
+         + (awaitedLock != null ? " awaiting <" + awaitedLock + ">" : "");
+   }
+}
@@ -0,0 +1,440 @@
+package dustin.utilities.diagnostics;
+
+import static java.lang.System.out;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+
+/**
+ * Provide virtual machine diagnostics using DiagnosticCommandMBean
+ * that comes with the Oracle HotSpot JVM.
+ */
+public class VirtualMachineDiagnostics
+{
+   /** Object Name of DiagnosticCommandMBean. */
+   public final static String DIAGNOSTIC_COMMAND_MBEAN_OBJECT_NAME =
+      "com.sun.management:type=DiagnosticCommand";
+
+   /** My MBean Server. */
+   private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+   /** Platform MBean Server. */
+   private final ObjectName objectName;
+
+   /** Parser shared by all parsed thread dumps so that frame strings are reused. */
+   private final ThreadDumpParser threadDumpParser = new ThreadDumpParser();
+
+   /** Source of virtual machine flag origins and manageable flag values. */
+   private final HotSpotDiagnosticMXBean hotSpotDiagnostic =
+      ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+
+   /** Prefix of the result returned when a diagnostic command cannot be invoked. */
+   static final String ERROR_RESULT_PREFIX = "ERROR: ";
+
+   /** Most recently parsed flags or {@code null} if not yet parsed. */
+   private VirtualMachineFlags parsedFlags;
+
+   /**
+    * Create an instance of me with the provided object name.
+    *
+    * @param newObjectName ObjectName associated with
+    *    DiagnosticCommand MBean.
+    */
+   private VirtualMachineDiagnostics(final ObjectName newObjectName)
+   {
+      this.objectName = newObjectName;
+   }
+
+   /**
+    * Only publicly available method for instantiating an instance
+    * of me.
+    *
+    * @return An instance of me.
+    */
+   public static VirtualMachineDiagnostics newInstance()
+   {
+      try
+      {
+         final ObjectName objectName = new ObjectName(DIAGNOSTIC_COMMAND_MBEAN_OBJECT_NAME);
+         return new VirtualMachineDiagnostics(objectName);
+      }
+      catch (MalformedObjectNameException badObjectNameEx)
+      {
+         throw new RuntimeException(
+            "Unable to create an ObjectName and so unable to create instance of VirtualMachineDiagnostics");
+      }
+   }
+
+   /**
+    * Provide class statistics as single String.
+    *
+    * This is only supported when {@code -XX:+UnlockDiagnosticVMOptions} is enabled.
+    *
+    * @return Single string containing formatted class statistics.
+    */
+   public String getClassStatistics()
+   {
+      return invokeNoStringArgumentsCommand("gcClassStats", "GC Class Statistics");
+   }
+
+   /**
+    * Provide class histogram as single String.
+    *
+    * @return Single string containing formatted class histogram.
+    */
+   public String getHistogram()
+   {
+      return invokeNoStringArgumentsCommand("gcClassHistogram", "GC Class Histogram");
+   }
+
+   /**
+    * Provide class histogram parsed into per-class entries.
+    *
+    * @return Parsed class histogram; empty if the histogram
+    *    could not be obtained.
+    */
+   public ClassHistogram getParsedHistogram()
+   {
+      return ClassHistogramParser.parse(getHistogram());
+   }
+
+   /**
+    * Provide thread dump as single String.
+    *
+    * @return Single string containing formatted thread dump.
+    */
+   public String getThreadDump()
+   {
+      return invokeNoStringArgumentsCommand("threadPrint", "Thread Dump");
+   }
+
+   /**
+    * Provide thread dump parsed into per-thread records. Stack frame
+    * strings are shared with all thread dumps previously parsed by this
+    * instance.
+    *
+    * @return Parsed thread dump; empty if the thread dump could not
+    *    be obtained.
+    */
+   public ThreadDump getParsedThreadDump()
+   {
+      return threadDumpParser.parse(getThreadDump());
+   }
+
+   /**
+    * Provide parser used by {@link #getParsedThreadDump()}, such as for
+    * ranking frames across its dumps with {@link HotFrameRanking}.
+    *
+    * @return Thread dump parser used by this instance.
+    */
+   public ThreadDumpParser getThreadDumpParser()
+   {
+      return threadDumpParser;
+   }
+
+   /**
+    * Provide virtual machine uptime as single String.
+    *
+    * @return Single string containing virtual machine uptime.
+    */
+   public String getVirtualMachineUptime()
+   {
+      return invokeNoStringArgumentsCommand("vmUptime", "Virtual Machine Uptime");
+   }
+
+   /**
+    * Provide list of supported operations (help).
+    *
+    * @return Single string containing names of supported operations.
+    */
+   public String getAvailableOperations()
+   {
+      return invokeNoStringArgumentsCommand("help", "Help (List Commands)");
+   }
+
+   /**
+    * Provide a String representing the Virtual Machine flags.
+    *
+    * @return String containing the virtual machine flags.
+    */
+   public String getVirtualMachineFlags()
+   {
+      return invokeNoStringArgumentsCommand("vmFlags", "Determine VM flags");
+   }
+
+   /**
+    * Provide the virtual machine flags parsed into typed values.
+    *
+    * The {@code VM.flags} diagnostic command is invoked only the first
+    * time, after {@link #setVirtualMachineFlag(String, String)}, and after
+    * {@link #refresh()}; otherwise the previously parsed flags are returned.
+    * A manageable flag changed by other means (such as {@code jcmd} or
+    * another {@code HotSpotDiagnosticMXBean} client) is not seen until
+    * {@link #refresh()} is called.
+    *
+    * @return Parsed virtual machine flags.
+    * @throws IllegalStateException Thrown if the {@code VM.flags} diagnostic
+    *    command could not be invoked; nothing is cached, so the next call
+    *    tries again.
+    */
+   public synchronized VirtualMachineFlags getParsedVirtualMachineFlags()
+   {
+      if (parsedFlags == null)
+      {
+         final String flags = getVirtualMachineFlags();
+         if (flags.startsWith(ERROR_RESULT_PREFIX))
+         {
+            throw new IllegalStateException(flags);
+         }
+         parsedFlags = VirtualMachineFlags.parse(flags, hotSpotDiagnostic);
+      }
+      return parsedFlags;
+   }
+
+   /**
+    * Discard the previously parsed virtual machine flags so that the next
+    * call to {@link #getParsedVirtualMachineFlags()} invokes the
+    * {@code VM.flags} diagnostic command again. Call this after a manageable
+    * flag has been changed other than through
+    * {@link #setVirtualMachineFlag(String, String)}.
+    */
+   public synchronized void refresh()
+   {
+      parsedFlags = null;
+   }
+
+   /**
+    * Set the value of a manageable virtual machine flag.
+    *
+    * @param flagName Name of manageable flag such as "{@code HeapDumpOnOutOfMemoryError}".
+    * @param value New value of flag ("true"/"false" for boolean flags).
+    * @throws IllegalArgumentException Thrown if flag does not exist,
+    *    is not manageable, or the value is invalid for the flag.
+    */
+   public synchronized void setVirtualMachineFlag(final String flagName, final String value)
+   {
+      hotSpotDiagnostic.setVMOption(flagName, value);
+      parsedFlags = null;
+   }
+
+   /**
+    * Provide active/current garbage collector.
+    *
+    * The collector cannot change while the virtual machine runs, so after
+    * the flags have been parsed once this involves no MBean invocation.
+    * If the flags cannot be obtained, {@link GarbageCollector#UNDETERMINED}
+    * is returned and the next call tries again.
+    *
+    * @return Active garbage collector or {@link GarbageCollector#UNDETERMINED}.
+    */
+   public GarbageCollector getGarbageCollector()
+   {
+      synchronized (this)
+      {
+         if (parsedFlags != null)
+         {
+            return parsedFlags.getGarbageCollector();
+         }
+      }
+      try
+      {
+         return getParsedVirtualMachineFlags().getGarbageCollector();
+      }
+      catch (IllegalStateException flagsUnavailable)
+      {
+         return GarbageCollector.UNDETERMINED;
+      }
+   }
+
+   /**
+    * Provide String representing active/current garbage collector.
+    *
+    * @return String representation of current garbage collector
+    *    ("Serial", "Parallel/Throughput", "Concurrent Mark Sweep (CMS)",
+    *    "Garbage First", "Z Garbage Collector (ZGC)", "Shenandoah",
+    *    "Epsilon (No-Op)", or "UNDETERMINED").
+    */
+   public String determineGarbageCollector()
+   {
+      return getGarbageCollector().getDescription();
+   }
+
+   /**
+    * Provide thread dump, including the ownable synchronizers (such as
+    * {@code ReentrantLock}s) held by each thread, as single String.
+    *
+    * @return Single string containing formatted thread dump with locks.
+    */
+   public String getThreadDumpWithLocks()
+   {
+      return invokeCommand("threadPrint", "Thread Dump With Locks", "-l");
+   }
+
+   /**
+    * Provide class histogram including unreachable (not yet collected)
+    * objects as single String. Unlike {@link #getHistogram()}, this does
+    * not force a full garbage collection first.
+    *
+    * @return Single string containing formatted class histogram.
+    */
+   public String getHistogramIncludingUnreachable()
+   {
+      return invokeCommand("gcClassHistogram", "GC Class Histogram (All)", "-all");
+   }
+
+   /**
+    * Provide code cache layout and bounds as single String.
+    *
+    * @return Single string describing the code cache.
+    */
+   public String getCodeCache()
+   {
+      return invokeNoStringArgumentsCommand("compilerCodecache", "Code Cache");
+   }
+
+   /**
+    * Write a heap dump in HPROF format directly to the provided file.
+    * The heap dump is never returned through a String.
+    *
+    * The {@code GC.heap_dump} diagnostic command is not exposed through
+    * the DiagnosticCommandMBean, so this uses the equivalent
+    * {@link HotSpotDiagnosticMXBean#dumpHeap(String, boolean)}.
+    *
+    * @param heapDumpFile File to which heap is dumped; must not already
+    *    exist and must have the "{@code .hprof}" extension.
+    * @param liveObjectsOnly {@code true} to dump only reachable objects
+    *    (forcing a full garbage collection first) or {@code false} to
+    *    dump all objects.
+    * @throws IOException Thrown if the heap dump file cannot be created.
+    */
+   public void dumpHeap(final Path heapDumpFile, final boolean liveObjectsOnly) throws IOException
+   {
+      hotSpotDiagnostic.dumpHeap(heapDumpFile.toAbsolutePath().toString(), liveObjectsOnly);
+   }
+
+   /**
+    * Start a Java Flight Recorder recording.
+    *
+    * @param recordingName Name identifying the recording for later
+    *    dump and stop operations.
+    * @param settings Name of recording settings such as "{@code default}"
+    *    or "{@code profile}", or path of a custom {@code .jfc} file.
+    * @return Status reported by the command.
+    */
+   public String startFlightRecording(final String recordingName, final String settings)
+   {
+      return invokeCommand(
+         "jfrStart", "JFR Start", "name=" + recordingName, "settings=" + settings);
+   }
+
+   /**
+    * Write the data recorded so far by a running Java Flight Recorder
+    * recording to the provided file. The recording continues.
+    *
+    * @param recordingName Name of recording.
+    * @param recordingFile File to which recording is written.
+    * @return Status reported by the command.
+    */
+   public String dumpFlightRecording(final String recordingName, final Path recordingFile)
+   {
+      return invokeCommand(
+         "jfrDump", "JFR Dump",
+         "name=" + recordingName, "filename=" + recordingFile.toAbsolutePath());
+   }
+
+   /**
+    * Stop a Java Flight Recorder recording, writing its data to the
+    * provided file.
+    *
+    * @param recordingName Name of recording.
+    * @param recordingFile File to which recording is written or
+    *    {@code null} to discard the recording.
+    * @return Status reported by the command.
+    */
+   public String stopFlightRecording(final String recordingName, final Path recordingFile)
+   {
+      return recordingFile != null
+         ? invokeCommand("jfrStop", "JFR Stop",
+              "name=" + recordingName, "filename=" + recordingFile.toAbsolutePath())
+         : invokeCommand("jfrStop", "JFR Stop", "name=" + recordingName);
+   }
+
+   /**
+    * Invoke the provided DiagnosticCommandMBean operation with the
+    * provided arguments. Arguments use the same syntax as the
+    * corresponding {@code jcmd} command (such as "{@code -all}" or
+    * "{@code name=value}").
+    *
+    * @param operationName Name of operation on DiagnosticCommandMBean
+    *    (such as "{@code gcClassHistogram}" for {@code jcmd}'s
+    *    {@code GC.class_histogram}).
+    * @param arguments Arguments to the operation.
+    * @return String returned by DiagnosticCommandMBean operation.
+    */
+   public String executeCommand(final String operationName, final String... arguments)
+   {
+      return invokeCommand(operationName, operationName, arguments);
+   }
+
+   /**
+    * Invoke operation on the DiagnosticCommandMBean that accepts
+    *    String array argument but does not require any String
+    *    argument and returns a String.
+    *
+    * @param operationName Name of operation on DiagnosticCommandMBean.
+    * @param operationDescription Description of operation being invoked
+    *    on the DiagnosticCommandMBean.
+    * @return String returned by DiagnosticCommandMBean operation.
+    */
+   private String invokeNoStringArgumentsCommand(
+      final String operationName, final String operationDescription)
+   {
+      return invokeCommand(operationName, operationDescription, (String[]) null);
+   }
+
+   /**
+    * Invoke operation on the DiagnosticCommandMBean that accepts
+    *    String array argument and returns a String.
+    *
+    * @param operationName Name of operation on DiagnosticCommandMBean.
+    * @param operationDescription Description of operation being invoked
+    *    on the DiagnosticCommandMBean.
+    * @param arguments Arguments to the operation or {@code null} for none.
+    * @return String returned by DiagnosticCommandMBean operation.
+    */
+   private String invokeCommand(
+      final String operationName, final String operationDescription, final String... arguments)
+   {
+      String result;
+      try
+      {
+         result = (String) server.invoke(objectName, operationName, new Object[] {arguments}, new String[]{String[].class.getName()});
+      }
+      catch (InstanceNotFoundException | ReflectionException | MBeanException exception)
+      {
+         result = ERROR_RESULT_PREFIX + "Unable to access '" + operationDescription + "' - " + exception;
+      }
+      return result;
+   }
+
+   public static void main(final String[] arguments)
+   {
+      final VirtualMachineDiagnostics instance = VirtualMachineDiagnostics.newInstance();
+      out.println("VM Flags:\n\t" + instance.getVirtualMachineFlags());
+      out.println("Garbage Collector: " + instance.determineGarbageCollector());
+      out.println("Histogram:\n" + instance.getHistogram());
+      out.println("Thread Stack:\n" + instance.getThreadDump());
+      out.println("VM Uptime: " + instance.getVirtualMachineUptime());
+      out.println("Class Statistics: " + instance.getClassStatistics());
+      out.println("Supported Operations:\n" + instance.getAvailableOperations());
+   }
+}
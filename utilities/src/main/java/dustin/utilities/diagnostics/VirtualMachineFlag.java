@@ -0,0 +1,133 @@
+package dustin.utilities.diagnostics;
+
+import com.sun.management.VMOption;
+
+/**
+ * Single virtual machine flag with its value, how that value was set,
+ * and whether it can be changed while the virtual machine runs.
+ */
+public final class VirtualMachineFlag
+{
+   /** Name of flag such as "{@code MaxHeapSize}". */
+   private final String name;
+
+   /** Value of flag as text ("true"/"false" for boolean flags). */
+   private final String value;
+
+   /** Whether flag is a boolean flag. */
+   private final boolean booleanFlag;
+
+   /** How flag's value was set or {@code null} if unknown. */
+   private final VMOption.Origin origin;
+
+   /** Whether flag is manageable (can be changed at runtime). */
+   private final boolean manageable;
+
+   /**
+    * Constructor accepting details of a flag.
+    *
+    * @param newName Name of flag.
+    * @param newValue Value of flag as text.
+    * @param newBooleanFlag Whether flag is a boolean flag.
+    * @param newOrigin How flag's value was set or {@code null} if unknown.
+    * @param newManageable Whether flag can be changed at runtime.
+    */
+   public VirtualMachineFlag(
+      final String newName,
+      final String newValue,
+      final boolean newBooleanFlag,
+      final VMOption.Origin newOrigin,
+      final boolean newManageable)
+   {
+      this.name = newName;
+      this.value = newValue;
+      this.booleanFlag = newBooleanFlag;
+      this.origin = newOrigin;
+      this.manageable = newManageable;
+   }
+
+   /**
+    * Provide name of flag.
+    *
+    * @return Name of flag.
+    */
+   public String getName()
+   {
+      return name;
+   }
+
+   /**
+    * Provide value of flag as text.
+    *
+    * @return Value of flag as text.
+    */
+   public String getValue()
+   {
+      return value;
+   }
+
+   /**
+    * Indicates whether flag is a boolean flag.
+    *
+    * @return {@code true} if flag is a boolean flag.
+    */
+   public boolean isBoolean()
+   {
+      return booleanFlag;
+   }
+
+   /**
+    * Provide value of a boolean flag.
+    *
+    * @return Value of boolean flag.
+    * @throws IllegalStateException Thrown if flag is not a boolean flag.
+    */
+   public boolean getBooleanValue()
+   {
+      if (!booleanFlag)
+      {
+         throw new IllegalStateException("Flag '" + name + "' is not a boolean flag.");
+      }
+      return Boolean.parseBoolean(value);
+   }
+
+   /**
+    * Provide value of a numeric flag.
+    *
+    * @return Value of numeric flag.
+    * @throws NumberFormatException Thrown if flag's value is not numeric.
+    */
+   public long getLongValue()
+   {
+      return Long.parseLong(value);
+   }
+
+   /**
+    * Provide how flag's value was set (such as on the command line or
+    * ergonomically by the virtual machine).
+    *
+    * @return Origin of flag's value or {@code null} if unknown.
+    */
+   public VMOption.Origin getOrigin()
+   {
+      return origin;
+   }
+
+   /**
+    * Indicates whether flag is manageable (can be changed at runtime).
+    *
+    * @return {@code true} if flag can be changed at runtime.
+    */
+   public boolean isManageable()
+   {
+      return manageable;
+   }
+
+   @Override
+   public String toString()
+   {
+      return booleanFlag
+         ? "-XX:" + (getBooleanValue() ? "+" : "-") + name
+         : "-XX:" + name + "=" + value;
+   }
+}
@@ -0,0 +1,183 @@
+package dustin.utilities.diagnostics;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+import com.sun.management.VMOption;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Virtual machine flags parsed from the output of the {@code VM.flags}
+ * diagnostic command into typed values keyed by flag name.
+ *
+ * Only flags reported by {@code VM.flags} (those not at their default
+ * values) are held. Instances are immutable; obtain a new instance to
+ * observe changes to manageable flags.
+ */
+public final class VirtualMachineFlags
+{
+   /** Prefix of each flag in {@code VM.flags} output. */
+   private static final String FLAG_PREFIX = "-XX:";
+
+   /** Flags keyed by name in order reported. */
+   private final Map<String, VirtualMachineFlag> flags;
+
+   /** Garbage collector selected by these flags. */
+   private final GarbageCollector garbageCollector;
+
+   /**
+    * Constructor accepting parsed flags.
+    *
+    * @param newFlags Flags keyed by name.
+    */
+   private VirtualMachineFlags(final Map<String, VirtualMachineFlag> newFlags)
+   {
+      this.flags = Collections.unmodifiableMap(newFlags);
+      this.garbageCollector = GarbageCollector.from(this);
+   }
+
+   /**
+    * Parse the provided {@code VM.flags} output such as
+    * "{@code -XX:MaxHeapSize=268435456 -XX:+UseG1GC}".
+    *
+    * @param vmFlagsText Text as returned by
+    *    {@link VirtualMachineDiagnostics#getVirtualMachineFlags()}.
+    * @param hotSpotDiagnostic Source of each flag's origin and
+    *    manageability or {@code null} if these are not needed.
+    * @return Parsed flags.
+    */
+   public static VirtualMachineFlags parse(
+      final String vmFlagsText, final HotSpotDiagnosticMXBean hotSpotDiagnostic)
+   {
+      final Map<String, VirtualMachineFlag> parsed = new LinkedHashMap<>();
+      int index = vmFlagsText.indexOf(FLAG_PREFIX);
+      while (index >= 0)
+      {
+         final int start = index + FLAG_PREFIX.length();
+         int end = start;
+         while (end < vmFlagsText.length() && !Character.isWhitespace(vmFlagsText.charAt(end)))
+         {
+            end++;
+         }
+         final VirtualMachineFlag flag = parseFlag(vmFlagsText, start, end, hotSpotDiagnostic);
+         if (flag != null)
+         {
+            parsed.put(flag.getName(), flag);
+         }
+         index = vmFlagsText.indexOf(FLAG_PREFIX, end);
+      }
+      return new VirtualMachineFlags(parsed);
+   }
+
+   /**
+    * Provide all parsed flags.
+    *
+    * @return Unmodifiable map of flags keyed by name.
+    */
+   public Map<String, VirtualMachineFlag> getFlags()
+   {
+      return flags;
+   }
+
+   /**
+    * Provide flag with the provided name.
+    *
+    * @param flagName Name of flag such as "{@code MaxHeapSize}".
+    * @return Flag or {@code null} if not reported by {@code VM.flags}.
+    */
+   public VirtualMachineFlag get(final String flagName)
+   {
+      return flags.get(flagName);
+   }
+
+   /**
+    * Indicates whether the provided boolean flag is reported as enabled.
+    *
+    * @param flagName Name of boolean flag such as "{@code UseG1GC}".
+    * @return {@code true} if the flag is reported and enabled.
+    */
+   public boolean isEnabled(final String flagName)
+   {
+      final VirtualMachineFlag flag = flags.get(flagName);
+      return flag != null && flag.isBoolean() && flag.getBooleanValue();
+   }
+
+   /**
+    * Provide numeric value of the provided flag.
+    *
+    * @param flagName Name of numeric flag such as "{@code MaxHeapSize}".
+    * @param defaultValue Value to be returned if flag is not reported.
+    * @return Value of flag or the provided default value.
+    */
+   public long getLong(final String flagName, final long defaultValue)
+   {
+      final VirtualMachineFlag flag = flags.get(flagName);
+      return flag != null ? flag.getLongValue() : defaultValue;
+   }
+
+   /**
+    * Provide garbage collector selected by these flags.
+    *
+    * @return Garbage collector selected by these flags.
+    */
+   public GarbageCollector getGarbageCollector()
+   {
+      return garbageCollector;
+   }
+
+   /**
+    * Parse a single flag (without its "{@code -XX:}" prefix).
+    *
+    * @param text Text containing the flag.
+    * @param start Index of first character after the prefix.
+    * @param end Index just past the last character of the flag.
+    * @param hotSpotDiagnostic Source of origin and manageability or {@code null}.
+    * @return Parsed flag or {@code null} if malformed.
+    */
+   private static VirtualMachineFlag parseFlag(
+      final String text, final int start, final int end, final HotSpotDiagnosticMXBean hotSpotDiagnostic)
+   {
+      if (start >= end)
+      {
+         return null;
+      }
+      final String name;
+      final String value;
+      final boolean booleanFlag;
+      final char first = text.charAt(start);
+      if (first == '+' || first == '-')
+      {
+         name = text.substring(start + 1, end);
+         value = first == '+' ? "true" : "false";
+         booleanFlag = true;
+      }
+      else
+      {
+         final int equals = text.indexOf('=', start);
+         if (equals < 0 || equals >= end)
+         {
+            return null;
+         }
+         name = text.substring(start, equals);
+         value = text.substring(equals + 1, end);
+         booleanFlag = false;
+      }
+      VMOption.Origin origin = null;
+      boolean manageable = false;
+      if (hotSpotDiagnostic != null)
+      {
+         try
+         {
+            final VMOption option = hotSpotDiagnostic.getVMOption(name);
+            origin = option.getOrigin();
+            manageable = option.isWriteable();
+         }
+         catch (IllegalArgumentException unknownFlag)
+         {
+            // flag unknown to HotSpotDiagnosticMXBean; origin remains unknown
+         }
+      }
+      return new VirtualMachineFlag(name, value, booleanFlag, origin, manageable);
+   }
+}
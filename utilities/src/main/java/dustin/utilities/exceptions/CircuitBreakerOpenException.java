@@ -0,0 +1,18 @@
+package dustin.utilities.exceptions;
+
+/**
+ * Thrown when a call is rejected without being attempted because the
+ * circuit breaker guarding it is open.
+ */
+public class CircuitBreakerOpenException extends RuntimeException
+{
+   /**
+    * Constructor accepting a message for the circuit breaker open exception.
+    *
+    * @param newMessage Message for the circuit breaker open exception.
+    */
+   public CircuitBreakerOpenException(final String newMessage)
+   {
+      super(newMessage);
+   }
+}
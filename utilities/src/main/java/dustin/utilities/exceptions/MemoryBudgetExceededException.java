@@ -0,0 +1,18 @@
+package dustin.utilities.exceptions;
+
+/**
+ * Thrown when satisfying a memory request would exceed a configured
+ * memory budget.
+ */
+public class MemoryBudgetExceededException extends RuntimeException
+{
+   /**
+    * Constructor accepting a message for the memory budget exceeded exception.
+    *
+    * @param newMessage Message for the memory budget exceeded exception.
+    */
+   public MemoryBudgetExceededException(final String newMessage)
+   {
+      super(newMessage);
+   }
+}
@@ -0,0 +1,23 @@
+package dustin.utilities.exceptions;
+
+/**
+ * Unchecked exception wrapping a checked exception without capturing a
+ * stack trace of its own.
+ *
+ * Filling in a stack trace typically dominates the cost of creating an
+ * exception; the wrapped exception already carries the stack trace of
+ * interest, so this exception is created with stack trace writing
+ * disabled. Suppression is also disabled.
+ */
+public class StacklessUncheckedException extends RuntimeException
+{
+   /**
+    * Constructor accepting the wrapped (causal) exception.
+    *
+    * @param newCausal Checked exception being wrapped.
+    */
+   public StacklessUncheckedException(final Throwable newCausal)
+   {
+      super(newCausal != null ? newCausal.toString() : null, newCausal, false, false);
+   }
+}
@@ -0,0 +1,38 @@
+package dustin.utilities.exceptions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * {@link UncheckedIOException} that does not capture a stack trace of
+ * its own, so that code catching {@code UncheckedIOException} handles it
+ * unchanged while the cost of filling in a second stack trace is avoided.
+ *
+ * {@code UncheckedIOException} provides no constructor that disables
+ * stack trace writing, so {@link #fillInStackTrace()} is overridden
+ * instead.
+ */
+public class StacklessUncheckedIOException extends UncheckedIOException
+{
+   /**
+    * Constructor accepting the wrapped (causal) exception.
+    *
+    * @param newCausal I/O exception being wrapped.
+    */
+   public StacklessUncheckedIOException(final IOException newCausal)
+   {
+      super(newCausal);
+   }
+
+   /**
+    * Skip capturing a stack trace; the wrapped exception has the stack
+    * trace of interest.
+    *
+    * @return This exception.
+    */
+   @Override
+   public synchronized Throwable fillInStackTrace()
+   {
+      return this;
+   }
+}
@@ -0,0 +1,615 @@
+package dustin.utilities.function;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * {@link ExceptionThrowingConsumer} that accepts elements one at a time
+ * and passes them in batches to an {@code ExceptionThrowingConsumer<List<T>>},
+ * so that a consumer writing to a file or socket makes one write (and
+ * flush) per batch rather than per element.
+ *
+ * A batch is passed on when it reaches the batch size or, if a maximum
+ * delay is configured, when its first element has waited that long, and
+ * whenever {@link #flush()} or {@link #close()} is called. Each batch is
+ * a new list that the batch consumer may keep. A batch whose consumer
+ * throws is not passed on again.
+ *
+ * {@link #onCallerThread(ExceptionThrowingConsumer, int, Duration)} passes
+ * batches on the thread calling {@link #accept(Object)}, so the delay is
+ * only checked when an element is accepted.
+ * {@link #withBackgroundFlusher(ExceptionThrowingConsumer, int, Duration, int, ThreadFactory)}
+ * passes batches on a dedicated thread, fed through a bounded queue: when
+ * the queue is full, {@link #accept(Object)} blocks until the flusher
+ * catches up, so producers cannot outrun the consumer without bound. An
+ * exception thrown by the batch consumer on the flusher stops it and is
+ * rethrown by the next call to {@link #accept(Object)}, {@link #flush()},
+ * or {@link #close()}.
+ *
+ * Should the calling thread be interrupted while blocked, its interrupt
+ * status is restored and {@link IllegalStateException} is thrown.
+ *
+ * @param <T> Type of elements.
+ * @param <E> Potential exception thrown by the batch consumer.
+ */
+public abstract class BatchingConsumer<T, E extends Exception> implements ExceptionThrowingConsumer<T, E>, AutoCloseable
+{
+   /** Consumer of batches. */
+   final ExceptionThrowingConsumer<List<T>, E> batchConsumer;
+
+   /** Maximum number of elements per batch. */
+   final int batchSize;
+
+   /** Maximum time an element waits for its batch, or {@link Long#MAX_VALUE}. */
+   final long maximumDelayNanos;
+
+   /**
+    * Constructor accepting batch consumer and limits.
+    *
+    * @param newBatchConsumer Consumer of batches.
+    * @param newBatchSize Maximum number of elements per batch.
+    * @param maximumDelay Maximum time an element waits for its batch, or
+    *    {@code null} for batches bounded only by size.
+    * @throws IllegalArgumentException Thrown if the batch size is not
+    *    positive or the delay is negative.
+    */
+   BatchingConsumer(
+      final ExceptionThrowingConsumer<List<T>, E> newBatchConsumer, final int newBatchSize, final Duration maximumDelay)
+   {
+      if (newBatchSize <= 0)
+      {
+         throw new IllegalArgumentException("Batch size must be positive; is " + newBatchSize);
+      }
+      if (maximumDelay != null && maximumDelay.isNegative())
+      {
+         throw new IllegalArgumentException("Maximum delay must not be negative; is " + maximumDelay);
+      }
+      this.batchConsumer = newBatchConsumer;
+      this.batchSize = newBatchSize;
+      this.maximumDelayNanos = maximumDelay != null ? RetryPolicy.toNanos(maximumDelay) : Long.MAX_VALUE;
+   }
+
+   /**
+    * Provide a batching consumer that passes batches on the thread
+    * accepting elements. It may be used by several threads; batches are
+    * passed on while holding its lock.
+    *
+    * @param batchConsumer Consumer of batches.
+    * @param batchSize Maximum number of elements per batch.
+    * @param maximumDelay Maximum time an element waits for its batch
+    *    (checked as elements are accepted), or {@code null} for batches
+    *    bounded only by size.
+    * @param <T> Type of elements.
+    * @param <E> Potential exception thrown by the batch consumer.
+    * @return Batching consumer.
+    */
+   public static <T, E extends Exception> BatchingConsumer<T, E> onCallerThread(
+      final ExceptionThrowingConsumer<List<T>, E> batchConsumer, final int batchSize, final Duration maximumDelay)
+   {
+      return new CallerThreadBatchingConsumer<>(batchConsumer, batchSize, maximumDelay, Ticker.system());
+   }
+
+   /**
+    * Provide a batching consumer that passes batches on a dedicated
+    * flusher thread, started immediately, which ends on {@link #close()}.
+    *
+    * @param batchConsumer Consumer of batches.
+    * @param batchSize Maximum number of elements per batch.
+    * @param maximumDelay Maximum time an element waits for its batch, or
+    *    {@code null} for batches bounded only by size.
+    * @param queueCapacity Maximum number of elements accepted but not yet
+    *    taken by the flusher; producers block beyond it.
+    * @param threadFactory Factory of the flusher thread.
+    * @param <T> Type of elements.
+    * @param <E> Potential exception thrown by the batch consumer.
+    * @return Batching consumer.
+    * @throws IllegalArgumentException Thrown if the queue capacity is not
+    *    positive.
+    */
+   public static <T, E extends Exception> BatchingConsumer<T, E> withBackgroundFlusher(
+      final ExceptionThrowingConsumer<List<T>, E> batchConsumer, final int batchSize, final Duration maximumDelay,
+      final int queueCapacity, final ThreadFactory threadFactory)
+   {
+      return new BackgroundBatchingConsumer<>(batchConsumer, batchSize, maximumDelay, queueCapacity, threadFactory);
+   }
+
+   /**
+    * Add the provided element to the current batch, passing the batch on
+    * if it is complete.
+    *
+    * @param element Element to be batched.
+    * @throws E Thrown by the batch consumer.
+    * @throws IllegalStateException Thrown if this consumer is closed.
+    */
+   @Override
+   public abstract void accept(T element) throws E;
+
+   /**
+    * Pass on every element accepted before this call, returning once the
+    * batch consumer has received them. Flushing a closed consumer has no
+    * effect.
+    *
+    * @throws E Thrown by the batch consumer.
+    */
+   public abstract void flush() throws E;
+
+   /**
+    * Pass on remaining elements and stop accepting elements. Closing a
+    * closed consumer has no effect.
+    *
+    * @throws E Thrown by the batch consumer.
+    */
+   @Override
+   public abstract void close() throws E;
+
+   /**
+    * Rethrow the provided failure of the batch consumer, which is either
+    * unchecked or the batch consumer's declared exception.
+    *
+    * @param failure Exception thrown by the batch consumer.
+    * @param <E> Declared exception of the batch consumer.
+    * @return Never returns; declared so callers can write
+    *    {@code throw rethrow(failure)}.
+    * @throws E The provided failure if checked.
+    */
+   @SuppressWarnings("unchecked")
+   static <E extends Exception> RuntimeException rethrow(final Throwable failure) throws E
+   {
+      if (failure instanceof RuntimeException)
+      {
+         throw (RuntimeException) failure;
+      }
+      if (failure instanceof Error)
+      {
+         throw (Error) failure;
+      }
+      throw (E) failure;
+   }
+
+   /**
+    * Provide exception reporting that the calling thread was interrupted,
+    * restoring its interrupt status.
+    *
+    * @param interruptedException Exception thrown while waiting.
+    * @return Exception to be thrown.
+    */
+   static IllegalStateException interrupted(final InterruptedException interruptedException)
+   {
+      Thread.currentThread().interrupt();
+      return new IllegalStateException("Interrupted while batching", interruptedException);
+   }
+
+   /**
+    * Batching consumer passing batches on the accepting thread.
+    *
+    * @param <T> Type of elements.
+    * @param <E> Potential exception thrown by the batch consumer.
+    */
+   private static final class CallerThreadBatchingConsumer<T, E extends Exception> extends BatchingConsumer<T, E>
+   {
+      /** Source of time for the maximum delay. */
+      private final Ticker ticker;
+
+      /** Elements of the current batch. */
+      private List<T> batch;
+
+      /** Time the first element of the current batch was accepted. */
+      private long batchStartNanos;
+
+      /** Whether this consumer is closed. */
+      private boolean closed;
+
+      /**
+       * Constructor accepting batch consumer, limits, and source of time.
+       *
+       * @param newBatchConsumer Consumer of batches.
+       * @param newBatchSize Maximum number of elements per batch.
+       * @param maximumDelay Maximum time an element waits, or {@code null}.
+       * @param newTicker Source of time.
+       */
+      private CallerThreadBatchingConsumer(
+         final ExceptionThrowingConsumer<List<T>, E> newBatchConsumer, final int newBatchSize,
+         final Duration maximumDelay, final Ticker newTicker)
+      {
+         super(newBatchConsumer, newBatchSize, maximumDelay);
+         this.ticker = newTicker;
+         this.batch = new ArrayList<>(newBatchSize);
+      }
+
+      @Override
+      public synchronized void accept(final T element) throws E
+      {
+         if (closed)
+         {
+            throw new IllegalStateException("Batching consumer is closed.");
+         }
+         final boolean timed = maximumDelayNanos != Long.MAX_VALUE;
+         if (timed && batch.isEmpty())
+         {
+            batchStartNanos = ticker.nanoTime();
+         }
+         batch.add(element);
+         if (batch.size() >= batchSize || (timed && ticker.nanoTime() - batchStartNanos >= maximumDelayNanos))
+         {
+            flush();
+         }
+      }
+
+      @Override
+      public synchronized void flush() throws E
+      {
+         if (!batch.isEmpty())
+         {
+            final List<T> completed = batch;
+            batch = new ArrayList<>(batchSize);
+            batchConsumer.accept(completed);
+         }
+      }
+
+      @Override
+      public synchronized void close() throws E
+      {
+         if (!closed)
+         {
+            closed = true;
+            flush();
+         }
+      }
+   }
+
+   /**
+    * Batching consumer passing batches on a dedicated thread fed through
+    * a bounded queue.
+    *
+    * @param <T> Type of elements.
+    * @param <E> Potential exception thrown by the batch consumer.
+    */
+   private static final class BackgroundBatchingConsumer<T, E extends Exception> extends BatchingConsumer<T, E>
+   {
+      /** Interval at which blocked producers check for a flusher failure. */
+      private static final long FAILURE_CHECK_MILLIS = 10;
+
+      /** Elements and {@link Marker}s not yet taken by the flusher. */
+      private final BlockingQueue<Object> queue;
+
+      /** Thread passing batches to the batch consumer. */
+      private final Thread flusher;
+
+      /** First exception thrown by the batch consumer. */
+      private volatile Throwable failure;
+
+      /**
+       * Held (shared) while enqueuing elements and flush markers and
+       * (exclusively) while closing, so nothing is enqueued behind the
+       * closing marker.
+       */
+      private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+
+      /** Whether {@link #close()} has been called (guarded by {@link #closeLock}). */
+      private boolean closed;
+
+      /** Whether the flusher has ended (guarded by this). */
+      private boolean ended;
+
+      /**
+       * Constructor accepting batch consumer, limits, queue capacity, and
+       * thread factory; starts the flusher.
+       *
+       * @param newBatchConsumer Consumer of batches.
+       * @param newBatchSize Maximum number of elements per batch.
+       * @param maximumDelay Maximum time an element waits, or {@code null}.
+       * @param queueCapacity Maximum number of queued elements.
+       * @param threadFactory Factory of the flusher thread.
+       */
+      private BackgroundBatchingConsumer(
+         final ExceptionThrowingConsumer<List<T>, E> newBatchConsumer, final int newBatchSize,
+         final Duration maximumDelay, final int queueCapacity, final ThreadFactory threadFactory)
+      {
+         super(newBatchConsumer, newBatchSize, maximumDelay);
+         if (queueCapacity <= 0)
+         {
+            throw new IllegalArgumentException("Queue capacity must be positive; is " + queueCapacity);
+         }
+         this.queue = new ArrayBlockingQueue<>(queueCapacity);
+         this.flusher = threadFactory.newThread(this::runFlusher);
+         flusher.start();
+      }
+
+      @Override
+      public void accept(final T element) throws E
+      {
+         closeLock.readLock().lock();
+         try
+         {
+            if (closed)
+            {
+               throw new IllegalStateException("Batching consumer is closed.");
+            }
+            enqueue(element);
+         }
+         finally
+         {
+            closeLock.readLock().unlock();
+         }
+      }
+
+      @Override
+      public void flush() throws E
+      {
+         // elements this thread accepted precede the marker in the queue, so they are passed on first
+         final Marker marker = new Marker(false);
+         closeLock.readLock().lock();
+         try
+         {
+            if (closed)
+            {
+               return;
+            }
+            enqueue(marker);
+         }
+         finally
+         {
+            closeLock.readLock().unlock();
+         }
+         awaitProcessed(marker);
+      }
+
+      @Override
+      public void close() throws E
+      {
+         closeLock.writeLock().lock();
+         try
+         {
+            if (closed)
+            {
+               return;
+            }
+            closed = true;
+         }
+         finally
+         {
+            closeLock.writeLock().unlock();
+         }
+         // every element accepted before closing has been enqueued, and none can follow
+         final Marker marker = new Marker(true);
+         enqueue(marker);
+         awaitProcessed(marker);
+         try
+         {
+            flusher.join();
+         }
+         catch (InterruptedException interruptedException)
+         {
+            throw interrupted(interruptedException);
+         }
+      }
+
+      /**
+       * Add the provided element or marker to the queue, waiting for room
+       * while the flusher is healthy.
+       *
+       * @param item Element or marker.
+       * @throws E Thrown by the batch consumer on the flusher.
+       */
+      private void enqueue(final Object item) throws E
+      {
+         try
+         {
+            while (!queue.offer(item, FAILURE_CHECK_MILLIS, TimeUnit.MILLISECONDS))
+            {
+               throwIfFailed();
+            }
+         }
+         catch (InterruptedException interruptedException)
+         {
+            throw interrupted(interruptedException);
+         }
+         throwIfFailed();
+      }
+
+      /**
+       * Wait until the flusher has processed the provided marker, failed,
+       * or ended.
+       *
+       * @param marker Marker to be processed.
+       * @throws E Thrown by the batch consumer on the flusher.
+       */
+      private synchronized void awaitProcessed(final Marker marker) throws E
+      {
+         try
+         {
+            while (!marker.processed && failure == null && !ended)
+            {
+               wait();
+            }
+         }
+         catch (InterruptedException interruptedException)
+         {
+            throw interrupted(interruptedException);
+         }
+         throwIfFailed();
+      }
+
+      /**
+       * Rethrow the batch consumer's failure, if any.
+       *
+       * @throws E Thrown by the batch consumer on the flusher.
+       */
+      private void throwIfFailed() throws E
+      {
+         final Throwable current = failure;
+         if (current != null)
+         {
+            throw BatchingConsumer.<E>rethrow(current);
+         }
+      }
+
+      /**
+       * Take queued elements into batches and pass them on until closed
+       * or the batch consumer fails.
+       */
+      @SuppressWarnings("unchecked")
+      private void runFlusher()
+      {
+         final List<Object> drained = new ArrayList<>(batchSize);
+         List<T> batch = new ArrayList<>(batchSize);
+         long deadline = 0;
+         try
+         {
+            while (true)
+            {
+               drained.clear();
+               if (!batch.isEmpty() && maximumDelayNanos != Long.MAX_VALUE && System.nanoTime() - deadline >= 0)
+               {
+                  // maximum delay elapsed while elements kept arriving
+                  if (!deliver(batch))
+                  {
+                     return;
+                  }
+                  batch = new ArrayList<>(batchSize);
+               }
+               final Object first = batch.isEmpty() || maximumDelayNanos == Long.MAX_VALUE
+                  ? queue.take()
+                  : queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+               if (first == null)
+               {
+                  // maximum delay of the current batch elapsed
+                  if (!deliver(batch))
+                  {
+                     return;
+                  }
+                  batch = new ArrayList<>(batchSize);
+                  continue;
+               }
+               drained.add(first);
+               queue.drainTo(drained, batchSize);
+               for (final Object item : drained)
+               {
+                  if (item instanceof Marker)
+                  {
+                     final Marker marker = (Marker) item;
+                     if (!deliver(batch))
+                     {
+                        return;
+                     }
+                     batch = new ArrayList<>(batchSize);
+                     markProcessed(marker);
+                     if (marker.closing)
+                     {
+                        return;
+                     }
+                     continue;
+                  }
+                  if (batch.isEmpty())
+                  {
+                     deadline = System.nanoTime() + maximumDelayNanos;
+                  }
+                  batch.add((T) item);
+                  if (batch.size() >= batchSize)
+                  {
+                     if (!deliver(batch))
+                     {
+                        return;
+                     }
+                     batch = new ArrayList<>(batchSize);
+                  }
+               }
+            }
+         }
+         catch (InterruptedException interruptedException)
+         {
+            // flusher interrupted by its owner: pass on nothing more
+            recordFailure(new IllegalStateException("Batch flusher interrupted", interruptedException));
+         }
+         finally
+         {
+            synchronized (this)
+            {
+               ended = true;
+               notifyAll();
+            }
+         }
+      }
+
+      /**
+       * Pass the provided batch to the batch consumer, recording any
+       * failure.
+       *
+       * @param batch Batch to be passed on (nothing is done if empty).
+       * @return {@code true} if the batch consumer succeeded.
+       */
+      private boolean deliver(final List<T> batch)
+      {
+         if (batch.isEmpty())
+         {
+            return true;
+         }
+         try
+         {
+            batchConsumer.accept(batch);
+            return true;
+         }
+         catch (Exception | Error batchFailure)
+         {
+            recordFailure(batchFailure);
+            return false;
+         }
+      }
+
+      /**
+       * Record that the provided marker was processed and wake waiting
+       * callers.
+       *
+       * @param marker Processed marker.
+       */
+      private synchronized void markProcessed(final Marker marker)
+      {
+         marker.processed = true;
+         notifyAll();
+      }
+
+      /**
+       * Record the flusher's failure and wake waiting callers.
+       *
+       * @param flusherFailure Failure ending the flusher.
+       */
+      private synchronized void recordFailure(final Throwable flusherFailure)
+      {
+         if (failure == null)
+         {
+            failure = flusherFailure;
+         }
+         notifyAll();
+      }
+   }
+
+   /**
+    * Queue entry asking the flusher to pass on its current batch and
+    * acknowledge, and possibly to end.
+    */
+   private static final class Marker
+   {
+      /** Whether the flusher ends after this marker. */
+      private final boolean closing;
+
+      /** Whether the flusher has processed this marker (guarded by the consumer). */
+      private boolean processed;
+
+      /**
+       * Constructor accepting whether the flusher ends after this marker.
+       *
+       * @param newClosing Whether the flusher ends after this marker.
+       */
+      private Marker(final boolean newClosing)
+      {
+         this.closing = newClosing;
+      }
+   }
+}
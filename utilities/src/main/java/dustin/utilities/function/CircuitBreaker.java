@@ -0,0 +1,283 @@
+package dustin.utilities.function;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stops calls to a failing dependency so that callers fail immediately
+ * instead of waiting on it, giving it time to recover.
+ *
+ * While {@link State#CLOSED}, outcomes are counted in consecutive windows
+ * of {@code windowSize} calls; when a window ends with a failure rate at
+ * or above the threshold, the breaker opens. While {@link State#OPEN},
+ * calls are rejected until the open duration has elapsed, after which a
+ * single trial call is permitted ({@link State#HALF_OPEN}): its success
+ * closes the breaker and its failure opens it again. Should a trial call
+ * not report its outcome within the open duration, another is permitted.
+ *
+ * Each permitted call receives a permit from {@link #tryAcquire()} that
+ * it passes back with its outcome. A trial call's permit identifies that
+ * trial (by the time it was permitted), so while half-open only the
+ * current trial's outcome moves the breaker; late outcomes of calls
+ * permitted while closed, or of an abandoned earlier trial, are ignored.
+ *
+ * All state (mode, window counts, time opened or trial permitted) is
+ * packed into one {@code long} updated by compare-and-set, so recording
+ * outcomes takes no locks and allocates nothing.
+ *
+ * @see ExceptionThrowingDecorators#guardedSupplier(ExceptionThrowingSupplier, CircuitBreaker)
+ */
+public final class CircuitBreaker
+{
+   /** Position of breaker states. */
+   public enum State
+   {
+      /** Calls are permitted and outcomes counted. */
+      CLOSED,
+      /** Calls are rejected. */
+      OPEN,
+      /** A single trial call is permitted. */
+      HALF_OPEN
+   }
+
+   /**
+    * Value returned by {@link #tryAcquire()} when a call is rejected;
+    * never a valid permit, since its mode bits match no state.
+    */
+   public static final long REJECTED = -1L;
+
+   /** Mask of state mode in the low two bits. */
+   private static final long MODE_MASK = 0b11L;
+
+   /** Mode bits of {@link State#CLOSED}. */
+   private static final long CLOSED = 0;
+
+   /** Mode bits of {@link State#OPEN}. */
+   private static final long OPEN = 1;
+
+   /** Mode bits of {@link State#HALF_OPEN}. */
+   private static final long HALF_OPEN = 2;
+
+   /** Mask of a 31-bit count. */
+   private static final long COUNT_MASK = 0x7FFF_FFFFL;
+
+   /** Shift of number of calls in the current window (closed). */
+   private static final int CALLS_SHIFT = 2;
+
+   /** Shift of number of failures in the current window (closed). */
+   private static final int FAILURES_SHIFT = 33;
+
+   /**
+    * Shift of time opened (open) or trial call permitted (half-open),
+    * relative to {@link #epochNanos}.
+    */
+   private static final int TIME_SHIFT = 2;
+
+   /** Number of calls per window. */
+   private final int windowSize;
+
+   /** Minimum number of failures in a window that opens the breaker. */
+   private final int failureThreshold;
+
+   /** Time to remain open before a trial call, in nanoseconds. */
+   private final long openNanos;
+
+   /** Source of time. */
+   private final Ticker ticker;
+
+   /** Reading of {@link #ticker} at construction, so times fit in 62 bits. */
+   private final long epochNanos;
+
+   /** Packed mode and mode-specific fields. */
+   private final AtomicLong state = new AtomicLong(CLOSED);
+
+   /**
+    * Constructor accepting window, threshold, and open duration, using
+    * the system ticker.
+    *
+    * @param newWindowSize Number of calls per window.
+    * @param failureRateThreshold Failure rate (0 exclusive to 1
+    *    inclusive) at or above which a window opens the breaker.
+    * @param openDuration Time to remain open before a trial call.
+    */
+   public CircuitBreaker(final int newWindowSize, final double failureRateThreshold, final Duration openDuration)
+   {
+      this(newWindowSize, failureRateThreshold, openDuration, Ticker.system());
+   }
+
+   /**
+    * Constructor accepting window, threshold, open duration, and source
+    * of time.
+    *
+    * @param newWindowSize Number of calls per window.
+    * @param failureRateThreshold Failure rate (0 exclusive to 1
+    *    inclusive) at or above which a window opens the breaker.
+    * @param openDuration Time to remain open before a trial call.
+    * @param newTicker Source of time.
+    * @throws IllegalArgumentException Thrown if the window size is not
+    *    positive, the threshold is outside (0, 1], or the open duration
+    *    is negative.
+    */
+   public CircuitBreaker(
+      final int newWindowSize, final double failureRateThreshold, final Duration openDuration, final Ticker newTicker)
+   {
+      if (newWindowSize <= 0)
+      {
+         throw new IllegalArgumentException("Window size must be positive; is " + newWindowSize);
+      }
+      if (!(failureRateThreshold > 0 && failureRateThreshold <= 1))
+      {
+         throw new IllegalArgumentException("Failure rate threshold must be in (0, 1]; is " + failureRateThreshold);
+      }
+      if (openDuration.isNegative())
+      {
+         throw new IllegalArgumentException("Open duration must not be negative; is " + openDuration);
+      }
+      this.windowSize = newWindowSize;
+      this.failureThreshold = Math.max(1, (int) Math.ceil(newWindowSize * failureRateThreshold));
+      this.openNanos = RetryPolicy.toNanos(openDuration);
+      this.ticker = newTicker;
+      this.epochNanos = newTicker.nanoTime();
+   }
+
+   /**
+    * Request permission to make a call. Every permitted call must be
+    * followed by {@link #onSuccess(long)} or {@link #onFailure(long)}
+    * with the returned permit.
+    *
+    * @return Permit if the call may proceed, or {@link #REJECTED} if it
+    *    should be rejected.
+    */
+   public long tryAcquire()
+   {
+      while (true)
+      {
+         final long current = state.get();
+         final long mode = current & MODE_MASK;
+         if (mode == CLOSED)
+         {
+            return CLOSED;
+         }
+         final long now = now();
+         if (now - (current >>> TIME_SHIFT) < openNanos)
+         {
+            return REJECTED;
+         }
+         // open duration elapsed, or a trial call never reported its outcome: claim the trial call
+         final long trial = HALF_OPEN | now << TIME_SHIFT;
+         if (state.compareAndSet(current, trial))
+         {
+            return trial;
+         }
+      }
+   }
+
+   /**
+    * Record that a permitted call succeeded.
+    *
+    * @param permit Permit returned by {@link #tryAcquire()} for the call.
+    */
+   public void onSuccess(final long permit)
+   {
+      record(permit, false);
+   }
+
+   /**
+    * Record that a permitted call failed.
+    *
+    * @param permit Permit returned by {@link #tryAcquire()} for the call.
+    */
+   public void onFailure(final long permit)
+   {
+      record(permit, true);
+   }
+
+   /**
+    * Provide current state, moving from open to half-open if the open
+    * duration has elapsed.
+    *
+    * @return Current state.
+    */
+   public State getState()
+   {
+      final long current = state.get();
+      final long mode = current & MODE_MASK;
+      if (mode == CLOSED)
+      {
+         return State.CLOSED;
+      }
+      if (mode == HALF_OPEN || now() - (current >>> TIME_SHIFT) >= openNanos)
+      {
+         return State.HALF_OPEN;
+      }
+      return State.OPEN;
+   }
+
+   /**
+    * Record the outcome of a permitted call.
+    *
+    * @param permit Permit returned by {@link #tryAcquire()} for the call.
+    * @param failed Whether the call failed.
+    */
+   private void record(final long permit, final boolean failed)
+   {
+      while (true)
+      {
+         final long current = state.get();
+         final long mode = current & MODE_MASK;
+         final long next;
+         if (mode == CLOSED)
+         {
+            final long calls = ((current >>> CALLS_SHIFT) & COUNT_MASK) + 1;
+            final long failures = (current >>> FAILURES_SHIFT) + (failed ? 1 : 0);
+            if (calls < windowSize)
+            {
+               next = CLOSED | calls << CALLS_SHIFT | failures << FAILURES_SHIFT;
+            }
+            else
+            {
+               next = failures >= failureThreshold ? opened() : CLOSED;
+            }
+         }
+         else if (mode == HALF_OPEN && permit == current)
+         {
+            next = failed ? opened() : CLOSED;
+         }
+         else
+         {
+            // outcome of a call permitted before the breaker opened or before the current trial
+            return;
+         }
+         if (state.compareAndSet(current, next))
+         {
+            return;
+         }
+      }
+   }
+
+   /**
+    * Provide packed open state stamped with the current time.
+    *
+    * @return Packed open state.
+    */
+   private long opened()
+   {
+      return OPEN | now() << TIME_SHIFT;
+   }
+
+   /**
+    * Provide current time relative to construction.
+    *
+    * @return Nanoseconds since construction.
+    */
+   private long now()
+   {
+      return ticker.nanoTime() - epochNanos;
+   }
+
+   @Override
+   public String toString()
+   {
+      return "CircuitBreaker[" + getState() + "]";
+   }
+}
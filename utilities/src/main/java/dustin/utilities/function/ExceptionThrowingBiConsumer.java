@@ -0,0 +1,19 @@
+package dustin.utilities.function;
+
+/**
+ * Represents an operation that accepts two arguments but
+ * returns no result and may throw an exception (including a
+ * checked exception) during its execution.
+ */
+@FunctionalInterface
+public interface ExceptionThrowingBiConsumer<T, U, E extends Exception>
+{
+   /**
+    * Performs this consuming operation on the provided arguments.
+    *
+    * @param t First input argument.
+    * @param u Second input argument.
+    * @throws E Exception that may be thrown during this operation.
+    */
+   void accept(T t, U u) throws E;
+}
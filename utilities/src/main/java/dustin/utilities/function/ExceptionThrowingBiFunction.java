@@ -0,0 +1,21 @@
+package dustin.utilities.function;
+
+/**
+ * Represents a function that accepts two arguments and produces a single
+ * result, but may also throw an exception (including checked exception)
+ * during execution.
+ */
+@FunctionalInterface
+public interface ExceptionThrowingBiFunction<T, U, R, E extends Exception>
+{
+   /**
+    * Applies this function to the given arguments
+    * and potentially throws the specified type of Exception.
+    *
+    * @param t First function argument.
+    * @param u Second function argument.
+    * @return Function result.
+    * @throws E Exception that may be thrown during this operation.
+    */
+   R apply(T t, U u) throws E;
+}
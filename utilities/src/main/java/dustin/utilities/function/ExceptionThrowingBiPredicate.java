@@ -0,0 +1,21 @@
+package dustin.utilities.function;
+
+/**
+ * Represents a predicate (boolean-valued function) of two arguments that
+ * may throw an exception (including a checked exception) during its
+ * execution.
+ */
+@FunctionalInterface
+public interface ExceptionThrowingBiPredicate<T, U, E extends Exception>
+{
+   /**
+    * Evaluates this predicate on the given arguments
+    * and potentially throws the specified type of Exception.
+    *
+    * @param t First value to be tested.
+    * @param u Second value to be tested.
+    * @return {@code true} if the values match the predicate.
+    * @throws E Exception that may be thrown during this operation.
+    */
+   boolean test(T t, U u) throws E;
+}
@@ -0,0 +1,364 @@
+package dustin.utilities.function;
+
+import dustin.utilities.exceptions.CircuitBreakerOpenException;
+import dustin.utilities.exceptions.UncheckedHttpTimeoutException;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Contains static methods that decorate an
+ * {@link ExceptionThrowingSupplier} or {@link ExceptionThrowingFunction}
+ * with retries, a time limit, or a {@link CircuitBreaker}, guarding calls
+ * to slow or failing dependencies, or with memoization, avoiding repeated
+ * expensive computations.
+ *
+ * Each decorator returns the same functional type it accepts, so
+ * decorators compose and the result can still be passed to
+ * {@link ExceptionThrowingFunctionWrappers}; for example
+ * {@code wrapSupplier(retryingSupplier(guardedSupplier(timeLimitedSupplier(call, timeout, executor), breaker), policy))}
+ * limits each attempt's duration, records each attempt with the
+ * breaker, and retries failed attempts. A policy built with the default
+ * retryable exceptions does not retry {@link CircuitBreakerOpenException},
+ * so attempts rejected by an open breaker fail immediately rather than
+ * spending the remaining attempts on backoff.
+ */
+public class ExceptionThrowingDecorators
+{
+   /**
+    * Decorate the provided supplier to retry failed calls according to
+    * the provided policy, waiting with the system ticker.
+    *
+    * @param supplier Supplier to be retried.
+    * @param policy Attempts, retryable exceptions, and backoff.
+    * @param <T> Supplied result.
+    * @param <E> Potential exception thrown by provided Supplier.
+    * @return Supplier that retries.
+    */
+   public static <T, E extends Exception> ExceptionThrowingSupplier<T, E> retryingSupplier(
+      final ExceptionThrowingSupplier<T, E> supplier, final RetryPolicy policy)
+   {
+      return retryingSupplier(supplier, policy, Ticker.system());
+   }
+
+   /**
+    * Decorate the provided supplier to retry failed calls according to
+    * the provided policy. If the policy's attempts are exhausted or an
+    * exception is not retryable, the last exception is thrown with any
+    * earlier ones added to it as suppressed exceptions. If interrupted
+    * while waiting, the interrupt status is restored and the last
+    * exception is thrown.
+    *
+    * @param supplier Supplier to be retried.
+    * @param policy Attempts, retryable exceptions, and backoff.
+    * @param ticker Means of waiting between attempts.
+    * @param <T> Supplied result.
+    * @param <E> Potential exception thrown by provided Supplier.
+    * @return Supplier that retries.
+    */
+   public static <T, E extends Exception> ExceptionThrowingSupplier<T, E> retryingSupplier(
+      final ExceptionThrowingSupplier<T, E> supplier, final RetryPolicy policy, final Ticker ticker)
+   {
+      return () ->
+      {
+         Exception previous = null;
+         for (int attempt = 1; ; attempt++)
+         {
+            try
+            {
+               return supplier.get();
+            }
+            catch (Exception exception)
+            {
+               if (previous != null && previous != exception)
+               {
+                  exception.addSuppressed(previous);
+               }
+               previous = exception;
+               if (attempt >= policy.getMaximumAttempts() || !policy.isRetryable(exception))
+               {
+                  throw exception;
+               }
+               try
+               {
+                  ticker.sleep(policy.getBackoffNanos(attempt, ThreadLocalRandom.current().nextDouble()));
+               }
+               catch (InterruptedException interruptedException)
+               {
+                  Thread.currentThread().interrupt();
+                  throw exception;
+               }
+            }
+         }
+      };
+   }
+
+   /**
+    * Decorate the provided function to retry failed calls according to
+    * the provided policy, as described for
+    * {@link #retryingSupplier(ExceptionThrowingSupplier, RetryPolicy, Ticker)}.
+    *
+    * @param function Function to be retried.
+    * @param policy Attempts, retryable exceptions, and backoff.
+    * @param ticker Means of waiting between attempts.
+    * @param <T> Function's input argument.
+    * @param <R> Function's return value.
+    * @param <E> Potential exception that function may throw.
+    * @return Function that retries.
+    */
+   public static <T, R, E extends Exception> ExceptionThrowingFunction<T, R, E> retryingFunction(
+      final ExceptionThrowingFunction<T, R, E> function, final RetryPolicy policy, final Ticker ticker)
+   {
+      return inputArgument -> retryingSupplier(() -> function.apply(inputArgument), policy, ticker).get();
+   }
+
+   /**
+    * Decorate the provided function to retry failed calls according to
+    * the provided policy, waiting with the system ticker.
+    *
+    * @param function Function to be retried.
+    * @param policy Attempts, retryable exceptions, and backoff.
+    * @param <T> Function's input argument.
+    * @param <R> Function's return value.
+    * @param <E> Potential exception that function may throw.
+    * @return Function that retries.
+    */
+   public static <T, R, E extends Exception> ExceptionThrowingFunction<T, R, E> retryingFunction(
+      final ExceptionThrowingFunction<T, R, E> function, final RetryPolicy policy)
+   {
+      return retryingFunction(function, policy, Ticker.system());
+   }
+
+   /**
+    * Decorate the provided supplier to run each call on the provided
+    * executor and stop waiting for it after the provided timeout. A call
+    * that times out is cancelled (interrupting it) and
+    * {@link UncheckedHttpTimeoutException} is thrown; the calling thread
+    * is released even if the call ignores the interrupt. Exceptions
+    * thrown by the call are rethrown unwrapped.
+    *
+    * @param supplier Supplier to be limited.
+    * @param timeout Maximum time to wait for each call.
+    * @param executor Executor on which calls run.
+    * @param <T> Supplied result.
+    * @param <E> Potential exception thrown by provided Supplier.
+    * @return Supplier that stops waiting after the timeout.
+    */
+   public static <T, E extends Exception> ExceptionThrowingSupplier<T, E> timeLimitedSupplier(
+      final ExceptionThrowingSupplier<T, E> supplier, final Duration timeout, final ExecutorService executor)
+   {
+      final long timeoutNanos = RetryPolicy.toNanos(timeout);
+      return () ->
+      {
+         final Future<T> future = executor.submit(supplier::get);
+         try
+         {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+         }
+         catch (TimeoutException timeoutException)
+         {
+            future.cancel(true);
+            throw new UncheckedHttpTimeoutException("Call did not complete within " + timeout, timeoutException);
+         }
+         catch (InterruptedException interruptedException)
+         {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new UncheckedHttpTimeoutException("Interrupted waiting for call", interruptedException);
+         }
+         catch (ExecutionException executionException)
+         {
+            throw ExceptionThrowingDecorators.<E>rethrow(executionException.getCause());
+         }
+      };
+   }
+
+   /**
+    * Decorate the provided function to run each call on the provided
+    * executor and stop waiting for it after the provided timeout, as
+    * described for
+    * {@link #timeLimitedSupplier(ExceptionThrowingSupplier, Duration, ExecutorService)}.
+    *
+    * @param function Function to be limited.
+    * @param timeout Maximum time to wait for each call.
+    * @param executor Executor on which calls run.
+    * @param <T> Function's input argument.
+    * @param <R> Function's return value.
+    * @param <E> Potential exception that function may throw.
+    * @return Function that stops waiting after the timeout.
+    */
+   public static <T, R, E extends Exception> ExceptionThrowingFunction<T, R, E> timeLimitedFunction(
+      final ExceptionThrowingFunction<T, R, E> function, final Duration timeout, final ExecutorService executor)
+   {
+      return inputArgument -> timeLimitedSupplier(() -> function.apply(inputArgument), timeout, executor).get();
+   }
+
+   /**
+    * Decorate the provided supplier to consult the provided circuit
+    * breaker before each call and report each call's outcome to it.
+    * Calls rejected by an open breaker throw
+    * {@link CircuitBreakerOpenException} without calling the supplier.
+    *
+    * @param supplier Supplier to be guarded.
+    * @param breaker Circuit breaker (may be shared by several decorated
+    *    suppliers and functions calling the same dependency).
+    * @param <T> Supplied result.
+    * @param <E> Potential exception thrown by provided Supplier.
+    * @return Supplier guarded by the circuit breaker.
+    */
+   public static <T, E extends Exception> ExceptionThrowingSupplier<T, E> guardedSupplier(
+      final ExceptionThrowingSupplier<T, E> supplier, final CircuitBreaker breaker)
+   {
+      return () ->
+      {
+         final long permit = breaker.tryAcquire();
+         if (permit == CircuitBreaker.REJECTED)
+         {
+            throw new CircuitBreakerOpenException("Circuit breaker is open; call rejected.");
+         }
+         final T result;
+         try
+         {
+            result = supplier.get();
+         }
+         catch (Exception | Error failure)
+         {
+            breaker.onFailure(permit);
+            throw failure;
+         }
+         breaker.onSuccess(permit);
+         return result;
+      };
+   }
+
+   /**
+    * Decorate the provided function to consult the provided circuit
+    * breaker before each call and report each call's outcome to it, as
+    * described for
+    * {@link #guardedSupplier(ExceptionThrowingSupplier, CircuitBreaker)}.
+    *
+    * @param function Function to be guarded.
+    * @param breaker Circuit breaker.
+    * @param <T> Function's input argument.
+    * @param <R> Function's return value.
+    * @param <E> Potential exception that function may throw.
+    * @return Function guarded by the circuit breaker.
+    */
+   public static <T, R, E extends Exception> ExceptionThrowingFunction<T, R, E> guardedFunction(
+      final ExceptionThrowingFunction<T, R, E> function, final CircuitBreaker breaker)
+   {
+      return inputArgument -> guardedSupplier(() -> function.apply(inputArgument), breaker).get();
+   }
+
+   /**
+    * Decorate the provided supplier to compute its value on first use
+    * and return that value thereafter. However many threads call
+    * concurrently, the supplier runs once; if it throws, the exception
+    * is propagated and the next call tries again.
+    *
+    * @param supplier Supplier whose value is memoized.
+    * @param <T> Supplied result.
+    * @param <E> Potential exception thrown by provided Supplier.
+    * @return Supplier that computes at most one value.
+    */
+   public static <T, E extends Exception> ExceptionThrowingSupplier<T, E> memoizedSupplier(
+      final ExceptionThrowingSupplier<T, E> supplier)
+   {
+      return new MemoizedSupplier<>(supplier);
+   }
+
+   /**
+    * Decorate the provided function to cache up to the provided number of
+    * results, evicting the least recently used. Concurrent calls for the
+    * same key compute it once. See {@link MemoizingFunction} for
+    * weighted, expiring, and exception-caching variants and statistics.
+    *
+    * @param function Function whose results are cached.
+    * @param maximumSize Maximum number of cached results.
+    * @param <T> Function's input argument.
+    * @param <R> Function's return value.
+    * @param <E> Potential exception that function may throw.
+    * @return Function with cached results.
+    */
+   public static <T, R, E extends Exception> MemoizingFunction<T, R, E> memoizedFunction(
+      final ExceptionThrowingFunction<T, R, E> function, final long maximumSize)
+   {
+      return new MemoizingFunction<>(function, maximumSize);
+   }
+
+   /**
+    * Rethrow the provided cause of a failed call, which is either
+    * unchecked or the call's declared exception.
+    *
+    * @param cause Exception thrown by the call.
+    * @param <E> Declared exception of the call.
+    * @return Never returns; declared so callers can write
+    *    {@code throw rethrow(cause)}.
+    * @throws E The provided cause if checked.
+    */
+   @SuppressWarnings("unchecked")
+   private static <E extends Exception> RuntimeException rethrow(final Throwable cause) throws E
+   {
+      if (cause instanceof RuntimeException)
+      {
+         throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error)
+      {
+         throw (Error) cause;
+      }
+      throw (E) cause;
+   }
+
+   /**
+    * Supplier computing its value once, using double-checked locking so
+    * that calls after the first read a single volatile field.
+    *
+    * @param <T> Supplied result.
+    * @param <E> Potential exception thrown by the delegate.
+    */
+   private static final class MemoizedSupplier<T, E extends Exception> implements ExceptionThrowingSupplier<T, E>
+   {
+      /** Supplier of the value; released once the value is computed. */
+      private ExceptionThrowingSupplier<T, E> delegate;
+
+      /** Whether the value has been computed. */
+      private volatile boolean computed;
+
+      /** Computed value (published by the write to {@link #computed}). */
+      private T value;
+
+      /**
+       * Constructor accepting the supplier of the value.
+       *
+       * @param newDelegate Supplier of the value.
+       */
+      private MemoizedSupplier(final ExceptionThrowingSupplier<T, E> newDelegate)
+      {
+         this.delegate = newDelegate;
+      }
+
+      @Override
+      public T get() throws E
+      {
+         if (!computed)
+         {
+            synchronized (this)
+            {
+               if (!computed)
+               {
+                  value = delegate.get();
+                  computed = true;
+                  delegate = null;
+               }
+            }
+         }
+         return value;
+      }
+   }
+}
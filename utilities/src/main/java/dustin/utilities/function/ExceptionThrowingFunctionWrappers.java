@@ -0,0 +1,1056 @@
+package dustin.utilities.function;
+
+import dustin.utilities.exceptions.StacklessUncheckedException;
+import dustin.utilities.exceptions.StacklessUncheckedIOException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Contains static methods intended for wrapping standard functions
+ * with "wrapper" functions that are capable of throwing checked
+ * exceptions.
+ *
+ * These methods are static so that code that uses these methods
+ * can optionally statically import these methods to avoid needing
+ * to spell out this class's name when using this class's methods.
+ *
+ * The {@code wrapX} methods wrap checked exceptions in a new
+ * {@link UncheckedIOException} or {@link RuntimeException}, which fills in
+ * a second stack trace on every failure. Where failures are frequent,
+ * the {@code wrapXSneakily} methods rethrow the original checked
+ * exception unwrapped (invisible to the compiler, so callers catch
+ * {@link Exception} and test its type), and the {@code wrapXStackless}
+ * methods wrap it in a {@link StacklessUncheckedIOException} or
+ * {@link StacklessUncheckedException}, neither of which captures a
+ * stack trace.
+ *
+ * The {@code wrapXToResult} methods throw nothing: every exception is
+ * captured as a failed {@link Result}, so a failing element does not
+ * abort a (possibly parallel) stream; {@link ResultCollectors} separates
+ * successes from failures.
+ */
+public class ExceptionThrowingFunctionWrappers
+{
+   /**
+    * Accepts a Function that potentially throws an Exception
+    * (even a checked exception), but only throws an unchecked
+    * exception if a checked or unchecked exception is encountered.
+    *
+    * @param wrappedFunction Function that potentially throws a checked
+    *    exception.
+    * @param <T> Function's input argument.
+    * @param <R> Function's return value.
+    * @param <E> Potential exception that wrapped function may throw.
+    * @return Standard JDK Function that only throws unchecked exceptions.
+    */
+   public static <T, R, E extends Exception> Function<T, R> wrapFunction(
+      final ExceptionThrowingFunction<T, R, E> wrappedFunction)
+   {
+      return inputArgument ->
+      {
+         try
+         {
+            return wrappedFunction.apply(inputArgument);
+         }
+         catch (RuntimeException runtimeException)
+         {
+            throw runtimeException;
+         }
+         catch (Exception exception)
+         {
+            if (exception instanceof IOException)
+            {
+               throw new UncheckedIOException((IOException)exception);
+            }
+            else
+            {
+               throw new RuntimeException(exception);
+            }
+         }
+      };
+   }
+
+   /**
+    * Accepts a Consumer that potentially throws an Exception
+    * (even a checked exception), but only throws an unchecked
+    * exception when the checked or unchecked exception is
+    * encountered.
+    *
+    * @param wrappedConsumer Consumer that potentially throws
+    *    a checked exception.
+    * @param <T> Input argument.
+    * @param <E> Potential exception thrown by provided Consumer.
+    * @return Standard JDK Consumer that only throws unchecked exceptions.
+    */
+   public static <T, E extends Exception> Consumer<T> wrapConsumer(
+      final ExceptionThrowingConsumer<T, E> wrappedConsumer)
+   {
+      return consumed ->
+      {
+        try
+        {
+           wrappedConsumer.accept(consumed);
+        }
+        catch (RuntimeException runtimeException)
+        {
+           throw runtimeException;
+        }
+        catch (Exception exception)
+        {
+           if (exception instanceof IOException)
+           {
+              throw new UncheckedIOException((IOException)exception);
+           }
+           else
+           {
+              throw new RuntimeException(exception);
+           }
+        }
+      };
+   }
+
+   /**
+    * Accepts a Supplier that potentially throws an Exception
+    * (even a checked exception), but only throws an unchecked
+    * exception when the checked or unchecked exception is
+    * encountered.
+    *
+    * @param wrappedSupplier Supplier that potentially throws
+    *    a checked exception.
+    * @param <T> Supplied result.
+    * @param <E> Potential exception thrown by provided Supplier.
+    * @return Standard JDK Supplier that only throws unchecked exceptions.
+    */
+   public static <T, E extends Exception> Supplier<T> wrapSupplier(
+      final ExceptionThrowingSupplier<T, E> wrappedSupplier)
+   {
+      return () ->
+      {
+         try
+         {
+            return wrappedSupplier.get();
+         }
+         catch (RuntimeException runtimeException)
+         {
+            throw runtimeException;
+         }
+         catch (Exception exception)
+         {
+            if (exception instanceof IOException)
+            {
+               throw new UncheckedIOException((IOException)exception);
+            }
+            else
+            {
+               throw new RuntimeException(exception);
+            }
+         }
+      };
+   }
+
+   /**
+    * Accepts a Predicate that potentially throws an Exception
+    * (even a checked exception), but only throws an unchecked
+    * exception when the checked or unchecked exception is
+    * encountered.
+    *
+    * @param wrappedPredicate Predicate that potentially throws
+    *    a checked exception.
+    * @param <T> Supplied value to be tested against predicate.
+    * @param <E> Potential exception thrown by predicate.
+    * @return Standard JDK Predicate that only throws unchecked exceptions.
+    */
+   public static <T, E extends Exception> Predicate<T> wrapPredicate(
+      final ExceptionThrowingPredicate<T, E> wrappedPredicate)
+   {
+      return test ->
+      {
+         try
+         {
+            return wrappedPredicate.test(test);
+         }
+         catch (RuntimeException runtimeException)
+         {
+            throw runtimeException;
+         }
+         catch (Exception exception)
+         {
+            if (exception instanceof IOException)
+            {
+               throw new UncheckedIOException((IOException)exception);
+            }
+            else
+            {
+               throw new RuntimeException(exception);
+            }
+         }
+      };
+   }
+
+   /**
+    * Accepts a BiConsumer that potentially throws an Exception
+    * (even a checked exception), but only throws an unchecked
+    * exception when the checked or unchecked exception is
+    * encountered.
+    *
+    * @param wrappedBiConsumer BiConsumer that potentially throws
+    *    a checked exception.
+    * @param <T> First input argument.
+    * @param <U> Second input argument.
+    * @param <E> Potential exception thrown by provided BiConsumer.
+    * @return Standard JDK BiConsumer that only throws unchecked exceptions.
+    */
+   public static <T, U, E extends Exception> BiConsumer<T, U> wrapBiConsumer(
+      final ExceptionThrowingBiConsumer<T, U, E> wrappedBiConsumer)
+   {
+      return (consumed1, consumed2) ->
+      {
+         try
+         {
+            wrappedBiConsumer.accept(consumed1, consumed2);
+         }
+         catch (RuntimeException runtimeException)
+         {
+            throw runtimeException;
+         }
+         catch (Exception exception)
+         {
+            if (exception instanceof IOException)
+            {
+               throw new UncheckedIOException((IOException)exception);
+            }
+            else
+            {
+               throw new RuntimeException(exception);
+            }
+         }
+      };
+   }
+
+   /**
+    * Accepts an IntFunction that potentially throws an Exception
+    * (even a checked exception), but only throws an unchecked
+    * exception when the checked or unchecked exception is
+    * encountered. Primitive arguments and results are not boxed.
+    *
+    * @param wrapped IntFunction that potentially throws a checked exception.
+    * @param <R> Function's return value.
+    * @param <E> Potential exception that wrapped function may throw.
+    * @return Standard JDK IntFunction that only throws unchecked exceptions.
+    */
+   public static <R, E extends Exception> IntFunction<R> wrapIntFunction(
+      final ExceptionThrowingIntFunction<R, E> wrapped)
+   {
+      return value ->
+      {
+         try
+         {
+            return wrapped.apply(value);
+         }
+         catch (RuntimeException runtimeException)
+         {
+            throw runtimeException;
+         }
+         catch (Exception exception)
+         {
+            throw toUnchecked(exception);
+         }
+      };
+   }
+
+   /**
+    * Accepts a LongFunction that potentially throws an Exception
+    * (even a checked exception), but only throws an unchecked
+    * exception when the checked or unchecked exception is
+    * encountered. Primitive arguments and results are not boxed.
+    *
+    * @param wrapped LongFunction that potentially throws a checked exception.
+    * @param <R> Function's return value.
+    * @param <E> Potential exception that wrapped function may throw.
+    * @return Standard JDK LongFunction that only throws unchecked exceptions.
+    */
+   public static <R, E extends Exception> LongFunction<R> wrapLongFunction(
+      final ExceptionThrowingLongFunction<R, E> wrapped)
+   {
+      return value ->
+      {
+         try
+         {
+            return wrapped.apply(value);
+         }
+         catch (RuntimeException runtimeException)
+         {
+            throw runtimeException;
+         }
+         catch (Exception exception)
+         {
+            throw toUnchecked(exception);
+         }
+      };
+   }
+
+   /**
+    * Accepts a ToIntFunction that potentially throws an Exception
+    * (even a checked exception), but only throws an unchecked
+    * exception when the checked or unchecked exception is
+    * encountered. Primitive arguments and results are not boxed.
+    *
+    * @param wrapped ToIntFunction that potentially throws a checked exception.
+    * @param <T> Function's input argument.
+    * @param <E> Potential exception that wrapped function may throw.
+    * @return Standard JDK ToIntFunction that only throws unchecked exceptions.
+    */
+   public static <T, E extends Exception> ToIntFunction<T> wrapToIntFunction(
+      final ExceptionThrowingToIntFunction<T, E> wrapped)
+   {
+      return t ->
+      {
+         try
+         {
+            return wrapped.applyAsInt(t);
+         }
+         catch (RuntimeException runtimeException)
+         {
+            throw runtimeException;
+         }
+         catch (Exception exception)
+         {
+            throw toUnchecked(exception);
+         }
+      };
+   }
+
+   /**
+    * Accepts a ToLongFunction that potentially throws an Exception
+    * (even a checked exception), but only throws an unchecked
+    * exception when the checked or unchecked exception is
+    * encountered. Primitive arguments and results are not boxed.
+    *
+    * @param wrapped ToLongFunction that potentially throws a checked exception.
+    * @param <T> Function's input argument.
+    * @param <E> Potential exception that wrapped function may throw.
+    * @return Standard JDK ToLongFunction that only throws unchecked exceptions.
+    */
+   public static <T, E extends Exception> ToLongFunction<T> wrapToLongFunction(
+      final ExceptionThrowingToLongFunction<T, E> wrapped)
+   {
+      return t ->
+      {
+         try
+         {
+            return wrapped.applyAsLong(t);
+         }
+         catch (RuntimeException runtimeException)
+         {
+            throw runtimeException;
+         }
+         catch (Exception exception)
+         {
+            throw toUnchecked(exception);
+         }
+      };
+   }
+
+   /**
+    * Accepts a ToDoubleFunction that potentially throws an Exception
+    * (even a checked exception), but only throws an unchecked
+    * exception when the checked or unchecked exception is
+    * encountered. Primitive arguments and results are not boxed.
+    *
+    * @param wrapped ToDoubleFunction that potentially throws a checked exception.
+    * @param <T> Function's input argument.
+    * @param <E> Potential exception that wrapped function may throw.
+    * @return Standard JDK ToDoubleFunction that only throws unchecked exceptions.
+    */
+   public static <T, E extends Exception> ToDoubleFunction<T> wrapToDoubleFunction(
+      final ExceptionThrowingToDoubleFunction<T, E> wrapped)
+   {
+      return t ->
+      {
+         try
+         {
+            return wrapped.applyAsDouble(t);
+         }
+         catch (RuntimeException runtimeException)
+         {
+            throw runtimeException;
+         }
+         catch (Exception exception)
+         {
+            throw toUnchecked(exception);
+         }
+      };
+   }
+
+   /**
+    * Accepts an IntUnaryOperator that potentially throws an Exception
+    * (even a checked exception), but only throws an unchecked
+    * exception when the checked or unchecked exception is
+    * encountered. Primitive arguments and results are not boxed.
+    *
+    * @param wrapped IntUnaryOperator that potentially throws a checked exception.
+    * @param <E> Potential exception that wrapped operator may throw.
+    * @return Standard JDK IntUnaryOperator that only throws unchecked exceptions.
+    */
+   public static <E extends Exception> IntUnaryOperator wrapIntUnaryOperator(
+      final ExceptionThrowingIntUnaryOperator<E> wrapped)
+   {
+      return operand ->
+      {
+         try
+         {
+            return wrapped.applyAsInt(operand);
+         }
+         catch (RuntimeException runtimeException)
+         {
+            throw runtimeException;
+         }
+         catch (Exception exception)
+         {
+            throw toUnchecked(exception);
+         }
+      };
+   }
+
+   /**
+    * Accepts a LongUnaryOperator that potentially throws an Exception
+    * (even a checked exception), but only throws an unchecked
+    * exception when the checked or unchecked exception is
+    * encountered. Primitive arguments and results are not boxed.
+    *
+    * @param wrapped LongUnaryOperator that potentially throws a checked exception.
+    * @param <E> Potential exception that wrapped operator may throw.
+    * @return Standard JDK LongUnaryOperator that only throws unchecked exceptions.
+    */
+   public static <E extends Exception> LongUnaryOperator wrapLongUnaryOperator(
+      final ExceptionThrowingLongUnaryOperator<E> wrapped)
+   {
+      return operand ->
+      {
+         try
+         {
+            return wrapped.applyAsLong(operand);
+         }
+         catch (RuntimeException runtimeException)
+         {
+            throw runtimeException;
+         }
+         catch (Exception exception)
+         {
+            throw toUnchecked(exception);
+         }
+      };
+   }
+
+   /**
+    * Accepts an IntPredicate that potentially throws an Exception
+    * (even a checked exception), but only throws an unchecked
+    * exception when the checked or unchecked exception is
+    * encountered. Primitive arguments and results are not boxed.
+    *
+    * @param wrapped IntPredicate that potentially throws a checked exception.
+    * @param <E> Potential exception thrown by predicate.
+    * @return Standard JDK IntPredicate that only throws unchecked exceptions.
+    */
+   public static <E extends Exception> IntPredicate wrapIntPredicate(
+      final ExceptionThrowingIntPredicate<E> wrapped)
+   {
+      return value ->
+      {
+         try
+         {
+            return wrapped.test(value);
+         }
+         catch (RuntimeException runtimeException)
+         {
+            throw runtimeException;
+         }
+         catch (Exception exception)
+         {
+            throw toUnchecked(exception);
+         }
+      };
+   }
+
+   /**
+    * Accepts a LongPredicate that potentially throws an Exception
+    * (even a checked exception), but only throws an unchecked
+    * exception when the checked or unchecked exception is
+    * encountered. Primitive arguments and results are not boxed.
+    *
+    * @param wrapped LongPredicate that potentially throws a checked exception.
+    * @param <E> Potential exception thrown by predicate.
+    * @return Standard JDK LongPredicate that only throws unchecked exceptions.
+    */
+   public static <E extends Exception> LongPredicate wrapLongPredicate(
+      final ExceptionThrowingLongPredicate<E> wrapped)
+   {
+      return value ->
+      {
+         try
+         {
+            return wrapped.test(value);
+         }
+         catch (RuntimeException runtimeException)
+         {
+            throw runtimeException;
+         }
+         catch (Exception exception)
+         {
+            throw toUnchecked(exception);
+         }
+      };
+   }
+
+   /**
+    * Accepts an IntConsumer that potentially throws an Exception
+    * (even a checked exception), but only throws an unchecked
+    * exception when the checked or unchecked exception is
+    * encountered. Primitive arguments and results are not boxed.
+    *
+    * @param wrapped IntConsumer that potentially throws a checked exception.
+    * @param <E> Potential exception thrown by provided consumer.
+    * @return Standard JDK IntConsumer that only throws unchecked exceptions.
+    */
+   public static <E extends Exception> IntConsumer wrapIntConsumer(
+      final ExceptionThrowingIntConsumer<E> wrapped)
+   {
+      return value ->
+      {
+         try
+         {
+            wrapped.accept(value);
+         }
+         catch (RuntimeException runtimeException)
+         {
+            throw runtimeException;
+         }
+         catch (Exception exception)
+         {
+            throw toUnchecked(exception);
+         }
+      };
+   }
+
+   /**
+    * Accepts a LongConsumer that potentially throws an Exception
+    * (even a checked exception), but only throws an unchecked
+    * exception when the checked or unchecked exception is
+    * encountered. Primitive arguments and results are not boxed.
+    *
+    * @param wrapped LongConsumer that potentially throws a checked exception.
+    * @param <E> Potential exception thrown by provided consumer.
+    * @return Standard JDK LongConsumer that only throws unchecked exceptions.
+    */
+   public static <E extends Exception> LongConsumer wrapLongConsumer(
+      final ExceptionThrowingLongConsumer<E> wrapped)
+   {
+      return value ->
+      {
+         try
+         {
+            wrapped.accept(value);
+         }
+         catch (RuntimeException runtimeException)
+         {
+            throw runtimeException;
+         }
+         catch (Exception exception)
+         {
+            throw toUnchecked(exception);
+         }
+      };
+   }
+
+   /**
+    * Accepts a BiFunction that potentially throws an Exception
+    * (even a checked exception), but only throws an unchecked
+    * exception when the checked or unchecked exception is
+    * encountered.
+    *
+    * @param wrapped BiFunction that potentially throws a checked exception.
+    * @param <T> First input argument.
+    * @param <U> Second input argument.
+    * @param <R> Function's return value.
+    * @param <E> Potential exception that wrapped function may throw.
+    * @return Standard JDK BiFunction that only throws unchecked exceptions.
+    */
+   public static <T, U, R, E extends Exception> BiFunction<T, U, R> wrapBiFunction(
+      final ExceptionThrowingBiFunction<T, U, R, E> wrapped)
+   {
+      return (t, u) ->
+      {
+         try
+         {
+            return wrapped.apply(t, u);
+         }
+         catch (RuntimeException runtimeException)
+         {
+            throw runtimeException;
+         }
+         catch (Exception exception)
+         {
+            throw toUnchecked(exception);
+         }
+      };
+   }
+
+   /**
+    * Accepts a BiPredicate that potentially throws an Exception
+    * (even a checked exception), but only throws an unchecked
+    * exception when the checked or unchecked exception is
+    * encountered.
+    *
+    * @param wrapped BiPredicate that potentially throws a checked exception.
+    * @param <T> First input argument.
+    * @param <U> Second input argument.
+    * @param <E> Potential exception thrown by predicate.
+    * @return Standard JDK BiPredicate that only throws unchecked exceptions.
+    */
+   public static <T, U, E extends Exception> BiPredicate<T, U> wrapBiPredicate(
+      final ExceptionThrowingBiPredicate<T, U, E> wrapped)
+   {
+      return (t, u) ->
+      {
+         try
+         {
+            return wrapped.test(t, u);
+         }
+         catch (RuntimeException runtimeException)
+         {
+            throw runtimeException;
+         }
+         catch (Exception exception)
+         {
+            throw toUnchecked(exception);
+         }
+      };
+   }
+
+   /**
+    * Accepts a Function that potentially throws an Exception
+    * (even a checked exception) and rethrows any exception it throws
+    * unchanged, without wrapping, even though the returned Function does
+    * not declare checked exceptions.
+    *
+    * @param wrappedFunction Function that potentially throws a checked
+    *    exception.
+    * @param <T> Function's input argument.
+    * @param <R> Function's return value.
+    * @param <E> Potential exception that wrapped function may throw.
+    * @return Standard JDK Function that rethrows the original exception.
+    */
+   public static <T, R, E extends Exception> Function<T, R> wrapFunctionSneakily(
+      final ExceptionThrowingFunction<T, R, E> wrappedFunction)
+   {
+      return inputArgument ->
+      {
+         try
+         {
+            return wrappedFunction.apply(inputArgument);
+         }
+         catch (Exception exception)
+         {
+            throw ExceptionThrowingFunctionWrappers.<RuntimeException>sneakyThrow(exception);
+         }
+      };
+   }
+
+   /**
+    * Accepts a Function that potentially throws an Exception
+    * (even a checked exception), but only throws an unchecked
+    * exception, created without a stack trace of its own, when a
+    * checked exception is encountered.
+    *
+    * @param wrappedFunction Function that potentially throws a checked
+    *    exception.
+    * @param <T> Function's input argument.
+    * @param <R> Function's return value.
+    * @param <E> Potential exception that wrapped function may throw.
+    * @return Standard JDK Function that only throws unchecked exceptions.
+    */
+   public static <T, R, E extends Exception> Function<T, R> wrapFunctionStackless(
+      final ExceptionThrowingFunction<T, R, E> wrappedFunction)
+   {
+      return inputArgument ->
+      {
+         try
+         {
+            return wrappedFunction.apply(inputArgument);
+         }
+         catch (RuntimeException runtimeException)
+         {
+            throw runtimeException;
+         }
+         catch (Exception exception)
+         {
+            throw toStacklessUnchecked(exception);
+         }
+      };
+   }
+
+   /**
+    * Accepts a Consumer that potentially throws an Exception
+    * (even a checked exception) and rethrows any exception it throws
+    * unchanged, without wrapping, even though the returned Consumer does
+    * not declare checked exceptions.
+    *
+    * @param wrappedConsumer Consumer that potentially throws
+    *    a checked exception.
+    * @param <T> Input argument.
+    * @param <E> Potential exception thrown by provided Consumer.
+    * @return Standard JDK Consumer that rethrows the original exception.
+    */
+   public static <T, E extends Exception> Consumer<T> wrapConsumerSneakily(
+      final ExceptionThrowingConsumer<T, E> wrappedConsumer)
+   {
+      return consumed ->
+      {
+         try
+         {
+            wrappedConsumer.accept(consumed);
+         }
+         catch (Exception exception)
+         {
+            throw ExceptionThrowingFunctionWrappers.<RuntimeException>sneakyThrow(exception);
+         }
+      };
+   }
+
+   /**
+    * Accepts a Consumer that potentially throws an Exception
+    * (even a checked exception), but only throws an unchecked
+    * exception, created without a stack trace of its own, when a
+    * checked exception is encountered.
+    *
+    * @param wrappedConsumer Consumer that potentially throws
+    *    a checked exception.
+    * @param <T> Input argument.
+    * @param <E> Potential exception thrown by provided Consumer.
+    * @return Standard JDK Consumer that only throws unchecked exceptions.
+    */
+   public static <T, E extends Exception> Consumer<T> wrapConsumerStackless(
+      final ExceptionThrowingConsumer<T, E> wrappedConsumer)
+   {
+      return consumed ->
+      {
+         try
+         {
+            wrappedConsumer.accept(consumed);
+         }
+         catch (RuntimeException runtimeException)
+         {
+            throw runtimeException;
+         }
+         catch (Exception exception)
+         {
+            throw toStacklessUnchecked(exception);
+         }
+      };
+   }
+
+   /**
+    * Accepts a Supplier that potentially throws an Exception
+    * (even a checked exception) and rethrows any exception it throws
+    * unchanged, without wrapping, even though the returned Supplier does
+    * not declare checked exceptions.
+    *
+    * @param wrappedSupplier Supplier that potentially throws
+    *    a checked exception.
+    * @param <T> Supplied result.
+    * @param <E> Potential exception thrown by provided Supplier.
+    * @return Standard JDK Supplier that rethrows the original exception.
+    */
+   public static <T, E extends Exception> Supplier<T> wrapSupplierSneakily(
+      final ExceptionThrowingSupplier<T, E> wrappedSupplier)
+   {
+      return () ->
+      {
+         try
+         {
+            return wrappedSupplier.get();
+         }
+         catch (Exception exception)
+         {
+            throw ExceptionThrowingFunctionWrappers.<RuntimeException>sneakyThrow(exception);
+         }
+      };
+   }
+
+   /**
+    * Accepts a Supplier that potentially throws an Exception
+    * (even a checked exception), but only throws an unchecked
+    * exception, created without a stack trace of its own, when a
+    * checked exception is encountered.
+    *
+    * @param wrappedSupplier Supplier that potentially throws
+    *    a checked exception.
+    * @param <T> Supplied result.
+    * @param <E> Potential exception thrown by provided Supplier.
+    * @return Standard JDK Supplier that only throws unchecked exceptions.
+    */
+   public static <T, E extends Exception> Supplier<T> wrapSupplierStackless(
+      final ExceptionThrowingSupplier<T, E> wrappedSupplier)
+   {
+      return () ->
+      {
+         try
+         {
+            return wrappedSupplier.get();
+         }
+         catch (RuntimeException runtimeException)
+         {
+            throw runtimeException;
+         }
+         catch (Exception exception)
+         {
+            throw toStacklessUnchecked(exception);
+         }
+      };
+   }
+
+   /**
+    * Accepts a Predicate that potentially throws an Exception
+    * (even a checked exception) and rethrows any exception it throws
+    * unchanged, without wrapping, even though the returned Predicate does
+    * not declare checked exceptions.
+    *
+    * @param wrappedPredicate Predicate that potentially throws
+    *    a checked exception.
+    * @param <T> Supplied value to be tested against predicate.
+    * @param <E> Potential exception thrown by predicate.
+    * @return Standard JDK Predicate that rethrows the original exception.
+    */
+   public static <T, E extends Exception> Predicate<T> wrapPredicateSneakily(
+      final ExceptionThrowingPredicate<T, E> wrappedPredicate)
+   {
+      return test ->
+      {
+         try
+         {
+            return wrappedPredicate.test(test);
+         }
+         catch (Exception exception)
+         {
+            throw ExceptionThrowingFunctionWrappers.<RuntimeException>sneakyThrow(exception);
+         }
+      };
+   }
+
+   /**
+    * Accepts a Predicate that potentially throws an Exception
+    * (even a checked exception), but only throws an unchecked
+    * exception, created without a stack trace of its own, when a
+    * checked exception is encountered.
+    *
+    * @param wrappedPredicate Predicate that potentially throws
+    *    a checked exception.
+    * @param <T> Supplied value to be tested against predicate.
+    * @param <E> Potential exception thrown by predicate.
+    * @return Standard JDK Predicate that only throws unchecked exceptions.
+    */
+   public static <T, E extends Exception> Predicate<T> wrapPredicateStackless(
+      final ExceptionThrowingPredicate<T, E> wrappedPredicate)
+   {
+      return test ->
+      {
+         try
+         {
+            return wrappedPredicate.test(test);
+         }
+         catch (RuntimeException runtimeException)
+         {
+            throw runtimeException;
+         }
+         catch (Exception exception)
+         {
+            throw toStacklessUnchecked(exception);
+         }
+      };
+   }
+
+   /**
+    * Accepts a BiConsumer that potentially throws an Exception
+    * (even a checked exception) and rethrows any exception it throws
+    * unchanged, without wrapping, even though the returned BiConsumer does
+    * not declare checked exceptions.
+    *
+    * @param wrappedBiConsumer BiConsumer that potentially throws
+    *    a checked exception.
+    * @param <T> First input argument.
+    * @param <U> Second input argument.
+    * @param <E> Potential exception thrown by provided BiConsumer.
+    * @return Standard JDK BiConsumer that rethrows the original exception.
+    */
+   public static <T, U, E extends Exception> BiConsumer<T, U> wrapBiConsumerSneakily(
+      final ExceptionThrowingBiConsumer<T, U, E> wrappedBiConsumer)
+   {
+      return (consumed1, consumed2) ->
+      {
+         try
+         {
+            wrappedBiConsumer.accept(consumed1, consumed2);
+         }
+         catch (Exception exception)
+         {
+            throw ExceptionThrowingFunctionWrappers.<RuntimeException>sneakyThrow(exception);
+         }
+      };
+   }
+
+   /**
+    * Accepts a BiConsumer that potentially throws an Exception
+    * (even a checked exception), but only throws an unchecked
+    * exception, created without a stack trace of its own, when a
+    * checked exception is encountered.
+    *
+    * @param wrappedBiConsumer BiConsumer that potentially throws
+    *    a checked exception.
+    * @param <T> First input argument.
+    * @param <U> Second input argument.
+    * @param <E> Potential exception thrown by provided BiConsumer.
+    * @return Standard JDK BiConsumer that only throws unchecked exceptions.
+    */
+   public static <T, U, E extends Exception> BiConsumer<T, U> wrapBiConsumerStackless(
+      final ExceptionThrowingBiConsumer<T, U, E> wrappedBiConsumer)
+   {
+      return (consumed1, consumed2) ->
+      {
+         try
+         {
+            wrappedBiConsumer.accept(consumed1, consumed2);
+         }
+         catch (RuntimeException runtimeException)
+         {
+            throw runtimeException;
+         }
+         catch (Exception exception)
+         {
+            throw toStacklessUnchecked(exception);
+         }
+      };
+   }
+
+   /**
+    * Accepts a Function that potentially throws an Exception
+    * (even a checked exception) and provides a Function that never
+    * throws an exception, but instead returns a failed {@link Result}
+    * holding any exception thrown.
+    *
+    * @param wrappedFunction Function that potentially throws a checked
+    *    exception.
+    * @param <T> Function's input argument.
+    * @param <R> Function's return value.
+    * @param <E> Potential exception that wrapped function may throw.
+    * @return Standard JDK Function returning a successful result holding
+    *    the wrapped function's value or a failed result.
+    */
+   public static <T, R, E extends Exception> Function<T, Result<R>> wrapFunctionToResult(
+      final ExceptionThrowingFunction<T, R, E> wrappedFunction)
+   {
+      return inputArgument ->
+      {
+         try
+         {
+            return Result.success(wrappedFunction.apply(inputArgument));
+         }
+         catch (Exception exception)
+         {
+            return Result.failure(exception);
+         }
+      };
+   }
+
+   /**
+    * Accepts a Supplier that potentially throws an Exception
+    * (even a checked exception) and provides a Supplier that never
+    * throws an exception, but instead returns a failed {@link Result}
+    * holding any exception thrown.
+    *
+    * @param wrappedSupplier Supplier that potentially throws
+    *    a checked exception.
+    * @param <T> Supplied result.
+    * @param <E> Potential exception thrown by provided Supplier.
+    * @return Standard JDK Supplier returning a successful result holding
+    *    the supplied value or a failed result.
+    */
+   public static <T, E extends Exception> Supplier<Result<T>> wrapSupplierToResult(
+      final ExceptionThrowingSupplier<T, E> wrappedSupplier)
+   {
+      return () ->
+      {
+         try
+         {
+            return Result.success(wrappedSupplier.get());
+         }
+         catch (Exception exception)
+         {
+            return Result.failure(exception);
+         }
+      };
+   }
+
+   /**
+    * Provide an unchecked exception wrapping the provided checked
+    * exception, as the {@code wrapX} methods throw.
+    *
+    * @param exception Checked exception to be wrapped.
+    * @return Unchecked exception to be thrown.
+    */
+   private static RuntimeException toUnchecked(final Exception exception)
+   {
+      return exception instanceof IOException
+         ? new UncheckedIOException((IOException) exception)
+         : new RuntimeException(exception);
+   }
+
+   /**
+    * Provide an unchecked exception without its own stack trace wrapping
+    * the provided checked exception.
+    *
+    * @param exception Checked exception to be wrapped.
+    * @return Unchecked exception to be thrown.
+    */
+   private static RuntimeException toStacklessUnchecked(final Exception exception)
+   {
+      return exception instanceof IOException
+         ? new StacklessUncheckedIOException((IOException) exception)
+         : new StacklessUncheckedException(exception);
+   }
+
+   /**
+    * Throw the provided exception without the compiler requiring it to
+    * be declared; {@code E} is inferred as an unchecked exception, so
+    * the cast is erased and the original exception propagates.
+    *
+    * @param exception Exception to be thrown.
+    * @param <E> Type the exception is treated as.
+    * @return Never returns; declared so callers can write
+    *    {@code throw sneakyThrow(exception)}.
+    * @throws E The provided exception.
+    */
+   @SuppressWarnings("unchecked")
+   private static <E extends Exception> RuntimeException sneakyThrow(final Exception exception) throws E
+   {
+      throw (E) exception;
+   }
+}
@@ -0,0 +1,19 @@
+package dustin.utilities.function;
+
+/**
+ * Represents an operation that accepts a single {@code int}-valued
+ * argument but returns no result and may throw an exception (including
+ * a checked exception) during its execution.
+ */
+@FunctionalInterface
+public interface ExceptionThrowingIntConsumer<E extends Exception>
+{
+   /**
+    * Performs this consuming operation on the provided argument
+    * and potentially throws the specified type of Exception.
+    *
+    * @param value Input argument.
+    * @throws E Exception that may be thrown during this operation.
+    */
+   void accept(int value) throws E;
+}
@@ -0,0 +1,21 @@
+package dustin.utilities.function;
+
+/**
+ * Represents a function that accepts an {@code int}-valued argument and
+ * produces a result, but may also throw an exception (including checked
+ * exception) during execution. This is the {@code int}-consuming
+ * primitive specialization of {@link ExceptionThrowingFunction}.
+ */
+@FunctionalInterface
+public interface ExceptionThrowingIntFunction<R, E extends Exception>
+{
+   /**
+    * Applies this function to the given argument
+    * and potentially throws the specified type of Exception.
+    *
+    * @param value Function argument.
+    * @return Function result.
+    * @throws E Exception that may be thrown during this operation.
+    */
+   R apply(int value) throws E;
+}
@@ -0,0 +1,20 @@
+package dustin.utilities.function;
+
+/**
+ * Represents an operation on a single {@code int}-valued operand that
+ * produces an {@code int}-valued result, but may also throw an exception
+ * (including checked exception) during execution.
+ */
+@FunctionalInterface
+public interface ExceptionThrowingIntUnaryOperator<E extends Exception>
+{
+   /**
+    * Applies this function to the given argument
+    * and potentially throws the specified type of Exception.
+    *
+    * @param operand Operand.
+    * @return Operator result.
+    * @throws E Exception that may be thrown during this operation.
+    */
+   int applyAsInt(int operand) throws E;
+}
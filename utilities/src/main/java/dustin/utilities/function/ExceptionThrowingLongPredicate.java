@@ -0,0 +1,20 @@
+package dustin.utilities.function;
+
+/**
+ * Represents a predicate (boolean-valued function) of one {@code long}-valued
+ * argument that may throw an exception (including a checked exception)
+ * during its execution.
+ */
+@FunctionalInterface
+public interface ExceptionThrowingLongPredicate<E extends Exception>
+{
+   /**
+    * Evaluates this predicate on the given argument
+    * and potentially throws the specified type of Exception.
+    *
+    * @param value Value to be tested.
+    * @return {@code true} if the value matches the predicate.
+    * @throws E Exception that may be thrown during this operation.
+    */
+   boolean test(long value) throws E;
+}
@@ -0,0 +1,20 @@
+package dustin.utilities.function;
+
+/**
+ * Represents an operation on a single {@code long}-valued operand that
+ * produces a {@code long}-valued result, but may also throw an exception
+ * (including checked exception) during execution.
+ */
+@FunctionalInterface
+public interface ExceptionThrowingLongUnaryOperator<E extends Exception>
+{
+   /**
+    * Applies this function to the given argument
+    * and potentially throws the specified type of Exception.
+    *
+    * @param operand Operand.
+    * @return Operator result.
+    * @throws E Exception that may be thrown during this operation.
+    */
+   long applyAsLong(long operand) throws E;
+}
@@ -0,0 +1,21 @@
+package dustin.utilities.function;
+
+/**
+ * Represents a function that produces a {@code double}-valued result, but
+ * may also throw an exception (including checked exception) during
+ * execution. This is the {@code double}-producing primitive
+ * specialization of {@link ExceptionThrowingFunction}.
+ */
+@FunctionalInterface
+public interface ExceptionThrowingToDoubleFunction<T, E extends Exception>
+{
+   /**
+    * Applies this function to the given argument
+    * and potentially throws the specified type of Exception.
+    *
+    * @param t Function argument.
+    * @return Function result.
+    * @throws E Exception that may be thrown during this operation.
+    */
+   double applyAsDouble(T t) throws E;
+}
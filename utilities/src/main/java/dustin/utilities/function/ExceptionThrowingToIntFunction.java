@@ -0,0 +1,21 @@
+package dustin.utilities.function;
+
+/**
+ * Represents a function that produces an {@code int}-valued result, but
+ * may also throw an exception (including checked exception) during
+ * execution. This is the {@code int}-producing primitive specialization
+ * of {@link ExceptionThrowingFunction}.
+ */
+@FunctionalInterface
+public interface ExceptionThrowingToIntFunction<T, E extends Exception>
+{
+   /**
+    * Applies this function to the given argument
+    * and potentially throws the specified type of Exception.
+    *
+    * @param t Function argument.
+    * @return Function result.
+    * @throws E Exception that may be thrown during this operation.
+    */
+   int applyAsInt(T t) throws E;
+}
@@ -0,0 +1,21 @@
+package dustin.utilities.function;
+
+/**
+ * Represents a function that produces a {@code long}-valued result, but
+ * may also throw an exception (including checked exception) during
+ * execution. This is the {@code long}-producing primitive specialization
+ * of {@link ExceptionThrowingFunction}.
+ */
+@FunctionalInterface
+public interface ExceptionThrowingToLongFunction<T, E extends Exception>
+{
+   /**
+    * Applies this function to the given argument
+    * and potentially throws the specified type of Exception.
+    *
+    * @param t Function argument.
+    * @return Function result.
+    * @throws E Exception that may be thrown during this operation.
+    */
+   long applyAsLong(T t) throws E;
+}
@@ -0,0 +1,547 @@
+package dustin.utilities.function;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * {@link ExceptionThrowingFunction} that caches the results of another,
+ * evicting the least recently used entries to stay within a maximum
+ * total weight (by default, a maximum number of entries).
+ *
+ * Each key is computed at most once at a time: concurrent callers asking
+ * for a key that is being computed wait for that computation rather than
+ * starting their own, so an expensive lookup is not stampeded when its
+ * entry is missing or expires. Entries may expire a fixed time after
+ * they are computed, and exceptions may be cached ("negative caching")
+ * for their own time to live so that a failing lookup is not repeated
+ * on every call; cached exceptions are rethrown as is.
+ *
+ * Entries are spread across independently locked segments, each
+ * evicting in least-recently-used order within its share of the maximum
+ * weight, so eviction order is approximately LRU across the whole cache.
+ * Keys must not be {@code null}.
+ *
+ * @param <T> Function's input argument (cache key).
+ * @param <R> Function's return value.
+ * @param <E> Potential exception that the function may throw.
+ * @see ExceptionThrowingDecorators#memoizedFunction(ExceptionThrowingFunction, long)
+ */
+public final class MemoizingFunction<T, R, E extends Exception> implements ExceptionThrowingFunction<T, R, E>
+{
+   /** Maximum number of segments. */
+   private static final int MAXIMUM_SEGMENTS = 16;
+
+   /** Minimum share of the maximum weight given to each segment. */
+   private static final long MINIMUM_SEGMENT_WEIGHT = 16;
+
+   /** Function whose results are cached. */
+   private final ExceptionThrowingFunction<T, R, E> function;
+
+   /** Weight of each successful result. */
+   private final ToLongBiFunction<? super T, ? super R> weigher;
+
+   /** Time to live of results in nanoseconds, or {@link Long#MAX_VALUE}. */
+   private final long timeToLiveNanos;
+
+   /** Time to live of exceptions in nanoseconds, or 0 not to cache them. */
+   private final long failureTimeToLiveNanos;
+
+   /** Source of time. */
+   private final Ticker ticker;
+
+   /** Segments holding entries, selected by key hash. */
+   private final Segment[] segments;
+
+   /** Computations in progress keyed by key. */
+   private final ConcurrentHashMap<T, CompletableFuture<Entry>> loading = new ConcurrentHashMap<>();
+
+   /** Number of calls answered from the cache. */
+   private final LongAdder hits = new LongAdder();
+
+   /** Number of calls that computed (or waited for) a result. */
+   private final LongAdder misses = new LongAdder();
+
+   /** Number of entries evicted to stay within the maximum weight. */
+   private final LongAdder evictions = new LongAdder();
+
+   /**
+    * Constructor accepting function and maximum number of cached
+    * results, which do not expire; exceptions are not cached.
+    *
+    * @param newFunction Function whose results are cached.
+    * @param maximumSize Maximum number of cached results.
+    */
+   public MemoizingFunction(final ExceptionThrowingFunction<T, R, E> newFunction, final long maximumSize)
+   {
+      this(newFunction, maximumSize, (key, value) -> 1L, null, Duration.ZERO, Ticker.system());
+   }
+
+   /**
+    * Constructor accepting every setting.
+    *
+    * @param newFunction Function whose results are cached.
+    * @param maximumWeight Maximum total weight of cached entries.
+    * @param newWeigher Weight of each successful result (such as its
+    *    length in bytes); cached exceptions weigh 1.
+    * @param timeToLive Time after computation that a result expires, or
+    *    {@code null} for results never to expire.
+    * @param failureTimeToLive Time after computation that a cached
+    *    exception expires, or zero not to cache exceptions.
+    * @param newTicker Source of time for expiration.
+    * @throws IllegalArgumentException Thrown if the maximum weight is not
+    *    positive or a time to live is negative.
+    */
+   public MemoizingFunction(
+      final ExceptionThrowingFunction<T, R, E> newFunction, final long maximumWeight,
+      final ToLongBiFunction<? super T, ? super R> newWeigher, final Duration timeToLive,
+      final Duration failureTimeToLive, final Ticker newTicker)
+   {
+      if (maximumWeight <= 0)
+      {
+         throw new IllegalArgumentException("Maximum weight must be positive; is " + maximumWeight);
+      }
+      if ((timeToLive != null && timeToLive.isNegative()) || failureTimeToLive.isNegative())
+      {
+         throw new IllegalArgumentException(
+            "Times to live must not be negative; are " + timeToLive + " and " + failureTimeToLive);
+      }
+      this.function = newFunction;
+      this.weigher = newWeigher;
+      this.timeToLiveNanos = timeToLive != null ? RetryPolicy.toNanos(timeToLive) : Long.MAX_VALUE;
+      this.failureTimeToLiveNanos = RetryPolicy.toNanos(failureTimeToLive);
+      this.ticker = newTicker;
+
+      int segmentCount = 1;
+      while (segmentCount < MAXIMUM_SEGMENTS && maximumWeight / (segmentCount * 2) >= MINIMUM_SEGMENT_WEIGHT)
+      {
+         segmentCount *= 2;
+      }
+      this.segments = newSegmentArray(segmentCount);
+      for (int i = 0; i < segmentCount; i++)
+      {
+         // spread the remainder so segment weights sum to the maximum weight
+         segments[i] = new Segment(maximumWeight / segmentCount + (i < maximumWeight % segmentCount ? 1 : 0));
+      }
+   }
+
+   /**
+    * Provide the cached result for the provided key, computing it (once,
+    * however many callers ask concurrently) if absent or expired.
+    *
+    * @param key Function argument.
+    * @return Function result.
+    * @throws E Exception thrown by the function, or cached from an
+    *    earlier call.
+    */
+   @Override
+   public R apply(final T key) throws E
+   {
+      final Segment segment = segmentFor(key);
+      Entry entry = segment.get(key, ticker.nanoTime());
+      if (entry != null)
+      {
+         hits.increment();
+      }
+      else
+      {
+         misses.increment();
+         entry = load(key, segment);
+      }
+      return entry.unwrap();
+   }
+
+   /**
+    * Discard the cached result for the provided key.
+    *
+    * @param key Function argument.
+    */
+   public void invalidate(final T key)
+   {
+      segmentFor(key).remove(key);
+   }
+
+   /**
+    * Discard all cached results.
+    */
+   public void invalidateAll()
+   {
+      for (final Segment segment : segments)
+      {
+         segment.clear();
+      }
+   }
+
+   /**
+    * Provide number of cached entries (including expired entries not yet
+    * discarded).
+    *
+    * @return Number of cached entries.
+    */
+   public long size()
+   {
+      long size = 0;
+      for (final Segment segment : segments)
+      {
+         size += segment.size();
+      }
+      return size;
+   }
+
+   /**
+    * Provide number of calls answered from the cache.
+    *
+    * @return Number of hits.
+    */
+   public long getHitCount()
+   {
+      return hits.sum();
+   }
+
+   /**
+    * Provide number of calls that computed, or waited for another
+    * caller computing, a result.
+    *
+    * @return Number of misses.
+    */
+   public long getMissCount()
+   {
+      return misses.sum();
+   }
+
+   /**
+    * Provide number of entries evicted to stay within the maximum weight.
+    *
+    * @return Number of evictions.
+    */
+   public long getEvictionCount()
+   {
+      return evictions.sum();
+   }
+
+   /**
+    * Provide fraction of calls answered from the cache.
+    *
+    * @return Hit rate, or 1 if there have been no calls.
+    */
+   public double getHitRate()
+   {
+      final long hitCount = hits.sum();
+      final long total = hitCount + misses.sum();
+      return total == 0 ? 1.0 : (double) hitCount / total;
+   }
+
+   @Override
+   public String toString()
+   {
+      return "MemoizingFunction[size=" + size() + ", hits=" + getHitCount() + ", misses=" + getMissCount()
+         + ", evictions=" + getEvictionCount() + "]";
+   }
+
+   /**
+    * Compute the entry for the provided key, or wait for the caller
+    * already computing it.
+    *
+    * @param key Function argument.
+    * @param segment Segment holding the key.
+    * @return Computed entry.
+    */
+   private Entry load(final T key, final Segment segment)
+   {
+      final CompletableFuture<Entry> ownFuture = new CompletableFuture<>();
+      final CompletableFuture<Entry> existing = loading.putIfAbsent(key, ownFuture);
+      if (existing != null)
+      {
+         return await(existing);
+      }
+      try
+      {
+         // another caller may have stored the entry between the lookup and claiming the key
+         final long now = ticker.nanoTime();
+         Entry entry = segment.get(key, now);
+         if (entry == null)
+         {
+            entry = compute(key);
+            final long lifetimeNanos = entry.failure == null ? timeToLiveNanos : failureTimeToLiveNanos;
+            // a zero lifetime disables caching; otherwise only store what has not expired during compute
+            if (lifetimeNanos > 0 && !entry.isExpired(ticker.nanoTime()))
+            {
+               segment.put(key, entry);
+            }
+         }
+         ownFuture.complete(entry);
+         return entry;
+      }
+      catch (RuntimeException | Error failure)
+      {
+         ownFuture.completeExceptionally(failure);
+         throw failure;
+      }
+      finally
+      {
+         loading.remove(key, ownFuture);
+      }
+   }
+
+   /**
+    * Apply the function, capturing its result or checked exception.
+    *
+    * @param key Function argument.
+    * @return New entry (unchecked exceptions propagate uncached).
+    */
+   private Entry compute(final T key)
+   {
+      try
+      {
+         final R value = function.apply(key);
+         return new Entry(value, null, expiry(timeToLiveNanos), Math.max(1, weigher.applyAsLong(key, value)));
+      }
+      catch (RuntimeException runtimeException)
+      {
+         throw runtimeException;
+      }
+      catch (Exception exception)
+      {
+         return new Entry(null, exception, expiry(failureTimeToLiveNanos), 1);
+      }
+   }
+
+   /**
+    * Provide expiration time of an entry computed now.
+    *
+    * @param lifetimeNanos Time to live in nanoseconds.
+    * @return Time at which the entry expires.
+    */
+   private long expiry(final long lifetimeNanos)
+   {
+      if (lifetimeNanos == Long.MAX_VALUE)
+      {
+         return Long.MAX_VALUE;
+      }
+      return ticker.nanoTime() + lifetimeNanos;
+   }
+
+   /**
+    * Wait for another caller's computation.
+    *
+    * @param future Computation in progress.
+    * @return Computed entry.
+    */
+   private Entry await(final CompletableFuture<Entry> future)
+   {
+      try
+      {
+         return future.join();
+      }
+      catch (CompletionException completionException)
+      {
+         final Throwable cause = completionException.getCause();
+         if (cause instanceof Error)
+         {
+            throw (Error) cause;
+         }
+         throw (RuntimeException) cause;
+      }
+   }
+
+   /**
+    * Create an array of segments; arrays of an inner class of a generic
+    * class can only be created through its raw type.
+    *
+    * @param length Number of segments.
+    * @return Array of segments.
+    */
+   @SuppressWarnings({"unchecked", "rawtypes"})
+   private Segment[] newSegmentArray(final int length)
+   {
+      return (Segment[]) new MemoizingFunction.Segment[length];
+   }
+
+   /**
+    * Provide segment holding the provided key.
+    *
+    * @param key Cache key.
+    * @return Segment for the key.
+    */
+   private Segment segmentFor(final T key)
+   {
+      final int hash = key.hashCode();
+      return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+   }
+
+   /**
+    * Cached result or exception with its expiration and weight.
+    */
+   private final class Entry
+   {
+      /** Result of a successful computation. */
+      private final R value;
+
+      /** Exception thrown by a failed computation, or {@code null}. */
+      private final Exception failure;
+
+      /** Time at which this entry expires ({@link Long#MAX_VALUE} for never). */
+      private final long expiresAtNanos;
+
+      /** Weight counted against the maximum weight. */
+      private final long weight;
+
+      /**
+       * Constructor accepting outcome, expiration, and weight.
+       *
+       * @param newValue Result of a successful computation.
+       * @param newFailure Exception of a failed computation, or {@code null}.
+       * @param newExpiresAtNanos Time at which this entry expires.
+       * @param newWeight Weight counted against the maximum weight.
+       */
+      private Entry(final R newValue, final Exception newFailure, final long newExpiresAtNanos, final long newWeight)
+      {
+         this.value = newValue;
+         this.failure = newFailure;
+         this.expiresAtNanos = newExpiresAtNanos;
+         this.weight = newWeight;
+      }
+
+      /**
+       * Indicates whether this entry has expired.
+       *
+       * @param now Current time in nanoseconds.
+       * @return {@code true} if expired.
+       */
+      private boolean isExpired(final long now)
+      {
+         return expiresAtNanos != Long.MAX_VALUE && now - expiresAtNanos >= 0;
+      }
+
+      /**
+       * Provide cached result or throw cached exception.
+       *
+       * @return Cached result.
+       * @throws E Cached exception.
+       */
+      @SuppressWarnings("unchecked")
+      private R unwrap() throws E
+      {
+         if (failure != null)
+         {
+            // the function declares only E beyond unchecked exceptions, which are never cached
+            throw (E) failure;
+         }
+         return value;
+      }
+   }
+
+   /**
+    * Independently locked portion of the cache kept in access order.
+    */
+   private final class Segment
+   {
+      /** Entries in least to most recently used order. */
+      private final LinkedHashMap<T, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+      /** Maximum total weight of this segment's entries. */
+      private final long maximumWeight;
+
+      /** Total weight of this segment's entries. */
+      private long weight;
+
+      /**
+       * Constructor accepting this segment's share of the maximum weight.
+       *
+       * @param newMaximumWeight Maximum total weight of this segment.
+       */
+      private Segment(final long newMaximumWeight)
+      {
+         this.maximumWeight = newMaximumWeight;
+      }
+
+      /**
+       * Provide unexpired entry for the provided key, marking it most
+       * recently used, and discarding it if expired.
+       *
+       * @param key Cache key.
+       * @param now Current time in nanoseconds.
+       * @return Entry or {@code null} if absent or expired.
+       */
+      private synchronized Entry get(final T key, final long now)
+      {
+         final Entry entry = entries.get(key);
+         if (entry == null)
+         {
+            return null;
+         }
+         if (entry.isExpired(now))
+         {
+            entries.remove(key);
+            weight -= entry.weight;
+            return null;
+         }
+         return entry;
+      }
+
+      /**
+       * Store the provided entry, evicting least recently used entries
+       * as needed to stay within the maximum weight. An entry heavier
+       * than the whole segment is not stored.
+       *
+       * @param key Cache key.
+       * @param entry Entry to store.
+       */
+      private synchronized void put(final T key, final Entry entry)
+      {
+         if (entry.weight > maximumWeight)
+         {
+            return;
+         }
+         final Entry replaced = entries.put(key, entry);
+         weight += entry.weight - (replaced != null ? replaced.weight : 0);
+         final Iterator<Map.Entry<T, Entry>> eldest = entries.entrySet().iterator();
+         while (weight > maximumWeight)
+         {
+            final Entry evicted = eldest.next().getValue();
+            eldest.remove();
+            weight -= evicted.weight;
+            evictions.increment();
+         }
+      }
+
+      /**
+       * Discard entry for the provided key.
+       *
+       * @param key Cache key.
+       */
+      private synchronized void remove(final T key)
+      {
+         final Entry removed = entries.remove(key);
+         if (removed != null)
+         {
+            weight -= removed.weight;
+         }
+      }
+
+      /**
+       * Discard all entries.
+       */
+      private synchronized void clear()
+      {
+         entries.clear();
+         weight = 0;
+      }
+
+      /**
+       * Provide number of entries.
+       *
+       * @return Number of entries.
+       */
+      private synchronized int size()
+      {
+         return entries.size();
+      }
+   }
+}
@@ -0,0 +1,317 @@
+package dustin.utilities.function;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Applies an {@link ExceptionThrowingFunction} to every element of a
+ * collection on a chosen {@link Executor}, with at most a configured
+ * number of applications in flight, returning results in input order.
+ *
+ * Unlike wrapping a function with
+ * {@link ExceptionThrowingFunctionWrappers#wrapFunction(ExceptionThrowingFunction)}
+ * inside {@code parallelStream()}, which runs on the common
+ * {@link java.util.concurrent.ForkJoinPool} and stalls when the function
+ * blocks on I/O, work runs on the provided executor, or on virtual
+ * threads (see {@link #withVirtualThreads(int)}) for I/O-bound functions.
+ *
+ * Two error policies are provided: {@link #map(Collection, ExceptionThrowingFunction)}
+ * fails fast, starting no further applications after the first failure
+ * and rethrowing that (original, unwrapped) exception, while
+ * {@link #mapToResults(Collection, ExceptionThrowingFunction)} applies
+ * the function to every element and returns each outcome as a
+ * {@link Result}.
+ *
+ * The calling thread submits tasks as permits become available, so at
+ * most {@code maximumConcurrency} tasks are ever queued or running and
+ * the executor's queue cannot grow without bound.
+ */
+public final class ParallelMapper
+{
+   /** Factory of virtual threads, or {@code null} if not supported by this JVM. */
+   private static final ThreadFactory VIRTUAL_THREAD_FACTORY = createVirtualThreadFactory();
+
+   /** Executor on which the function is applied. */
+   private final Executor executor;
+
+   /** Maximum number of applications in flight at once. */
+   private final int maximumConcurrency;
+
+   /**
+    * Constructor accepting executor and concurrency limit.
+    *
+    * @param newExecutor Executor on which the function is applied.
+    * @param newMaximumConcurrency Maximum number of applications queued
+    *    or running at once.
+    * @throws IllegalArgumentException Thrown if the concurrency limit is
+    *    not positive.
+    */
+   public ParallelMapper(final Executor newExecutor, final int newMaximumConcurrency)
+   {
+      if (newMaximumConcurrency <= 0)
+      {
+         throw new IllegalArgumentException("Maximum concurrency must be positive; is " + newMaximumConcurrency);
+      }
+      this.executor = newExecutor;
+      this.maximumConcurrency = newMaximumConcurrency;
+   }
+
+   /**
+    * Provide a mapper applying the function on a new virtual thread per
+    * element (JDK 21 and later), suited to functions that block on I/O.
+    * On earlier JDKs a new daemon platform thread is started per element
+    * instead; the concurrency limit bounds the number of threads either
+    * way.
+    *
+    * @param maximumConcurrency Maximum number of applications running at
+    *    once.
+    * @return Mapper using virtual threads where supported.
+    */
+   public static ParallelMapper withVirtualThreads(final int maximumConcurrency)
+   {
+      final ThreadFactory factory = VIRTUAL_THREAD_FACTORY != null
+         ? VIRTUAL_THREAD_FACTORY
+         : runnable ->
+         {
+            final Thread thread = new Thread(runnable, "ParallelMapper");
+            thread.setDaemon(true);
+            return thread;
+         };
+      return new ParallelMapper(runnable -> factory.newThread(runnable).start(), maximumConcurrency);
+   }
+
+   /**
+    * Indicates whether {@link #withVirtualThreads(int)} uses virtual
+    * threads on this JVM.
+    *
+    * @return {@code true} if virtual threads are supported.
+    */
+   public static boolean isVirtualThreadsSupported()
+   {
+      return VIRTUAL_THREAD_FACTORY != null;
+   }
+
+   /**
+    * Apply the provided function to every element, failing fast: after
+    * the first exception no further applications are started (those in
+    * flight run to completion) and the exception is rethrown unwrapped,
+    * with any other failures added to it as suppressed exceptions.
+    *
+    * @param inputs Elements to which the function is applied.
+    * @param function Function to apply.
+    * @param <T> Type of elements.
+    * @param <R> Type of results.
+    * @param <E> Type of checked exception the function may throw.
+    * @return Results in the iteration order of {@code inputs}.
+    * @throws E Thrown if the function throws for any element.
+    * @throws InterruptedException Thrown if the calling thread is
+    *    interrupted while waiting to submit an application; no further
+    *    applications are started, but those in flight are still awaited
+    *    (uninterruptibly) before this is thrown.
+    */
+   @SuppressWarnings("unchecked")
+   public <T, R, E extends Exception> List<R> map(
+      final Collection<? extends T> inputs, final ExceptionThrowingFunction<? super T, ? extends R, E> function)
+      throws E, InterruptedException
+   {
+      final Object[] results = new Object[inputs.size()];
+      final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+      run(inputs, firstFailure, (index, input) ->
+      {
+         if (firstFailure.get() != null)
+         {
+            return;
+         }
+         try
+         {
+            results[index] = function.apply(input);
+         }
+         catch (Exception | Error failure)
+         {
+            if (!firstFailure.compareAndSet(null, failure))
+            {
+               firstFailure.get().addSuppressed(failure);
+            }
+         }
+      });
+
+      final Throwable failure = firstFailure.get();
+      if (failure instanceof Error)
+      {
+         throw (Error) failure;
+      }
+      if (failure instanceof RuntimeException)
+      {
+         throw (RuntimeException) failure;
+      }
+      if (failure != null)
+      {
+         // the function declares only E beyond unchecked exceptions
+         throw (E) failure;
+      }
+      return (List<R>) Collections.unmodifiableList(Arrays.asList(results));
+   }
+
+   /**
+    * Apply the provided function to every element, collecting every
+    * outcome: exceptions are captured as failed {@link Result}s and do
+    * not prevent other elements from being processed. An {@link Error}
+    * cannot be represented as a result: no further applications are
+    * started and the first error is rethrown, with any others added to
+    * it as suppressed exceptions.
+    *
+    * @param inputs Elements to which the function is applied.
+    * @param function Function to apply.
+    * @param <T> Type of elements.
+    * @param <R> Type of results.
+    * @param <E> Type of checked exception the function may throw.
+    * @return Outcomes in the iteration order of {@code inputs}.
+    * @throws InterruptedException Thrown if the calling thread is
+    *    interrupted while waiting to submit an application; no further
+    *    applications are started, but those in flight are still awaited
+    *    (uninterruptibly) before this is thrown.
+    */
+   public <T, R, E extends Exception> List<Result<R>> mapToResults(
+      final Collection<? extends T> inputs, final ExceptionThrowingFunction<? super T, ? extends R, E> function)
+      throws InterruptedException
+   {
+      final List<Result<R>> results = new ArrayList<>(Collections.nCopies(inputs.size(), null));
+      final AtomicReference<Throwable> firstError = new AtomicReference<>();
+      run(inputs, firstError, (index, input) ->
+      {
+         if (firstError.get() != null)
+         {
+            return;
+         }
+         Result<R> result;
+         try
+         {
+            result = Result.success(function.apply(input));
+         }
+         catch (Exception exception)
+         {
+            result = Result.failure(exception);
+         }
+         catch (Error error)
+         {
+            if (!firstError.compareAndSet(null, error))
+            {
+               firstError.get().addSuppressed(error);
+            }
+            return;
+         }
+         results.set(index, result);
+      });
+
+      final Throwable error = firstError.get();
+      if (error != null)
+      {
+         throw (Error) error;
+      }
+      return Collections.unmodifiableList(results);
+   }
+
+   /**
+    * Submit one task per element, waiting for a permit before each
+    * submission, and then wait for all submitted tasks to complete.
+    * Releasing and acquiring permits makes each task's writes visible
+    * to the calling thread.
+    *
+    * @param inputs Elements to be processed.
+    * @param stop Holds a value once no further tasks should be submitted.
+    * @param task Processing of one element given its index.
+    * @param <T> Type of elements.
+    * @throws InterruptedException Thrown if interrupted while waiting.
+    */
+   private <T> void run(
+      final Collection<? extends T> inputs, final AtomicReference<Throwable> stop, final IndexedTask<T> task)
+      throws InterruptedException
+   {
+      final Semaphore permits = new Semaphore(maximumConcurrency);
+      int index = 0;
+      try
+      {
+         for (final T input : inputs)
+         {
+            permits.acquire();
+            if (stop.get() != null)
+            {
+               permits.release();
+               break;
+            }
+            final int taskIndex = index++;
+            try
+            {
+               executor.execute(() ->
+               {
+                  try
+                  {
+                     task.process(taskIndex, input);
+                  }
+                  finally
+                  {
+                     permits.release();
+                  }
+               });
+            }
+            catch (RejectedExecutionException rejected)
+            {
+               permits.release();
+               throw rejected;
+            }
+         }
+      }
+      finally
+      {
+         // wait for tasks in flight, even if submission failed, so none outlive this call unnoticed
+         permits.acquireUninterruptibly(maximumConcurrency);
+      }
+   }
+
+   /**
+    * Create a virtual thread factory through reflection so that this
+    * class still runs on JDKs without virtual threads.
+    *
+    * @return Factory of virtual threads or {@code null} if unsupported.
+    */
+   private static ThreadFactory createVirtualThreadFactory()
+   {
+      try
+      {
+         final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+         final Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+         return (ThreadFactory) factory.invoke(builder);
+      }
+      catch (ReflectiveOperationException | RuntimeException unsupported)
+      {
+         // virtual threads are unavailable (before JDK 21) or disabled (preview on JDK 19 and 20)
+         return null;
+      }
+   }
+
+   /**
+    * Processing of one element given its position in the input.
+    *
+    * @param <T> Type of element.
+    */
+   @FunctionalInterface
+   private interface IndexedTask<T>
+   {
+      /**
+       * Process the provided element.
+       *
+       * @param index Position of element in the input.
+       * @param input Element to be processed.
+       */
+      void process(int index, T input);
+   }
+}
@@ -0,0 +1,180 @@
+package dustin.utilities.function;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Outcome of an operation that either produced a value (success) or
+ * threw an exception (failure), allowing failures to flow through a
+ * stream pipeline as values rather than aborting it.
+ *
+ * Instances are created by {@link #success(Object)} and
+ * {@link #failure(Exception)} or by the
+ * {@code ExceptionThrowingFunctionWrappers.wrapXToResult} methods, and
+ * may be separated with {@link ResultCollectors}.
+ *
+ * @param <R> Type of value of a successful result.
+ */
+public final class Result<R>
+{
+   /** Value of a successful result ({@code null} for a failure). */
+   private final R value;
+
+   /** Exception of a failed result ({@code null} for a success). */
+   private final Exception failure;
+
+   /**
+    * Constructor accepting either value or exception.
+    *
+    * @param newValue Value of successful result.
+    * @param newFailure Exception of failed result, or {@code null}.
+    */
+   private Result(final R newValue, final Exception newFailure)
+   {
+      this.value = newValue;
+      this.failure = newFailure;
+   }
+
+   /**
+    * Provide a successful result holding the provided value.
+    *
+    * @param value Value (may be {@code null}).
+    * @param <R> Type of value.
+    * @return Successful result.
+    */
+   public static <R> Result<R> success(final R value)
+   {
+      return new Result<>(value, null);
+   }
+
+   /**
+    * Provide a failed result holding the provided exception.
+    *
+    * @param failure Exception thrown by the operation.
+    * @param <R> Type of value a success would have held.
+    * @return Failed result.
+    * @throws NullPointerException Thrown if {@code failure} is {@code null}.
+    */
+   public static <R> Result<R> failure(final Exception failure)
+   {
+      return new Result<>(null, Objects.requireNonNull(failure, "failure"));
+   }
+
+   /**
+    * Indicates whether this result is a success.
+    *
+    * @return {@code true} if the operation produced a value.
+    */
+   public boolean isSuccess()
+   {
+      return failure == null;
+   }
+
+   /**
+    * Indicates whether this result is a failure.
+    *
+    * @return {@code true} if the operation threw an exception.
+    */
+   public boolean isFailure()
+   {
+      return failure != null;
+   }
+
+   /**
+    * Provide value of this successful result.
+    *
+    * @return Value produced by the operation.
+    * @throws NoSuchElementException Thrown if this result is a failure
+    *    (with the failure as its cause).
+    */
+   public R getValue()
+   {
+      if (failure != null)
+      {
+         final NoSuchElementException noValue = new NoSuchElementException("Result is a failure: " + failure);
+         noValue.initCause(failure);
+         throw noValue;
+      }
+      return value;
+   }
+
+   /**
+    * Provide exception of this failed result.
+    *
+    * @return Exception thrown by the operation.
+    * @throws NoSuchElementException Thrown if this result is a success.
+    */
+   public Exception getFailure()
+   {
+      if (failure == null)
+      {
+         throw new NoSuchElementException("Result is a success.");
+      }
+      return failure;
+   }
+
+   /**
+    * Provide value of this result if successful, otherwise the provided
+    * alternative.
+    *
+    * @param alternative Value to provide if this result is a failure.
+    * @return Value or alternative.
+    */
+   public R orElse(final R alternative)
+   {
+      return failure == null ? value : alternative;
+   }
+
+   /**
+    * Provide value of this result if successful and non-null.
+    *
+    * @return Value or empty if this result is a failure.
+    */
+   public Optional<R> toOptional()
+   {
+      return failure == null ? Optional.ofNullable(value) : Optional.empty();
+   }
+
+   /**
+    * Apply the provided function to the value of this result if
+    * successful; a failure is propagated unchanged.
+    *
+    * @param mapper Function to apply to value.
+    * @param <V> Type of mapped value.
+    * @return Result holding mapped value, or this failure.
+    */
+   @SuppressWarnings("unchecked")
+   public <V> Result<V> map(final Function<? super R, ? extends V> mapper)
+   {
+      return failure == null ? success(mapper.apply(value)) : (Result<V>) this;
+   }
+
+   @Override
+   public boolean equals(final Object other)
+   {
+      if (this == other)
+      {
+         return true;
+      }
+      if (!(other instanceof Result))
+      {
+         return false;
+      }
+      final Result<?> that = (Result<?>) other;
+      return Objects.equals(value, that.value) && Objects.equals(failure, that.failure);
+   }
+
+   @Override
+   public int hashCode()
+   {
+      return Objects.hash(value, failure);
+   }
+
+   @Override
+   public String toString()
+   {
+      return failure == null ? "Success[" + value + "]" : "Failure[" + failure + "]";
+   }
+}
@@ -0,0 +1,120 @@
+package dustin.utilities.function;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+/**
+ * Collectors that separate successful {@link Result}s from failed ones
+ * in a single pass. Each collector keeps an independent pair of
+ * containers per stream segment and merges them, so they may be used
+ * with parallel streams; one failing element no longer discards work
+ * already done on the others.
+ */
+public final class ResultCollectors
+{
+   private ResultCollectors()
+   {
+   }
+
+   /**
+    * Provide a collector separating the values of successful results
+    * from the exceptions of failed results, each in encounter order.
+    *
+    * @param <R> Type of successful values.
+    * @return Collector producing lists of successes and failures.
+    */
+   public static <R> Collector<Result<R>, ?, ResultPartition<List<R>, List<Exception>>> partitioning()
+   {
+      return partitioning(Collectors.toList(), Collectors.toList());
+   }
+
+   /**
+    * Provide a collector passing the values of successful results to
+    * one downstream collector and the exceptions of failed results to
+    * another, such as {@code partitioning(Collectors.summingLong(...),
+    * Collectors.counting())}.
+    *
+    * @param successCollector Collector of successful values.
+    * @param failureCollector Collector of failures.
+    * @param <R> Type of successful values.
+    * @param <A> Accumulation type of success collector.
+    * @param <S> Result type of success collector.
+    * @param <B> Accumulation type of failure collector.
+    * @param <F> Result type of failure collector.
+    * @return Collector producing collected successes and failures.
+    */
+   public static <R, A, S, B, F> Collector<Result<R>, ?, ResultPartition<S, F>> partitioning(
+      final Collector<? super R, A, S> successCollector,
+      final Collector<? super Exception, B, F> failureCollector)
+   {
+      final Supplier<A> successSupplier = successCollector.supplier();
+      final Supplier<B> failureSupplier = failureCollector.supplier();
+      final BiConsumer<A, ? super R> successAccumulator = successCollector.accumulator();
+      final BiConsumer<B, ? super Exception> failureAccumulator = failureCollector.accumulator();
+      final BinaryOperator<A> successCombiner = successCollector.combiner();
+      final BinaryOperator<B> failureCombiner = failureCollector.combiner();
+      final Function<A, S> successFinisher = successCollector.finisher();
+      final Function<B, F> failureFinisher = failureCollector.finisher();
+
+      final Set<Collector.Characteristics> characteristics = EnumSet.noneOf(Collector.Characteristics.class);
+      if (successCollector.characteristics().contains(Collector.Characteristics.UNORDERED)
+         && failureCollector.characteristics().contains(Collector.Characteristics.UNORDERED))
+      {
+         characteristics.add(Collector.Characteristics.UNORDERED);
+      }
+
+      return Collector.of(
+         () -> new Partition<>(successSupplier.get(), failureSupplier.get()),
+         (partition, result) ->
+         {
+            if (result.isSuccess())
+            {
+               successAccumulator.accept(partition.successes, result.getValue());
+            }
+            else
+            {
+               failureAccumulator.accept(partition.failures, result.getFailure());
+            }
+         },
+         (left, right) -> new Partition<>(
+            successCombiner.apply(left.successes, right.successes),
+            failureCombiner.apply(left.failures, right.failures)),
+         partition -> new ResultPartition<>(
+            successFinisher.apply(partition.successes), failureFinisher.apply(partition.failures)),
+         characteristics.toArray(new Collector.Characteristics[0]));
+   }
+
+   /**
+    * Mutable pair of intermediate containers for one stream segment.
+    *
+    * @param <A> Accumulation type of success collector.
+    * @param <B> Accumulation type of failure collector.
+    */
+   private static final class Partition<A, B>
+   {
+      /** Intermediate container of successful values. */
+      private final A successes;
+
+      /** Intermediate container of failures. */
+      private final B failures;
+
+      /**
+       * Constructor accepting intermediate containers.
+       *
+       * @param newSuccesses Intermediate container of successful values.
+       * @param newFailures Intermediate container of failures.
+       */
+      private Partition(final A newSuccesses, final B newFailures)
+      {
+         this.successes = newSuccesses;
+         this.failures = newFailures;
+      }
+   }
+}
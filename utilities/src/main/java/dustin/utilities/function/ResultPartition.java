@@ -0,0 +1,56 @@
+package dustin.utilities.function;
+
+/**
+ * Successes and failures separated from a stream of {@link Result}s by
+ * {@link ResultCollectors#partitioning()} or
+ * {@link ResultCollectors#partitioning(java.util.stream.Collector, java.util.stream.Collector)}.
+ *
+ * @param <S> Type of collected successful values.
+ * @param <F> Type of collected failures.
+ */
+public final class ResultPartition<S, F>
+{
+   /** Collected successful values. */
+   private final S successes;
+
+   /** Collected failures. */
+   private final F failures;
+
+   /**
+    * Constructor accepting collected successes and failures.
+    *
+    * @param newSuccesses Collected successful values.
+    * @param newFailures Collected failures.
+    */
+   ResultPartition(final S newSuccesses, final F newFailures)
+   {
+      this.successes = newSuccesses;
+      this.failures = newFailures;
+   }
+
+   /**
+    * Provide collected successful values.
+    *
+    * @return Successful values as collected by the success collector.
+    */
+   public S getSuccesses()
+   {
+      return successes;
+   }
+
+   /**
+    * Provide collected failures.
+    *
+    * @return Failures as collected by the failure collector.
+    */
+   public F getFailures()
+   {
+      return failures;
+   }
+
+   @Override
+   public String toString()
+   {
+      return "successes=" + successes + ", failures=" + failures;
+   }
+}
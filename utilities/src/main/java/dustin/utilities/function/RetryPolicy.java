@@ -0,0 +1,153 @@
+package dustin.utilities.function;
+
+import dustin.utilities.exceptions.CircuitBreakerOpenException;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+
+/**
+ * Describes how {@link ExceptionThrowingDecorators} retries a failed call:
+ * the maximum number of attempts, which exceptions are retried, and the
+ * exponential backoff between attempts.
+ *
+ * Backoff uses "full jitter": before retry {@code n} (counting from 1)
+ * the wait is chosen uniformly between zero and
+ * {@code min(maximumBackoff, initialBackoff * multiplier^(n-1))}, which
+ * spreads retries of many callers failing together so they do not
+ * return to the dependency in synchronized waves.
+ */
+public final class RetryPolicy
+{
+   /** Maximum number of attempts, including the first. */
+   private final int maximumAttempts;
+
+   /** Upper bound of backoff before the first retry, in nanoseconds. */
+   private final long initialBackoffNanos;
+
+   /** Upper bound of backoff before any retry, in nanoseconds. */
+   private final long maximumBackoffNanos;
+
+   /** Growth of the backoff bound per retry. */
+   private final double multiplier;
+
+   /** Identifies exceptions worth retrying. */
+   private final Predicate<? super Exception> retryable;
+
+   /**
+    * Constructor accepting attempts and backoff bounds; the bound doubles
+    * per retry and every exception except
+    * {@link CircuitBreakerOpenException} is retried.
+    *
+    * @param newMaximumAttempts Maximum number of attempts, including the
+    *    first.
+    * @param newInitialBackoff Upper bound of backoff before the first retry.
+    * @param newMaximumBackoff Upper bound of backoff before any retry.
+    */
+   public RetryPolicy(final int newMaximumAttempts, final Duration newInitialBackoff, final Duration newMaximumBackoff)
+   {
+      this(newMaximumAttempts, newInitialBackoff, newMaximumBackoff, 2.0,
+         exception -> !(exception instanceof CircuitBreakerOpenException));
+   }
+
+   /**
+    * Constructor accepting every setting.
+    *
+    * @param newMaximumAttempts Maximum number of attempts, including the
+    *    first.
+    * @param newInitialBackoff Upper bound of backoff before the first retry.
+    * @param newMaximumBackoff Upper bound of backoff before any retry.
+    * @param newMultiplier Growth of the backoff bound per retry (at least 1).
+    * @param newRetryable Identifies exceptions worth retrying; others are
+    *    thrown immediately.
+    * @throws IllegalArgumentException Thrown if attempts are not positive,
+    *    a backoff is negative, the initial backoff exceeds the maximum, or
+    *    the multiplier is less than 1.
+    */
+   public RetryPolicy(
+      final int newMaximumAttempts, final Duration newInitialBackoff, final Duration newMaximumBackoff,
+      final double newMultiplier, final Predicate<? super Exception> newRetryable)
+   {
+      if (newMaximumAttempts <= 0)
+      {
+         throw new IllegalArgumentException("Maximum attempts must be positive; is " + newMaximumAttempts);
+      }
+      if (newInitialBackoff.isNegative() || newInitialBackoff.compareTo(newMaximumBackoff) > 0)
+      {
+         throw new IllegalArgumentException(
+            "Backoffs must satisfy 0 <= initial (" + newInitialBackoff + ") <= maximum (" + newMaximumBackoff + ").");
+      }
+      if (!(newMultiplier >= 1.0))
+      {
+         throw new IllegalArgumentException("Multiplier must be at least 1; is " + newMultiplier);
+      }
+      this.maximumAttempts = newMaximumAttempts;
+      this.initialBackoffNanos = toNanos(newInitialBackoff);
+      this.maximumBackoffNanos = toNanos(newMaximumBackoff);
+      this.multiplier = newMultiplier;
+      this.retryable = newRetryable;
+   }
+
+   /**
+    * Provide maximum number of attempts, including the first.
+    *
+    * @return Maximum number of attempts.
+    */
+   public int getMaximumAttempts()
+   {
+      return maximumAttempts;
+   }
+
+   /**
+    * Indicates whether the provided exception is worth retrying.
+    *
+    * @param exception Exception thrown by an attempt.
+    * @return {@code true} if the call should be retried.
+    */
+   public boolean isRetryable(final Exception exception)
+   {
+      return retryable.test(exception);
+   }
+
+   /**
+    * Provide upper bound of backoff before the provided retry.
+    *
+    * @param retry Number of the retry, counting from 1.
+    * @return Upper bound of backoff in nanoseconds.
+    */
+   public long getBackoffBoundNanos(final int retry)
+   {
+      final double bound = initialBackoffNanos * Math.pow(multiplier, retry - 1);
+      return bound >= maximumBackoffNanos ? maximumBackoffNanos : (long) bound;
+   }
+
+   /**
+    * Provide backoff before the provided retry for the provided uniform
+    * random value.
+    *
+    * @param retry Number of the retry, counting from 1.
+    * @param random Uniform random value in [0, 1).
+    * @return Backoff in nanoseconds.
+    */
+   long getBackoffNanos(final int retry, final double random)
+   {
+      return (long) (getBackoffBoundNanos(retry) * random);
+   }
+
+   /**
+    * Convert the provided duration to nanoseconds, saturating.
+    *
+    * @param duration Duration to convert.
+    * @return Nanoseconds, at most {@link Long#MAX_VALUE}.
+    */
+   static long toNanos(final Duration duration)
+   {
+      try
+      {
+         return duration.toNanos();
+      }
+      catch (ArithmeticException overflow)
+      {
+         return Long.MAX_VALUE;
+      }
+   }
+}
@@ -0,0 +1,24 @@
+package dustin.utilities.function;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ticker backed by the system's monotonic clock.
+ */
+enum SystemTicker implements Ticker
+{
+   /** Only instance. */
+   INSTANCE;
+
+   @Override
+   public long nanoTime()
+   {
+      return System.nanoTime();
+   }
+
+   @Override
+   public void sleep(final long nanos) throws InterruptedException
+   {
+      TimeUnit.NANOSECONDS.sleep(nanos);
+   }
+}
@@ -0,0 +1,39 @@
+package dustin.utilities.function;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Source of elapsed time and means of waiting used by
+ * {@link ExceptionThrowingDecorators}, {@link RetryPolicy}, and
+ * {@link CircuitBreaker}, so that backoff and breaker timing can be
+ * exercised with a fake implementation that advances instantly.
+ */
+public interface Ticker
+{
+   /**
+    * Provide current value of a monotonic time source in nanoseconds
+    * (meaningful only as a difference between two readings).
+    *
+    * @return Current time in nanoseconds.
+    */
+   long nanoTime();
+
+   /**
+    * Wait for the provided number of nanoseconds.
+    *
+    * @param nanos Number of nanoseconds to wait.
+    * @throws InterruptedException Thrown if interrupted while waiting.
+    */
+   void sleep(long nanos) throws InterruptedException;
+
+   /**
+    * Provide ticker backed by {@link System#nanoTime()} and
+    * {@link TimeUnit#sleep(long)}.
+    *
+    * @return System ticker.
+    */
+   static Ticker system()
+   {
+      return SystemTicker.INSTANCE;
+   }
+}
@@ -0,0 +1,350 @@
+package dustin.utilities.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Formats binary content as {@code xxd}-style dump lines consisting of an
+ * offset, the bytes in hexadecimal (or three-digit decimal), and the
+ * printable "ASCII" rendering of those bytes, such as
+ *
+ * <pre>
+ * 00000000: aced 0005 7372 0013 6a61 7661 2e75 7469  ....sr..java.uti
+ * </pre>
+ *
+ * Every character is produced by table lookup into a single line buffer
+ * that is reused for every line, so formatting allocates nothing per byte
+ * or per line. Instances are therefore not thread-safe; use one instance
+ * per thread.
+ */
+public final class HexDumpFormatter
+{
+   /**
+    * Representation of each byte in the numeric columns.
+    */
+   public enum ByteFormat
+   {
+      /** Two lowercase hexadecimal digits per byte. */
+      HEXADECIMAL(2),
+      /** Three zero-padded decimal digits per byte. */
+      DECIMAL(3);
+
+      /** Number of characters used per byte. */
+      private final int width;
+
+      ByteFormat(final int newWidth)
+      {
+         this.width = newWidth;
+      }
+   }
+
+   /** Lowercase hexadecimal digits indexed by nibble value. */
+   static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+   /** Three decimal digits for each unsigned byte value, stored consecutively. */
+   static final char[] DECIMAL_DIGITS = new char[256 * 3];
+
+   /** Printable character (or '.') for each unsigned byte value. */
+   private static final char[] PRINTABLE = new char[256];
+
+   /** Nibble value of each ASCII character or -1 if not a hexadecimal digit. */
+   private static final byte[] HEX_VALUES = new byte[128];
+
+   static
+   {
+      for (int i = 0; i < 256; i++)
+      {
+         DECIMAL_DIGITS[i * 3] = (char) ('0' + i / 100);
+         DECIMAL_DIGITS[i * 3 + 1] = (char) ('0' + i / 10 % 10);
+         DECIMAL_DIGITS[i * 3 + 2] = (char) ('0' + i % 10);
+         PRINTABLE[i] = i >= 0x20 && i <= 0x7E ? (char) i : '.';
+      }
+      Arrays.fill(HEX_VALUES, (byte) -1);
+      for (int i = 0; i < 10; i++)
+      {
+         HEX_VALUES['0' + i] = (byte) i;
+      }
+      for (int i = 0; i < 6; i++)
+      {
+         HEX_VALUES['a' + i] = (byte) (10 + i);
+         HEX_VALUES['A' + i] = (byte) (10 + i);
+      }
+   }
+
+   /** Maximum number of characters in a line's offset column. */
+   private static final int MAXIMUM_OFFSET_DIGITS = 16;
+
+   /** Number of bytes presented on each line. */
+   private final int bytesPerLine;
+
+   /** Number of bytes presented together before a separating space. */
+   private final int groupSize;
+
+   /** Representation of each byte in the numeric columns. */
+   private final ByteFormat byteFormat;
+
+   /** Number of characters in a full line's numeric columns (with separators). */
+   private final int numericColumnWidth;
+
+   /** Reused buffer holding the line being formatted. */
+   private final char[] line;
+
+   /**
+    * Constructor producing {@code xxd}'s default layout: 16 hexadecimal
+    * bytes per line in groups of two.
+    */
+   public HexDumpFormatter()
+   {
+      this(16, 2, ByteFormat.HEXADECIMAL);
+   }
+
+   /**
+    * Constructor accepting the line layout.
+    *
+    * @param newBytesPerLine Number of bytes presented on each line.
+    * @param newGroupSize Number of bytes presented together before a
+    *    separating space.
+    * @param newByteFormat Representation of each byte.
+    * @throws IllegalArgumentException Thrown if bytes per line or group
+    *    size is not positive or if byte format is {@code null}.
+    */
+   public HexDumpFormatter(
+      final int newBytesPerLine, final int newGroupSize, final ByteFormat newByteFormat)
+   {
+      if (newBytesPerLine < 1 || newGroupSize < 1 || newByteFormat == null)
+      {
+         throw new IllegalArgumentException(
+            "Bytes per line (" + newBytesPerLine + ") and group size (" + newGroupSize
+               + ") must be positive and byte format must be provided.");
+      }
+      this.bytesPerLine = newBytesPerLine;
+      this.groupSize = newGroupSize;
+      this.byteFormat = newByteFormat;
+      final int groupCount = (newBytesPerLine + newGroupSize - 1) / newGroupSize;
+      this.numericColumnWidth = newBytesPerLine * newByteFormat.width + groupCount;
+      this.line = new char[MAXIMUM_OFFSET_DIGITS + 2 + numericColumnWidth + 1 + newBytesPerLine + 1];
+   }
+
+   /**
+    * Write dump lines for all of the provided bytes.
+    *
+    * @param bytes Bytes to be dumped.
+    * @param writer Destination of dump lines.
+    * @throws IOException Thrown if unable to write to the writer.
+    */
+   public void dump(final byte[] bytes, final Writer writer) throws IOException
+   {
+      dump(bytes, 0, bytes.length, 0L, writer);
+   }
+
+   /**
+    * Write dump lines for the specified range of the provided bytes.
+    *
+    * @param bytes Bytes to be dumped.
+    * @param offset Index of first byte to be dumped.
+    * @param length Number of bytes to be dumped.
+    * @param displayOffset Offset presented for the first byte.
+    * @param writer Destination of dump lines.
+    * @throws IOException Thrown if unable to write to the writer.
+    */
+   public void dump(
+      final byte[] bytes, final int offset, final int length, final long displayOffset, final Writer writer)
+      throws IOException
+   {
+      if (offset < 0 || length < 0 || offset > bytes.length - length)
+      {
+         throw new IndexOutOfBoundsException(
+            "Range [" + offset + ", " + offset + " + " + length + ") out of bounds for length " + bytes.length);
+      }
+      for (int lineStart = 0; lineStart < length; lineStart += bytesPerLine)
+      {
+         final int lineLength = Math.min(bytesPerLine, length - lineStart);
+         final int offsetWidth = formatOffset(displayOffset + lineStart);
+         int position = offsetWidth;
+         for (int i = 0; i < lineLength; i++)
+         {
+            position = formatByte(bytes[offset + lineStart + i] & 0xFF, i, position);
+         }
+         position = finishLine(offsetWidth, position);
+         for (int i = 0; i < lineLength; i++)
+         {
+            line[position++] = PRINTABLE[bytes[offset + lineStart + i] & 0xFF];
+         }
+         line[position++] = '\n';
+         writer.write(line, 0, position);
+      }
+   }
+
+   /**
+    * Write dump lines for the remaining bytes of the provided buffer
+    * without changing its position.
+    *
+    * @param buffer Buffer whose bytes between position and limit are dumped.
+    * @param displayOffset Offset presented for the byte at the buffer's position.
+    * @param writer Destination of dump lines.
+    * @throws IOException Thrown if unable to write to the writer.
+    */
+   public void dump(final ByteBuffer buffer, final long displayOffset, final Writer writer) throws IOException
+   {
+      final int start = buffer.position();
+      final int length = buffer.remaining();
+      for (int lineStart = 0; lineStart < length; lineStart += bytesPerLine)
+      {
+         final int lineLength = Math.min(bytesPerLine, length - lineStart);
+         final int offsetWidth = formatOffset(displayOffset + lineStart);
+         int position = offsetWidth;
+         for (int i = 0; i < lineLength; i++)
+         {
+            position = formatByte(buffer.get(start + lineStart + i) & 0xFF, i, position);
+         }
+         position = finishLine(offsetWidth, position);
+         for (int i = 0; i < lineLength; i++)
+         {
+            line[position++] = PRINTABLE[buffer.get(start + lineStart + i) & 0xFF];
+         }
+         line[position++] = '\n';
+         writer.write(line, 0, position);
+      }
+   }
+
+   /**
+    * Write dump lines for all bytes read from the provided stream, reading
+    * through a single reused buffer.
+    *
+    * @param stream Source of bytes to be dumped (read to its end but not closed).
+    * @param writer Destination of dump lines.
+    * @return Number of bytes dumped.
+    * @throws IOException Thrown if unable to read the stream or write to
+    *    the writer.
+    */
+   public long dump(final InputStream stream, final Writer writer) throws IOException
+   {
+      final byte[] block = new byte[Math.max(1, 65536 / bytesPerLine) * bytesPerLine];
+      long total = 0;
+      int filled;
+      do
+      {
+         filled = 0;
+         int read;
+         while (filled < block.length && (read = stream.read(block, filled, block.length - filled)) != -1)
+         {
+            filled += read;
+         }
+         dump(block, 0, filled, total, writer);
+         total += filled;
+      }
+      while (filled == block.length);
+      return total;
+   }
+
+   /**
+    * Provide dump lines for all of the provided bytes as a single String.
+    *
+    * @param bytes Bytes to be dumped.
+    * @return Dump lines, each terminated by a newline.
+    */
+   public String toDumpString(final byte[] bytes)
+   {
+      final StringWriter writer = new StringWriter(
+         (bytes.length / bytesPerLine + 1) * (line.length - MAXIMUM_OFFSET_DIGITS + 8));
+      try
+      {
+         dump(bytes, writer);
+      }
+      catch (IOException ioException)
+      {
+         throw new UncheckedIOException(ioException);
+      }
+      return writer.toString();
+   }
+
+   /**
+    * Provide value of provided hexadecimal digit.
+    *
+    * @param digit Character expected to be a hexadecimal digit (either case).
+    * @return Value of digit from 0 through 15.
+    * @throws NumberFormatException Thrown if character is not a
+    *    hexadecimal digit.
+    */
+   static int hexValue(final char digit)
+   {
+      final int value = digit < HEX_VALUES.length ? HEX_VALUES[digit] : -1;
+      if (value < 0)
+      {
+         throw new NumberFormatException("'" + digit + "' is not a hexadecimal digit");
+      }
+      return value;
+   }
+
+   /**
+    * Place offset column (eight hexadecimal digits, or sixteen when
+    * necessary) and its ": " separator at the start of the line buffer.
+    *
+    * @param displayOffset Offset to be presented.
+    * @return Number of characters placed.
+    */
+   private int formatOffset(final long displayOffset)
+   {
+      final int digits = (displayOffset & 0xFFFFFFFF00000000L) == 0 ? 8 : MAXIMUM_OFFSET_DIGITS;
+      for (int i = digits - 1, shift = 0; i >= 0; i--, shift += 4)
+      {
+         line[i] = HEX_DIGITS[(int) (displayOffset >>> shift) & 0xF];
+      }
+      line[digits] = ':';
+      line[digits + 1] = ' ';
+      return digits + 2;
+   }
+
+   /**
+    * Place numeric representation of a single byte (followed by a space
+    * when it ends a group) in the line buffer.
+    *
+    * @param value Unsigned byte value.
+    * @param indexInLine Index of byte within its line.
+    * @param position Line buffer index at which to place characters.
+    * @return Line buffer index following placed characters.
+    */
+   private int formatByte(final int value, final int indexInLine, final int position)
+   {
+      int next = position;
+      if (byteFormat == ByteFormat.HEXADECIMAL)
+      {
+         line[next++] = HEX_DIGITS[value >>> 4];
+         line[next++] = HEX_DIGITS[value & 0xF];
+      }
+      else
+      {
+         line[next++] = DECIMAL_DIGITS[value * 3];
+         line[next++] = DECIMAL_DIGITS[value * 3 + 1];
+         line[next++] = DECIMAL_DIGITS[value * 3 + 2];
+      }
+      if ((indexInLine + 1) % groupSize == 0 && indexInLine + 1 < bytesPerLine)
+      {
+         line[next++] = ' ';
+      }
+      return next;
+   }
+
+   /**
+    * Pad a short line's numeric columns to full width and place the
+    * separator preceding the "ASCII" column.
+    *
+    * @param numericStart Line buffer index at which numeric columns begin.
+    * @param position Line buffer index following the last byte placed.
+    * @return Line buffer index at which the "ASCII" column begins.
+    */
+   private int finishLine(final int numericStart, final int position)
+   {
+      final int asciiStart = numericStart + numericColumnWidth + 1;
+      for (int i = position; i < asciiStart; i++)
+      {
+         line[i] = ' ';
+      }
+      return asciiStart;
+   }
+}
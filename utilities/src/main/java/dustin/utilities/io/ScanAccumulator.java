@@ -0,0 +1,278 @@
+package dustin.utilities.io;
+
+import dustin.utilities.statistics.LogLinearHistogram;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collects class usage and stream size statistics for one scanning task
+ * of {@link SerializedClassScanner}; the accumulators of separate tasks
+ * are combined with {@link #merge(ScanAccumulator)}.
+ *
+ * Not thread-safe; each accumulator is used by one task at a time.
+ */
+final class ScanAccumulator implements SerializationStreamListener
+{
+   /** Usages keyed by {@link SerializedClassUsage#keyOf(String, long)}. */
+   private final Map<String, SerializedClassUsage> usages = new HashMap<>();
+
+   /**
+    * Usage of each descriptor that can still be referenced by handle in
+    * the current stream; cleared whenever the stream's handles are.
+    */
+   private final Map<SerializedClassDescriptor, SerializedClassUsage> streamDescriptors = new IdentityHashMap<>();
+
+   /** Usages already counted for the current stream. */
+   private final Set<SerializedClassUsage> streamUsages = Collections.newSetFromMap(new IdentityHashMap<>());
+
+   /** Usages already seen in the current file. */
+   private final Set<SerializedClassUsage> fileUsages = Collections.newSetFromMap(new IdentityHashMap<>());
+
+   /** Sizes in bytes of completed streams. */
+   private final LogLinearHistogram streamSizes = new LogLinearHistogram();
+
+   /** Descriptions of files or regions that could not be analyzed. */
+   private final List<String> failures = new ArrayList<>();
+
+   /** Number of files analyzed. */
+   private long fileCount;
+
+   /** Number of streams decoded. */
+   private long streamCount;
+
+   /** Number of bytes in files analyzed. */
+   private long byteCount;
+
+   /** Offset of current stream's header or -1 if no stream is open. */
+   private long currentStreamStart = -1;
+
+   /** File currently being analyzed. */
+   private Path currentPath;
+
+   /**
+    * Begin analysis of the provided file.
+    *
+    * @param path File to be analyzed.
+    */
+   void beginFile(final Path path)
+   {
+      currentPath = path;
+      currentStreamStart = -1;
+      fileUsages.clear();
+   }
+
+   /**
+    * Complete the open stream, if any, which ends at the provided offset.
+    *
+    * @param endOffset Offset just past the last stream decoded.
+    */
+   void endStreams(final long endOffset)
+   {
+      if (currentStreamStart >= 0)
+      {
+         streamSizes.record(endOffset - currentStreamStart);
+         currentStreamStart = -1;
+      }
+   }
+
+   /**
+    * Complete analysis of the current file.
+    *
+    * @param endOffset Offset just past the last stream decoded.
+    */
+   void endFile(final long endOffset)
+   {
+      endStreams(endOffset);
+      fileCount++;
+      byteCount += endOffset;
+      for (final SerializedClassUsage usage : fileUsages)
+      {
+         usage.incrementFiles(currentPath);
+      }
+      fileUsages.clear();
+   }
+
+   /**
+    * Record that the provided file (or part of it) could not be analyzed.
+    *
+    * @param path File that could not be analyzed.
+    * @param exception Reason file could not be analyzed (including
+    *    unchecked exceptions and stack overflow from corrupt input).
+    */
+   void recordFailure(final Path path, final Throwable exception)
+   {
+      failures.add(path + ": " + exception);
+      currentStreamStart = -1;
+      streamDescriptors.clear();
+      streamUsages.clear();
+   }
+
+   /**
+    * Add the statistics of the provided accumulator to this one.
+    *
+    * @param other Accumulator whose statistics are added.
+    */
+   void merge(final ScanAccumulator other)
+   {
+      for (final SerializedClassUsage otherUsage : other.usages.values())
+      {
+         final String key = SerializedClassUsage.keyOf(otherUsage.getClassName(), otherUsage.getSerialVersionUid());
+         SerializedClassUsage usage = usages.get(key);
+         if (usage == null)
+         {
+            usage = new SerializedClassUsage(otherUsage.getClassName(), otherUsage.getSerialVersionUid());
+            usages.put(key, usage);
+         }
+         usage.add(otherUsage);
+         if (other.fileUsages.contains(otherUsage))
+         {
+            fileUsages.add(usage);
+         }
+      }
+      streamSizes.add(other.streamSizes);
+      failures.addAll(other.failures);
+      fileCount += other.fileCount;
+      streamCount += other.streamCount;
+      byteCount += other.byteCount;
+   }
+
+   @Override
+   public void streamHeader(final long offset, final int version)
+   {
+      endStreams(offset);
+      currentStreamStart = offset;
+      streamCount++;
+      streamDescriptors.clear();
+      streamUsages.clear();
+   }
+
+   @Override
+   public void classDescriptor(final long offset, final int handle, final SerializedClassDescriptor descriptor)
+   {
+      final String key = SerializedClassUsage.keyOf(descriptor.getClassName(), descriptor.getSerialVersionUid());
+      SerializedClassUsage usage = usages.get(key);
+      if (usage == null)
+      {
+         usage = new SerializedClassUsage(descriptor.getClassName(), descriptor.getSerialVersionUid());
+         usages.put(key, usage);
+      }
+      streamDescriptors.put(descriptor, usage);
+      if (streamUsages.add(usage))
+      {
+         usage.incrementStreams();
+      }
+      fileUsages.add(usage);
+   }
+
+   @Override
+   public void reset(final long offset)
+   {
+      streamDescriptors.clear();
+   }
+
+   @Override
+   public void exception(final long offset)
+   {
+      streamDescriptors.clear();
+   }
+
+   @Override
+   public void objectStart(final long offset, final int handle, final SerializedClassDescriptor descriptor)
+   {
+      countInstance(descriptor);
+   }
+
+   @Override
+   public void arrayStart(
+      final long offset, final int handle, final SerializedClassDescriptor descriptor, final int length)
+   {
+      countInstance(descriptor);
+   }
+
+   @Override
+   public void enumConstant(final long offset, final int handle, final SerializedClassDescriptor descriptor)
+   {
+      countInstance(descriptor);
+   }
+
+   /**
+    * Count an instance of the class with the provided descriptor.
+    *
+    * @param descriptor Descriptor of instance's class (may be {@code null}).
+    */
+   private void countInstance(final SerializedClassDescriptor descriptor)
+   {
+      final SerializedClassUsage usage = descriptor != null ? streamDescriptors.get(descriptor) : null;
+      if (usage != null)
+      {
+         usage.incrementInstances();
+      }
+   }
+
+   /**
+    * Provide usages collected so far.
+    *
+    * @return Usages (live view).
+    */
+   Map<String, SerializedClassUsage> getUsages()
+   {
+      return usages;
+   }
+
+   /**
+    * Provide stream sizes collected so far.
+    *
+    * @return Stream size histogram (live view).
+    */
+   LogLinearHistogram getStreamSizes()
+   {
+      return streamSizes;
+   }
+
+   /**
+    * Provide failure descriptions collected so far.
+    *
+    * @return Failure descriptions (live view).
+    */
+   List<String> getFailures()
+   {
+      return failures;
+   }
+
+   /**
+    * Provide number of files analyzed.
+    *
+    * @return Number of files.
+    */
+   long getFileCount()
+   {
+      return fileCount;
+   }
+
+   /**
+    * Provide number of streams decoded.
+    *
+    * @return Number of streams.
+    */
+   long getStreamCount()
+   {
+      return streamCount;
+   }
+
+   /**
+    * Provide number of bytes in files analyzed.
+    *
+    * @return Number of bytes.
+    */
+   long getByteCount()
+   {
+      return byteCount;
+   }
+}
@@ -0,0 +1,370 @@
+package dustin.utilities.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Big-endian primitive reader over an {@link InputStream} (through a
+ * fixed-size reused buffer), a {@link FileChannel} (through successive
+ * memory-mapped windows), or a {@link ByteBuffer} already holding the
+ * entire input, tracking the absolute offset of every read.
+ *
+ * Memory used is bounded by the buffer or window size regardless of the
+ * length of the input.
+ */
+final class SerializationInput
+{
+   /** Size of buffer used when reading from an InputStream. */
+   private static final int STREAM_BUFFER_SIZE = 128 * 1024;
+
+   /** Size of each memory-mapped window when reading from a file. */
+   private static final long MAPPED_WINDOW_SIZE = 64L * 1024 * 1024;
+
+   /** Source stream or {@code null} when reading from a file. */
+   private final InputStream stream;
+
+   /** Source file channel or {@code null} when reading from a stream. */
+   private final FileChannel channel;
+
+   /** Size of source file (unused when reading from a stream). */
+   private final long channelSize;
+
+   /** Current buffer or mapped window. */
+   private ByteBuffer buffer;
+
+   /** Absolute offset of index zero of {@link #buffer}. */
+   private long bufferStart;
+
+   /** Whether the source stream has been exhausted. */
+   private boolean streamExhausted;
+
+   /**
+    * Constructor for reading from an InputStream.
+    *
+    * @param newStream Source stream (not closed by this reader).
+    */
+   SerializationInput(final InputStream newStream)
+   {
+      this.stream = newStream;
+      this.channel = null;
+      this.channelSize = 0;
+      this.buffer = ByteBuffer.allocate(STREAM_BUFFER_SIZE);
+      this.buffer.limit(0);
+   }
+
+   /**
+    * Constructor for reading from a file through memory-mapped windows.
+    *
+    * @param newChannel Source file channel (not closed by this reader).
+    * @throws IOException Thrown if unable to determine the file's size.
+    */
+   SerializationInput(final FileChannel newChannel) throws IOException
+   {
+      this(newChannel, 0L);
+   }
+
+   /**
+    * Constructor for reading from a file through memory-mapped windows
+    * beginning at the provided offset.
+    *
+    * @param newChannel Source file channel (not closed by this reader).
+    * @param startOffset Offset of first byte to be read.
+    * @throws IOException Thrown if unable to determine the file's size.
+    */
+   SerializationInput(final FileChannel newChannel, final long startOffset) throws IOException
+   {
+      this.stream = null;
+      this.channel = newChannel;
+      this.channelSize = newChannel.size();
+      this.buffer = ByteBuffer.allocate(0);
+      this.bufferStart = startOffset;
+   }
+
+   /**
+    * Constructor for reading input that is entirely present in the
+    * provided buffer, from its position to its limit. Offsets are
+    * relative to the buffer's position.
+    *
+    * @param newBuffer Buffer holding the entire input.
+    */
+   SerializationInput(final ByteBuffer newBuffer)
+   {
+      this.stream = null;
+      this.channel = null;
+      this.channelSize = 0;
+      this.buffer = newBuffer.slice();
+      this.streamExhausted = true;
+   }
+
+   /**
+    * Provide absolute offset of the next byte to be read.
+    *
+    * @return Absolute offset of next byte.
+    */
+   long position()
+   {
+      return bufferStart + buffer.position();
+   }
+
+   /**
+    * Indicates whether at least one more byte can be read.
+    *
+    * @return {@code true} if not at end of input.
+    * @throws IOException Thrown if unable to read from source.
+    */
+   boolean hasMore() throws IOException
+   {
+      return ensure(1);
+   }
+
+   /**
+    * Provide the next byte without consuming it.
+    *
+    * @return Next byte (0-255).
+    * @throws IOException Thrown if at end of input or unable to read.
+    */
+   int peekUnsignedByte() throws IOException
+   {
+      require(1);
+      return buffer.get(buffer.position()) & 0xFF;
+   }
+
+   /**
+    * Provide the next two bytes as a big-endian unsigned value without
+    * consuming them.
+    *
+    * @return Next two bytes or -1 if fewer than two bytes remain.
+    * @throws IOException Thrown if unable to read.
+    */
+   int peekUnsignedShort() throws IOException
+   {
+      if (!ensure(2))
+      {
+         return -1;
+      }
+      return buffer.getShort(buffer.position()) & 0xFFFF;
+   }
+
+   /**
+    * Read one unsigned byte.
+    *
+    * @return Byte read (0-255).
+    * @throws IOException Thrown if at end of input or unable to read.
+    */
+   int readUnsignedByte() throws IOException
+   {
+      require(1);
+      return buffer.get() & 0xFF;
+   }
+
+   /**
+    * Read a big-endian unsigned short.
+    *
+    * @return Value read (0-65535).
+    * @throws IOException Thrown if at end of input or unable to read.
+    */
+   int readUnsignedShort() throws IOException
+   {
+      require(2);
+      return buffer.getShort() & 0xFFFF;
+   }
+
+   /**
+    * Read a big-endian int.
+    *
+    * @return Value read.
+    * @throws IOException Thrown if at end of input or unable to read.
+    */
+   int readInt() throws IOException
+   {
+      require(4);
+      return buffer.getInt();
+   }
+
+   /**
+    * Read a big-endian long.
+    *
+    * @return Value read.
+    * @throws IOException Thrown if at end of input or unable to read.
+    */
+   long readLong() throws IOException
+   {
+      require(8);
+      return buffer.getLong();
+   }
+
+   /**
+    * Read a string in modified UTF-8 encoding of the provided length.
+    *
+    * @param utfLength Number of encoded bytes (at most 65535).
+    * @return Decoded string.
+    * @throws IOException Thrown if at end of input, unable to read, or
+    *    the bytes are not valid modified UTF-8.
+    */
+   String readUtf(final int utfLength) throws IOException
+   {
+      require(utfLength);
+      final char[] characters = new char[utfLength];
+      int characterCount = 0;
+      final int end = buffer.position() + utfLength;
+      int index = buffer.position();
+      while (index < end)
+      {
+         final int first = buffer.get(index) & 0xFF;
+         if (first < 0x80)
+         {
+            characters[characterCount++] = (char) first;
+            index++;
+         }
+         else if ((first & 0xE0) == 0xC0 && index + 1 < end)
+         {
+            final int second = buffer.get(index + 1) & 0xFF;
+            characters[characterCount++] = (char) (((first & 0x1F) << 6) | (second & 0x3F));
+            index += 2;
+         }
+         else if ((first & 0xF0) == 0xE0 && index + 2 < end)
+         {
+            final int second = buffer.get(index + 1) & 0xFF;
+            final int third = buffer.get(index + 2) & 0xFF;
+            characters[characterCount++] =
+               (char) (((first & 0x0F) << 12) | ((second & 0x3F) << 6) | (third & 0x3F));
+            index += 3;
+         }
+         else
+         {
+            throw new UTFDataFormatException("Malformed modified UTF-8 at offset " + (bufferStart + index));
+         }
+      }
+      buffer.position(end);
+      return new String(characters, 0, characterCount);
+   }
+
+   /**
+    * Skip the provided number of bytes.
+    *
+    * @param byteCount Number of bytes to skip.
+    * @throws IOException Thrown if the count is negative, fewer bytes
+    *    remain, or unable to read.
+    */
+   void skip(final long byteCount) throws IOException
+   {
+      if (byteCount < 0)
+      {
+         throw new StreamCorruptedException("Negative byte count " + byteCount + " at offset " + position());
+      }
+      if (byteCount <= buffer.remaining())
+      {
+         buffer.position(buffer.position() + (int) byteCount);
+         return;
+      }
+      if (channel != null)
+      {
+         final long target = position() + byteCount;
+         if (target > channelSize)
+         {
+            throw new EOFException("Unable to skip " + byteCount + " bytes at offset " + position());
+         }
+         mapWindow(target);
+         return;
+      }
+      long remaining = byteCount - buffer.remaining();
+      buffer.position(buffer.limit());
+      while (remaining > 0)
+      {
+         if (!ensure(1))
+         {
+            throw new EOFException("Unable to skip " + byteCount + " bytes before end of stream");
+         }
+         final int skipped = (int) Math.min(remaining, buffer.remaining());
+         buffer.position(buffer.position() + skipped);
+         remaining -= skipped;
+      }
+   }
+
+   /**
+    * Ensure that the provided number of bytes is available.
+    *
+    * @param byteCount Number of bytes required.
+    * @throws IOException Thrown if fewer bytes remain or unable to read.
+    */
+   private void require(final int byteCount) throws IOException
+   {
+      if (!ensure(byteCount))
+      {
+         throw new EOFException(
+            "Expected " + byteCount + " more bytes at offset " + position() + " but reached end of input");
+      }
+   }
+
+   /**
+    * Attempt to make the provided number of bytes available in the buffer.
+    *
+    * @param byteCount Number of bytes required.
+    * @return {@code true} if the bytes are available.
+    * @throws IOException Thrown if unable to read.
+    */
+   private boolean ensure(final int byteCount) throws IOException
+   {
+      if (buffer.remaining() >= byteCount)
+      {
+         return true;
+      }
+      if (channel != null)
+      {
+         if (channelSize - position() < byteCount)
+         {
+            return false;
+         }
+         mapWindow(position());
+         return true;
+      }
+      if (stream == null)
+      {
+         return false;
+      }
+      final long absolutePosition = position();
+      if (byteCount > buffer.capacity())
+      {
+         final ByteBuffer larger = ByteBuffer.allocate(byteCount);
+         larger.put(buffer);
+         buffer = larger;
+      }
+      else
+      {
+         buffer.compact();
+      }
+      bufferStart = absolutePosition;
+      while (buffer.position() < byteCount && !streamExhausted)
+      {
+         final int read = stream.read(buffer.array(), buffer.position(), buffer.capacity() - buffer.position());
+         if (read < 0)
+         {
+            streamExhausted = true;
+         }
+         else
+         {
+            buffer.position(buffer.position() + read);
+         }
+      }
+      buffer.flip();
+      return buffer.remaining() >= byteCount;
+   }
+
+   /**
+    * Map a window of the file beginning at the provided offset.
+    *
+    * @param offset Absolute offset at which the window begins.
+    * @throws IOException Thrown if unable to map the file.
+    */
+   private void mapWindow(final long offset) throws IOException
+   {
+      final long size = Math.min(MAPPED_WINDOW_SIZE, channelSize - offset);
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+      bufferStart = offset;
+   }
+}
@@ -0,0 +1,171 @@
+package dustin.utilities.io;
+
+import dustin.utilities.statistics.LogLinearHistogram;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Merged results of a {@link SerializedClassScanner} scan: every class
+ * version found (with instance, stream, and file counts), the
+ * distribution of stream sizes, and the files or regions that could not
+ * be analyzed.
+ */
+public final class SerializationScanSummary
+{
+   /** Class versions ordered by class name and then serial version UID. */
+   private final List<SerializedClassUsage> classUsages;
+
+   /** Descriptions of files or regions that could not be analyzed. */
+   private final List<String> failures;
+
+   /** Sizes in bytes of decoded streams. */
+   private final LogLinearHistogram streamSizes;
+
+   /** Number of files analyzed. */
+   private final long fileCount;
+
+   /** Number of streams decoded. */
+   private final long streamCount;
+
+   /** Number of bytes in files analyzed. */
+   private final long byteCount;
+
+   /**
+    * Constructor accepting the merged accumulator of a completed scan.
+    *
+    * @param accumulator Merged accumulator (no longer modified).
+    */
+   SerializationScanSummary(final ScanAccumulator accumulator)
+   {
+      final List<SerializedClassUsage> usages = new ArrayList<>(accumulator.getUsages().values());
+      usages.sort(Comparator.comparing(SerializedClassUsage::getClassName)
+         .thenComparingLong(SerializedClassUsage::getSerialVersionUid));
+      this.classUsages = Collections.unmodifiableList(usages);
+      this.failures = Collections.unmodifiableList(new ArrayList<>(accumulator.getFailures()));
+      this.streamSizes = accumulator.getStreamSizes();
+      this.fileCount = accumulator.getFileCount();
+      this.streamCount = accumulator.getStreamCount();
+      this.byteCount = accumulator.getByteCount();
+   }
+
+   /**
+    * Provide every class version found, ordered by class name and then
+    * serial version UID.
+    *
+    * @return Class versions found.
+    */
+   public List<SerializedClassUsage> getClassUsages()
+   {
+      return classUsages;
+   }
+
+   /**
+    * Provide versions of the named class that were found.
+    *
+    * @param className Fully qualified class name.
+    * @return Versions of the class found (empty if none).
+    */
+   public List<SerializedClassUsage> getClassUsages(final String className)
+   {
+      final List<SerializedClassUsage> versions = new ArrayList<>();
+      for (final SerializedClassUsage usage : classUsages)
+      {
+         if (usage.getClassName().equals(className))
+         {
+            versions.add(usage);
+         }
+      }
+      return versions;
+   }
+
+   /**
+    * Provide descriptions of files (or regions of spill files) that
+    * could not be analyzed.
+    *
+    * @return Failure descriptions.
+    */
+   public List<String> getFailures()
+   {
+      return failures;
+   }
+
+   /**
+    * Provide number of files analyzed.
+    *
+    * @return Number of files.
+    */
+   public long getFileCount()
+   {
+      return fileCount;
+   }
+
+   /**
+    * Provide number of serialization streams decoded.
+    *
+    * @return Number of streams.
+    */
+   public long getStreamCount()
+   {
+      return streamCount;
+   }
+
+   /**
+    * Provide number of bytes in files analyzed.
+    *
+    * @return Number of bytes.
+    */
+   public long getByteCount()
+   {
+      return byteCount;
+   }
+
+   /**
+    * Provide stream size (in bytes) at the provided percentile.
+    *
+    * @param percentile Percentile from 0 through 100.
+    * @return Stream size at percentile (within histogram precision).
+    */
+   public long getStreamSizeAtPercentile(final double percentile)
+   {
+      return streamSizes.getValueAtPercentile(percentile);
+   }
+
+   /**
+    * Provide size (in bytes) of largest stream.
+    *
+    * @return Largest stream size.
+    */
+   public long getLargestStreamSize()
+   {
+      return streamSizes.getMaximum();
+   }
+
+   /**
+    * Provide multi-line report of the scan: totals, stream sizes, every
+    * class version found, and every failure.
+    *
+    * @return Report.
+    */
+   @Override
+   public String toString()
+   {
+      final StringBuilder report = new StringBuilder();
+      report.append(String.format(
+         "%d files, %d streams, %d bytes; stream size p50=%d p99=%d max=%d; %d failures%n",
+         fileCount, streamCount, byteCount,
+         getStreamSizeAtPercentile(50), getStreamSizeAtPercentile(99), getLargestStreamSize(),
+         failures.size()));
+      for (final SerializedClassUsage usage : classUsages)
+      {
+         report.append("   ").append(usage).append(System.lineSeparator());
+      }
+      for (final String failure : failures)
+      {
+         report.append("   FAILED ").append(failure).append(System.lineSeparator());
+      }
+      return report.toString();
+   }
+}
@@ -0,0 +1,620 @@
+package dustin.utilities.io;
+
+import static java.io.ObjectStreamConstants.SC_BLOCK_DATA;
+import static java.io.ObjectStreamConstants.SC_EXTERNALIZABLE;
+import static java.io.ObjectStreamConstants.SC_SERIALIZABLE;
+import static java.io.ObjectStreamConstants.SC_WRITE_METHOD;
+import static java.io.ObjectStreamConstants.STREAM_MAGIC;
+import static java.io.ObjectStreamConstants.TC_ARRAY;
+import static java.io.ObjectStreamConstants.TC_BLOCKDATA;
+import static java.io.ObjectStreamConstants.TC_BLOCKDATALONG;
+import static java.io.ObjectStreamConstants.TC_CLASS;
+import static java.io.ObjectStreamConstants.TC_CLASSDESC;
+import static java.io.ObjectStreamConstants.TC_ENDBLOCKDATA;
+import static java.io.ObjectStreamConstants.TC_ENUM;
+import static java.io.ObjectStreamConstants.TC_EXCEPTION;
+import static java.io.ObjectStreamConstants.TC_LONGSTRING;
+import static java.io.ObjectStreamConstants.TC_NULL;
+import static java.io.ObjectStreamConstants.TC_OBJECT;
+import static java.io.ObjectStreamConstants.TC_PROXYCLASSDESC;
+import static java.io.ObjectStreamConstants.TC_REFERENCE;
+import static java.io.ObjectStreamConstants.TC_RESET;
+import static java.io.ObjectStreamConstants.TC_STRING;
+import static java.io.ObjectStreamConstants.baseWireHandle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes the Java Object Serialization Stream Protocol into a sequence of
+ * {@link SerializationStreamListener} events without deserializing (or even
+ * loading) any of the serialized classes.
+ *
+ * Input is read in a single pass, either from an {@link InputStream}
+ * through a fixed-size buffer, from a file through successive
+ * memory-mapped windows, or directly from a {@link ByteBuffer}. Primitive
+ * field values, primitive array contents, block data, and "long strings"
+ * are skipped rather than copied, and only class descriptors (and the
+ * strings naming field types) are retained for resolving later
+ * references, so memory use does not grow with the number of objects in
+ * the stream.
+ *
+ * Input holding several complete streams back to back (each beginning
+ * with its own stream header) is analyzed as a sequence of streams.
+ *
+ * Externalizable objects written with the obsolete protocol version 1
+ * cannot be decoded without their classes and are reported as
+ * {@link StreamCorruptedException}s.
+ */
+public final class SerializationStreamAnalyzer
+{
+   /** Handles assigned so far in the current stream. */
+   private int nextHandle = baseWireHandle;
+
+   /** Class descriptors keyed by handle. */
+   private final Map<Integer, SerializedClassDescriptor> descriptors = new HashMap<>();
+
+   /** Strings used as field type signatures, keyed by handle. */
+   private final Map<Integer, String> typeSignatures = new HashMap<>();
+
+   /** Source of stream bytes. */
+   private final SerializationInput input;
+
+   /** Recipient of decoded elements. */
+   private final SerializationStreamListener listener;
+
+   /**
+    * Constructor accepting source and recipient.
+    *
+    * @param newInput Source of stream bytes.
+    * @param newListener Recipient of decoded elements.
+    */
+   private SerializationStreamAnalyzer(
+      final SerializationInput newInput, final SerializationStreamListener newListener)
+   {
+      this.input = newInput;
+      this.listener = newListener;
+   }
+
+   /**
+    * Decode the serialization stream(s) read from the provided InputStream.
+    *
+    * @param stream Source of serialized data (read to its end but not closed).
+    * @param listener Recipient of decoded elements.
+    * @return Number of bytes decoded.
+    * @throws IOException Thrown if unable to read the stream or if the
+    *    stream does not conform to the serialization protocol.
+    */
+   public static long analyze(final InputStream stream, final SerializationStreamListener listener)
+      throws IOException
+   {
+      return new SerializationStreamAnalyzer(new SerializationInput(stream), listener).analyzeAll();
+   }
+
+   /**
+    * Decode the serialization stream(s) held in the provided file, which
+    * is memory-mapped in windows rather than read through a stream.
+    *
+    * @param file File holding serialized data.
+    * @param listener Recipient of decoded elements.
+    * @return Number of bytes decoded.
+    * @throws IOException Thrown if unable to read the file or if its
+    *    content does not conform to the serialization protocol.
+    */
+   public static long analyze(final Path file, final SerializationStreamListener listener)
+      throws IOException
+   {
+      try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+      {
+         return new SerializationStreamAnalyzer(new SerializationInput(channel), listener).analyzeAll();
+      }
+   }
+
+   /**
+    * Decode the serialization stream(s) held in the remaining bytes of the
+    * provided buffer, whose position is not changed. Offsets reported to
+    * the listener are relative to the buffer's position.
+    *
+    * @param buffer Buffer holding serialized data.
+    * @param listener Recipient of decoded elements.
+    * @return Number of bytes decoded.
+    * @throws IOException Thrown if the content does not conform to the
+    *    serialization protocol.
+    */
+   public static long analyze(final ByteBuffer buffer, final SerializationStreamListener listener)
+      throws IOException
+   {
+      return new SerializationStreamAnalyzer(new SerializationInput(buffer), listener).analyzeAll();
+   }
+
+   /**
+    * Decode the serialization streams in the provided file that begin at
+    * the provided offset and continue with each immediately following
+    * stream whose header lies before the provided limit. Streams that
+    * begin before the limit are decoded to their ends even when those
+    * lie beyond it.
+    *
+    * @param channel File holding serialized data.
+    * @param start Offset of the first stream's header.
+    * @param headerLimit Offset at or beyond which no further stream is begun.
+    * @param listener Recipient of decoded elements.
+    * @return Offset just past the last stream decoded.
+    * @throws IOException Thrown if unable to read the file or if its
+    *    content does not conform to the serialization protocol.
+    */
+   static long analyze(
+      final FileChannel channel, final long start, final long headerLimit,
+      final SerializationStreamListener listener)
+      throws IOException
+   {
+      return new SerializationStreamAnalyzer(new SerializationInput(channel, start), listener)
+         .analyzeAll(headerLimit);
+   }
+
+   /**
+    * Decode every stream in the input.
+    *
+    * @return Number of bytes decoded.
+    * @throws IOException Thrown if unable to read or decode the input.
+    */
+   private long analyzeAll() throws IOException
+   {
+      return analyzeAll(Long.MAX_VALUE);
+   }
+
+   /**
+    * Decode every stream in the input whose header begins before the
+    * provided limit.
+    *
+    * @param headerLimit Offset at or beyond which no further stream is begun.
+    * @return Offset just past the last stream decoded.
+    * @throws IOException Thrown if unable to read or decode the input.
+    */
+   private long analyzeAll(final long headerLimit) throws IOException
+   {
+      if (input.peekUnsignedShort() != (STREAM_MAGIC & 0xFFFF))
+      {
+         throw new StreamCorruptedException("Input does not begin with serialization stream magic number");
+      }
+      while (input.hasMore())
+      {
+         if (input.peekUnsignedShort() == (STREAM_MAGIC & 0xFFFF))
+         {
+            final long offset = input.position();
+            if (offset >= headerLimit)
+            {
+               break;
+            }
+            input.readUnsignedShort();
+            final int version = input.readUnsignedShort();
+            resetHandles();
+            listener.streamHeader(offset, version);
+         }
+         else
+         {
+            readContent();
+         }
+      }
+      return input.position();
+   }
+
+   /**
+    * Read a single content element (object or block data).
+    *
+    * @throws IOException Thrown if unable to read or decode the element.
+    */
+   private void readContent() throws IOException
+   {
+      final int typeCode = input.peekUnsignedByte();
+      if (typeCode == TC_BLOCKDATA || typeCode == TC_BLOCKDATALONG)
+      {
+         readBlockData();
+      }
+      else
+      {
+         readObject();
+      }
+   }
+
+   /**
+    * Read contents up to and including the terminating
+    * {@code TC_ENDBLOCKDATA} (class annotations and data written by
+    * {@code writeObject} and {@code writeExternal} methods).
+    *
+    * @throws IOException Thrown if unable to read or decode the contents.
+    */
+   private void readAnnotation() throws IOException
+   {
+      while (input.peekUnsignedByte() != TC_ENDBLOCKDATA)
+      {
+         readContent();
+      }
+      input.readUnsignedByte();
+   }
+
+   /**
+    * Skip a block of primitive data.
+    *
+    * @throws IOException Thrown if unable to read the block.
+    */
+   private void readBlockData() throws IOException
+   {
+      final long offset = input.position();
+      final int typeCode = input.readUnsignedByte();
+      final long length = typeCode == TC_BLOCKDATA
+         ? input.readUnsignedByte()
+         : input.readInt() & 0xFFFFFFFFL;
+      input.skip(length);
+      listener.blockData(offset, length);
+   }
+
+   /**
+    * Read an object element.
+    *
+    * @throws IOException Thrown if unable to read or decode the element.
+    */
+   private void readObject() throws IOException
+   {
+      final long offset = input.position();
+      final int typeCode = input.readUnsignedByte();
+      switch (typeCode)
+      {
+         case TC_NULL:
+            listener.nullReference(offset);
+            break;
+         case TC_REFERENCE:
+            listener.reference(offset, input.readInt());
+            break;
+         case TC_STRING:
+         case TC_LONGSTRING:
+            readString(offset, typeCode);
+            break;
+         case TC_CLASSDESC:
+         case TC_PROXYCLASSDESC:
+            readClassDescriptorBody(offset, typeCode);
+            break;
+         case TC_CLASS:
+         {
+            final SerializedClassDescriptor descriptor = readClassDescriptor();
+            listener.classObject(offset, assignHandle(), descriptor);
+            break;
+         }
+         case TC_ENUM:
+         {
+            final SerializedClassDescriptor descriptor = readClassDescriptor();
+            listener.enumConstant(offset, assignHandle(), descriptor);
+            readObject();
+            break;
+         }
+         case TC_ARRAY:
+            readArray(offset);
+            break;
+         case TC_OBJECT:
+            readOrdinaryObject(offset);
+            break;
+         case TC_RESET:
+            resetHandles();
+            listener.reset(offset);
+            break;
+         case TC_EXCEPTION:
+            resetHandles();
+            listener.exception(offset);
+            readObject();
+            resetHandles();
+            break;
+         default:
+            throw new StreamCorruptedException(
+               String.format("Unexpected type code 0x%02X at offset %d", typeCode, offset));
+      }
+   }
+
+   /**
+    * Read a string (after its type code).
+    *
+    * @param offset Offset of string's type code.
+    * @param typeCode {@code TC_STRING} or {@code TC_LONGSTRING}.
+    * @return Decoded string or {@code null} for a long string.
+    * @throws IOException Thrown if unable to read the string.
+    */
+   private String readString(final long offset, final int typeCode) throws IOException
+   {
+      final int handle = assignHandle();
+      if (typeCode == TC_STRING)
+      {
+         final int length = input.readUnsignedShort();
+         final String value = input.readUtf(length);
+         listener.string(offset, handle, length, value);
+         return value;
+      }
+      final long length = input.readLong();
+      if (length < 0)
+      {
+         throw new StreamCorruptedException("Negative long string length " + length + " at offset " + offset);
+      }
+      input.skip(length);
+      listener.string(offset, handle, length, null);
+      return null;
+   }
+
+   /**
+    * Read a class descriptor element: a new descriptor, a reference to a
+    * previous one, or null.
+    *
+    * @return Descriptor or {@code null}.
+    * @throws IOException Thrown if unable to read or decode the descriptor.
+    */
+   private SerializedClassDescriptor readClassDescriptor() throws IOException
+   {
+      final long offset = input.position();
+      final int typeCode = input.readUnsignedByte();
+      switch (typeCode)
+      {
+         case TC_NULL:
+            return null;
+         case TC_REFERENCE:
+         {
+            final int handle = input.readInt();
+            final SerializedClassDescriptor descriptor = descriptors.get(handle);
+            if (descriptor == null)
+            {
+               throw new StreamCorruptedException(
+                  "Reference at offset " + offset + " to unknown class descriptor handle " + handle);
+            }
+            listener.reference(offset, handle);
+            return descriptor;
+         }
+         case TC_CLASSDESC:
+         case TC_PROXYCLASSDESC:
+            return readClassDescriptorBody(offset, typeCode);
+         default:
+            throw new StreamCorruptedException(
+               String.format("Expected class descriptor but found type code 0x%02X at offset %d", typeCode, offset));
+      }
+   }
+
+   /**
+    * Read a new class descriptor (after its type code), including its
+    * class annotation and superclass descriptor.
+    *
+    * @param offset Offset of descriptor's type code.
+    * @param typeCode {@code TC_CLASSDESC} or {@code TC_PROXYCLASSDESC}.
+    * @return Descriptor read.
+    * @throws IOException Thrown if unable to read or decode the descriptor.
+    */
+   private SerializedClassDescriptor readClassDescriptorBody(final long offset, final int typeCode)
+      throws IOException
+   {
+      final SerializedClassDescriptor descriptor;
+      final int handle;
+      if (typeCode == TC_PROXYCLASSDESC)
+      {
+         handle = assignHandle();
+         final int interfaceCount = input.readInt();
+         final StringBuilder interfaces = new StringBuilder();
+         for (int i = 0; i < interfaceCount; i++)
+         {
+            if (i > 0)
+            {
+               interfaces.append(',');
+            }
+            interfaces.append(input.readUtf(input.readUnsignedShort()));
+         }
+         descriptor = new SerializedClassDescriptor(
+            interfaces.toString(), 0L, SC_SERIALIZABLE, new ArrayList<>(), true);
+      }
+      else
+      {
+         final String className = input.readUtf(input.readUnsignedShort());
+         final long serialVersionUid = input.readLong();
+         handle = assignHandle();
+         final int flags = input.readUnsignedByte();
+         final int fieldCount = input.readUnsignedShort();
+         final List<SerializedField> fields = new ArrayList<>(fieldCount);
+         for (int i = 0; i < fieldCount; i++)
+         {
+            final char fieldTypeCode = (char) input.readUnsignedByte();
+            final String fieldName = input.readUtf(input.readUnsignedShort());
+            final String signature = fieldTypeCode == 'L' || fieldTypeCode == '['
+               ? readTypeSignature()
+               : null;
+            fields.add(new SerializedField(fieldTypeCode, fieldName, signature));
+         }
+         descriptor = new SerializedClassDescriptor(className, serialVersionUid, flags, fields, false);
+      }
+      descriptors.put(handle, descriptor);
+      listener.classDescriptor(offset, handle, descriptor);
+      readAnnotation();
+      descriptor.setSuperclass(readClassDescriptor());
+      return descriptor;
+   }
+
+   /**
+    * Read the string naming an object field's type.
+    *
+    * @return Type signature or {@code null} if it refers to a string
+    *    that was not itself a type signature.
+    * @throws IOException Thrown if unable to read the signature.
+    */
+   private String readTypeSignature() throws IOException
+   {
+      final long offset = input.position();
+      final int typeCode = input.readUnsignedByte();
+      if (typeCode == TC_REFERENCE)
+      {
+         final int handle = input.readInt();
+         listener.reference(offset, handle);
+         return typeSignatures.get(handle);
+      }
+      if (typeCode != TC_STRING && typeCode != TC_LONGSTRING)
+      {
+         throw new StreamCorruptedException(
+            String.format("Expected field type string but found type code 0x%02X at offset %d", typeCode, offset));
+      }
+      final int handle = nextHandle;
+      final String signature = readString(offset, typeCode);
+      if (signature != null)
+      {
+         typeSignatures.put(handle, signature);
+      }
+      return signature;
+   }
+
+   /**
+    * Read an array (after its type code).
+    *
+    * @param offset Offset of array's type code.
+    * @throws IOException Thrown if unable to read or decode the array.
+    */
+   private void readArray(final long offset) throws IOException
+   {
+      final SerializedClassDescriptor descriptor = readClassDescriptor();
+      final int handle = assignHandle();
+      final int length = input.readInt();
+      if (length < 0)
+      {
+         throw new StreamCorruptedException("Negative array length " + length + " at offset " + offset);
+      }
+      listener.arrayStart(offset, handle, descriptor, length);
+      final char componentType = descriptor != null && descriptor.getClassName().length() > 1
+         ? descriptor.getClassName().charAt(1)
+         : 'L';
+      final int width = primitiveWidth(componentType);
+      if (width > 0)
+      {
+         input.skip((long) width * length);
+      }
+      else
+      {
+         for (int i = 0; i < length; i++)
+         {
+            readObject();
+         }
+      }
+      listener.arrayEnd(input.position(), handle);
+   }
+
+   /**
+    * Read an ordinary (non-array, non-enum) object (after its type code).
+    *
+    * @param offset Offset of object's type code.
+    * @throws IOException Thrown if unable to read or decode the object.
+    */
+   private void readOrdinaryObject(final long offset) throws IOException
+   {
+      final SerializedClassDescriptor descriptor = readClassDescriptor();
+      final int handle = assignHandle();
+      listener.objectStart(offset, handle, descriptor);
+      if (descriptor != null && descriptor.isExternalizable())
+      {
+         if ((descriptor.getFlags() & SC_BLOCK_DATA) == 0)
+         {
+            throw new StreamCorruptedException(
+               "Externalizable " + descriptor.getClassName() + " at offset " + offset
+                  + " uses protocol version 1 and cannot be decoded without its class");
+         }
+         readAnnotation();
+      }
+      else
+      {
+         final Deque<SerializedClassDescriptor> hierarchy = new ArrayDeque<>();
+         for (SerializedClassDescriptor current = descriptor; current != null; current = current.getSuperclass())
+         {
+            hierarchy.push(current);
+         }
+         for (final SerializedClassDescriptor current : hierarchy)
+         {
+            readClassData(current);
+         }
+      }
+      listener.objectEnd(input.position(), handle);
+   }
+
+   /**
+    * Read the serialized field values (and any data written by a
+    * {@code writeObject} method) of one class in an object's hierarchy.
+    *
+    * @param descriptor Descriptor of class.
+    * @throws IOException Thrown if unable to read or decode the data.
+    */
+   private void readClassData(final SerializedClassDescriptor descriptor) throws IOException
+   {
+      if ((descriptor.getFlags() & SC_SERIALIZABLE) == 0)
+      {
+         return;
+      }
+      for (final SerializedField field : descriptor.getFields())
+      {
+         final int width = primitiveWidth(field.getTypeCode());
+         if (width > 0)
+         {
+            input.skip(width);
+         }
+         else
+         {
+            readObject();
+         }
+      }
+      if ((descriptor.getFlags() & SC_WRITE_METHOD) != 0)
+      {
+         readAnnotation();
+      }
+   }
+
+   /**
+    * Assign the next handle.
+    *
+    * @return Handle assigned.
+    */
+   private int assignHandle()
+   {
+      return nextHandle++;
+   }
+
+   /**
+    * Discard all handles (at the start of a stream and on reset).
+    */
+   private void resetHandles()
+   {
+      nextHandle = baseWireHandle;
+      descriptors.clear();
+      typeSignatures.clear();
+   }
+
+   /**
+    * Provide number of bytes occupied by a primitive of the provided type.
+    *
+    * @param typeCode Field or array component type code.
+    * @return Number of bytes or zero for object and array types.
+    */
+   private static int primitiveWidth(final char typeCode)
+   {
+      switch (typeCode)
+      {
+         case 'B':
+         case 'Z':
+            return 1;
+         case 'C':
+         case 'S':
+            return 2;
+         case 'I':
+         case 'F':
+            return 4;
+         case 'J':
+         case 'D':
+            return 8;
+         default:
+            return 0;
+      }
+   }
+}
@@ -0,0 +1,166 @@
+package dustin.utilities.io;
+
+/**
+ * Receives the elements of a Java serialization stream, in stream order,
+ * as they are decoded by {@link SerializationStreamAnalyzer}. Every method
+ * has an empty default implementation so implementations need only
+ * override those of interest.
+ *
+ * Each method receives the absolute offset in the input at which the
+ * element begins. Elements that are assigned a handle also receive it so
+ * that later {@link #reference(long, int)} elements can be correlated.
+ */
+public interface SerializationStreamListener
+{
+   /**
+    * Stream header (magic number and version) was read. Input holding
+    * several concatenated streams produces one of these per stream.
+    *
+    * @param offset Offset of header.
+    * @param version Stream protocol version (normally 5).
+    */
+   default void streamHeader(final long offset, final int version)
+   {
+   }
+
+   /**
+    * Class descriptor was read (including its fields, but before its
+    * class annotation and superclass descriptor).
+    *
+    * @param offset Offset of descriptor.
+    * @param handle Handle assigned to descriptor.
+    * @param descriptor Descriptor read.
+    */
+   default void classDescriptor(final long offset, final int handle, final SerializedClassDescriptor descriptor)
+   {
+   }
+
+   /**
+    * Serialized object begins; its field values and any data written by
+    * its {@code writeObject} or {@code writeExternal} methods follow.
+    *
+    * @param offset Offset of object.
+    * @param handle Handle assigned to object.
+    * @param descriptor Descriptor of object's class.
+    */
+   default void objectStart(final long offset, final int handle, final SerializedClassDescriptor descriptor)
+   {
+   }
+
+   /**
+    * Serialized object ends.
+    *
+    * @param offset Offset just past the object.
+    * @param handle Handle of object.
+    */
+   default void objectEnd(final long offset, final int handle)
+   {
+   }
+
+   /**
+    * Array begins. Elements of object arrays follow as further elements;
+    * elements of primitive arrays are skipped.
+    *
+    * @param offset Offset of array.
+    * @param handle Handle assigned to array.
+    * @param descriptor Descriptor of array class (such as "{@code [I}").
+    * @param length Number of elements.
+    */
+   default void arrayStart(
+      final long offset, final int handle, final SerializedClassDescriptor descriptor, final int length)
+   {
+   }
+
+   /**
+    * Array ends.
+    *
+    * @param offset Offset just past the array.
+    * @param handle Handle of array.
+    */
+   default void arrayEnd(final long offset, final int handle)
+   {
+   }
+
+   /**
+    * String was read.
+    *
+    * @param offset Offset of string.
+    * @param handle Handle assigned to string.
+    * @param utfLength Length of string's modified UTF-8 encoding in bytes.
+    * @param value String's value or {@code null} for "long strings"
+    *    (encodings of 64 KB or more), which are skipped rather than decoded.
+    */
+   default void string(final long offset, final int handle, final long utfLength, final String value)
+   {
+   }
+
+   /**
+    * Enum constant begins; its name follows as a {@link #string} element.
+    *
+    * @param offset Offset of enum constant.
+    * @param handle Handle assigned to enum constant.
+    * @param descriptor Descriptor of enum class.
+    */
+   default void enumConstant(final long offset, final int handle, final SerializedClassDescriptor descriptor)
+   {
+   }
+
+   /**
+    * {@link Class} object was read.
+    *
+    * @param offset Offset of class object.
+    * @param handle Handle assigned to class object.
+    * @param descriptor Descriptor of the class.
+    */
+   default void classObject(final long offset, final int handle, final SerializedClassDescriptor descriptor)
+   {
+   }
+
+   /**
+    * Reference to a previously read element was read.
+    *
+    * @param offset Offset of reference.
+    * @param handle Handle of referenced element.
+    */
+   default void reference(final long offset, final int handle)
+   {
+   }
+
+   /**
+    * Null reference was read.
+    *
+    * @param offset Offset of null reference.
+    */
+   default void nullReference(final long offset)
+   {
+   }
+
+   /**
+    * Block of primitive data (written by {@code writeObject},
+    * {@code writeExternal}, or directly to the stream) was skipped.
+    *
+    * @param offset Offset of block.
+    * @param length Number of data bytes in block.
+    */
+   default void blockData(final long offset, final long length)
+   {
+   }
+
+   /**
+    * Stream was reset; handles assigned before this point are discarded.
+    *
+    * @param offset Offset of reset.
+    */
+   default void reset(final long offset)
+   {
+   }
+
+   /**
+    * Exception thrown during serialization follows (as an object).
+    *
+    * @param offset Offset of exception marker.
+    */
+   default void exception(final long offset)
+   {
+   }
+}
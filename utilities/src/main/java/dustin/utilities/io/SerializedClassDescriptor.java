@@ -0,0 +1,151 @@
+package dustin.utilities.io;
+
+import java.io.ObjectStreamConstants;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Class descriptor read from a Java serialization stream: the class name,
+ * {@code serialVersionUID}, flags, serializable fields, and descriptor of
+ * its serializable superclass.
+ */
+public final class SerializedClassDescriptor
+{
+   /** Name of class (or proxy interfaces joined by commas). */
+   private final String className;
+
+   /** Serial version UID of class (zero for proxy classes). */
+   private final long serialVersionUid;
+
+   /** Flags ({@code SC_*} constants of {@link ObjectStreamConstants}). */
+   private final int flags;
+
+   /** Serializable fields in stream order. */
+   private final List<SerializedField> fields;
+
+   /** Whether this describes a dynamic proxy class. */
+   private final boolean proxy;
+
+   /** Descriptor of serializable superclass or {@code null}. */
+   private SerializedClassDescriptor superclass;
+
+   /**
+    * Constructor accepting descriptor details.
+    *
+    * @param newClassName Name of class.
+    * @param newSerialVersionUid Serial version UID of class.
+    * @param newFlags {@code SC_*} flags.
+    * @param newFields Serializable fields in stream order.
+    * @param newProxy Whether this describes a dynamic proxy class.
+    */
+   SerializedClassDescriptor(
+      final String newClassName,
+      final long newSerialVersionUid,
+      final int newFlags,
+      final List<SerializedField> newFields,
+      final boolean newProxy)
+   {
+      this.className = newClassName;
+      this.serialVersionUid = newSerialVersionUid;
+      this.flags = newFlags;
+      this.fields = Collections.unmodifiableList(newFields);
+      this.proxy = newProxy;
+   }
+
+   /**
+    * Provide name of class.
+    *
+    * @return Name of class; for proxy classes, the names of the proxied
+    *    interfaces separated by commas.
+    */
+   public String getClassName()
+   {
+      return className;
+   }
+
+   /**
+    * Provide serial version UID.
+    *
+    * @return Serial version UID.
+    */
+   public long getSerialVersionUid()
+   {
+      return serialVersionUid;
+   }
+
+   /**
+    * Provide descriptor flags.
+    *
+    * @return {@code SC_*} flags of {@link ObjectStreamConstants}.
+    */
+   public int getFlags()
+   {
+      return flags;
+   }
+
+   /**
+    * Provide serializable fields.
+    *
+    * @return Unmodifiable list of fields in stream order.
+    */
+   public List<SerializedField> getFields()
+   {
+      return fields;
+   }
+
+   /**
+    * Indicates whether this describes a dynamic proxy class.
+    *
+    * @return {@code true} if this describes a proxy class.
+    */
+   public boolean isProxy()
+   {
+      return proxy;
+   }
+
+   /**
+    * Indicates whether class is {@link java.io.Externalizable}.
+    *
+    * @return {@code true} if class is externalizable.
+    */
+   public boolean isExternalizable()
+   {
+      return (flags & ObjectStreamConstants.SC_EXTERNALIZABLE) != 0;
+   }
+
+   /**
+    * Indicates whether class is an enum.
+    *
+    * @return {@code true} if class is an enum.
+    */
+   public boolean isEnum()
+   {
+      return (flags & ObjectStreamConstants.SC_ENUM) != 0;
+   }
+
+   /**
+    * Provide descriptor of serializable superclass.
+    *
+    * @return Superclass descriptor or {@code null} if none.
+    */
+   public SerializedClassDescriptor getSuperclass()
+   {
+      return superclass;
+   }
+
+   /**
+    * Set descriptor of serializable superclass (read after this descriptor).
+    *
+    * @param newSuperclass Superclass descriptor or {@code null}.
+    */
+   void setSuperclass(final SerializedClassDescriptor newSuperclass)
+   {
+      this.superclass = newSuperclass;
+   }
+
+   @Override
+   public String toString()
+   {
+      return className + " (serialVersionUID=" + serialVersionUid + ")";
+   }
+}
@@ -0,0 +1,455 @@
+package dustin.utilities.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Scans many serialized objects in parallel on a {@link ForkJoinPool} and
+ * summarizes which serialized class versions (class name and
+ * serialVersionUID) appear, how often, and in which files, along with the
+ * sizes of the streams holding them. No serialized class is loaded.
+ *
+ * Two layouts are supported: a directory tree in which each regular file
+ * holds one or more serialization streams, and a single large spill file
+ * holding many streams written back to back. A directory tree is split
+ * into tasks by subdirectory and by batches of files. A spill file is
+ * split into byte ranges that are decoded concurrently, each beginning at
+ * the first stream header in its range, and the ranges are then stitched
+ * together in order so that every stream is counted exactly once even
+ * when a range began at a stream header embedded inside another stream.
+ *
+ * Files or regions that cannot be decoded are reported in the summary's
+ * failures rather than ending the scan.
+ */
+public final class SerializedClassScanner
+{
+   /** Largest file read fully into memory rather than memory-mapped. */
+   private static final long READ_FULLY_THRESHOLD = 1024 * 1024;
+
+   /** Number of files analyzed by a single task. */
+   private static final int FILES_PER_TASK = 32;
+
+   /** Smallest spill file range decoded by a single task. */
+   private static final long MINIMUM_SEGMENT_SIZE = 8L * 1024 * 1024;
+
+   /** Size of buffer used when searching for a stream header. */
+   private static final int SEARCH_BUFFER_SIZE = 64 * 1024;
+
+   /** Number of candidate stream headers tried before giving up on a range. */
+   private static final int MAXIMUM_RESYNCHRONIZATION_ATTEMPTS = 64;
+
+   /** Pool on which scanning tasks are run. */
+   private final ForkJoinPool pool;
+
+   /**
+    * Constructor using the common fork-join pool.
+    */
+   public SerializedClassScanner()
+   {
+      this(ForkJoinPool.commonPool());
+   }
+
+   /**
+    * Constructor accepting the pool on which scanning tasks are run.
+    *
+    * @param newPool Pool on which scanning tasks are run.
+    */
+   public SerializedClassScanner(final ForkJoinPool newPool)
+   {
+      this.pool = newPool;
+   }
+
+   /**
+    * Scan every regular file in the provided directory tree (symbolic
+    * links are not followed).
+    *
+    * @param root Root of directory tree.
+    * @return Summary of serialized classes found.
+    * @throws IOException Thrown if the root is not a directory; failures
+    *    within the tree are reported in the summary instead.
+    */
+   public SerializationScanSummary scanDirectory(final Path root) throws IOException
+   {
+      if (!Files.isDirectory(root))
+      {
+         throw new NotDirectoryException(root.toString());
+      }
+      return new SerializationScanSummary(pool.invoke(new DirectoryTask(root)));
+   }
+
+   /**
+    * Scan a single file holding many serialization streams written back
+    * to back, decoding ranges of the file concurrently.
+    *
+    * @param file Spill file.
+    * @return Summary of serialized classes found.
+    * @throws IOException Thrown if unable to open or read the file;
+    *    undecodable regions are reported in the summary instead.
+    */
+   public SerializationScanSummary scanSpillFile(final Path file) throws IOException
+   {
+      try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+      {
+         final long size = channel.size();
+         final int segmentCount = (int) Math.max(1,
+            Math.min(pool.getParallelism() * 4L, size / MINIMUM_SEGMENT_SIZE));
+         final long segmentSize = (size + segmentCount - 1) / segmentCount;
+         final List<SegmentTask> tasks = new ArrayList<>(segmentCount);
+         for (int i = 0; i < segmentCount; i++)
+         {
+            final SegmentTask task = new SegmentTask(
+               channel, file, i * segmentSize, Math.min(size, (i + 1) * segmentSize));
+            tasks.add(task);
+            pool.execute(task);
+         }
+
+         final ScanAccumulator result = new ScanAccumulator();
+         result.beginFile(file);
+         long expected = 0;
+         for (final SegmentTask task : tasks)
+         {
+            final Segment decoded = task.join();
+            if (expected >= task.limit)
+            {
+               continue;
+            }
+            Segment segment = decoded;
+            if (segment == null || segment.start != expected)
+            {
+               segment = stitch(channel, file, expected, task.limit, decoded, result);
+            }
+            if (segment != null)
+            {
+               result.merge(segment.accumulator);
+               expected = segment.end;
+            }
+            else
+            {
+               expected = task.limit;
+            }
+         }
+         result.endFile(expected);
+         return new SerializationScanSummary(result);
+      }
+   }
+
+   /**
+    * Decode, in the calling thread, the streams that actually continue
+    * from the end of the previous range when the concurrently decoded
+    * range did not begin there.
+    *
+    * @param channel Spill file.
+    * @param file Path of spill file.
+    * @param expected Offset just past the previously decoded stream.
+    * @param limit End of the range.
+    * @param decoded Concurrently decoded range (may be {@code null}).
+    * @param result Accumulator receiving failure descriptions.
+    * @return Decoded range or {@code null} if nothing in the range could
+    *    be decoded.
+    * @throws IOException Thrown if unable to read the file.
+    */
+   private static Segment stitch(
+      final FileChannel channel, final Path file, final long expected, final long limit,
+      final Segment decoded, final ScanAccumulator result)
+      throws IOException
+   {
+      final ScanAccumulator accumulator = new ScanAccumulator();
+      accumulator.beginFile(file);
+      try
+      {
+         final long end = SerializationStreamAnalyzer.analyze(channel, expected, limit, accumulator);
+         accumulator.endStreams(end);
+         return new Segment(expected, end, accumulator);
+      }
+      catch (IOException | RuntimeException | StackOverflowError exception)
+      {
+         result.recordFailure(file, exception);
+      }
+      if (decoded != null && decoded.start > expected)
+      {
+         return decoded;
+      }
+      return decodeFromNextHeader(channel, file, expected + 1, limit);
+   }
+
+   /**
+    * Decode the streams of a range beginning at the first stream header
+    * at or after the provided offset that can be decoded.
+    *
+    * @param channel Spill file.
+    * @param file Path of spill file.
+    * @param from Offset at which to begin searching for a header.
+    * @param limit Offset at or beyond which no further stream is begun.
+    * @return Decoded range or {@code null} if no decodable stream begins
+    *    within the range.
+    * @throws IOException Thrown if unable to read the file.
+    */
+   private static Segment decodeFromNextHeader(
+      final FileChannel channel, final Path file, final long from, final long limit)
+      throws IOException
+   {
+      long candidate = findStreamHeader(channel, from, limit);
+      for (int attempt = 0; candidate >= 0 && attempt < MAXIMUM_RESYNCHRONIZATION_ATTEMPTS; attempt++)
+      {
+         final ScanAccumulator accumulator = new ScanAccumulator();
+         accumulator.beginFile(file);
+         try
+         {
+            final long end = SerializationStreamAnalyzer.analyze(channel, candidate, limit, accumulator);
+            accumulator.endStreams(end);
+            return new Segment(candidate, end, accumulator);
+         }
+         catch (IOException | RuntimeException | StackOverflowError exception)
+         {
+            candidate = findStreamHeader(channel, candidate + 1, limit);
+         }
+      }
+      return null;
+   }
+
+   /**
+    * Find the first stream header (magic number and version 5) beginning
+    * at or after the provided offset and before the provided limit.
+    *
+    * @param channel File to be searched.
+    * @param from Offset at which to begin searching.
+    * @param limit Offset before which the header must begin.
+    * @return Offset of header or -1 if none found.
+    * @throws IOException Thrown if unable to read the file.
+    */
+   private static long findStreamHeader(final FileChannel channel, final long from, final long limit)
+      throws IOException
+   {
+      final ByteBuffer window = ByteBuffer.allocate(SEARCH_BUFFER_SIZE);
+      long windowStart = from;
+      while (windowStart < limit)
+      {
+         window.clear();
+         while (window.hasRemaining() && channel.read(window, windowStart + window.position()) > 0)
+         {
+            // keep filling until full or at end of file
+         }
+         final int filled = window.position();
+         for (int i = 0; i + 3 < filled && windowStart + i < limit; i++)
+         {
+            if (window.get(i) == (byte) 0xAC && window.get(i + 1) == (byte) 0xED
+               && window.get(i + 2) == 0 && window.get(i + 3) == 5)
+            {
+               return windowStart + i;
+            }
+         }
+         if (filled < SEARCH_BUFFER_SIZE)
+         {
+            return -1;
+         }
+         windowStart += filled - 3;
+      }
+      return -1;
+   }
+
+   /**
+    * Analyze a single file into the provided accumulator.
+    *
+    * @param file File to be analyzed.
+    * @param accumulator Accumulator receiving the file's statistics.
+    */
+   private static void scanFile(final Path file, final ScanAccumulator accumulator)
+   {
+      accumulator.beginFile(file);
+      try
+      {
+         final long end = Files.size(file) <= READ_FULLY_THRESHOLD
+            ? SerializationStreamAnalyzer.analyze(ByteBuffer.wrap(Files.readAllBytes(file)), accumulator)
+            : SerializationStreamAnalyzer.analyze(file, accumulator);
+         accumulator.endFile(end);
+      }
+      catch (IOException | RuntimeException | StackOverflowError exception)
+      {
+         accumulator.recordFailure(file, exception);
+      }
+   }
+
+   /**
+    * Streams decoded from one range of a spill file.
+    */
+   private static final class Segment
+   {
+      /** Offset of first stream's header. */
+      private final long start;
+
+      /** Offset just past last stream. */
+      private final long end;
+
+      /** Statistics of the range's streams. */
+      private final ScanAccumulator accumulator;
+
+      /**
+       * Constructor accepting decoded range.
+       *
+       * @param newStart Offset of first stream's header.
+       * @param newEnd Offset just past last stream.
+       * @param newAccumulator Statistics of the range's streams.
+       */
+      private Segment(final long newStart, final long newEnd, final ScanAccumulator newAccumulator)
+      {
+         this.start = newStart;
+         this.end = newEnd;
+         this.accumulator = newAccumulator;
+      }
+   }
+
+   /**
+    * Decodes the streams beginning within one range of a spill file.
+    */
+   private static final class SegmentTask extends RecursiveTask<Segment>
+   {
+      /** Spill file. */
+      private final transient FileChannel channel;
+
+      /** Path of spill file. */
+      private final transient Path file;
+
+      /** Offset at which the range begins. */
+      private final long from;
+
+      /** Offset at which the range ends. */
+      private final long limit;
+
+      /**
+       * Constructor accepting range.
+       *
+       * @param newChannel Spill file.
+       * @param newFile Path of spill file.
+       * @param newFrom Offset at which the range begins.
+       * @param newLimit Offset at which the range ends.
+       */
+      private SegmentTask(final FileChannel newChannel, final Path newFile, final long newFrom, final long newLimit)
+      {
+         this.channel = newChannel;
+         this.file = newFile;
+         this.from = newFrom;
+         this.limit = newLimit;
+      }
+
+      @Override
+      protected Segment compute()
+      {
+         try
+         {
+            return decodeFromNextHeader(channel, file, from, limit);
+         }
+         catch (IOException | RuntimeException | StackOverflowError exception)
+         {
+            return null;
+         }
+      }
+   }
+
+   /**
+    * Scans one directory, forking tasks for its subdirectories and for
+    * batches of its files.
+    */
+   private static final class DirectoryTask extends RecursiveTask<ScanAccumulator>
+   {
+      /** Directory to be scanned. */
+      private final transient Path directory;
+
+      /**
+       * Constructor accepting directory.
+       *
+       * @param newDirectory Directory to be scanned.
+       */
+      private DirectoryTask(final Path newDirectory)
+      {
+         this.directory = newDirectory;
+      }
+
+      @Override
+      protected ScanAccumulator compute()
+      {
+         final ScanAccumulator result = new ScanAccumulator();
+         final List<Path> files = new ArrayList<>();
+         final List<RecursiveTask<ScanAccumulator>> subtasks = new ArrayList<>();
+         try (final DirectoryStream<Path> entries = Files.newDirectoryStream(directory))
+         {
+            for (final Path entry : entries)
+            {
+               try
+               {
+                  final BasicFileAttributes attributes =
+                     Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                  if (attributes.isDirectory())
+                  {
+                     subtasks.add(new DirectoryTask(entry));
+                  }
+                  else if (attributes.isRegularFile())
+                  {
+                     files.add(entry);
+                  }
+               }
+               catch (IOException | RuntimeException exception)
+               {
+                  result.recordFailure(entry, exception);
+               }
+            }
+         }
+         catch (IOException | DirectoryIteratorException exception)
+         {
+            result.recordFailure(directory, exception);
+         }
+         for (int i = 0; i < files.size(); i += FILES_PER_TASK)
+         {
+            subtasks.add(new FileBatchTask(files.subList(i, Math.min(files.size(), i + FILES_PER_TASK))));
+         }
+         for (final RecursiveTask<ScanAccumulator> subtask : ForkJoinTask.invokeAll(subtasks))
+         {
+            result.merge(subtask.join());
+         }
+         return result;
+      }
+   }
+
+   /**
+    * Analyzes a batch of files.
+    */
+   private static final class FileBatchTask extends RecursiveTask<ScanAccumulator>
+   {
+      /** Files to be analyzed. */
+      private final transient List<Path> files;
+
+      /**
+       * Constructor accepting files.
+       *
+       * @param newFiles Files to be analyzed.
+       */
+      private FileBatchTask(final List<Path> newFiles)
+      {
+         this.files = newFiles;
+      }
+
+      @Override
+      protected ScanAccumulator compute()
+      {
+         final ScanAccumulator result = new ScanAccumulator();
+         for (final Path file : files)
+         {
+            scanFile(file, result);
+         }
+         return result;
+      }
+   }
+}
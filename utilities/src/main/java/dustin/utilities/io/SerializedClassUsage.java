@@ -0,0 +1,167 @@
+package dustin.utilities.io;
+
+import java.nio.file.Path;
+
+/**
+ * Occurrences of one version (class name and serialVersionUID) of a
+ * serialized class found by {@link SerializedClassScanner}.
+ */
+public final class SerializedClassUsage
+{
+   /** Fully qualified class name (or interface names of a proxy class). */
+   private final String className;
+
+   /** Serial version UID recorded in the class descriptors. */
+   private final long serialVersionUid;
+
+   /** Number of serialized objects, arrays, and enum constants of exactly this class. */
+   private long instanceCount;
+
+   /** Number of streams in which this class version's descriptor appears. */
+   private long streamCount;
+
+   /** Number of files in which this class version's descriptor appears. */
+   private long fileCount;
+
+   /** One of the files in which this class version appears. */
+   private Path examplePath;
+
+   /**
+    * Constructor accepting class version.
+    *
+    * @param newClassName Fully qualified class name.
+    * @param newSerialVersionUid Serial version UID.
+    */
+   SerializedClassUsage(final String newClassName, final long newSerialVersionUid)
+   {
+      this.className = newClassName;
+      this.serialVersionUid = newSerialVersionUid;
+   }
+
+   /**
+    * Provide fully qualified class name (or comma-separated interface
+    * names of a dynamic proxy class).
+    *
+    * @return Class name.
+    */
+   public String getClassName()
+   {
+      return className;
+   }
+
+   /**
+    * Provide serial version UID.
+    *
+    * @return Serial version UID.
+    */
+   public long getSerialVersionUid()
+   {
+      return serialVersionUid;
+   }
+
+   /**
+    * Provide number of serialized objects, arrays, and enum constants
+    * whose class is exactly this class version.
+    *
+    * @return Number of instances.
+    */
+   public long getInstanceCount()
+   {
+      return instanceCount;
+   }
+
+   /**
+    * Provide number of streams that describe this class version.
+    *
+    * @return Number of streams.
+    */
+   public long getStreamCount()
+   {
+      return streamCount;
+   }
+
+   /**
+    * Provide number of files that describe this class version.
+    *
+    * @return Number of files.
+    */
+   public long getFileCount()
+   {
+      return fileCount;
+   }
+
+   /**
+    * Provide one of the files describing this class version.
+    *
+    * @return Example file.
+    */
+   public Path getExamplePath()
+   {
+      return examplePath;
+   }
+
+   /**
+    * Count one more instance.
+    */
+   void incrementInstances()
+   {
+      instanceCount++;
+   }
+
+   /**
+    * Count one more stream.
+    */
+   void incrementStreams()
+   {
+      streamCount++;
+   }
+
+   /**
+    * Count one more file.
+    *
+    * @param path File describing this class version.
+    */
+   void incrementFiles(final Path path)
+   {
+      fileCount++;
+      if (examplePath == null)
+      {
+         examplePath = path;
+      }
+   }
+
+   /**
+    * Add the counts of the provided usage of the same class version.
+    *
+    * @param other Usage whose counts are added.
+    */
+   void add(final SerializedClassUsage other)
+   {
+      instanceCount += other.instanceCount;
+      streamCount += other.streamCount;
+      fileCount += other.fileCount;
+      if (examplePath == null)
+      {
+         examplePath = other.examplePath;
+      }
+   }
+
+   /**
+    * Provide key identifying the provided class version.
+    *
+    * @param className Fully qualified class name.
+    * @param serialVersionUid Serial version UID.
+    * @return Key identifying class version.
+    */
+   static String keyOf(final String className, final long serialVersionUid)
+   {
+      return className + '#' + serialVersionUid;
+   }
+
+   @Override
+   public String toString()
+   {
+      return String.format("%s (serialVersionUID %d): %d instances in %d streams in %d files",
+         className, serialVersionUid, instanceCount, streamCount, fileCount);
+   }
+}
@@ -0,0 +1,79 @@
+package dustin.utilities.io;
+
+/**
+ * Field of a serializable class as described in a class descriptor of a
+ * Java serialization stream.
+ */
+public final class SerializedField
+{
+   /** Type code such as '{@code I}' (int) or '{@code L}' (object). */
+   private final char typeCode;
+
+   /** Name of field. */
+   private final String name;
+
+   /** JVM type signature of object and array fields or {@code null}. */
+   private final String typeSignature;
+
+   /**
+    * Constructor accepting field details.
+    *
+    * @param newTypeCode Type code of field.
+    * @param newName Name of field.
+    * @param newTypeSignature JVM type signature of object and array
+    *    fields (such as "{@code Ljava/lang/String;}") or {@code null}.
+    */
+   public SerializedField(final char newTypeCode, final String newName, final String newTypeSignature)
+   {
+      this.typeCode = newTypeCode;
+      this.name = newName;
+      this.typeSignature = newTypeSignature;
+   }
+
+   /**
+    * Provide type code.
+    *
+    * @return Type code such as '{@code I}' or '{@code L}'.
+    */
+   public char getTypeCode()
+   {
+      return typeCode;
+   }
+
+   /**
+    * Provide name of field.
+    *
+    * @return Name of field.
+    */
+   public String getName()
+   {
+      return name;
+   }
+
+   /**
+    * Provide JVM type signature of an object or array field.
+    *
+    * @return Type signature or {@code null} for primitive fields (or if
+    *    the signature could not be resolved).
+    */
+   public String getTypeSignature()
+   {
+      return typeSignature;
+   }
+
+   /**
+    * Indicates whether field holds a primitive value.
+    *
+    * @return {@code true} if field is primitive.
+    */
+   public boolean isPrimitive()
+   {
+      return typeCode != 'L' && typeCode != '[';
+   }
+
+   @Override
+   public String toString()
+   {
+      return (typeSignature != null ? typeSignature : String.valueOf(typeCode)) + " " + name;
+   }
+}
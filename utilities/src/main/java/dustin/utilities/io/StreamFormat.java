@@ -0,0 +1,60 @@
+package dustin.utilities.io;
+
+/**
+ * Formats of byte streams that {@link StreamFormatDetector} can identify
+ * from their first bytes.
+ */
+public enum StreamFormat
+{
+   /** Java Object Serialization Stream Protocol (magic {@code ACED}, version 5). */
+   JAVA_SERIALIZATION("Java serialization stream", false),
+   /** Gzip-compressed data (magic {@code 1F8B}, deflate). */
+   GZIP("gzip compressed data", false),
+   /** Zip archive whose first entry marks it as a Java archive. */
+   JAR("Java archive (JAR)", false),
+   /** Zip archive (magic {@code PK}). */
+   ZIP("zip archive", false),
+   /** Java class file (magic {@code CAFEBABE} with a class file major version). */
+   CLASS_FILE("Java class file", false),
+   /** Kryo stream beginning with an unregistered class written by name. */
+   KRYO("Kryo stream (class written by name)", true),
+   /** Bytes that parse as a sequence of well-formed Protocol Buffers fields. */
+   PROTOBUF("Protocol Buffers message", true),
+   /** Format could not be identified. */
+   UNKNOWN("unknown format", false);
+
+   /** Description of format. */
+   private final String description;
+
+   /** Whether format is inferred from structure rather than a magic number. */
+   private final boolean heuristic;
+
+   StreamFormat(final String newDescription, final boolean newHeuristic)
+   {
+      this.description = newDescription;
+      this.heuristic = newHeuristic;
+   }
+
+   /**
+    * Provide description of format.
+    *
+    * @return Description of format.
+    */
+   public String getDescription()
+   {
+      return description;
+   }
+
+   /**
+    * Indicates whether this format is inferred from the structure of the
+    * first bytes rather than from a magic number, in which case the
+    * identification may be wrong and the handler should be prepared to
+    * fail.
+    *
+    * @return {@code true} if format is identified heuristically.
+    */
+   public boolean isHeuristic()
+   {
+      return heuristic;
+   }
+}
@@ -0,0 +1,406 @@
+package dustin.utilities.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Identifies the {@link StreamFormat} of a payload from its first bytes
+ * without consuming it: files are read with positional reads (which leave
+ * the channel's position unchanged) into a small direct buffer, and
+ * streams are peeked with {@link InputStream#mark(int)} and
+ * {@link InputStream#reset()}.
+ *
+ * Formats with a magic number are identified exactly. Kryo (which has no
+ * magic number) is recognized when the payload begins with a class
+ * written by name, and Protocol Buffers (which has no magic number
+ * either) when the first bytes parse as a sequence of well-formed fields;
+ * both are reported as {@link StreamFormat#isHeuristic() heuristic}.
+ */
+public final class StreamFormatDetector
+{
+   /** Number of leading bytes examined. */
+   public static final int PEEK_SIZE = 64;
+
+   /** Smallest class file major version (JDK 1.0.2). */
+   private static final int MINIMUM_CLASS_FILE_MAJOR_VERSION = 45;
+
+   /** Zip extra field header identifying a JAR file. */
+   private static final int JAR_MAGIC_EXTRA_FIELD = 0xCAFE;
+
+   /** Name of the directory that conventionally begins a JAR file. */
+   private static final byte[] META_INF = "META-INF/".getBytes(StandardCharsets.US_ASCII);
+
+   /** Reused direct buffer into which each thread reads a file's first bytes. */
+   private static final ThreadLocal<ByteBuffer> PEEK_BUFFER =
+      ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(PEEK_SIZE));
+
+   /** Varint result indicating the varint continues beyond the examined bytes. */
+   private static final int VARINT_TRUNCATED = -1;
+
+   /** Varint result indicating the varint is longer than ten bytes. */
+   private static final int VARINT_MALFORMED = -2;
+
+   private StreamFormatDetector()
+   {
+   }
+
+   /**
+    * Identify the format of the provided file from its first bytes.
+    *
+    * @param file File whose format is to be identified.
+    * @return Format of file.
+    * @throws IOException Thrown if unable to read the file.
+    */
+   public static StreamFormat detect(final Path file) throws IOException
+   {
+      try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+      {
+         return detect(channel, 0L);
+      }
+   }
+
+   /**
+    * Identify the format of the content of the provided file beginning at
+    * the provided offset, without changing the channel's position.
+    *
+    * @param channel File whose format is to be identified.
+    * @param offset Offset at which the content begins.
+    * @return Format of content.
+    * @throws IOException Thrown if unable to read the file.
+    */
+   public static StreamFormat detect(final FileChannel channel, final long offset) throws IOException
+   {
+      final ByteBuffer peek = PEEK_BUFFER.get();
+      peek.clear();
+      while (peek.hasRemaining() && channel.read(peek, offset + peek.position()) > 0)
+      {
+         // keep reading until the buffer is full or the end of file is reached
+      }
+      peek.flip();
+      return detect(peek, channel.size() - offset <= peek.remaining());
+   }
+
+   /**
+    * Identify the format of the provided stream from its first bytes and
+    * reset the stream so that those bytes are read again by its handler.
+    *
+    * @param stream Stream supporting mark and reset (such as a
+    *    {@link java.io.BufferedInputStream}).
+    * @return Format of stream.
+    * @throws IOException Thrown if unable to read or reset the stream.
+    * @throws IllegalArgumentException Thrown if the stream does not
+    *    support mark and reset.
+    */
+   public static StreamFormat detect(final InputStream stream) throws IOException
+   {
+      if (!stream.markSupported())
+      {
+         throw new IllegalArgumentException(
+            "Stream of type " + stream.getClass().getName() + " does not support mark and reset;"
+               + " wrap it in a BufferedInputStream.");
+      }
+      final byte[] peek = new byte[PEEK_SIZE];
+      stream.mark(PEEK_SIZE);
+      int filled = 0;
+      int read = 0;
+      try
+      {
+         while (filled < PEEK_SIZE && (read = stream.read(peek, filled, PEEK_SIZE - filled)) >= 0)
+         {
+            filled += read;
+         }
+      }
+      finally
+      {
+         stream.reset();
+      }
+      return detect(ByteBuffer.wrap(peek, 0, filled), read < 0);
+   }
+
+   /**
+    * Identify the format of the payload held in the remaining bytes of
+    * the provided buffer, whose position is not changed.
+    *
+    * @param payload Buffer holding the entire payload.
+    * @return Format of payload.
+    */
+   public static StreamFormat detect(final ByteBuffer payload)
+   {
+      return detect(payload, true);
+   }
+
+   /**
+    * Identify the format of the payload held in the provided range of the
+    * provided array.
+    *
+    * @param payload Array holding the entire payload.
+    * @param offset Index of first byte of payload.
+    * @param length Number of bytes in payload.
+    * @return Format of payload.
+    */
+   public static StreamFormat detect(final byte[] payload, final int offset, final int length)
+   {
+      return detect(ByteBuffer.wrap(payload, offset, length), true);
+   }
+
+   /**
+    * Identify the format of a payload from its leading bytes.
+    *
+    * @param leading Buffer holding the payload's leading bytes from its
+    *    position to its limit (not changed).
+    * @param complete Whether the buffer holds the entire payload.
+    * @return Format of payload.
+    */
+   private static StreamFormat detect(final ByteBuffer leading, final boolean complete)
+   {
+      final int start = leading.position();
+      final int length = leading.remaining();
+      if (length >= 4)
+      {
+         final int magic = (leading.get(start) & 0xFF) << 24 | (leading.get(start + 1) & 0xFF) << 16
+            | (leading.get(start + 2) & 0xFF) << 8 | leading.get(start + 3) & 0xFF;
+         if (magic == 0xACED0005)
+         {
+            return StreamFormat.JAVA_SERIALIZATION;
+         }
+         if (magic == 0xCAFEBABE)
+         {
+            if (length >= 8
+               && ((leading.get(start + 6) & 0xFF) << 8 | leading.get(start + 7) & 0xFF) >= MINIMUM_CLASS_FILE_MAJOR_VERSION)
+            {
+               return StreamFormat.CLASS_FILE;
+            }
+         }
+         else if (magic == 0x504B0304)
+         {
+            return isJar(leading, start, length) ? StreamFormat.JAR : StreamFormat.ZIP;
+         }
+         else if (magic == 0x504B0506 || magic == 0x504B0708)
+         {
+            return StreamFormat.ZIP;
+         }
+      }
+      if (length >= 3 && (leading.get(start) & 0xFF) == 0x1F && (leading.get(start + 1) & 0xFF) == 0x8B
+         && leading.get(start + 2) == 8)
+      {
+         return StreamFormat.GZIP;
+      }
+      if (isKryoClassName(leading, start, length, complete))
+      {
+         return StreamFormat.KRYO;
+      }
+      if (isProtobuf(leading, start, length, complete))
+      {
+         return StreamFormat.PROTOBUF;
+      }
+      return StreamFormat.UNKNOWN;
+   }
+
+   /**
+    * Indicates whether the zip local file header at the provided index
+    * describes the first entry of a JAR: either the {@code META-INF/}
+    * directory or an entry carrying the JAR extra field.
+    *
+    * @param leading Leading bytes.
+    * @param start Index of local file header.
+    * @param length Number of leading bytes.
+    * @return {@code true} if zip archive is a JAR.
+    */
+   private static boolean isJar(final ByteBuffer leading, final int start, final int length)
+   {
+      if (length < 30)
+      {
+         return false;
+      }
+      final int nameLength = leading.get(start + 26) & 0xFF | (leading.get(start + 27) & 0xFF) << 8;
+      final int extraLength = leading.get(start + 28) & 0xFF | (leading.get(start + 29) & 0xFF) << 8;
+      final int nameStart = start + 30;
+      if (nameLength >= META_INF.length && length - 30 >= META_INF.length)
+      {
+         boolean metaInf = true;
+         for (int i = 0; i < META_INF.length && metaInf; i++)
+         {
+            metaInf = leading.get(nameStart + i) == META_INF[i];
+         }
+         if (metaInf)
+         {
+            return true;
+         }
+      }
+      final int extraStart = nameStart + nameLength;
+      return extraLength >= 4 && extraStart + 2 <= start + length
+         && (leading.get(extraStart) & 0xFF | (leading.get(extraStart + 1) & 0xFF) << 8) == JAR_MAGIC_EXTRA_FIELD;
+   }
+
+   /**
+    * Indicates whether the leading bytes are Kryo's encoding of an
+    * unregistered class written by name ahead of the first object: the
+    * class marker {@code 0x01}, name identifier {@code 0x00}, and then a
+    * class name in Kryo's ASCII encoding (the last character's high bit
+    * set).
+    *
+    * @param leading Leading bytes.
+    * @param start Index of first byte.
+    * @param length Number of leading bytes.
+    * @param complete Whether the leading bytes are the entire payload.
+    * @return {@code true} if bytes appear to be a Kryo stream.
+    */
+   private static boolean isKryoClassName(
+      final ByteBuffer leading, final int start, final int length, final boolean complete)
+   {
+      if (length < 4 || leading.get(start) != 1 || leading.get(start + 1) != 0
+         || !Character.isJavaIdentifierStart(leading.get(start + 2) & 0x7F))
+      {
+         return false;
+      }
+      for (int i = start + 2; i < start + length; i++)
+      {
+         final int encoded = leading.get(i) & 0xFF;
+         final int character = encoded & 0x7F;
+         if (!(Character.isJavaIdentifierPart(character) || character == '.') || Character.isISOControl(character))
+         {
+            return false;
+         }
+         if (encoded != character)
+         {
+            return i > start + 2;
+         }
+      }
+      return !complete;
+   }
+
+   /**
+    * Indicates whether the leading bytes parse as a sequence of
+    * well-formed Protocol Buffers fields: valid field numbers, wire types
+    * other than the deprecated groups, and varints and lengths that fit
+    * (the last field may continue beyond the leading bytes unless they
+    * are the entire payload).
+    *
+    * @param leading Leading bytes.
+    * @param start Index of first byte.
+    * @param length Number of leading bytes.
+    * @param complete Whether the leading bytes are the entire payload.
+    * @return {@code true} if bytes appear to be a Protocol Buffers message.
+    */
+   private static boolean isProtobuf(
+      final ByteBuffer leading, final int start, final int length, final boolean complete)
+   {
+      if (length < 2)
+      {
+         return false;
+      }
+      final int end = start + length;
+      int index = start;
+      int fieldCount = 0;
+      while (index < end)
+      {
+         final int tagEnd = varintEnd(leading, index, end);
+         if (tagEnd < 0)
+         {
+            return tagEnd == VARINT_TRUNCATED && !complete && fieldCount > 0;
+         }
+         final long tag = varintValue(leading, index, tagEnd);
+         final long fieldNumber = tag >>> 3;
+         if (fieldNumber == 0 || fieldNumber > 0x1FFFFFFFL)
+         {
+            return false;
+         }
+         index = tagEnd;
+         final long valueEnd;
+         switch ((int) (tag & 7))
+         {
+            case 0:
+            {
+               final int varint = varintEnd(leading, index, end);
+               valueEnd = varint == VARINT_TRUNCATED ? Long.MAX_VALUE : varint;
+               break;
+            }
+            case 1:
+               valueEnd = (long) index + 8;
+               break;
+            case 2:
+            {
+               final int lengthEnd = varintEnd(leading, index, end);
+               if (lengthEnd == VARINT_TRUNCATED)
+               {
+                  valueEnd = Long.MAX_VALUE;
+               }
+               else if (lengthEnd < 0)
+               {
+                  valueEnd = -1;
+               }
+               else
+               {
+                  final long valueLength = varintValue(leading, index, lengthEnd);
+                  valueEnd = valueLength > Integer.MAX_VALUE ? -1 : lengthEnd + valueLength;
+               }
+               break;
+            }
+            case 5:
+               valueEnd = (long) index + 4;
+               break;
+            default:
+               return false;
+         }
+         if (valueEnd < 0)
+         {
+            return false;
+         }
+         fieldCount++;
+         if (valueEnd > end)
+         {
+            return !complete;
+         }
+         index = (int) valueEnd;
+      }
+      return true;
+   }
+
+   /**
+    * Provide index following the varint beginning at the provided index.
+    *
+    * @param leading Leading bytes.
+    * @param index Index of varint's first byte.
+    * @param end Index following the last leading byte.
+    * @return Index following varint, {@link #VARINT_TRUNCATED}, or
+    *    {@link #VARINT_MALFORMED}.
+    */
+   private static int varintEnd(final ByteBuffer leading, final int index, final int end)
+   {
+      for (int i = index; i < index + 10; i++)
+      {
+         if (i >= end)
+         {
+            return VARINT_TRUNCATED;
+         }
+         if ((leading.get(i) & 0x80) == 0)
+         {
+            return i + 1;
+         }
+      }
+      return VARINT_MALFORMED;
+   }
+
+   /**
+    * Provide value of the complete varint occupying the provided range.
+    *
+    * @param leading Leading bytes.
+    * @param index Index of varint's first byte.
+    * @param end Index following varint's last byte.
+    * @return Value of varint.
+    */
+   private static long varintValue(final ByteBuffer leading, final int index, final int end)
+   {
+      long value = 0;
+      for (int i = index, shift = 0; i < end; i++, shift += 7)
+      {
+         value |= (long) (leading.get(i) & 0x7F) << shift;
+      }
+      return value;
+   }
+}
@@ -0,0 +1,178 @@
+package dustin.utilities.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static java.lang.System.out;
+
+/**
+ * Process Java serialized file header strings.
+ *
+ * @see StreamFormatDetector
+ */
+public class StreamHeaderAnalyzer
+{
+   /** Separator between the hexadecimal, decimal, and "ASCII" representations. */
+   private static final String SEPARATOR = " ==> ";
+
+   /**
+    * Convert provided hex string input to a string representation of
+    * the corresponding "ASCII" text and corresponding decimal integer
+    * values. This method assumes that the provided hexadecimal string
+    * has an even number of characters, with each pair of hexadecimal
+    * characters (single hex character represents one byte [8 bits] and
+    * pair of hexadecimal characters represents two bytes [16 bits],
+    * which is what represents a single Java character) potentially
+    * representing a single "ASCII" character.
+    *
+    * For additional background details, see
+    * https://docs.oracle.com/javase/tutorial/java/nutsandbolts/datatypes.html
+    * and
+    * http://www.asciitable.com/
+    *
+    * @param hexInput Hexadecimal String representation (even number of
+    *    hexadecimal characters should be provided and should not be
+    *    {@code null} or empty).
+    * @return "ASCII" characters and decimal integers corresponding to the
+    *    provided hexadecimal in format
+    *    "{@code XXXXXXXX ==> nnn nnn nnn nnn ==> xxxx}"
+    *    where "{@code XXXXXXXX}" represents the provided hexadecimal
+    *    characters, "{@code nnn}" represents the three-digit decimal
+    *    integer corresponding to each pair of hexadecimal characters,
+    *    and "{@code x}" represents an "ASCII" character corresponding to
+    *    each hexadecimal character. The example provided here assumes 8
+    *    hexadecimal characters provided, but any even number of hexadecimal
+    *    characters will be processed with the returned string having half
+    *    that number of "ASCII" characters and half that number of
+    *    three-digit decimal integers. Note that non-ASCII characters will
+    *    be returned, but may not be presented in a meaningful way if
+    *    outside of the range of 0x20 (decimal integer 32) through 0x7E
+    *    (decimal integer 126).
+    * @throws NumberFormatException Thrown if the provided string is empty,
+    *    has an odd number of characters, or contains a character that is
+    *    not a hexadecimal digit.
+    */
+   public static String hexToAscii(final String hexInput)
+   {
+      final int length = hexInput.length();
+      if (length == 0 || length % 2 != 0)
+      {
+         throw new NumberFormatException(
+            "Hexadecimal input must have a positive, even number of characters; has " + length);
+      }
+      final int byteCount = length / 2;
+      final char[] result = new char[length + SEPARATOR.length() + byteCount * 4 - 1 + SEPARATOR.length() + byteCount];
+      hexInput.getChars(0, length, result, 0);
+      SEPARATOR.getChars(0, SEPARATOR.length(), result, length);
+      int integerPosition = length + SEPARATOR.length();
+      int asciiPosition = integerPosition + byteCount * 4 - 1 + SEPARATOR.length();
+      SEPARATOR.getChars(0, SEPARATOR.length(), result, asciiPosition - SEPARATOR.length());
+      for (int i = 0; i < length; i+=2)
+      {
+         final int integer = (HexDumpFormatter.hexValue(hexInput.charAt(i)) << 4)
+            | HexDumpFormatter.hexValue(hexInput.charAt(i+1));
+         if (i > 0)
+         {
+            result[integerPosition++] = ' ';
+         }
+         result[integerPosition++] = HexDumpFormatter.DECIMAL_DIGITS[integer * 3];
+         result[integerPosition++] = HexDumpFormatter.DECIMAL_DIGITS[integer * 3 + 1];
+         result[integerPosition++] = HexDumpFormatter.DECIMAL_DIGITS[integer * 3 + 2];
+         result[asciiPosition++] = (char)integer;
+      }
+      return new String(result);
+   }
+
+   /**
+    * Executable function that accepts a single hexadecimal string
+    * and writes the ASCII equivalent of that hexadecimal string
+    * and integer decimal equivalent of that hexadecimal string to
+    * standard output. Alternatively, when the first argument is
+    * "{@code -dump}", writes an {@code xxd}-style dump of the file
+    * named by the second argument to standard output. When the first
+    * argument is "{@code -scan}", writes a summary of the serialized
+    * classes found in the directory tree or spill file named by the
+    * second argument to standard output. When the first argument is
+    * "{@code -detect}", writes the format of each file named by the
+    * remaining arguments to standard output.
+    *
+    * @param arguments Command-line arguments: single hexadecimal
+    *    string, "{@code -dump}" or "{@code -scan}" followed by a path,
+    *    or "{@code -detect}" followed by paths, is expected.
+    */
+   public static void main(String[] arguments)
+   {
+      if (arguments.length < 1)
+      {
+         out.println("\nERROR: Specify 'invalid header' hexadecimal string as argument.\n");
+         System.exit(-1);
+      }
+
+      if ("-dump".equals(arguments[0]))
+      {
+         if (arguments.length < 2)
+         {
+            out.println("\nERROR: Specify path of file to dump after -dump.\n");
+            System.exit(-1);
+         }
+         try (final InputStream input = Files.newInputStream(Paths.get(arguments[1])))
+         {
+            final Writer writer = new OutputStreamWriter(out, StandardCharsets.US_ASCII);
+            new HexDumpFormatter().dump(input, writer);
+            writer.flush();
+         }
+         catch (IOException ioException)
+         {
+            out.println("\nERROR: Unable to dump " + arguments[1] + " - " + ioException + "\n");
+            System.exit(-1);
+         }
+         return;
+      }
+
+      if ("-detect".equals(arguments[0]))
+      {
+         for (int i = 1; i < arguments.length; i++)
+         {
+            try
+            {
+               out.println(arguments[i] + ": " + StreamFormatDetector.detect(Paths.get(arguments[i])).getDescription());
+            }
+            catch (IOException ioException)
+            {
+               out.println(arguments[i] + ": ERROR - " + ioException);
+            }
+         }
+         return;
+      }
+
+      if ("-scan".equals(arguments[0]))
+      {
+         if (arguments.length < 2)
+         {
+            out.println("\nERROR: Specify directory or spill file to scan after -scan.\n");
+            System.exit(-1);
+         }
+         final Path path = Paths.get(arguments[1]);
+         try
+         {
+            final SerializedClassScanner scanner = new SerializedClassScanner();
+            out.print(Files.isDirectory(path) ? scanner.scanDirectory(path) : scanner.scanSpillFile(path));
+         }
+         catch (IOException ioException)
+         {
+            out.println("\nERROR: Unable to scan " + arguments[1] + " - " + ioException + "\n");
+            System.exit(-1);
+         }
+         return;
+      }
+
+      final String hexInput = arguments[0];
+      out.println(hexToAscii(hexInput));
+   }
+}
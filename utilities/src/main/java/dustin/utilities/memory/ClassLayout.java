@@ -0,0 +1,376 @@
+package dustin.utilities.memory;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Heap layout of instances of one class: their size and where their
+ * reference fields are, as used by {@link ObjectFootprintEstimator}.
+ *
+ * Field offsets, array base offsets, and reference size are read from
+ * {@code sun.misc.Unsafe} (through method handles, so no compile-time
+ * dependency) when it is available, giving the layout the JVM actually
+ * chose. Otherwise (and for classes such as records whose offsets
+ * {@code Unsafe} refuses to report) sizes are estimated from the
+ * {@code UseCompressedOops}, {@code UseCompressedClassPointers}, and
+ * {@code ObjectAlignmentInBytes} VM options and fields are read by
+ * reflection where accessible.
+ */
+final class ClassLayout
+{
+   /** Object alignment in bytes. */
+   private static final int OBJECT_ALIGNMENT;
+
+   /** Size in bytes of a reference. */
+   static final int REFERENCE_SIZE;
+
+   /** Size in bytes of an object header. */
+   private static final int OBJECT_HEADER_SIZE;
+
+   /** Offset of the first element of an array when not reported by Unsafe. */
+   private static final int ARRAY_BASE_OFFSET;
+
+   /** Unsafe.objectFieldOffset(Field) bound to the Unsafe instance, or {@code null}. */
+   private static final MethodHandle OBJECT_FIELD_OFFSET;
+
+   /** Unsafe.getObject(Object, long) bound to the Unsafe instance, or {@code null}. */
+   private static final MethodHandle GET_OBJECT;
+
+   /** Unsafe.arrayBaseOffset(Class) bound to the Unsafe instance, or {@code null}. */
+   private static final MethodHandle UNSAFE_ARRAY_BASE_OFFSET;
+
+   static
+   {
+      boolean compressedOops = true;
+      boolean compressedClassPointers = true;
+      int alignment = 8;
+      try
+      {
+         final HotSpotDiagnosticMXBean hotSpotDiagnostic =
+            ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+         compressedOops = Boolean.parseBoolean(hotSpotDiagnostic.getVMOption("UseCompressedOops").getValue());
+         compressedClassPointers =
+            Boolean.parseBoolean(hotSpotDiagnostic.getVMOption("UseCompressedClassPointers").getValue());
+         alignment = Integer.parseInt(hotSpotDiagnostic.getVMOption("ObjectAlignmentInBytes").getValue());
+      }
+      catch (RuntimeException exception)
+      {
+         // not HotSpot (or option missing): assume typical 64-bit defaults
+      }
+      OBJECT_ALIGNMENT = alignment;
+      REFERENCE_SIZE = compressedOops ? 4 : 8;
+      OBJECT_HEADER_SIZE = compressedClassPointers ? 12 : 16;
+      ARRAY_BASE_OFFSET = compressedClassPointers ? 16 : 24;
+
+      MethodHandle objectFieldOffset = null;
+      MethodHandle getObject = null;
+      MethodHandle arrayBaseOffset = null;
+      try
+      {
+         final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+         final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+         theUnsafe.setAccessible(true);
+         final Object unsafe = theUnsafe.get(null);
+         final MethodHandles.Lookup lookup = MethodHandles.lookup();
+         objectFieldOffset = lookup.findVirtual(unsafeClass, "objectFieldOffset",
+            MethodType.methodType(long.class, Field.class)).bindTo(unsafe);
+         getObject = lookup.findVirtual(unsafeClass, "getObject",
+            MethodType.methodType(Object.class, Object.class, long.class)).bindTo(unsafe);
+         arrayBaseOffset = lookup.findVirtual(unsafeClass, "arrayBaseOffset",
+            MethodType.methodType(int.class, Class.class)).bindTo(unsafe);
+      }
+      catch (ReflectiveOperationException | RuntimeException exception)
+      {
+         objectFieldOffset = null;
+         getObject = null;
+         arrayBaseOffset = null;
+      }
+      OBJECT_FIELD_OFFSET = objectFieldOffset;
+      GET_OBJECT = getObject;
+      UNSAFE_ARRAY_BASE_OFFSET = arrayBaseOffset;
+   }
+
+   /** Size of each instance (non-array classes only). */
+   private final long instanceSize;
+
+   /** Offset of first array element (array classes only). */
+   private final int arrayBase;
+
+   /** Size of each array element (array classes only; zero otherwise). */
+   private final int elementSize;
+
+   /** Whether class is an array of references. */
+   private final boolean referenceArray;
+
+   /** Offsets of reference fields read through Unsafe. */
+   private final long[] referenceOffsets;
+
+   /** Reference fields read through reflection. */
+   private final Field[] referenceFields;
+
+   /** Number of reference fields that can be read neither way. */
+   private final int inaccessibleFieldCount;
+
+   /**
+    * Constructor accepting computed layout.
+    *
+    * @param newInstanceSize Size of each instance.
+    * @param newArrayBase Offset of first array element.
+    * @param newElementSize Size of each array element.
+    * @param newReferenceArray Whether class is an array of references.
+    * @param newReferenceOffsets Offsets of reference fields read through Unsafe.
+    * @param newReferenceFields Reference fields read through reflection.
+    * @param newInaccessibleFieldCount Number of unreadable reference fields.
+    */
+   private ClassLayout(
+      final long newInstanceSize, final int newArrayBase, final int newElementSize,
+      final boolean newReferenceArray, final long[] newReferenceOffsets,
+      final Field[] newReferenceFields, final int newInaccessibleFieldCount)
+   {
+      this.instanceSize = newInstanceSize;
+      this.arrayBase = newArrayBase;
+      this.elementSize = newElementSize;
+      this.referenceArray = newReferenceArray;
+      this.referenceOffsets = newReferenceOffsets;
+      this.referenceFields = newReferenceFields;
+      this.inaccessibleFieldCount = newInaccessibleFieldCount;
+   }
+
+   /**
+    * Compute layout of the provided class.
+    *
+    * @param type Class whose layout is computed.
+    * @return Layout of class.
+    */
+   static ClassLayout of(final Class<?> type)
+   {
+      if (type.isArray())
+      {
+         final Class<?> component = type.getComponentType();
+         int base = ARRAY_BASE_OFFSET;
+         if (UNSAFE_ARRAY_BASE_OFFSET != null)
+         {
+            try
+            {
+               base = (int) UNSAFE_ARRAY_BASE_OFFSET.invokeExact((Class<?>) type);
+            }
+            catch (Throwable throwable)
+            {
+               base = ARRAY_BASE_OFFSET;
+            }
+         }
+         return new ClassLayout(0, base, sizeOfType(component), !component.isPrimitive(), null, new Field[0], 0);
+      }
+
+      final List<Field> instanceFields = new ArrayList<>();
+      for (Class<?> current = type; current != null; current = current.getSuperclass())
+      {
+         for (final Field field : current.getDeclaredFields())
+         {
+            if (!Modifier.isStatic(field.getModifiers()))
+            {
+               instanceFields.add(field);
+            }
+         }
+      }
+
+      final long[] offsets = offsetsOf(instanceFields);
+      long end = OBJECT_HEADER_SIZE;
+      int referenceCount = 0;
+      for (int i = 0; i < instanceFields.size(); i++)
+      {
+         final Class<?> fieldType = instanceFields.get(i).getType();
+         end = offsets != null
+            ? Math.max(end, offsets[i] + sizeOfType(fieldType))
+            : end + sizeOfType(fieldType);
+         if (!fieldType.isPrimitive())
+         {
+            referenceCount++;
+         }
+      }
+
+      final long[] referenceOffsets = offsets != null ? new long[referenceCount] : null;
+      final List<Field> readableFields = new ArrayList<>();
+      int inaccessible = 0;
+      int next = 0;
+      for (int i = 0; i < instanceFields.size(); i++)
+      {
+         final Field field = instanceFields.get(i);
+         if (!field.getType().isPrimitive())
+         {
+            if (referenceOffsets != null)
+            {
+               referenceOffsets[next++] = offsets[i];
+            }
+            else if (field.trySetAccessible())
+            {
+               readableFields.add(field);
+            }
+            else
+            {
+               inaccessible++;
+            }
+         }
+      }
+      return new ClassLayout(align(end), 0, 0, false, referenceOffsets,
+         readableFields.toArray(new Field[0]), inaccessible);
+   }
+
+   /**
+    * Provide size of the provided instance of this layout's class.
+    *
+    * @param instance Instance of this layout's class.
+    * @return Size in bytes.
+    */
+   long sizeOf(final Object instance)
+   {
+      return elementSize == 0
+         ? instanceSize
+         : align(arrayBase + (long) Array.getLength(instance) * elementSize);
+   }
+
+   /**
+    * Indicates whether this layout's class is an array of references.
+    *
+    * @return {@code true} if class is an array of references.
+    */
+   boolean isReferenceArray()
+   {
+      return referenceArray;
+   }
+
+   /**
+    * Provide number of reference fields that could not be read.
+    *
+    * @return Number of unreadable reference fields.
+    */
+   int getInaccessibleFieldCount()
+   {
+      return inaccessibleFieldCount;
+   }
+
+   /**
+    * Pass each non-null object referenced by the provided instance's
+    * fields (not array elements) to the provided consumer.
+    *
+    * @param instance Instance of this layout's class.
+    * @param consumer Recipient of referenced objects.
+    */
+   void forEachReference(final Object instance, final Consumer<Object> consumer)
+   {
+      if (referenceOffsets != null)
+      {
+         for (final long offset : referenceOffsets)
+         {
+            final Object referenced;
+            try
+            {
+               referenced = (Object) GET_OBJECT.invokeExact(instance, offset);
+            }
+            catch (Throwable throwable)
+            {
+               throw new IllegalStateException("Unable to read field at offset " + offset, throwable);
+            }
+            if (referenced != null)
+            {
+               consumer.accept(referenced);
+            }
+         }
+      }
+      else
+      {
+         for (final Field field : referenceFields)
+         {
+            final Object referenced;
+            try
+            {
+               referenced = field.get(instance);
+            }
+            catch (IllegalAccessException accessException)
+            {
+               continue;
+            }
+            if (referenced != null)
+            {
+               consumer.accept(referenced);
+            }
+         }
+      }
+   }
+
+   /**
+    * Provide offsets of the provided fields through Unsafe.
+    *
+    * @param fields Instance fields.
+    * @return Offsets or {@code null} if Unsafe is unavailable or refuses
+    *    any of the fields (as for records and hidden classes).
+    */
+   private static long[] offsetsOf(final List<Field> fields)
+   {
+      if (OBJECT_FIELD_OFFSET == null)
+      {
+         return null;
+      }
+      final long[] offsets = new long[fields.size()];
+      try
+      {
+         for (int i = 0; i < offsets.length; i++)
+         {
+            offsets[i] = (long) OBJECT_FIELD_OFFSET.invokeExact(fields.get(i));
+         }
+      }
+      catch (Throwable throwable)
+      {
+         return null;
+      }
+      return offsets;
+   }
+
+   /**
+    * Provide size of a field or array element of the provided type.
+    *
+    * @param type Field or component type.
+    * @return Size in bytes.
+    */
+   private static int sizeOfType(final Class<?> type)
+   {
+      if (type == long.class || type == double.class)
+      {
+         return 8;
+      }
+      if (type == int.class || type == float.class)
+      {
+         return 4;
+      }
+      if (type == short.class || type == char.class)
+      {
+         return 2;
+      }
+      if (type == byte.class || type == boolean.class)
+      {
+         return 1;
+      }
+      return REFERENCE_SIZE;
+   }
+
+   /**
+    * Round the provided size up to the object alignment.
+    *
+    * @param size Unaligned size.
+    * @return Aligned size.
+    */
+   private static long align(final long size)
+   {
+      return (size + OBJECT_ALIGNMENT - 1) / OBJECT_ALIGNMENT * OBJECT_ALIGNMENT;
+   }
+}
@@ -0,0 +1,470 @@
+package dustin.utilities.memory;
+
+import dustin.utilities.exceptions.MemoryBudgetExceededException;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool of reusable direct {@link ByteBuffer}s bounded by a hard budget
+ * expressed in {@link MemoryUnit} terms.
+ *
+ * Requests are rounded up to power-of-two size classes between a minimum
+ * and maximum buffer size; buffers released to the pool are kept on
+ * per-size-class free lists and handed out again instead of allocating
+ * new direct memory. Each free list is split into stripes (selected by
+ * thread) of fixed slots that are claimed and filled with atomic
+ * operations, so acquiring and releasing buffers neither locks nor
+ * allocates. A request finding its own stripe empty takes a buffer from
+ * another stripe before allocating.
+ *
+ * Every byte of direct memory allocated by the pool (whether in use or
+ * waiting on a free list) counts against the budget. When a new buffer
+ * would exceed the budget, idle buffers of other size classes are
+ * discarded to make room; if that is not enough the request fails.
+ * Discarded buffers are freed when the garbage collector next processes
+ * them, so the budget should leave headroom below
+ * {@code -XX:MaxDirectMemorySize}.
+ *
+ * Requests larger than the maximum buffer size are allocated exactly,
+ * counted against the budget, and never pooled.
+ *
+ * Reused buffers are not zeroed. A buffer must be released at most once,
+ * and only the buffer returned by {@link #acquire(int)} (not a slice or
+ * duplicate of it) may be released.
+ */
+public final class DirectBufferPool
+{
+   /** Default smallest buffer size (4 KiB). */
+   public static final int DEFAULT_MINIMUM_BUFFER_SIZE = 4 * 1024;
+
+   /** Default largest pooled buffer size (1 MiB). */
+   public static final int DEFAULT_MAXIMUM_BUFFER_SIZE = 1024 * 1024;
+
+   /** Number of free list slots in each stripe of each size class. */
+   private static final int SLOTS_PER_STRIPE = 16;
+
+   /** Maximum number of bytes of direct memory allocated by this pool. */
+   private final long budgetBytes;
+
+   /** Base-two logarithm of the smallest buffer size. */
+   private final int minimumShift;
+
+   /** Largest pooled buffer size. */
+   private final int maximumBufferSize;
+
+   /** Number of size classes. */
+   private final int sizeClassCount;
+
+   /** Number of stripes per size class (a power of two). */
+   private final int stripeCount;
+
+   /** Free list slots ordered by size class, then stripe, then slot. */
+   private final AtomicReferenceArray<ByteBuffer> freeSlots;
+
+   /** Bytes of direct memory currently allocated by this pool. */
+   private final AtomicLong reservedBytes = new AtomicLong();
+
+   /** Bytes of buffers currently acquired and not yet released. */
+   private final LongAdder inUseBytes = new LongAdder();
+
+   /** Number of buffers acquired. */
+   private final LongAdder acquisitions = new LongAdder();
+
+   /** Number of acquisitions satisfied from a free list. */
+   private final LongAdder poolHits = new LongAdder();
+
+   /** Number of direct buffers allocated. */
+   private final LongAdder allocations = new LongAdder();
+
+   /** Number of acquisitions refused for exceeding the budget. */
+   private final LongAdder rejections = new LongAdder();
+
+   /** Number of buffers discarded (free list full, oversized, or evicted). */
+   private final LongAdder discards = new LongAdder();
+
+   /**
+    * Constructor accepting budget and using the default buffer sizes.
+    *
+    * @param newBudget Budget amount.
+    * @param newBudgetUnit Unit of budget amount.
+    */
+   public DirectBufferPool(final long newBudget, final MemoryUnit newBudgetUnit)
+   {
+      this(newBudget, newBudgetUnit, DEFAULT_MINIMUM_BUFFER_SIZE, DEFAULT_MAXIMUM_BUFFER_SIZE);
+   }
+
+   /**
+    * Constructor accepting budget and buffer sizes.
+    *
+    * @param newBudget Budget amount.
+    * @param newBudgetUnit Unit of budget amount.
+    * @param newMinimumBufferSize Smallest buffer size in bytes (a power of two).
+    * @param newMaximumBufferSize Largest pooled buffer size in bytes (a
+    *    power of two no smaller than the minimum).
+    * @throws IllegalArgumentException Thrown if the budget is not
+    *    positive or the buffer sizes are not powers of two in order.
+    */
+   public DirectBufferPool(
+      final long newBudget, final MemoryUnit newBudgetUnit,
+      final int newMinimumBufferSize, final int newMaximumBufferSize)
+   {
+      if (newBudget <= 0
+         || newMinimumBufferSize <= 0 || Integer.bitCount(newMinimumBufferSize) != 1
+         || newMaximumBufferSize < newMinimumBufferSize || Integer.bitCount(newMaximumBufferSize) != 1)
+      {
+         throw new IllegalArgumentException(
+            "Budget (" + newBudget + ") must be positive and buffer sizes (" + newMinimumBufferSize
+               + ", " + newMaximumBufferSize + ") must be ascending powers of two.");
+      }
+      this.budgetBytes = newBudgetUnit.toByteCount(newBudget);
+      this.minimumShift = Integer.numberOfTrailingZeros(newMinimumBufferSize);
+      this.maximumBufferSize = newMaximumBufferSize;
+      this.sizeClassCount = Integer.numberOfTrailingZeros(newMaximumBufferSize) - minimumShift + 1;
+      this.stripeCount = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1) << 1);
+      this.freeSlots = new AtomicReferenceArray<>(sizeClassCount * stripeCount * SLOTS_PER_STRIPE);
+   }
+
+   /**
+    * Acquire a direct buffer with at least the requested capacity, whose
+    * position is zero and whose limit is the requested size.
+    *
+    * @param size Number of bytes required.
+    * @return Direct buffer.
+    * @throws MemoryBudgetExceededException Thrown if the request cannot
+    *    be satisfied within the budget.
+    */
+   public ByteBuffer acquire(final int size)
+   {
+      final ByteBuffer buffer = tryAcquire(size);
+      if (buffer == null)
+      {
+         throw new MemoryBudgetExceededException(
+            "Unable to acquire " + MemoryUnitFormat.format(size) + " direct buffer: "
+               + MemoryUnitFormat.format(reservedBytes.get()) + " of "
+               + MemoryUnitFormat.format(budgetBytes) + " budget already allocated.");
+      }
+      return buffer;
+   }
+
+   /**
+    * Acquire a direct buffer with at least the requested capacity, whose
+    * position is zero and whose limit is the requested size, if that can
+    * be done within the budget.
+    *
+    * @param size Number of bytes required.
+    * @return Direct buffer or {@code null} if the request cannot be
+    *    satisfied within the budget.
+    * @throws IllegalArgumentException Thrown if size is negative.
+    */
+   public ByteBuffer tryAcquire(final int size)
+   {
+      if (size < 0)
+      {
+         throw new IllegalArgumentException("Buffer size must not be negative: " + size);
+      }
+      final int capacity;
+      ByteBuffer buffer = null;
+      if (size > maximumBufferSize)
+      {
+         capacity = size;
+      }
+      else
+      {
+         final int sizeClass = sizeClassOf(size);
+         capacity = 1 << (sizeClass + minimumShift);
+         buffer = poll(sizeClass);
+      }
+      if (buffer != null)
+      {
+         poolHits.increment();
+      }
+      else
+      {
+         if (!reserve(capacity) && !(evict(capacity) && reserve(capacity)))
+         {
+            rejections.increment();
+            return null;
+         }
+         buffer = ByteBuffer.allocateDirect(capacity);
+         allocations.increment();
+      }
+      acquisitions.increment();
+      inUseBytes.add(capacity);
+      buffer.clear().limit(size);
+      return buffer;
+   }
+
+   /**
+    * Return a buffer obtained from {@link #acquire(int)} or
+    * {@link #tryAcquire(int)} to the pool.
+    *
+    * @param buffer Buffer to be returned.
+    * @throws IllegalArgumentException Thrown if the buffer could not have
+    *    been acquired from this pool.
+    */
+   public void release(final ByteBuffer buffer)
+   {
+      final int capacity = buffer.capacity();
+      if (!buffer.isDirect() || buffer.isReadOnly())
+      {
+         throw new IllegalArgumentException("Buffer was not acquired from this pool: " + buffer);
+      }
+      if (capacity > maximumBufferSize)
+      {
+         inUseBytes.add(-capacity);
+         reservedBytes.addAndGet(-capacity);
+         discards.increment();
+         return;
+      }
+      final int sizeClass = sizeClassOf(capacity);
+      if (capacity != 1 << (sizeClass + minimumShift))
+      {
+         throw new IllegalArgumentException("Buffer was not acquired from this pool: " + buffer);
+      }
+      inUseBytes.add(-capacity);
+      if (!offer(sizeClass, buffer))
+      {
+         reservedBytes.addAndGet(-capacity);
+         discards.increment();
+      }
+   }
+
+   /**
+    * Provide maximum number of bytes of direct memory this pool allocates.
+    *
+    * @param unit Unit in which the budget is expressed.
+    * @return Budget (truncated to whole units).
+    */
+   public long getBudget(final MemoryUnit unit)
+   {
+      return unit.convert(budgetBytes, MemoryUnit.BYTES);
+   }
+
+   /**
+    * Provide number of bytes of direct memory currently allocated by this
+    * pool (in use or idle on free lists).
+    *
+    * @return Allocated bytes.
+    */
+   public long getAllocatedBytes()
+   {
+      return reservedBytes.get();
+   }
+
+   /**
+    * Provide number of bytes of buffers currently acquired and not released.
+    *
+    * @return In-use bytes.
+    */
+   public long getInUseBytes()
+   {
+      return inUseBytes.sum();
+   }
+
+   /**
+    * Provide number of bytes of buffers idle on free lists.
+    *
+    * @return Idle bytes (approximate while buffers are being acquired
+    *    and released).
+    */
+   public long getIdleBytes()
+   {
+      return Math.max(0, reservedBytes.get() - inUseBytes.sum());
+   }
+
+   /**
+    * Provide number of buffers acquired.
+    *
+    * @return Number of acquisitions.
+    */
+   public long getAcquisitionCount()
+   {
+      return acquisitions.sum();
+   }
+
+   /**
+    * Provide number of acquisitions satisfied by reusing a pooled buffer.
+    *
+    * @return Number of pool hits.
+    */
+   public long getPoolHitCount()
+   {
+      return poolHits.sum();
+   }
+
+   /**
+    * Provide number of direct buffers allocated.
+    *
+    * @return Number of allocations.
+    */
+   public long getAllocationCount()
+   {
+      return allocations.sum();
+   }
+
+   /**
+    * Provide number of acquisitions refused for exceeding the budget.
+    *
+    * @return Number of rejections.
+    */
+   public long getRejectionCount()
+   {
+      return rejections.sum();
+   }
+
+   /**
+    * Provide number of buffers discarded rather than pooled (because
+    * their free list was full, they were larger than the maximum pooled
+    * size, or they were evicted to make room within the budget).
+    *
+    * @return Number of discards.
+    */
+   public long getDiscardCount()
+   {
+      return discards.sum();
+   }
+
+   @Override
+   public String toString()
+   {
+      final StringBuilder description = new StringBuilder(160).append("DirectBufferPool[allocated ");
+      MemoryUnitFormat.appendBinary(getAllocatedBytes(), description).append(" of ");
+      MemoryUnitFormat.appendBinary(budgetBytes, description).append(", in use ");
+      MemoryUnitFormat.appendBinary(getInUseBytes(), description)
+         .append(", acquisitions ").append(getAcquisitionCount())
+         .append(", hits ").append(getPoolHitCount())
+         .append(", allocations ").append(getAllocationCount())
+         .append(", rejections ").append(getRejectionCount())
+         .append(", discards ").append(getDiscardCount()).append(']');
+      return description.toString();
+   }
+
+   /**
+    * Provide size class of the provided size (at most the maximum size).
+    *
+    * @param size Number of bytes.
+    * @return Index of smallest size class holding the size.
+    */
+   private int sizeClassOf(final int size)
+   {
+      return size <= 1 << minimumShift ? 0 : 32 - Integer.numberOfLeadingZeros(size - 1) - minimumShift;
+   }
+
+   /**
+    * Provide stripe used by the calling thread.
+    *
+    * @return Stripe index.
+    */
+   private int currentStripe()
+   {
+      return (int) (Thread.currentThread().getId() * 0x9E3779B97F4A7C15L >>> 40) & (stripeCount - 1);
+   }
+
+   /**
+    * Take an idle buffer of the provided size class, preferring the
+    * calling thread's stripe.
+    *
+    * @param sizeClass Size class.
+    * @return Idle buffer or {@code null} if none.
+    */
+   private ByteBuffer poll(final int sizeClass)
+   {
+      final int start = currentStripe();
+      for (int i = 0; i < stripeCount; i++)
+      {
+         final int base = (sizeClass * stripeCount + ((start + i) & (stripeCount - 1))) * SLOTS_PER_STRIPE;
+         for (int slot = base; slot < base + SLOTS_PER_STRIPE; slot++)
+         {
+            if (freeSlots.get(slot) != null)
+            {
+               final ByteBuffer buffer = freeSlots.getAndSet(slot, null);
+               if (buffer != null)
+               {
+                  return buffer;
+               }
+            }
+         }
+      }
+      return null;
+   }
+
+   /**
+    * Place an idle buffer of the provided size class in an empty slot,
+    * preferring the calling thread's stripe.
+    *
+    * @param sizeClass Size class.
+    * @param buffer Idle buffer.
+    * @return {@code true} if the buffer was placed; {@code false} if
+    *    every slot of the size class is full.
+    */
+   private boolean offer(final int sizeClass, final ByteBuffer buffer)
+   {
+      final int start = currentStripe();
+      for (int i = 0; i < stripeCount; i++)
+      {
+         final int base = (sizeClass * stripeCount + ((start + i) & (stripeCount - 1))) * SLOTS_PER_STRIPE;
+         for (int slot = base; slot < base + SLOTS_PER_STRIPE; slot++)
+         {
+            if (freeSlots.get(slot) == null && freeSlots.compareAndSet(slot, null, buffer))
+            {
+               return true;
+            }
+         }
+      }
+      return false;
+   }
+
+   /**
+    * Reserve the provided number of bytes of the budget.
+    *
+    * @param bytes Number of bytes to reserve.
+    * @return {@code true} if reserved; {@code false} if the budget would
+    *    be exceeded.
+    */
+   private boolean reserve(final long bytes)
+   {
+      long current;
+      do
+      {
+         current = reservedBytes.get();
+         if (current + bytes > budgetBytes)
+         {
+            return false;
+         }
+      }
+      while (!reservedBytes.compareAndSet(current, current + bytes));
+      return true;
+   }
+
+   /**
+    * Discard idle buffers, largest size classes first, until the provided
+    * number of bytes of the budget is available.
+    *
+    * @param bytes Number of bytes required.
+    * @return {@code true} if enough of the budget is now available.
+    */
+   private boolean evict(final long bytes)
+   {
+      for (int sizeClass = sizeClassCount - 1; sizeClass >= 0; sizeClass--)
+      {
+         final int capacity = 1 << (sizeClass + minimumShift);
+         final int end = (sizeClass + 1) * stripeCount * SLOTS_PER_STRIPE;
+         for (int slot = sizeClass * stripeCount * SLOTS_PER_STRIPE; slot < end; slot++)
+         {
+            if (budgetBytes - reservedBytes.get() >= bytes)
+            {
+               return true;
+            }
+            if (freeSlots.get(slot) != null && freeSlots.getAndSet(slot, null) != null)
+            {
+               reservedBytes.addAndGet(-capacity);
+               discards.increment();
+            }
+         }
+      }
+      return budgetBytes - reservedBytes.get() >= bytes;
+   }
+}
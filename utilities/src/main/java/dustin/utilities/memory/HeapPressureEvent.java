@@ -0,0 +1,144 @@
+package dustin.utilities.memory;
+
+/**
+ * Change in heap pressure of one memory pool published by
+ * {@link HeapPressureMonitor}.
+ */
+public final class HeapPressureEvent
+{
+   /** Name of memory pool whose pressure changed. */
+   private final String poolName;
+
+   /** New pressure level of the pool. */
+   private final HeapPressureLevel level;
+
+   /** Whether the usage was measured just after a garbage collection. */
+   private final boolean afterCollection;
+
+   /** Bytes used in the pool when the change was detected. */
+   private final long usedBytes;
+
+   /** Maximum bytes of the pool or -1 if undefined. */
+   private final long maximumBytes;
+
+   /** Threshold crossed, in bytes. */
+   private final long thresholdBytes;
+
+   /** Time ({@link System#currentTimeMillis()}) at which the change was detected. */
+   private final long timestampMillis;
+
+   /**
+    * Constructor accepting details of the change.
+    *
+    * @param newPoolName Name of memory pool.
+    * @param newLevel New pressure level.
+    * @param newAfterCollection Whether usage was measured just after a collection.
+    * @param newUsedBytes Bytes used in the pool.
+    * @param newMaximumBytes Maximum bytes of the pool or -1 if undefined.
+    * @param newThresholdBytes Threshold crossed, in bytes.
+    * @param newTimestampMillis Time at which the change was detected.
+    */
+   HeapPressureEvent(
+      final String newPoolName, final HeapPressureLevel newLevel, final boolean newAfterCollection,
+      final long newUsedBytes, final long newMaximumBytes, final long newThresholdBytes,
+      final long newTimestampMillis)
+   {
+      this.poolName = newPoolName;
+      this.level = newLevel;
+      this.afterCollection = newAfterCollection;
+      this.usedBytes = newUsedBytes;
+      this.maximumBytes = newMaximumBytes;
+      this.thresholdBytes = newThresholdBytes;
+      this.timestampMillis = newTimestampMillis;
+   }
+
+   /**
+    * Provide name of memory pool whose pressure changed.
+    *
+    * @return Pool name (such as "G1 Old Gen").
+    */
+   public String getPoolName()
+   {
+      return poolName;
+   }
+
+   /**
+    * Provide new pressure level of the pool.
+    *
+    * @return Pressure level.
+    */
+   public HeapPressureLevel getLevel()
+   {
+      return level;
+   }
+
+   /**
+    * Indicates whether the usage was measured just after a garbage
+    * collection, in which case it reflects live data rather than garbage
+    * awaiting collection (a high level after collection is the stronger
+    * signal).
+    *
+    * @return {@code true} if measured after a collection.
+    */
+   public boolean isAfterCollection()
+   {
+      return afterCollection;
+   }
+
+   /**
+    * Provide usage of the pool when the change was detected.
+    *
+    * @param unit Unit in which usage is expressed.
+    * @return Used memory (truncated to whole units).
+    */
+   public long getUsed(final MemoryUnit unit)
+   {
+      return unit.convert(usedBytes, MemoryUnit.BYTES);
+   }
+
+   /**
+    * Provide maximum size of the pool.
+    *
+    * @param unit Unit in which size is expressed.
+    * @return Maximum size (truncated to whole units) or -1 if undefined.
+    */
+   public long getMaximum(final MemoryUnit unit)
+   {
+      return maximumBytes < 0 ? -1 : unit.convert(maximumBytes, MemoryUnit.BYTES);
+   }
+
+   /**
+    * Provide threshold whose crossing caused the change.
+    *
+    * @param unit Unit in which threshold is expressed.
+    * @return Threshold (truncated to whole units).
+    */
+   public long getThreshold(final MemoryUnit unit)
+   {
+      return unit.convert(thresholdBytes, MemoryUnit.BYTES);
+   }
+
+   /**
+    * Provide time at which the change was detected.
+    *
+    * @return Milliseconds since the epoch.
+    */
+   public long getTimestampMillis()
+   {
+      return timestampMillis;
+   }
+
+   @Override
+   public String toString()
+   {
+      final StringBuilder description = new StringBuilder(96)
+         .append(poolName).append(' ').append(level).append(afterCollection ? " after collection: " : ": ");
+      MemoryUnitFormat.appendBinary(usedBytes, description).append(" used");
+      if (maximumBytes >= 0)
+      {
+         MemoryUnitFormat.appendBinary(maximumBytes, description.append(" of "));
+      }
+      MemoryUnitFormat.appendBinary(thresholdBytes, description.append(" (threshold "));
+      return description.append(')').toString();
+   }
+}
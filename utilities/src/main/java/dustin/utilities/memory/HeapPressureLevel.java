@@ -0,0 +1,12 @@
+package dustin.utilities.memory;
+
+/**
+ * Heap pressure reported by {@link HeapPressureMonitor}.
+ */
+public enum HeapPressureLevel
+{
+   /** Heap usage is below the low threshold (or has not reached the high threshold). */
+   LOW,
+   /** Heap usage has reached the high threshold; callers should shed load or shrink. */
+   HIGH
+}
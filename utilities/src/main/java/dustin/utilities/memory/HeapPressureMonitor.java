@@ -0,0 +1,413 @@
+package dustin.utilities.memory;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Publishes {@link HeapPressureEvent}s when tenured heap pools (those heap
+ * pools supporting usage thresholds, such as "G1 Old Gen") cross
+ * configured thresholds, so that caches and batchers can shed load or
+ * shrink before a full collection or {@link OutOfMemoryError}.
+ *
+ * The high threshold is installed as each pool's usage threshold and
+ * collection usage threshold, so the JVM's low-memory detector reports
+ * crossings without any polling; a pool becomes {@link HeapPressureLevel#HIGH}
+ * when either is exceeded. A pool returns to {@link HeapPressureLevel#LOW}
+ * when its usage just after a garbage collection (taken from the
+ * collection notification) falls below the low threshold, giving
+ * hysteresis between the two thresholds. Thresholds are given either as
+ * percentages of each pool's maximum size or as amounts in
+ * {@link MemoryUnit} terms.
+ *
+ * Usage thresholds are JVM-wide settings, so only one monitor (or other
+ * user of those thresholds) should be started at a time; the previous
+ * thresholds are restored by {@link #stop()}. Subscribers are invoked on
+ * the JVM's notification thread and should return quickly.
+ */
+public class HeapPressureMonitor
+{
+   /** High threshold as a fraction of pool maximum, or NaN if given in bytes. */
+   private final double highFraction;
+
+   /** Low threshold as a fraction of pool maximum, or NaN if given in bytes. */
+   private final double lowFraction;
+
+   /** High threshold in bytes (used when fractions are NaN). */
+   private final long highBytes;
+
+   /** Low threshold in bytes (used when fractions are NaN). */
+   private final long lowBytes;
+
+   /** Recipients of pressure changes. */
+   private final List<Consumer<HeapPressureEvent>> subscribers = new CopyOnWriteArrayList<>();
+
+   /** State of each monitored pool keyed by pool name. */
+   private final Map<String, PoolState> pools = new ConcurrentHashMap<>();
+
+   /** Number of monitored pools currently at high pressure. */
+   private final AtomicInteger highPoolCount = new AtomicInteger();
+
+   /** Listener registered for memory threshold notifications. */
+   private final NotificationListener thresholdListener = this::handleThresholdNotification;
+
+   /** Listener registered for garbage collection notifications. */
+   private final NotificationListener collectionListener = this::handleCollectionNotification;
+
+   /** Emitters with which {@link #thresholdListener} is registered. */
+   private final List<NotificationEmitter> thresholdEmitters = new ArrayList<>();
+
+   /** Emitters with which {@link #collectionListener} is registered. */
+   private final List<NotificationEmitter> collectionEmitters = new ArrayList<>();
+
+   /**
+    * Constructor accepting thresholds as percentages of each pool's
+    * maximum size (pools without a defined maximum are not monitored).
+    *
+    * @param highPercentage Usage percentage (such as 85.0) at which
+    *    pressure becomes high.
+    * @param lowPercentage Usage percentage after a collection below which
+    *    pressure becomes low again.
+    * @throws IllegalArgumentException Thrown unless
+    *    0 &lt; low &lt;= high &lt;= 100.
+    */
+   public HeapPressureMonitor(final double highPercentage, final double lowPercentage)
+   {
+      if (!(lowPercentage > 0 && lowPercentage <= highPercentage && highPercentage <= 100))
+      {
+         throw new IllegalArgumentException(
+            "Percentages must satisfy 0 < low (" + lowPercentage + ") <= high (" + highPercentage + ") <= 100.");
+      }
+      this.highFraction = highPercentage / 100.0;
+      this.lowFraction = lowPercentage / 100.0;
+      this.highBytes = 0;
+      this.lowBytes = 0;
+   }
+
+   /**
+    * Constructor accepting thresholds as amounts of memory used in each
+    * monitored pool.
+    *
+    * @param high Amount used at which pressure becomes high.
+    * @param low Amount used after a collection below which pressure
+    *    becomes low again.
+    * @param unit Unit of {@code high} and {@code low}.
+    * @throws IllegalArgumentException Thrown unless 0 &lt; low &lt;= high.
+    */
+   public HeapPressureMonitor(final long high, final long low, final MemoryUnit unit)
+   {
+      if (!(low > 0 && low <= high))
+      {
+         throw new IllegalArgumentException("Thresholds must satisfy 0 < low (" + low + ") <= high (" + high + ").");
+      }
+      this.highFraction = Double.NaN;
+      this.lowFraction = Double.NaN;
+      this.highBytes = unit.toByteCount(high);
+      this.lowBytes = unit.toByteCount(low);
+   }
+
+   /**
+    * Register the provided recipient of pressure changes.
+    *
+    * @param subscriber Recipient of pressure changes.
+    */
+   public void subscribe(final Consumer<HeapPressureEvent> subscriber)
+   {
+      subscribers.add(subscriber);
+   }
+
+   /**
+    * Remove the provided recipient of pressure changes.
+    *
+    * @param subscriber Recipient to be removed.
+    */
+   public void unsubscribe(final Consumer<HeapPressureEvent> subscriber)
+   {
+      subscribers.remove(subscriber);
+   }
+
+   /**
+    * Install thresholds on the tenured heap pools and begin publishing
+    * pressure changes. A pool already above its high threshold is
+    * reported immediately. Thresholds given as amounts that exceed a
+    * pool's maximum size are reduced to that maximum, so the pool is
+    * reported high only when full.
+    */
+   public synchronized void start()
+   {
+      if (!thresholdEmitters.isEmpty())
+      {
+         return;
+      }
+      // determine every pool's thresholds before changing any JVM-wide setting
+      final List<PoolState> selected = new ArrayList<>();
+      for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+      {
+         if (pool.getType() == MemoryType.HEAP && pool.isUsageThresholdSupported())
+         {
+            final long maximum = pool.getUsage().getMax();
+            if (Double.isNaN(highFraction) || maximum >= 0)
+            {
+               long high = Math.max(1, Double.isNaN(highFraction) ? highBytes : (long) (maximum * highFraction));
+               if (maximum >= 0 && high > maximum)
+               {
+                  // a pool cannot accept a threshold beyond its maximum size
+                  high = Math.max(1, maximum);
+               }
+               final long low = Math.min(high, Double.isNaN(lowFraction) ? lowBytes : (long) (maximum * lowFraction));
+               selected.add(new PoolState(pool, high, low));
+            }
+         }
+      }
+
+      for (final PoolState state : selected)
+      {
+         state.pool.setUsageThreshold(state.high);
+         if (state.pool.isCollectionUsageThresholdSupported())
+         {
+            state.pool.setCollectionUsageThreshold(state.high);
+         }
+         pools.put(state.pool.getName(), state);
+      }
+
+      final NotificationEmitter memory = (NotificationEmitter) ManagementFactory.getMemoryMXBean();
+      memory.addNotificationListener(thresholdListener, null, null);
+      thresholdEmitters.add(memory);
+      for (final GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans())
+      {
+         if (collector instanceof NotificationEmitter)
+         {
+            final NotificationEmitter emitter = (NotificationEmitter) collector;
+            emitter.addNotificationListener(collectionListener, null, null);
+            collectionEmitters.add(emitter);
+         }
+      }
+
+      for (final PoolState state : pools.values())
+      {
+         final long used = state.pool.getUsage().getUsed();
+         if (used >= state.high)
+         {
+            transition(state, HeapPressureLevel.HIGH, false, used);
+         }
+      }
+   }
+
+   /**
+    * Stop publishing pressure changes and restore the thresholds that
+    * were installed before {@link #start()}.
+    */
+   public synchronized void stop()
+   {
+      removeListener(thresholdEmitters, thresholdListener);
+      removeListener(collectionEmitters, collectionListener);
+      for (final PoolState state : pools.values())
+      {
+         state.pool.setUsageThreshold(state.previousUsageThreshold);
+         if (state.pool.isCollectionUsageThresholdSupported())
+         {
+            state.pool.setCollectionUsageThreshold(state.previousCollectionUsageThreshold);
+         }
+      }
+      pools.clear();
+      highPoolCount.set(0);
+   }
+
+   /**
+    * Provide current pressure: high if any monitored pool is at high
+    * pressure. This is a single volatile read, suitable for hot paths.
+    *
+    * @return Current pressure level.
+    */
+   public HeapPressureLevel getLevel()
+   {
+      return highPoolCount.get() > 0 ? HeapPressureLevel.HIGH : HeapPressureLevel.LOW;
+   }
+
+   /**
+    * Provide current pressure of the named pool.
+    *
+    * @param poolName Name of monitored pool.
+    * @return Pressure level or {@code null} if the pool is not monitored.
+    */
+   public HeapPressureLevel getLevel(final String poolName)
+   {
+      final PoolState state = pools.get(poolName);
+      return state != null ? state.level.get() : null;
+   }
+
+   /**
+    * Provide names of monitored pools.
+    *
+    * @return Names of pools with installed thresholds (empty before
+    *    {@link #start()}).
+    */
+   public Set<String> getMonitoredPoolNames()
+   {
+      return Collections.unmodifiableSet(pools.keySet());
+   }
+
+   /**
+    * Mark a pool high when the JVM reports a threshold was exceeded.
+    *
+    * @param notification Notification from the memory MXBean.
+    * @param handback Unused.
+    */
+   private void handleThresholdNotification(final Notification notification, final Object handback)
+   {
+      final boolean afterCollection =
+         MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType());
+      if (afterCollection || MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED.equals(notification.getType()))
+      {
+         final MemoryNotificationInfo info = MemoryNotificationInfo.from((CompositeData) notification.getUserData());
+         final PoolState state = pools.get(info.getPoolName());
+         if (state != null)
+         {
+            transition(state, HeapPressureLevel.HIGH, afterCollection, info.getUsage().getUsed());
+         }
+      }
+   }
+
+   /**
+    * Compare each pool's usage after a collection with its thresholds.
+    *
+    * @param notification Notification from a collector.
+    * @param handback Unused.
+    */
+   private void handleCollectionNotification(final Notification notification, final Object handback)
+   {
+      if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType()))
+      {
+         final Map<String, MemoryUsage> usageAfter = GarbageCollectionNotificationInfo
+            .from((CompositeData) notification.getUserData()).getGcInfo().getMemoryUsageAfterGc();
+         for (final PoolState state : pools.values())
+         {
+            final MemoryUsage usage = usageAfter.get(state.pool.getName());
+            if (usage != null && usage.getUsed() < state.low)
+            {
+               transition(state, HeapPressureLevel.LOW, true, usage.getUsed());
+            }
+         }
+      }
+   }
+
+   /**
+    * Change a pool's pressure level and notify subscribers if it differs
+    * from the current level.
+    *
+    * @param state Pool whose level changes.
+    * @param level New level.
+    * @param afterCollection Whether usage was measured after a collection.
+    * @param used Bytes used in the pool.
+    */
+   private void transition(
+      final PoolState state, final HeapPressureLevel level, final boolean afterCollection, final long used)
+   {
+      if (state.level.getAndSet(level) == level)
+      {
+         return;
+      }
+      highPoolCount.addAndGet(level == HeapPressureLevel.HIGH ? 1 : -1);
+      final HeapPressureEvent event = new HeapPressureEvent(
+         state.pool.getName(), level, afterCollection, used, state.pool.getUsage().getMax(),
+         level == HeapPressureLevel.HIGH ? state.high : state.low, System.currentTimeMillis());
+      for (final Consumer<HeapPressureEvent> subscriber : subscribers)
+      {
+         try
+         {
+            subscriber.accept(event);
+         }
+         catch (RuntimeException exception)
+         {
+            // one failing subscriber must not prevent others from being notified
+            final Thread current = Thread.currentThread();
+            current.getUncaughtExceptionHandler().uncaughtException(current, exception);
+         }
+      }
+   }
+
+   /**
+    * Remove the provided listener from each of the provided emitters.
+    *
+    * @param emitters Emitters with which the listener is registered
+    *    (cleared).
+    * @param listener Listener to be removed.
+    */
+   private static void removeListener(final List<NotificationEmitter> emitters, final NotificationListener listener)
+   {
+      for (final NotificationEmitter emitter : emitters)
+      {
+         try
+         {
+            emitter.removeNotificationListener(listener);
+         }
+         catch (ListenerNotFoundException notRegistered)
+         {
+            // already removed; nothing more to do
+         }
+      }
+      emitters.clear();
+   }
+
+   /**
+    * Thresholds and current level of one monitored pool.
+    */
+   private static final class PoolState
+   {
+      /** Monitored pool. */
+      private final MemoryPoolMXBean pool;
+
+      /** High threshold in bytes. */
+      private final long high;
+
+      /** Low threshold in bytes. */
+      private final long low;
+
+      /** Usage threshold installed before monitoring began. */
+      private final long previousUsageThreshold;
+
+      /** Collection usage threshold installed before monitoring began. */
+      private final long previousCollectionUsageThreshold;
+
+      /** Current pressure level. */
+      private final AtomicReference<HeapPressureLevel> level = new AtomicReference<>(HeapPressureLevel.LOW);
+
+      /**
+       * Constructor accepting pool and thresholds, recording the pool's
+       * existing thresholds.
+       *
+       * @param newPool Monitored pool.
+       * @param newHigh High threshold in bytes.
+       * @param newLow Low threshold in bytes.
+       */
+      private PoolState(final MemoryPoolMXBean newPool, final long newHigh, final long newLow)
+      {
+         this.pool = newPool;
+         this.high = newHigh;
+         this.low = newLow;
+         this.previousUsageThreshold = newPool.getUsageThreshold();
+         this.previousCollectionUsageThreshold =
+            newPool.isCollectionUsageThresholdSupported() ? newPool.getCollectionUsageThreshold() : 0;
+      }
+   }
+}
@@ -0,0 +1,91 @@
+package dustin.utilities.memory;
+
+/**
+ * Set of objects compared by identity, stored in a single open-addressing
+ * array (one reference per slot, no entry objects) so that tracking the
+ * objects of large graphs costs about two references per object.
+ *
+ * Not thread-safe.
+ */
+final class IdentitySet
+{
+   /** Initial number of slots (a power of two). */
+   private static final int INITIAL_CAPACITY = 1024;
+
+   /** Slots holding members or {@code null}. */
+   private Object[] slots = new Object[INITIAL_CAPACITY];
+
+   /** Number of members. */
+   private int size;
+
+   /**
+    * Add the provided object unless it is already a member.
+    *
+    * @param object Object to be added (not {@code null}).
+    * @return {@code true} if the object was added; {@code false} if it
+    *    was already a member.
+    */
+   boolean add(final Object object)
+   {
+      final int mask = slots.length - 1;
+      int index = mix(System.identityHashCode(object)) & mask;
+      while (slots[index] != null)
+      {
+         if (slots[index] == object)
+         {
+            return false;
+         }
+         index = (index + 1) & mask;
+      }
+      slots[index] = object;
+      if (++size > slots.length >>> 1)
+      {
+         grow();
+      }
+      return true;
+   }
+
+   /**
+    * Provide number of members.
+    *
+    * @return Number of members.
+    */
+   int size()
+   {
+      return size;
+   }
+
+   /**
+    * Double the number of slots and reinsert every member.
+    */
+   private void grow()
+   {
+      final Object[] previous = slots;
+      slots = new Object[previous.length << 1];
+      final int mask = slots.length - 1;
+      for (final Object member : previous)
+      {
+         if (member != null)
+         {
+            int index = mix(System.identityHashCode(member)) & mask;
+            while (slots[index] != null)
+            {
+               index = (index + 1) & mask;
+            }
+            slots[index] = member;
+         }
+      }
+   }
+
+   /**
+    * Spread the bits of an identity hash code across the table.
+    *
+    * @param hash Identity hash code.
+    * @return Mixed hash.
+    */
+   private static int mix(final int hash)
+   {
+      final int mixed = hash * 0x9E3779B9;
+      return mixed ^ (mixed >>> 16);
+   }
+}
@@ -0,0 +1,282 @@
+package dustin.utilities.memory;
+
+import java.math.BigInteger;
+
+/**
+ * Representation of basic memory units.
+ *
+ * The original units ({@link #KILOBYTES} through {@link #PETABYTES}) are
+ * binary (powers of 1024, symbols "KiB", "MiB", ...); the units with the
+ * {@code _SI} suffix are decimal (powers of 1000, symbols "kB", "MB", ...).
+ *
+ * In addition to the {@code double}-returning conversions, exact
+ * {@code long} conversions are provided in the style of
+ * {@link java.util.concurrent.TimeUnit#convert(long, java.util.concurrent.TimeUnit)}:
+ * conversions to a larger unit truncate, and conversions that would
+ * overflow saturate at {@link Long#MAX_VALUE} or {@link Long#MIN_VALUE}.
+ * They use only precomputed integer ratios and do not allocate.
+ */
+public enum MemoryUnit
+{
+   /** Smallest memory unit. */
+   BYTES(1L, "B"),
+   /** "One thousand" (1024) bytes. */
+   KILOBYTES(1L << 10, "KiB"),
+   /** "One million" (1024x1024) bytes. */
+   MEGABYTES(1L << 20, "MiB"),
+   /** "One billion" (1024x1024x1024) bytes. */
+   GIGABYTES(1L << 30, "GiB"),
+   /** "One trillion" (1024 to the fourth power) bytes. */
+   TERABYTES(1L << 40, "TiB"),
+   /** "One quadrillion" (1024 to the fifth power) bytes. */
+   PETABYTES(1L << 50, "PiB"),
+   /** One thousand (1000) bytes. */
+   KILOBYTES_SI(1_000L, "kB"),
+   /** One million (1000x1000) bytes. */
+   MEGABYTES_SI(1_000_000L, "MB"),
+   /** One billion (1000x1000x1000) bytes. */
+   GIGABYTES_SI(1_000_000_000L, "GB"),
+   /** One trillion (1000 to the fourth power) bytes. */
+   TERABYTES_SI(1_000_000_000_000L, "TB"),
+   /** One quadrillion (1000 to the fifth power) bytes. */
+   PETABYTES_SI(1_000_000_000_000_000L, "PB");
+
+   /** Number of units of the row's unit (by ordinal) per unit of the column's unit, reduced numerator. */
+   private static final long[][] RATIO_NUMERATORS;
+
+   /** Number of units of the row's unit (by ordinal) per unit of the column's unit, reduced denominator. */
+   private static final long[][] RATIO_DENOMINATORS;
+
+   static
+   {
+      final MemoryUnit[] units = values();
+      RATIO_NUMERATORS = new long[units.length][units.length];
+      RATIO_DENOMINATORS = new long[units.length][units.length];
+      for (final MemoryUnit source : units)
+      {
+         for (final MemoryUnit target : units)
+         {
+            final long divisor = gcd(source.bytesPerUnit, target.bytesPerUnit);
+            RATIO_NUMERATORS[source.ordinal()][target.ordinal()] = source.bytesPerUnit / divisor;
+            RATIO_DENOMINATORS[source.ordinal()][target.ordinal()] = target.bytesPerUnit / divisor;
+         }
+      }
+   }
+
+   /** Number of bytes in one of this unit. */
+   private final long bytesPerUnit;
+
+   /** Conventional symbol for this unit. */
+   private final String symbol;
+
+   MemoryUnit(final long newBytesPerUnit, final String newSymbol)
+   {
+      this.bytesPerUnit = newBytesPerUnit;
+      this.symbol = newSymbol;
+   }
+
+   /**
+    * Provide number of bytes in one of this unit.
+    *
+    * @return Number of bytes per unit.
+    */
+   public long getBytesPerUnit()
+   {
+      return bytesPerUnit;
+   }
+
+   /**
+    * Provide conventional symbol for this unit ("B", "KiB", "MB", ...).
+    *
+    * @return Symbol for unit.
+    */
+   public String getSymbol()
+   {
+      return symbol;
+   }
+
+   /**
+    * Convert the provided amount of the provided unit to this unit,
+    * truncating any fraction of this unit and saturating at
+    * {@link Long#MAX_VALUE} or {@link Long#MIN_VALUE} on overflow. For
+    * example, {@code MemoryUnit.MEGABYTES.convert(3000L, MemoryUnit.KILOBYTES)}
+    * is {@code 2}.
+    *
+    * @param sourceAmount Amount of the source unit.
+    * @param sourceUnit Unit of the source amount.
+    * @return Amount of this unit.
+    */
+   public long convert(final long sourceAmount, final MemoryUnit sourceUnit)
+   {
+      final long numerator = RATIO_NUMERATORS[sourceUnit.ordinal()][ordinal()];
+      final long denominator = RATIO_DENOMINATORS[sourceUnit.ordinal()][ordinal()];
+      if (sourceAmount >= 0)
+      {
+         return convertNonNegative(sourceAmount, numerator, denominator);
+      }
+      final long magnitude = convertNonNegative(
+         sourceAmount == Long.MIN_VALUE ? Long.MAX_VALUE : -sourceAmount, numerator, denominator);
+      return magnitude == Long.MAX_VALUE ? Long.MIN_VALUE : -magnitude;
+   }
+
+   /**
+    * Returns the exact number of bytes corresponding to the provided
+    * number of this unit, saturating on overflow. Equivalent to
+    * {@code MemoryUnit.BYTES.convert(input, this)}.
+    *
+    * @param input Number of units of memory.
+    * @return Number of bytes.
+    */
+   public long toByteCount(final long input)
+   {
+      return BYTES.convert(input, this);
+   }
+
+   /**
+    * Returns the number of bytes corresponding to the
+    * provided input for a particular unit of memory.
+    *
+    * @param input Number of units of memory.
+    * @return Number of bytes corresponding to the provided
+    *    number of particular memory units.
+    */
+   public double toBytes(final long input)
+   {
+      return toUnit(input, BYTES);
+   }
+
+   /**
+    * Returns the number of kilobytes corresponding to the
+    * provided input for a particular unit of memory.
+    *
+    * @param input Number of units of memory.
+    * @return Number of kilobytes corresponding to the provided
+    *    number of particular memory units.
+    */
+   public double toKiloBytes(final long input)
+   {
+      return toUnit(input, KILOBYTES);
+   }
+
+   /**
+    * Returns the number of megabytes corresponding to the
+    * provided input for a particular unit of memory.
+    *
+    * @param input Number of units of memory.
+    * @return Number of megabytes corresponding to the provided
+    *    number of particular memory units.
+    */
+   public double toMegaBytes(final long input)
+   {
+      return toUnit(input, MEGABYTES);
+   }
+
+   /**
+    * Returns the number of gigabytes corresponding to the
+    * provided input for a particular unit of memory.
+    *
+    * @param input Number of units of memory.
+    * @return Number of gigabytes corresponding to the provided
+    *    number of particular memory units.
+    */
+   public double toGigaBytes(final long input)
+   {
+      return toUnit(input, GIGABYTES);
+   }
+
+   /**
+    * Returns the number of terabytes corresponding to the
+    * provided input for a particular unit of memory.
+    *
+    * @param input Number of units of memory.
+    * @return Number of terabytes corresponding to the provided
+    *    number of particular memory units.
+    */
+   public double toTeraBytes(final long input)
+   {
+      return toUnit(input, TERABYTES);
+   }
+
+   /**
+    * Returns the number of petabytes corresponding to the
+    * provided input for a particular unit of memory.
+    *
+    * @param input Number of units of memory.
+    * @return Number of petabytes corresponding to the provided
+    *    number of particular memory units.
+    */
+   public double toPetaBytes(final long input)
+   {
+      return toUnit(input, PETABYTES);
+   }
+
+   /**
+    * Returns the (possibly fractional) number of the provided unit
+    * corresponding to the provided number of this unit.
+    *
+    * @param input Number of units of memory.
+    * @param target Unit to convert to.
+    * @return Number of target units.
+    */
+   private double toUnit(final long input, final MemoryUnit target)
+   {
+      return (double) input * RATIO_NUMERATORS[ordinal()][target.ordinal()]
+         / RATIO_DENOMINATORS[ordinal()][target.ordinal()];
+   }
+
+   /**
+    * Compute {@code amount * numerator / denominator}, truncated and
+    * saturated at {@link Long#MAX_VALUE}, without intermediate overflow.
+    *
+    * @param amount Non-negative amount.
+    * @param numerator Positive ratio numerator.
+    * @param denominator Positive ratio denominator.
+    * @return Converted amount.
+    */
+   private static long convertNonNegative(final long amount, final long numerator, final long denominator)
+   {
+      if (denominator == 1)
+      {
+         return amount > Long.MAX_VALUE / numerator ? Long.MAX_VALUE : amount * numerator;
+      }
+      final long quotient = amount / denominator;
+      final long remainder = amount % denominator;
+      if (quotient > Long.MAX_VALUE / numerator)
+      {
+         return Long.MAX_VALUE;
+      }
+      final long whole = quotient * numerator;
+      final long fraction;
+      if (remainder <= Long.MAX_VALUE / numerator)
+      {
+         fraction = remainder * numerator / denominator;
+      }
+      else
+      {
+         // only reachable converting huge amounts between binary and decimal units
+         fraction = BigInteger.valueOf(remainder).multiply(BigInteger.valueOf(numerator))
+            .divide(BigInteger.valueOf(denominator)).longValue();
+      }
+      return whole > Long.MAX_VALUE - fraction ? Long.MAX_VALUE : whole + fraction;
+   }
+
+   /**
+    * Provide greatest common divisor of two positive values.
+    *
+    * @param first First value.
+    * @param second Second value.
+    * @return Greatest common divisor.
+    */
+   private static long gcd(final long first, final long second)
+   {
+      long a = first;
+      long b = second;
+      while (b != 0)
+      {
+         final long next = a % b;
+         a = b;
+         b = next;
+      }
+      return a;
+   }
+}
@@ -0,0 +1,317 @@
+package dustin.utilities.memory;
+
+/**
+ * Parses and formats human-readable memory sizes such as "512m", "1.5GiB",
+ * and "100 MB" without regular expressions, intermediate strings, or
+ * (for successful parses and appends to a sufficiently large builder)
+ * allocation.
+ *
+ * Suffixes are case-insensitive and follow the {@link MemoryUnit}
+ * symbols: a single letter ("k", "m", "g", "t", "p", as accepted by JVM
+ * options) or a letter followed by "iB" denotes a binary unit, a letter
+ * followed by "B" denotes a decimal (SI) unit, "B" or no suffix denotes
+ * bytes. At most nine fractional digits are significant.
+ */
+public final class MemoryUnitFormat
+{
+   /** Binary units in ascending size. */
+   private static final MemoryUnit[] BINARY_UNITS = {
+      MemoryUnit.BYTES, MemoryUnit.KILOBYTES, MemoryUnit.MEGABYTES,
+      MemoryUnit.GIGABYTES, MemoryUnit.TERABYTES, MemoryUnit.PETABYTES};
+
+   /** Decimal (SI) units in ascending size. */
+   private static final MemoryUnit[] DECIMAL_UNITS = {
+      MemoryUnit.BYTES, MemoryUnit.KILOBYTES_SI, MemoryUnit.MEGABYTES_SI,
+      MemoryUnit.GIGABYTES_SI, MemoryUnit.TERABYTES_SI, MemoryUnit.PETABYTES_SI};
+
+   /** Scale beyond which further fractional digits are ignored. */
+   private static final long MAXIMUM_FRACTION_SCALE = 1_000_000_000L;
+
+   private MemoryUnitFormat()
+   {
+   }
+
+   /**
+    * Parse the provided memory size into a number of bytes.
+    *
+    * @param text Memory size such as "512m", "1.5GiB", or "100 MB".
+    * @return Number of bytes (fractions of a byte are truncated).
+    * @throws NumberFormatException Thrown if the text is not a valid
+    *    memory size or the number of bytes exceeds {@link Long#MAX_VALUE}.
+    */
+   public static long parseBytes(final CharSequence text)
+   {
+      return parseBytes(text, 0, text.length());
+   }
+
+   /**
+    * Parse the memory size occupying the provided region of the provided
+    * text into a number of bytes.
+    *
+    * @param text Text holding memory size.
+    * @param start Index of first character of memory size.
+    * @param end Index following last character of memory size.
+    * @return Number of bytes (fractions of a byte are truncated).
+    * @throws NumberFormatException Thrown if the region is not a valid
+    *    memory size or the number of bytes exceeds {@link Long#MAX_VALUE}.
+    */
+   public static long parseBytes(final CharSequence text, final int start, final int end)
+   {
+      int index = skipWhitespace(text, start, end);
+      int trimmedEnd = end;
+      while (trimmedEnd > index && Character.isWhitespace(text.charAt(trimmedEnd - 1)))
+      {
+         trimmedEnd--;
+      }
+
+      long whole = 0;
+      int digitCount = 0;
+      while (index < trimmedEnd && isDigit(text.charAt(index)))
+      {
+         final int digit = text.charAt(index++) - '0';
+         if (whole > (Long.MAX_VALUE - digit) / 10)
+         {
+            throw invalid(text, start, end, "is too large");
+         }
+         whole = whole * 10 + digit;
+         digitCount++;
+      }
+      long fraction = 0;
+      long fractionScale = 1;
+      if (index < trimmedEnd && text.charAt(index) == '.')
+      {
+         index++;
+         while (index < trimmedEnd && isDigit(text.charAt(index)))
+         {
+            if (fractionScale < MAXIMUM_FRACTION_SCALE)
+            {
+               fraction = fraction * 10 + (text.charAt(index) - '0');
+               fractionScale *= 10;
+            }
+            index++;
+            digitCount++;
+         }
+      }
+      if (digitCount == 0)
+      {
+         throw invalid(text, start, end, "has no digits");
+      }
+
+      final MemoryUnit unit = parseUnit(text, skipWhitespace(text, index, trimmedEnd), trimmedEnd);
+      if (unit == null)
+      {
+         throw invalid(text, start, end, "has an unrecognized unit");
+      }
+      final long unitBytes = unit.getBytesPerUnit();
+      if (whole > Long.MAX_VALUE / unitBytes)
+      {
+         throw invalid(text, start, end, "is too large");
+      }
+      final long fractionBytes = unitBytes / fractionScale * fraction
+         + unitBytes % fractionScale * fraction / fractionScale;
+      final long bytes = whole * unitBytes;
+      if (bytes > Long.MAX_VALUE - fractionBytes)
+      {
+         throw invalid(text, start, end, "is too large");
+      }
+      return bytes + fractionBytes;
+   }
+
+   /**
+    * Format the provided number of bytes in the largest binary unit it
+    * fills, with up to two (rounded) fractional digits, such as "1.5GiB".
+    *
+    * @param bytes Number of bytes.
+    * @return Formatted memory size.
+    */
+   public static String format(final long bytes)
+   {
+      return appendBinary(bytes, new StringBuilder(16)).toString();
+   }
+
+   /**
+    * Append the provided number of bytes in the largest binary unit it
+    * fills, with up to two (rounded) fractional digits, such as "1.5GiB".
+    *
+    * @param bytes Number of bytes.
+    * @param destination Builder to which the memory size is appended.
+    * @return The provided builder.
+    */
+   public static StringBuilder appendBinary(final long bytes, final StringBuilder destination)
+   {
+      return append(bytes, BINARY_UNITS, destination);
+   }
+
+   /**
+    * Append the provided number of bytes in the largest decimal (SI) unit
+    * it fills, with up to two (rounded) fractional digits, such as "1.5GB".
+    *
+    * @param bytes Number of bytes.
+    * @param destination Builder to which the memory size is appended.
+    * @return The provided builder.
+    */
+   public static StringBuilder appendDecimal(final long bytes, final StringBuilder destination)
+   {
+      return append(bytes, DECIMAL_UNITS, destination);
+   }
+
+   /**
+    * Append the provided number of bytes in the largest of the provided
+    * units it fills.
+    *
+    * @param bytes Number of bytes.
+    * @param units Candidate units in ascending size.
+    * @param destination Builder to which the memory size is appended.
+    * @return The provided builder.
+    */
+   private static StringBuilder append(final long bytes, final MemoryUnit[] units, final StringBuilder destination)
+   {
+      if (bytes < 0)
+      {
+         destination.append('-');
+      }
+      // magnitude of Long.MIN_VALUE is treated as the unsigned value 2^63
+      final long magnitude = bytes < 0 ? -bytes : bytes;
+      int unitIndex = 0;
+      while (unitIndex + 1 < units.length
+         && Long.compareUnsigned(magnitude, units[unitIndex + 1].getBytesPerUnit()) >= 0)
+      {
+         unitIndex++;
+      }
+      final long unitBytes = units[unitIndex].getBytesPerUnit();
+      long whole = Long.divideUnsigned(magnitude, unitBytes);
+      long hundredths = (Long.remainderUnsigned(magnitude, unitBytes) * 100 + unitBytes / 2) / unitBytes;
+      if (hundredths == 100)
+      {
+         whole++;
+         hundredths = 0;
+         if (unitIndex + 1 < units.length && whole * unitBytes == units[unitIndex + 1].getBytesPerUnit())
+         {
+            unitIndex++;
+            whole = 1;
+         }
+      }
+      destination.append(whole);
+      if (hundredths != 0)
+      {
+         destination.append('.').append((char) ('0' + hundredths / 10));
+         if (hundredths % 10 != 0)
+         {
+            destination.append((char) ('0' + hundredths % 10));
+         }
+      }
+      return destination.append(units[unitIndex].getSymbol());
+   }
+
+   /**
+    * Identify the unit denoted by the provided suffix.
+    *
+    * @param text Text holding suffix.
+    * @param start Index of first character of suffix.
+    * @param end Index following last character of suffix.
+    * @return Unit or {@code null} if the suffix is not recognized.
+    */
+   private static MemoryUnit parseUnit(final CharSequence text, final int start, final int end)
+   {
+      final int length = end - start;
+      if (length == 0)
+      {
+         return MemoryUnit.BYTES;
+      }
+      final char prefix = toLowerCase(text.charAt(start));
+      if (length == 1 && prefix == 'b')
+      {
+         return MemoryUnit.BYTES;
+      }
+      final int power;
+      switch (prefix)
+      {
+         case 'k':
+            power = 1;
+            break;
+         case 'm':
+            power = 2;
+            break;
+         case 'g':
+            power = 3;
+            break;
+         case 't':
+            power = 4;
+            break;
+         case 'p':
+            power = 5;
+            break;
+         default:
+            return null;
+      }
+      if (length == 1)
+      {
+         return BINARY_UNITS[power];
+      }
+      if (length == 2 && toLowerCase(text.charAt(start + 1)) == 'b')
+      {
+         return DECIMAL_UNITS[power];
+      }
+      if (length == 3 && toLowerCase(text.charAt(start + 1)) == 'i' && toLowerCase(text.charAt(start + 2)) == 'b')
+      {
+         return BINARY_UNITS[power];
+      }
+      return null;
+   }
+
+   /**
+    * Provide index of first non-whitespace character at or after the
+    * provided index.
+    *
+    * @param text Text to be examined.
+    * @param start Index at which to begin.
+    * @param end Index at which to stop.
+    * @return Index of first non-whitespace character or {@code end}.
+    */
+   private static int skipWhitespace(final CharSequence text, final int start, final int end)
+   {
+      int index = start;
+      while (index < end && Character.isWhitespace(text.charAt(index)))
+      {
+         index++;
+      }
+      return index;
+   }
+
+   /**
+    * Indicates whether the provided character is an ASCII digit.
+    *
+    * @param character Character to be examined.
+    * @return {@code true} if character is '0' through '9'.
+    */
+   private static boolean isDigit(final char character)
+   {
+      return character >= '0' && character <= '9';
+   }
+
+   /**
+    * Provide lowercase equivalent of an ASCII letter.
+    *
+    * @param character Character to be converted.
+    * @return Lowercase letter or the character unchanged.
+    */
+   private static char toLowerCase(final char character)
+   {
+      return character >= 'A' && character <= 'Z' ? (char) (character + ('a' - 'A')) : character;
+   }
+
+   /**
+    * Create exception describing invalid memory size.
+    *
+    * @param text Text holding memory size.
+    * @param start Index of first character of memory size.
+    * @param end Index following last character of memory size.
+    * @param problem Description of problem.
+    * @return Exception to be thrown.
+    */
+   private static NumberFormatException invalid(
+      final CharSequence text, final int start, final int end, final String problem)
+   {
+      return new NumberFormatException("Memory size '" + text.subSequence(start, end) + "' " + problem);
+   }
+}
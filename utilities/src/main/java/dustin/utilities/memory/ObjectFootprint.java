@@ -0,0 +1,101 @@
+package dustin.utilities.memory;
+
+/**
+ * Memory footprint of an object graph measured by
+ * {@link ObjectFootprintEstimator}.
+ */
+public final class ObjectFootprint
+{
+   /** Size in bytes of the root object(s) alone. */
+   private final long shallowBytes;
+
+   /** Size in bytes of every object reachable from the root(s). */
+   private final long deepBytes;
+
+   /** Number of objects reachable from the root(s). */
+   private final long objectCount;
+
+   /** Number of reference fields encountered that could not be read. */
+   private final long inaccessibleFieldCount;
+
+   /**
+    * Constructor accepting measurements.
+    *
+    * @param newShallowBytes Size of the root object(s) alone.
+    * @param newDeepBytes Size of every object reachable from the root(s).
+    * @param newObjectCount Number of objects reachable from the root(s).
+    * @param newInaccessibleFieldCount Number of unreadable reference fields.
+    */
+   ObjectFootprint(
+      final long newShallowBytes, final long newDeepBytes,
+      final long newObjectCount, final long newInaccessibleFieldCount)
+   {
+      this.shallowBytes = newShallowBytes;
+      this.deepBytes = newDeepBytes;
+      this.objectCount = newObjectCount;
+      this.inaccessibleFieldCount = newInaccessibleFieldCount;
+   }
+
+   /**
+    * Provide size of the root object(s) alone, excluding everything they
+    * reference.
+    *
+    * @param unit Unit in which size is expressed.
+    * @return Shallow size (truncated to whole units).
+    */
+   public long getShallowSize(final MemoryUnit unit)
+   {
+      return unit.convert(shallowBytes, MemoryUnit.BYTES);
+   }
+
+   /**
+    * Provide size of every object reachable from the root(s), each
+    * counted once, excluding shared objects skipped by the estimator.
+    * This is the memory that would be retained by the root(s) if nothing
+    * else referenced the objects they reach.
+    *
+    * @param unit Unit in which size is expressed.
+    * @return Deep size (truncated to whole units).
+    */
+   public long getDeepSize(final MemoryUnit unit)
+   {
+      return unit.convert(deepBytes, MemoryUnit.BYTES);
+   }
+
+   /**
+    * Provide number of objects reachable from the root(s).
+    *
+    * @return Number of objects.
+    */
+   public long getObjectCount()
+   {
+      return objectCount;
+   }
+
+   /**
+    * Provide number of reference fields that could not be read (because
+    * their module is not open to this one), so that the objects they
+    * reference are missing from the deep size. Zero when the estimator
+    * can read fields directly.
+    *
+    * @return Number of unreadable reference fields encountered.
+    */
+   public long getInaccessibleFieldCount()
+   {
+      return inaccessibleFieldCount;
+   }
+
+   @Override
+   public String toString()
+   {
+      final StringBuilder description = new StringBuilder(64).append("shallow ");
+      MemoryUnitFormat.appendBinary(shallowBytes, description).append(", deep ");
+      MemoryUnitFormat.appendBinary(deepBytes, description)
+         .append(" (").append(objectCount).append(" objects");
+      if (inaccessibleFieldCount > 0)
+      {
+         description.append(", ").append(inaccessibleFieldCount).append(" unreadable fields");
+      }
+      return description.append(')').toString();
+   }
+}
@@ -0,0 +1,193 @@
+package dustin.utilities.memory;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Estimates the memory footprint of objects and of the object graphs
+ * reachable from them, such as the true cost of a cache entry.
+ *
+ * Instance sizes come from the JVM's actual field layout when available
+ * (see {@link ClassLayout}), accounting for object headers, compressed
+ * references, array headers, and object alignment; class layouts are
+ * computed once per class and cached. Graphs are walked iteratively with
+ * an explicit stack, and visited objects are tracked in an identity set
+ * costing about two references per object, so cycles are handled and
+ * graphs of millions of objects do not exhaust the call stack.
+ *
+ * Objects that are normally shared rather than owned (by default
+ * {@link Class} objects, enum constants, class loaders, and threads)
+ * are neither counted nor traversed; static fields are never traversed.
+ *
+ * Measurement is not atomic with respect to other threads modifying the
+ * graph. Instances may be shared between threads.
+ */
+public final class ObjectFootprintEstimator
+{
+   /** Layout of each class, computed on first use. */
+   private static final ClassValue<ClassLayout> LAYOUTS = new ClassValue<ClassLayout>()
+   {
+      @Override
+      protected ClassLayout computeValue(final Class<?> type)
+      {
+         return ClassLayout.of(type);
+      }
+   };
+
+   /** Objects excluded from measurement. */
+   private final Predicate<Object> excluded;
+
+   /**
+    * Constructor excluding {@link Class} objects, enum constants, class
+    * loaders, and threads.
+    */
+   public ObjectFootprintEstimator()
+   {
+      this(ObjectFootprintEstimator::isSharedByDefault);
+   }
+
+   /**
+    * Constructor accepting predicate identifying objects that are neither
+    * counted nor traversed (for example, objects known to be shared
+    * between cache entries).
+    *
+    * @param newExcluded Predicate identifying excluded objects.
+    */
+   public ObjectFootprintEstimator(final Predicate<Object> newExcluded)
+   {
+      this.excluded = newExcluded;
+   }
+
+   /**
+    * Provide size of the provided object alone.
+    *
+    * @param object Object to be measured (not {@code null}).
+    * @param unit Unit in which size is expressed.
+    * @return Shallow size (truncated to whole units).
+    */
+   public long shallowSizeOf(final Object object, final MemoryUnit unit)
+   {
+      return unit.convert(LAYOUTS.get(object.getClass()).sizeOf(object), MemoryUnit.BYTES);
+   }
+
+   /**
+    * Measure the provided object and every object reachable from it.
+    *
+    * @param root Object to be measured.
+    * @return Footprint of object graph (empty if root is {@code null} or
+    *    excluded).
+    */
+   public ObjectFootprint measure(final Object root)
+   {
+      return measureAll(root == null ? new Object[0] : new Object[] {root});
+   }
+
+   /**
+    * Measure the provided objects and every object reachable from them,
+    * counting objects shared between them once.
+    *
+    * @param roots Objects to be measured.
+    * @return Footprint of combined object graph.
+    */
+   public ObjectFootprint measureAll(final Object... roots)
+   {
+      final Traversal traversal = new Traversal();
+      long shallowBytes = 0;
+      for (final Object root : roots)
+      {
+         if (root != null && traversal.push(root))
+         {
+            shallowBytes += LAYOUTS.get(root.getClass()).sizeOf(root);
+         }
+      }
+      traversal.run();
+      return new ObjectFootprint(
+         shallowBytes, traversal.deepBytes, traversal.visited.size(), traversal.inaccessibleFieldCount);
+   }
+
+   /**
+    * Indicates whether the provided object is excluded by default:
+    * {@link Class} objects, enum constants, class loaders, and threads.
+    *
+    * @param object Object to be examined.
+    * @return {@code true} if object is normally shared rather than owned.
+    */
+   public static boolean isSharedByDefault(final Object object)
+   {
+      return object instanceof Class
+         || object instanceof Enum
+         || object instanceof ClassLoader
+         || object instanceof Thread;
+   }
+
+   /**
+    * State of a single measurement.
+    */
+   private final class Traversal implements Consumer<Object>
+   {
+      /** Objects already counted. */
+      private final IdentitySet visited = new IdentitySet();
+
+      /** Objects counted but whose references are not yet examined. */
+      private final ArrayDeque<Object> pending = new ArrayDeque<>();
+
+      /** Bytes counted. */
+      private long deepBytes;
+
+      /** Reference fields that could not be read. */
+      private long inaccessibleFieldCount;
+
+      /**
+       * Count the provided object and schedule its references unless it
+       * is excluded or already counted.
+       *
+       * @param object Object reached.
+       * @return {@code true} if the object was newly counted.
+       */
+      private boolean push(final Object object)
+      {
+         if (excluded.test(object) || !visited.add(object))
+         {
+            return false;
+         }
+         final ClassLayout layout = LAYOUTS.get(object.getClass());
+         deepBytes += layout.sizeOf(object);
+         inaccessibleFieldCount += layout.getInaccessibleFieldCount();
+         pending.push(object);
+         return true;
+      }
+
+      @Override
+      public void accept(final Object referenced)
+      {
+         push(referenced);
+      }
+
+      /**
+       * Examine the references of scheduled objects until none remain.
+       */
+      private void run()
+      {
+         while (!pending.isEmpty())
+         {
+            final Object object = pending.pop();
+            final ClassLayout layout = LAYOUTS.get(object.getClass());
+            if (layout.isReferenceArray())
+            {
+               for (final Object element : (Object[]) object)
+               {
+                  if (element != null)
+                  {
+                     push(element);
+                  }
+               }
+            }
+            else
+            {
+               layout.forEachReference(object, this);
+            }
+         }
+      }
+   }
+}
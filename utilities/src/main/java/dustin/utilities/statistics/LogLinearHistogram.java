@@ -0,0 +1,184 @@
+package dustin.utilities.statistics;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of non-negative {@code long} values using log-linear buckets
+ * in the style of HdrHistogram: values are grouped by power of two and
+ * each power of two is divided into a fixed number of linear sub-buckets,
+ * so every recorded value is represented within a bounded relative error
+ * (about 3% with the default 32 sub-buckets) across the whole range of
+ * {@code long}.
+ *
+ * All counts are held in a single preallocated array, so recording a
+ * value never allocates. Not thread-safe; callers must synchronize
+ * externally.
+ */
+public final class LogLinearHistogram
+{
+   /** Default number of bits of sub-bucket precision (32 sub-buckets). */
+   public static final int DEFAULT_PRECISION_BITS = 5;
+
+   /** Bits of sub-bucket precision. */
+   private final int precisionBits;
+
+   /** Counts indexed by bucket. */
+   private final long[] counts;
+
+   /** Number of recorded values. */
+   private long totalCount;
+
+   /** Largest recorded value. */
+   private long maximum;
+
+   /**
+    * Constructor using {@link #DEFAULT_PRECISION_BITS}.
+    */
+   public LogLinearHistogram()
+   {
+      this(DEFAULT_PRECISION_BITS);
+   }
+
+   /**
+    * Constructor accepting precision.
+    *
+    * @param newPrecisionBits Bits of sub-bucket precision (1 to 16);
+    *    relative error is about {@code 1 / 2^newPrecisionBits}.
+    */
+   public LogLinearHistogram(final int newPrecisionBits)
+   {
+      if (newPrecisionBits < 1 || newPrecisionBits > 16)
+      {
+         throw new IllegalArgumentException("Precision bits must be between 1 and 16; " + newPrecisionBits + " requested.");
+      }
+      this.precisionBits = newPrecisionBits;
+      this.counts = new long[(64 - newPrecisionBits + 1) << newPrecisionBits];
+   }
+
+   /**
+    * Record a single value.
+    *
+    * @param value Value to be recorded (negative values are recorded as zero).
+    */
+   public void record(final long value)
+   {
+      final long recorded = Math.max(0, value);
+      counts[bucketOf(recorded)]++;
+      totalCount++;
+      maximum = Math.max(maximum, recorded);
+   }
+
+   /**
+    * Provide number of recorded values.
+    *
+    * @return Number of recorded values.
+    */
+   public long getCount()
+   {
+      return totalCount;
+   }
+
+   /**
+    * Provide largest recorded value (exact, not bucketed).
+    *
+    * @return Largest recorded value or zero if none has been recorded.
+    */
+   public long getMaximum()
+   {
+      return maximum;
+   }
+
+   /**
+    * Provide value at the provided percentile, reported as the highest
+    * value represented by the bucket in which the percentile falls (but
+    * never more than the maximum recorded value).
+    *
+    * @param percentile Percentile between 0 and 100 (such as 99.9).
+    * @return Value at the percentile or zero if none has been recorded.
+    */
+   public long getValueAtPercentile(final double percentile)
+   {
+      if (totalCount == 0)
+      {
+         return 0;
+      }
+      final double bounded = Math.min(Math.max(percentile, 0.0), 100.0);
+      final long rank = Math.max(1, (long) Math.ceil(bounded / 100.0 * totalCount));
+      long seen = 0;
+      for (int bucket = 0; bucket < counts.length; bucket++)
+      {
+         seen += counts[bucket];
+         if (seen >= rank)
+         {
+            return Math.min(highestValueOf(bucket), maximum);
+         }
+      }
+      return maximum;
+   }
+
+   /**
+    * Add every value recorded in the provided histogram to this one.
+    *
+    * @param other Histogram with the same precision.
+    */
+   public void add(final LogLinearHistogram other)
+   {
+      if (other.precisionBits != precisionBits)
+      {
+         throw new IllegalArgumentException("Histograms must have the same precision to be added.");
+      }
+      for (int bucket = 0; bucket < counts.length; bucket++)
+      {
+         counts[bucket] += other.counts[bucket];
+      }
+      totalCount += other.totalCount;
+      maximum = Math.max(maximum, other.maximum);
+   }
+
+   /**
+    * Discard all recorded values.
+    */
+   public void reset()
+   {
+      Arrays.fill(counts, 0);
+      totalCount = 0;
+      maximum = 0;
+   }
+
+   /**
+    * Provide bucket of the provided value.
+    *
+    * @param value Non-negative value.
+    * @return Bucket index.
+    */
+   private int bucketOf(final long value)
+   {
+      final int magnitude = 63 - Long.numberOfLeadingZeros(value);
+      if (magnitude < precisionBits)
+      {
+         return (int) value;
+      }
+      final int shift = magnitude - precisionBits;
+      final int subBucket = (int) ((value >>> shift) & ((1 << precisionBits) - 1));
+      return ((shift + 1) << precisionBits) + subBucket;
+   }
+
+   /**
+    * Provide highest value represented by the provided bucket.
+    *
+    * @param bucket Bucket index.
+    * @return Highest value mapping to the bucket.
+    */
+   private long highestValueOf(final int bucket)
+   {
+      final int group = bucket >>> precisionBits;
+      if (group == 0)
+      {
+         return bucket;
+      }
+      final int shift = group - 1;
+      final long subBucket = bucket & ((1 << precisionBits) - 1);
+      final long lowest = ((1L << precisionBits) | subBucket) << shift;
+      return lowest + ((1L << shift) - 1);
+   }
+}